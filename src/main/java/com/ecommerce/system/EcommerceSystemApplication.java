@@ -2,8 +2,11 @@ package com.ecommerce.system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// O R2DBC da API reativa é configurado à parte (BancoReativo): um ConnectionFactory
+// automático desligaria o DataSource JDBC
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class EcommerceSystemApplication {
 
 	public static void main(String[] args) {
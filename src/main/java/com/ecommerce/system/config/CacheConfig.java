@@ -0,0 +1,38 @@
+package com.ecommerce.system.config;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuração do cache de leitura (Caffeine, com tamanho e expiração definidos em
+ * {@code spring.cache.caffeine.spec}).
+ * <p>
+ * O interceptor de cache roda por fora do transacional: um acerto não abre transação nem
+ * pede conexão ao pool, e a remoção feita por um método transacional acontece depois do
+ * commit. Como a remoção de uma chave que está sendo carregada espera o fim da carga, uma
+ * leitura concorrente com a transição não deixa o valor antigo no cache.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    
+    /** Cache de {@code PedidoResponseDTO} por ID do pedido. */
+    public static final String CACHE_PEDIDOS = "pedidos";
+    
+    /** Nome do cache de cotações do {@link RegistroFrete} nas métricas. */
+    public static final String CACHE_FRETES = "fretes";
+    
+    /**
+     * Publica as métricas das cotações de frete memorizadas ({@code cache.gets}, {@code cache.evictions}...),
+     * como as dos caches do Spring. O cache fica no registro de fretes, fora do {@code CacheManager}.
+     */
+    @Bean
+    public MeterBinder metricasCacheFretes(RegistroFrete registroFrete) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, registroFrete.getCacheCotacoes(), CACHE_FRETES);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.system.config;
+
+import com.ecommerce.system.service.DestinoEventosArquivo;
+import com.ecommerce.system.service.DestinoEventosMemoria;
+import com.ecommerce.system.service.DestinoEventosPedido;
+import com.ecommerce.system.service.HistoricoPedidos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Destino dos eventos do outbox de pedidos, escolhido por {@code pedido.outbox.destino}
+ * ({@code memoria}, {@code arquivo} ou {@code log}). Com qualquer outro valor, nenhum destes é criado e a
+ * aplicação declara o seu próprio bean {@link DestinoEventosPedido}.
+ */
+@Configuration
+public class OutboxConfig {
+    
+    @Bean
+    @ConditionalOnProperty(name = "pedido.outbox.destino", havingValue = "arquivo")
+    public DestinoEventosPedido destinoEventosArquivo(ObjectMapper objectMapper,
+                                                      @Value("${pedido.outbox.arquivo}") Path arquivo) {
+        return new DestinoEventosArquivo(objectMapper, arquivo);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "pedido.outbox.destino", havingValue = "log")
+    public HistoricoPedidos historicoPedidos(@Value("${pedido.eventos.diretorio}") Path diretorio,
+                                             @Value("${pedido.eventos.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+                                             @Value("${pedido.eventos.snapshot-a-cada:100000}") long snapshotACada) {
+        return new HistoricoPedidos(diretorio, Math.toIntExact(tamanhoSegmento.toBytes()), snapshotACada);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "pedido.outbox.destino", havingValue = "memoria", matchIfMissing = true)
+    public DestinoEventosPedido destinoEventosMemoria(@Value("${pedido.outbox.memoria.capacidade:10000}") int capacidade) {
+        return new DestinoEventosMemoria(capacidade);
+    }
+}
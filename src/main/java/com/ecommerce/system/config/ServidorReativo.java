@@ -0,0 +1,82 @@
+package com.ecommerce.system.config;
+
+import com.ecommerce.system.controller.PedidoReativoHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Netty da API reativa, habilitado por {@code pedido.reativo.enabled=true}.
+ * <p>
+ * A aplicação continua sendo servlet (Tomcat) na porta principal; as rotas do
+ * {@link PedidoReativoHandler} são servidas em {@code pedido.reativo.porta}, em event loops
+ * do Reactor Netty, sem thread por requisição. O JSON usa o mesmo {@link ObjectMapper} da API servlet.
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.reativo.enabled", havingValue = "true")
+public class ServidorReativo implements SmartLifecycle {
+    
+    private static final Logger log = LoggerFactory.getLogger(ServidorReativo.class);
+    
+    private final PedidoReativoHandler pedidoReativoHandler;
+    private final ObjectMapper objectMapper;
+    private final int porta;
+    
+    private volatile DisposableServer servidor;
+    
+    public ServidorReativo(PedidoReativoHandler pedidoReativoHandler, ObjectMapper objectMapper,
+                           @Value("${pedido.reativo.porta:8081}") int porta) {
+        this.pedidoReativoHandler = pedidoReativoHandler;
+        this.objectMapper = objectMapper;
+        this.porta = porta;
+    }
+    
+    @Override
+    public void start() {
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(pedidoReativoHandler.rotas(), estrategias);
+        servidor = HttpServer.create()
+                .port(porta)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("API reativa de pedidos na porta {}", servidor.port());
+    }
+    
+    @Override
+    public void stop() {
+        DisposableServer atual = servidor;
+        if (atual != null) {
+            atual.disposeNow();
+            servidor = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return servidor != null;
+    }
+    
+    /**
+     * @return Porta em que o servidor está escutando (útil com {@code pedido.reativo.porta=0})
+     */
+    public int getPorta() {
+        return servidor.port();
+    }
+}
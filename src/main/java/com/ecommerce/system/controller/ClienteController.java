@@ -0,0 +1,40 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.PaginaDTO;
+import com.ecommerce.system.dto.ResumoPedidoDTO;
+import com.ecommerce.system.service.PedidoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/clientes")
+@Tag(name = "Clientes", description = "API de consulta dos clientes")
+public class ClienteController {
+    
+    @Autowired
+    private PedidoService pedidoService;
+    
+    @GetMapping("/{id}/pedidos")
+    @Operation(summary = "Histórico de pedidos do cliente", description = "Retorna o resumo (sem itens) dos pedidos do cliente, do mais recente para o mais antigo, paginados por cursor")
+    public ResponseEntity<PaginaDTO<ResumoPedidoDTO>> listarPedidos(
+            @Parameter(description = "ID do cliente") @PathVariable Long id,
+            @Parameter(description = "Filtrar por status") @RequestParam(required = false) String status,
+            @Parameter(description = "Cursor retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Pedidos por página (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            PaginaDTO<ResumoPedidoDTO> pagina = pedidoService.listarPorCliente(id,
+                    status == null ? null : StatusPedido.valueOf(status), cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Endpoint de gerenciamento {@code /actuator/fretes}: lista os tipos de frete em uso e,
+ * com POST, recarrega as tabelas (inclusive as de {@code frete.tabelas.adicionais}) sem reiniciar.
+ */
+@Component
+@Endpoint(id = "fretes")
+public class FretesEndpoint {
+    
+    private final RegistroFrete registroFrete;
+    
+    public FretesEndpoint(RegistroFrete registroFrete) {
+        this.registroFrete = registroFrete;
+    }
+    
+    /**
+     * @return Descrição de cada tipo de frete em uso
+     */
+    @ReadOperation
+    public Map<String, String> tipos() {
+        return registroFrete.getIndice().descricoes();
+    }
+    
+    /**
+     * Recarrega as tabelas de frete. Tabelas inválidas são rejeitadas com 400 e as atuais continuam em uso.
+     * @return Descrição de cada tipo de frete depois da recarga
+     */
+    @WriteOperation
+    public Map<String, String> recarregar() {
+        try {
+            return registroFrete.recarregar().descricoes();
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
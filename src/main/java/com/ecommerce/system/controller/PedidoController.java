@@ -1,23 +1,38 @@
 package com.ecommerce.system.controller;
 
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.CotacaoFreteDTO;
 import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.EstatisticasPedidosDTO;
+import com.ecommerce.system.dto.LoteCotacoesFreteDTO;
+import com.ecommerce.system.dto.LotePedidosResponseDTO;
+import com.ecommerce.system.dto.LoteTransicoesResponseDTO;
+import com.ecommerce.system.dto.PaginaDTO;
 import com.ecommerce.system.dto.PedidoResponseDTO;
-import com.ecommerce.system.factory.FreteStrategyFactory;
+import com.ecommerce.system.dto.SolicitacaoCotacaoFreteDTO;
+import com.ecommerce.system.factory.IndiceTiposFrete;
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.service.CotacaoFreteService;
+import com.ecommerce.system.service.ExportacaoPedidoService;
+import com.ecommerce.system.service.PainelVendas;
 import com.ecommerce.system.service.PedidoService;
-import com.ecommerce.system.strategy.FreteCalculator;
+import com.ecommerce.system.state.OperacaoPedido;
 import com.ecommerce.system.strategy.FreteStrategy;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -28,6 +43,18 @@ public class PedidoController {
     @Autowired
     private PedidoService pedidoService;
     
+    @Autowired
+    private ExportacaoPedidoService exportacaoPedidoService;
+    
+    @Autowired
+    private CotacaoFreteService cotacaoFreteService;
+    
+    @Autowired
+    private RegistroFrete registroFrete;
+    
+    @Autowired
+    private PainelVendas painelVendas;
+    
     @PostMapping
     @Operation(summary = "Criar novo pedido", description = "Cria um novo pedido com os itens especificados")
     public ResponseEntity<PedidoResponseDTO> criarPedido(@Valid @RequestBody CriarPedidoDTO criarPedidoDTO) {
@@ -39,6 +66,17 @@ public class PedidoController {
         }
     }
     
+    @PostMapping("/lote")
+    @Operation(summary = "Criar pedidos em lote", description = "Cria vários pedidos em uma única chamada (máximo 1000), com resultado individual por pedido")
+    public ResponseEntity<LotePedidosResponseDTO> criarPedidosEmLote(@RequestBody List<CriarPedidoDTO> pedidos) {
+        try {
+            LotePedidosResponseDTO lote = pedidoService.criarPedidosEmLote(pedidos);
+            return ResponseEntity.ok(lote);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Buscar pedido por ID", description = "Retorna os detalhes de um pedido específico")
     public ResponseEntity<PedidoResponseDTO> buscarPorId(
@@ -52,10 +90,49 @@ public class PedidoController {
     }
     
     @GetMapping
-    @Operation(summary = "Listar todos os pedidos", description = "Retorna uma lista com todos os pedidos")
-    public ResponseEntity<List<PedidoResponseDTO>> listarTodos() {
-        List<PedidoResponseDTO> pedidos = pedidoService.listarTodos();
-        return ResponseEntity.ok(pedidos);
+    @Operation(summary = "Listar pedidos", description = "Retorna os pedidos do mais recente para o mais antigo, paginados por cursor")
+    public ResponseEntity<PaginaDTO<PedidoResponseDTO>> listar(
+            @Parameter(description = "Filtrar por status") @RequestParam(required = false) String status,
+            @Parameter(description = "Filtrar por ID do cliente") @RequestParam(required = false) Long clienteId,
+            @Parameter(description = "Cursor retornado na página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Pedidos por página (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            PaginaDTO<PedidoResponseDTO> pagina = pedidoService.listar(status == null ? null : StatusPedido.valueOf(status),
+                    clienteId, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar pedidos", description = "Exporta todos os pedidos em streaming, em NDJSON (um pedido por linha) ou CSV (um item por linha)")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato da exportação (ndjson ou csv)") @RequestParam(defaultValue = "ndjson") String formato) {
+        ExportacaoPedidoService.Formato formatoExportacao;
+        try {
+            formatoExportacao = ExportacaoPedidoService.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody corpo = saida -> exportacaoPedidoService.exportar(formatoExportacao, saida);
+        return ResponseEntity.ok()
+                .contentType(formatoExportacao.getContentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=pedidos." + formatoExportacao.getExtensao())
+                .body(corpo);
+    }
+    
+    @GetMapping("/estatisticas")
+    @Operation(summary = "Estatísticas de vendas", description = "Pedidos, valor e frete por status, por tipo de frete e por minuto e hora de criação, mantidos em memória")
+    public ResponseEntity<EstatisticasPedidosDTO> estatisticas(
+            @Parameter(description = "Últimos minutos a listar (0 a 1440)") @RequestParam(defaultValue = "60") int minutos,
+            @Parameter(description = "Últimas horas a listar (0 a 720)") @RequestParam(defaultValue = "24") int horas) {
+        try {
+            return ResponseEntity.ok(painelVendas.consultar(minutos, horas));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/{id}/pagar")
@@ -94,47 +171,58 @@ public class PedidoController {
         }
     }
     
+    @PostMapping("/lote/{operacao}")
+    @Operation(summary = "Transicionar pedidos em lote", description = "Paga, cancela ou envia vários pedidos em uma única chamada (máximo 10000), com resultado individual por pedido")
+    public ResponseEntity<LoteTransicoesResponseDTO> transicionarEmLote(
+            @Parameter(description = "Operação (pagar, cancelar ou enviar)") @PathVariable String operacao,
+            @RequestBody List<Long> ids) {
+        try {
+            OperacaoPedido operacaoPedido = OperacaoPedido.valueOf(operacao.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(pedidoService.transicionarEmLote(operacaoPedido, ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/frete/calcular")
     @Operation(summary = "Calcular frete", description = "Calcula o valor do frete para um pedido")
-    public ResponseEntity<Map<String, Object>> calcularFrete(
+    public ResponseEntity<CotacaoFreteDTO> calcularFrete(
             @Parameter(description = "Valor do pedido") @RequestParam BigDecimal valorPedido,
-            @Parameter(description = "Tipo de frete (TERRESTRE ou AEREO)") @RequestParam String tipoFrete) {
+            @Parameter(description = "Tipo de frete (TERRESTRE ou AEREO)") @RequestParam String tipoFrete,
+            @Parameter(description = "CEP de destino (opcional)") @RequestParam(required = false) String cep,
+            @Parameter(description = "Peso total em gramas (opcional)") @RequestParam(defaultValue = "0") int pesoGramas) {
         try {
-            if (!FreteStrategyFactory.isTipoFreteSuportado(tipoFrete)) {
+            FreteStrategy strategy = registroFrete.getIndice().buscar(tipoFrete);
+            if (strategy == null) {
                 return ResponseEntity.badRequest().build();
             }
             
-            FreteStrategy strategy = FreteStrategyFactory.criarFreteStrategy(tipoFrete);
-            FreteCalculator calculator = new FreteCalculator(strategy);
-            BigDecimal valorFrete = calculator.calcularFrete(valorPedido);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("valorPedido", valorPedido);
-            response.put("tipoFrete", tipoFrete);
-            response.put("valorFrete", valorFrete);
-            response.put("descricao", strategy.getDescricao());
-            response.put("valorTotal", valorPedido.add(valorFrete));
-            
-            return ResponseEntity.ok(response);
+            BigDecimal valorFrete = strategy.calcularFrete(valorPedido, cep, pesoGramas);
+            return ResponseEntity.ok(new CotacaoFreteDTO(valorPedido, tipoFrete, valorFrete, strategy.getDescricao()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    @PostMapping("/frete/lote")
+    @Operation(summary = "Calcular frete em lote", description = "Cota várias combinações de valor, tipo de frete e destino em uma única chamada (máximo 10000); sem tipo de frete, cota todos os tipos")
+    public ResponseEntity<LoteCotacoesFreteDTO> calcularFreteEmLote(@RequestBody List<SolicitacaoCotacaoFreteDTO> solicitacoes) {
+        try {
+            return ResponseEntity.ok(cotacaoFreteService.cotarEmLote(solicitacoes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/frete/tipos")
     @Operation(summary = "Listar tipos de frete", description = "Retorna os tipos de frete disponíveis")
     public ResponseEntity<Map<String, Object>> listarTiposFrete() {
-        String[] tipos = FreteStrategyFactory.getTiposFreteDisponiveis();
+        // Tipos e descrições já montados no índice; nenhuma estratégia é criada por requisição
+        IndiceTiposFrete indice = registroFrete.getIndice();
         
         Map<String, Object> response = new HashMap<>();
-        response.put("tiposDisponiveis", tipos);
-        
-        Map<String, String> descricoes = new HashMap<>();
-        for (String tipo : tipos) {
-            FreteStrategy strategy = FreteStrategyFactory.criarFreteStrategy(tipo);
-            descricoes.put(tipo, strategy.getDescricao());
-        }
-        response.put("descricoes", descricoes);
+        response.put("tiposDisponiveis", indice.tipos());
+        response.put("descricoes", indice.descricoes());
         
         return ResponseEntity.ok(response);
     }
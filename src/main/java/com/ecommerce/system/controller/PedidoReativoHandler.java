@@ -0,0 +1,117 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.service.PedidoReativoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Endpoints WebFlux da API reativa de pedidos, com os mesmos caminhos e códigos de resposta
+ * do {@link PedidoController}, mais {@code GET /api/pedidos/stream} (NDJSON com contrapressão).
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.reativo.enabled", havingValue = "true")
+public class PedidoReativoHandler {
+    
+    // Demanda repassada ao banco por vez ao transmitir; o restante é solicitado conforme o cliente consome
+    private static final int DEMANDA_TRANSMISSAO = 256;
+    
+    private final PedidoReativoService pedidoReativoService;
+    
+    public PedidoReativoHandler(PedidoReativoService pedidoReativoService) {
+        this.pedidoReativoService = pedidoReativoService;
+    }
+    
+    /**
+     * @return Rotas da API reativa
+     */
+    public RouterFunction<ServerResponse> rotas() {
+        return RouterFunctions.route()
+                .POST("/api/pedidos", this::criarPedido)
+                .GET("/api/pedidos/stream", this::transmitir)
+                .GET("/api/pedidos/{id}", this::buscarPorId)
+                .GET("/api/pedidos", this::listar)
+                .PUT("/api/pedidos/{id}/pagar", transicao(pedidoReativoService::pagarPedido))
+                .PUT("/api/pedidos/{id}/cancelar", transicao(pedidoReativoService::cancelarPedido))
+                .PUT("/api/pedidos/{id}/enviar", transicao(pedidoReativoService::enviarPedido))
+                .build();
+    }
+    
+    private Mono<ServerResponse> criarPedido(ServerRequest requisicao) {
+        return requisicao.bodyToMono(CriarPedidoDTO.class)
+                .flatMap(pedidoReativoService::criarPedido)
+                .flatMap(pedido -> ServerResponse.status(HttpStatus.CREATED).bodyValue(pedido))
+                .onErrorResume(RuntimeException.class, e -> ServerResponse.badRequest().build());
+    }
+    
+    private Mono<ServerResponse> buscarPorId(ServerRequest requisicao) {
+        Long id = id(requisicao);
+        if (id == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return pedidoReativoService.buscarPorId(id)
+                .flatMap(pedido -> ServerResponse.ok().bodyValue(pedido))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    private Mono<ServerResponse> listar(ServerRequest requisicao) {
+        try {
+            StatusPedido status = requisicao.queryParam("status").map(StatusPedido::valueOf).orElse(null);
+            Long clienteId = requisicao.queryParam("clienteId").map(Long::valueOf).orElse(null);
+            String cursor = requisicao.queryParam("cursor").orElse(null);
+            int tamanho = requisicao.queryParam("tamanho").map(Integer::parseInt).orElse(20);
+            return pedidoReativoService.listar(status, clienteId, cursor, tamanho)
+                    .flatMap(pagina -> ServerResponse.ok().bodyValue(pagina))
+                    .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().build());
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+    }
+    
+    private Mono<ServerResponse> transmitir(ServerRequest requisicao) {
+        StatusPedido status;
+        Long clienteId;
+        try {
+            status = requisicao.queryParam("status").map(StatusPedido::valueOf).orElse(null);
+            clienteId = requisicao.queryParam("clienteId").map(Long::valueOf).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(pedidoReativoService.transmitir(status, clienteId)
+                        .limitRate(DEMANDA_TRANSMISSAO), PedidoResponseDTO.class);
+    }
+    
+    private HandlerFunction<ServerResponse> transicao(Function<Long, Mono<PedidoResponseDTO>> operacao) {
+        return requisicao -> {
+            Long id = id(requisicao);
+            if (id == null) {
+                return ServerResponse.badRequest().build();
+            }
+            return operacao.apply(id)
+                    .flatMap(pedido -> ServerResponse.ok().bodyValue(pedido))
+                    .onErrorResume(RuntimeException.class, e -> ServerResponse.badRequest().build());
+        };
+    }
+    
+    private static Long id(ServerRequest requisicao) {
+        try {
+            return Long.valueOf(requisicao.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
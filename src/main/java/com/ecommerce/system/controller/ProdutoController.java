@@ -0,0 +1,46 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.dto.ResultadoBuscaProdutosDTO;
+import com.ecommerce.system.service.IndiceBuscaProdutos;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/produtos")
+@Tag(name = "Produtos", description = "API de busca de produtos")
+public class ProdutoController {
+    
+    @Autowired
+    private IndiceBuscaProdutos indiceBuscaProdutos;
+    
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar produtos", description = "Busca pelo nome e pela descrição os produtos que contêm todas as palavras (a última também como prefixo), do mais relevante para o menos relevante")
+    public ResponseEntity<ResultadoBuscaProdutosDTO> buscar(
+            @Parameter(description = "Texto da busca") @RequestParam String q,
+            @Parameter(description = "Página, a partir de 0") @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Produtos por página (máximo 100)") @RequestParam(defaultValue = "20") int tamanho) {
+        try {
+            return ResponseEntity.ok(indiceBuscaProdutos.buscar(q, pagina, tamanho));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/sugestoes")
+    @Operation(summary = "Sugestões de busca", description = "Completa a última palavra digitada com as palavras do catálogo que aparecem em mais produtos")
+    public ResponseEntity<List<String>> sugerir(
+            @Parameter(description = "Texto digitado") @RequestParam String prefixo,
+            @Parameter(description = "Quantidade de sugestões (máximo 50)") @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return ResponseEntity.ok(indiceBuscaProdutos.sugerir(prefixo, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
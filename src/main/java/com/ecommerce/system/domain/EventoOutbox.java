@@ -0,0 +1,100 @@
+package com.ecommerce.system.domain;
+
+import com.ecommerce.system.state.OperacaoPedido;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de mudança de status de um pedido, gravado na tabela de outbox na mesma transação
+ * que a mudança e removido depois de entregue pelo relay. A criação do pedido também gera um
+ * evento, sem operação e sem status anterior.
+ * <p>
+ * A entidade declara a tabela; os eventos são gravados e lidos por JDBC (e por R2DBC na API
+ * reativa), sem passar pelo contexto de persistência.
+ */
+@Entity
+@Table(name = "outbox_pedidos")
+public class EventoOutbox {
+    
+    // IDENTITY: as inserções vêm de JDBC e R2DBC, sem a sequência em blocos do Hibernate
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long pedidoId;
+    
+    @Column(nullable = false)
+    private String numeroPedido;
+    
+    // Nula no evento de criação
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private OperacaoPedido operacao;
+    
+    // Códigos de status (StatusPedidoConverter); o anterior é nulo no evento de criação
+    private StatusPedido statusAnterior;
+    
+    @Column(nullable = false)
+    private StatusPedido statusNovo;
+    
+    @Column(nullable = false)
+    private LocalDateTime dataEvento;
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+    
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+    
+    public String getNumeroPedido() {
+        return numeroPedido;
+    }
+    
+    public void setNumeroPedido(String numeroPedido) {
+        this.numeroPedido = numeroPedido;
+    }
+    
+    public OperacaoPedido getOperacao() {
+        return operacao;
+    }
+    
+    public void setOperacao(OperacaoPedido operacao) {
+        this.operacao = operacao;
+    }
+    
+    public StatusPedido getStatusAnterior() {
+        return statusAnterior;
+    }
+    
+    public void setStatusAnterior(StatusPedido statusAnterior) {
+        this.statusAnterior = statusAnterior;
+    }
+    
+    public StatusPedido getStatusNovo() {
+        return statusNovo;
+    }
+    
+    public void setStatusNovo(StatusPedido statusNovo) {
+        this.statusNovo = statusNovo;
+    }
+    
+    public LocalDateTime getDataEvento() {
+        return dataEvento;
+    }
+    
+    public void setDataEvento(LocalDateTime dataEvento) {
+        this.dataEvento = dataEvento;
+    }
+}
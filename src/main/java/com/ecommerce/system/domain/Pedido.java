@@ -7,11 +7,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        @Index(name = "uk_pedidos_numero_pedido", columnList = "numeroPedido", unique = true),
+        @Index(name = "idx_pedidos_data_criacao", columnList = "dataCriacao, id"),
+        @Index(name = "idx_pedidos_status_data_criacao", columnList = "status, dataCriacao, id"),
+        @Index(name = "idx_pedidos_cliente_data_criacao", columnList = "cliente_id, dataCriacao DESC, id DESC"),
+        @Index(name = "idx_pedidos_cliente_status_data_criacao", columnList = "cliente_id, status, dataCriacao DESC, id DESC")
+})
 public class Pedido {
     
+    // Sequência (em vez de IDENTITY) para que o Hibernate consiga inserir os pedidos em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -23,10 +31,11 @@ public class Pedido {
     @Column(nullable = false)
     private LocalDateTime dataCriacao;
     
+    // Código do status (StatusPedidoConverter)
     @Column(nullable = false)
-    private String status;
+    private StatusPedido status;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
     
@@ -42,7 +51,7 @@ public class Pedido {
     // Construtores
     public Pedido() {
         this.dataCriacao = LocalDateTime.now();
-        this.status = "AGUARDANDO_PAGAMENTO";
+        this.status = StatusPedido.AGUARDANDO_PAGAMENTO;
     }
     
     public Pedido(String numeroPedido, BigDecimal valorTotal, Cliente cliente) {
@@ -85,11 +94,11 @@ public class Pedido {
         this.dataCriacao = dataCriacao;
     }
     
-    public String getStatus() {
+    public StatusPedido getStatus() {
         return status;
     }
     
-    public void setStatus(String status) {
+    public void setStatus(StatusPedido status) {
         this.status = status;
     }
     
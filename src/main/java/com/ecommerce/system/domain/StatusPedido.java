@@ -0,0 +1,46 @@
+package com.ecommerce.system.domain;
+
+/**
+ * Status do pedido. No banco é gravado o {@link #getCodigo() código} (SMALLINT), não o nome:
+ * os códigos são fixos, então a ordem das constantes pode mudar sem migrar os dados.
+ */
+public enum StatusPedido {
+    
+    AGUARDANDO_PAGAMENTO(0),
+    PAGO(1),
+    ENVIADO(2),
+    CANCELADO(3);
+    
+    private static final StatusPedido[] POR_CODIGO = new StatusPedido[values().length];
+    
+    static {
+        for (StatusPedido status : values()) {
+            POR_CODIGO[status.codigo] = status;
+        }
+    }
+    
+    private final short codigo;
+    
+    StatusPedido(int codigo) {
+        this.codigo = (short) codigo;
+    }
+    
+    /**
+     * @return Código gravado na coluna {@code status}
+     */
+    public short getCodigo() {
+        return codigo;
+    }
+    
+    /**
+     * @param codigo Código lido da coluna {@code status}
+     * @return Status correspondente
+     * @throws IllegalArgumentException se o código não corresponder a nenhum status
+     */
+    public static StatusPedido doCodigo(int codigo) {
+        if (codigo < 0 || codigo >= POR_CODIGO.length) {
+            throw new IllegalArgumentException("Código de status inválido: " + codigo);
+        }
+        return POR_CODIGO[codigo];
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.system.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava o {@link StatusPedido} pelo código, em uma coluna SMALLINT.
+ */
+@Converter(autoApply = true)
+public class StatusPedidoConverter implements AttributeConverter<StatusPedido, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(StatusPedido status) {
+        return status == null ? null : status.getCodigo();
+    }
+    
+    @Override
+    public StatusPedido convertToEntityAttribute(Short codigo) {
+        return codigo == null ? null : StatusPedido.doCodigo(codigo);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.system.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO de resposta da cotação de frete.
+ */
+public class CotacaoFreteDTO {
+    
+    private BigDecimal valorPedido;
+    private String tipoFrete;
+    private BigDecimal valorFrete;
+    private String descricao;
+    private BigDecimal valorTotal;
+    
+    // Construtores
+    public CotacaoFreteDTO() {}
+    
+    public CotacaoFreteDTO(BigDecimal valorPedido, String tipoFrete, BigDecimal valorFrete, String descricao) {
+        this.valorPedido = valorPedido;
+        this.tipoFrete = tipoFrete;
+        this.valorFrete = valorFrete;
+        this.descricao = descricao;
+        this.valorTotal = valorPedido.add(valorFrete);
+    }
+    
+    // Getters e Setters
+    public BigDecimal getValorPedido() {
+        return valorPedido;
+    }
+    
+    public void setValorPedido(BigDecimal valorPedido) {
+        this.valorPedido = valorPedido;
+    }
+    
+    public String getTipoFrete() {
+        return tipoFrete;
+    }
+    
+    public void setTipoFrete(String tipoFrete) {
+        this.tipoFrete = tipoFrete;
+    }
+    
+    public BigDecimal getValorFrete() {
+        return valorFrete;
+    }
+    
+    public void setValorFrete(BigDecimal valorFrete) {
+        this.valorFrete = valorFrete;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+    
+    public void setValorTotal(BigDecimal valorTotal) {
+        this.valorTotal = valorTotal;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ecommerce.system.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de resposta do painel de vendas: pedidos, valor e frete por status, por tipo de frete e
+ * por intervalo de criação (minuto e hora).
+ * Por tipo de frete e por intervalo, só entram os pedidos não cancelados.
+ */
+public class EstatisticasPedidosDTO {
+    
+    private LocalDateTime geradoEm;
+    private Totais naoCancelados;
+    private Map<String, Totais> porStatus;
+    private Map<String, Totais> porTipoFrete;
+    private List<Intervalo> porMinuto;
+    private List<Intervalo> porHora;
+    
+    // Construtores
+    public EstatisticasPedidosDTO() {}
+    
+    public EstatisticasPedidosDTO(LocalDateTime geradoEm, Totais naoCancelados, Map<String, Totais> porStatus,
+                                  Map<String, Totais> porTipoFrete, List<Intervalo> porMinuto, List<Intervalo> porHora) {
+        this.geradoEm = geradoEm;
+        this.naoCancelados = naoCancelados;
+        this.porStatus = porStatus;
+        this.porTipoFrete = porTipoFrete;
+        this.porMinuto = porMinuto;
+        this.porHora = porHora;
+    }
+    
+    // Getters e Setters
+    public LocalDateTime getGeradoEm() {
+        return geradoEm;
+    }
+    
+    public void setGeradoEm(LocalDateTime geradoEm) {
+        this.geradoEm = geradoEm;
+    }
+    
+    public Totais getNaoCancelados() {
+        return naoCancelados;
+    }
+    
+    public void setNaoCancelados(Totais naoCancelados) {
+        this.naoCancelados = naoCancelados;
+    }
+    
+    public Map<String, Totais> getPorStatus() {
+        return porStatus;
+    }
+    
+    public void setPorStatus(Map<String, Totais> porStatus) {
+        this.porStatus = porStatus;
+    }
+    
+    public Map<String, Totais> getPorTipoFrete() {
+        return porTipoFrete;
+    }
+    
+    public void setPorTipoFrete(Map<String, Totais> porTipoFrete) {
+        this.porTipoFrete = porTipoFrete;
+    }
+    
+    public List<Intervalo> getPorMinuto() {
+        return porMinuto;
+    }
+    
+    public void setPorMinuto(List<Intervalo> porMinuto) {
+        this.porMinuto = porMinuto;
+    }
+    
+    public List<Intervalo> getPorHora() {
+        return porHora;
+    }
+    
+    public void setPorHora(List<Intervalo> porHora) {
+        this.porHora = porHora;
+    }
+    
+    /**
+     * Quantidade de pedidos e soma dos valores e dos fretes.
+     */
+    public static class Totais {
+        
+        private long pedidos;
+        private BigDecimal valorTotal;
+        private BigDecimal valorFrete;
+        
+        public Totais() {}
+        
+        public Totais(long pedidos, BigDecimal valorTotal, BigDecimal valorFrete) {
+            this.pedidos = pedidos;
+            this.valorTotal = valorTotal;
+            this.valorFrete = valorFrete;
+        }
+        
+        public long getPedidos() {
+            return pedidos;
+        }
+        
+        public void setPedidos(long pedidos) {
+            this.pedidos = pedidos;
+        }
+        
+        public BigDecimal getValorTotal() {
+            return valorTotal;
+        }
+        
+        public void setValorTotal(BigDecimal valorTotal) {
+            this.valorTotal = valorTotal;
+        }
+        
+        public BigDecimal getValorFrete() {
+            return valorFrete;
+        }
+        
+        public void setValorFrete(BigDecimal valorFrete) {
+            this.valorFrete = valorFrete;
+        }
+    }
+    
+    /**
+     * Totais dos pedidos não cancelados criados em um intervalo, identificado pelo seu início.
+     */
+    public static class Intervalo extends Totais {
+        
+        private LocalDateTime inicio;
+        
+        public Intervalo() {}
+        
+        public Intervalo(LocalDateTime inicio, long pedidos, BigDecimal valorTotal, BigDecimal valorFrete) {
+            super(pedidos, valorTotal, valorFrete);
+            this.inicio = inicio;
+        }
+        
+        public LocalDateTime getInicio() {
+            return inicio;
+        }
+        
+        public void setInicio(LocalDateTime inicio) {
+            this.inicio = inicio;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de mudança de status de um pedido, como é entregue aos destinos do outbox. Na criação
+ * do pedido, {@code operacao} e {@code statusAnterior} são nulos.
+ * O {@code id} identifica o evento (e cresce na ordem em que os eventos foram gravados): a entrega é "pelo menos uma vez", então um destino pode
+ * receber o mesmo evento de novo e deve usar o ID para descartar repetições.
+ */
+public class EventoPedidoDTO {
+    
+    private Long id;
+    private Long pedidoId;
+    private String numeroPedido;
+    private String operacao;
+    private String statusAnterior;
+    private String statusNovo;
+    private LocalDateTime dataEvento;
+    
+    // Construtores
+    public EventoPedidoDTO() {}
+    
+    public EventoPedidoDTO(Long id, Long pedidoId, String numeroPedido, String operacao,
+                           String statusAnterior, String statusNovo, LocalDateTime dataEvento) {
+        this.id = id;
+        this.pedidoId = pedidoId;
+        this.numeroPedido = numeroPedido;
+        this.operacao = operacao;
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.dataEvento = dataEvento;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+    
+    public void setPedidoId(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+    
+    public String getNumeroPedido() {
+        return numeroPedido;
+    }
+    
+    public void setNumeroPedido(String numeroPedido) {
+        this.numeroPedido = numeroPedido;
+    }
+    
+    public String getOperacao() {
+        return operacao;
+    }
+    
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+    
+    public String getStatusAnterior() {
+        return statusAnterior;
+    }
+    
+    public void setStatusAnterior(String statusAnterior) {
+        this.statusAnterior = statusAnterior;
+    }
+    
+    public String getStatusNovo() {
+        return statusNovo;
+    }
+    
+    public void setStatusNovo(String statusNovo) {
+        this.statusNovo = statusNovo;
+    }
+    
+    public LocalDateTime getDataEvento() {
+        return dataEvento;
+    }
+    
+    public void setDataEvento(LocalDateTime dataEvento) {
+        this.dataEvento = dataEvento;
+    }
+}
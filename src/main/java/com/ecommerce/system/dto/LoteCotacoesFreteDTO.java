@@ -0,0 +1,110 @@
+package com.ecommerce.system.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da cotação de frete em lote.
+ * Cada solicitação tem o seu resultado, na mesma posição em que foi enviada.
+ */
+public class LoteCotacoesFreteDTO {
+    
+    private int total;
+    private int rejeitadas;
+    private List<ResultadoCotacao> resultados;
+    
+    // Construtores
+    public LoteCotacoesFreteDTO() {}
+    
+    public LoteCotacoesFreteDTO(List<ResultadoCotacao> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.rejeitadas = (int) resultados.stream().filter(resultado -> !resultado.isSucesso()).count();
+    }
+    
+    // Getters e Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getRejeitadas() {
+        return rejeitadas;
+    }
+    
+    public void setRejeitadas(int rejeitadas) {
+        this.rejeitadas = rejeitadas;
+    }
+    
+    public List<ResultadoCotacao> getResultados() {
+        return resultados;
+    }
+    
+    public void setResultados(List<ResultadoCotacao> resultados) {
+        this.resultados = resultados;
+    }
+    
+    /**
+     * Resultado de uma solicitação do lote: uma cotação por tipo de frete, ou o motivo da recusa.
+     */
+    public static class ResultadoCotacao {
+        
+        private int indice;
+        private boolean sucesso;
+        private List<CotacaoFreteDTO> cotacoes;
+        private String erro;
+        
+        // Construtores
+        public ResultadoCotacao() {}
+        
+        public static ResultadoCotacao cotada(int indice, List<CotacaoFreteDTO> cotacoes) {
+            ResultadoCotacao resultado = new ResultadoCotacao();
+            resultado.indice = indice;
+            resultado.sucesso = true;
+            resultado.cotacoes = cotacoes;
+            return resultado;
+        }
+        
+        public static ResultadoCotacao rejeitada(int indice, String erro) {
+            ResultadoCotacao resultado = new ResultadoCotacao();
+            resultado.indice = indice;
+            resultado.erro = erro;
+            return resultado;
+        }
+        
+        // Getters e Setters
+        public int getIndice() {
+            return indice;
+        }
+        
+        public void setIndice(int indice) {
+            this.indice = indice;
+        }
+        
+        public boolean isSucesso() {
+            return sucesso;
+        }
+        
+        public void setSucesso(boolean sucesso) {
+            this.sucesso = sucesso;
+        }
+        
+        public List<CotacaoFreteDTO> getCotacoes() {
+            return cotacoes;
+        }
+        
+        public void setCotacoes(List<CotacaoFreteDTO> cotacoes) {
+            this.cotacoes = cotacoes;
+        }
+        
+        public String getErro() {
+            return erro;
+        }
+        
+        public void setErro(String erro) {
+            this.erro = erro;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.system.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da criação de pedidos em lote.
+ * Cada pedido do lote tem o seu resultado, na mesma posição em que foi enviado.
+ */
+public class LotePedidosResponseDTO {
+    
+    private int total;
+    private int criados;
+    private int rejeitados;
+    private List<ResultadoPedido> resultados;
+    
+    // Construtores
+    public LotePedidosResponseDTO() {}
+    
+    public LotePedidosResponseDTO(List<ResultadoPedido> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.criados = (int) resultados.stream().filter(ResultadoPedido::isSucesso).count();
+        this.rejeitados = total - criados;
+    }
+    
+    // Getters e Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getCriados() {
+        return criados;
+    }
+    
+    public void setCriados(int criados) {
+        this.criados = criados;
+    }
+    
+    public int getRejeitados() {
+        return rejeitados;
+    }
+    
+    public void setRejeitados(int rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+    
+    public List<ResultadoPedido> getResultados() {
+        return resultados;
+    }
+    
+    public void setResultados(List<ResultadoPedido> resultados) {
+        this.resultados = resultados;
+    }
+    
+    /**
+     * Resultado de um pedido do lote: o pedido criado ou o motivo da recusa.
+     */
+    public static class ResultadoPedido {
+        
+        private int indice;
+        private boolean sucesso;
+        private PedidoResponseDTO pedido;
+        private String erro;
+        
+        // Construtores
+        public ResultadoPedido() {}
+        
+        public static ResultadoPedido criado(int indice, PedidoResponseDTO pedido) {
+            ResultadoPedido resultado = new ResultadoPedido();
+            resultado.indice = indice;
+            resultado.sucesso = true;
+            resultado.pedido = pedido;
+            return resultado;
+        }
+        
+        public static ResultadoPedido rejeitado(int indice, String erro) {
+            ResultadoPedido resultado = new ResultadoPedido();
+            resultado.indice = indice;
+            resultado.erro = erro;
+            return resultado;
+        }
+        
+        // Getters e Setters
+        public int getIndice() {
+            return indice;
+        }
+        
+        public void setIndice(int indice) {
+            this.indice = indice;
+        }
+        
+        public boolean isSucesso() {
+            return sucesso;
+        }
+        
+        public void setSucesso(boolean sucesso) {
+            this.sucesso = sucesso;
+        }
+        
+        public PedidoResponseDTO getPedido() {
+            return pedido;
+        }
+        
+        public void setPedido(PedidoResponseDTO pedido) {
+            this.pedido = pedido;
+        }
+        
+        public String getErro() {
+            return erro;
+        }
+        
+        public void setErro(String erro) {
+            this.erro = erro;
+        }
+    }
+}
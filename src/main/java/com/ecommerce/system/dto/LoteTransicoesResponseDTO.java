@@ -0,0 +1,142 @@
+package com.ecommerce.system.dto;
+
+import java.util.List;
+
+/**
+ * DTO de resposta das transições de estado em lote.
+ * Cada ID do lote tem o seu resultado, na mesma posição em que foi enviado.
+ */
+public class LoteTransicoesResponseDTO {
+    
+    private String operacao;
+    private int total;
+    private int transicionados;
+    private int recusados;
+    private List<ResultadoTransicao> resultados;
+    
+    // Construtores
+    public LoteTransicoesResponseDTO() {}
+    
+    public LoteTransicoesResponseDTO(String operacao, List<ResultadoTransicao> resultados) {
+        this.operacao = operacao;
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.transicionados = (int) resultados.stream().filter(ResultadoTransicao::isSucesso).count();
+        this.recusados = total - transicionados;
+    }
+    
+    // Getters e Setters
+    public String getOperacao() {
+        return operacao;
+    }
+    
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getTransicionados() {
+        return transicionados;
+    }
+    
+    public void setTransicionados(int transicionados) {
+        this.transicionados = transicionados;
+    }
+    
+    public int getRecusados() {
+        return recusados;
+    }
+    
+    public void setRecusados(int recusados) {
+        this.recusados = recusados;
+    }
+    
+    public List<ResultadoTransicao> getResultados() {
+        return resultados;
+    }
+    
+    public void setResultados(List<ResultadoTransicao> resultados) {
+        this.resultados = resultados;
+    }
+    
+    /**
+     * Resultado de um pedido do lote: o novo status ou o motivo da recusa.
+     */
+    public static class ResultadoTransicao {
+        
+        private int indice;
+        private Long id;
+        private boolean sucesso;
+        private String status;
+        private String erro;
+        
+        // Construtores
+        public ResultadoTransicao() {}
+        
+        public static ResultadoTransicao transicionado(int indice, Long id, String status) {
+            ResultadoTransicao resultado = new ResultadoTransicao();
+            resultado.indice = indice;
+            resultado.id = id;
+            resultado.sucesso = true;
+            resultado.status = status;
+            return resultado;
+        }
+        
+        public static ResultadoTransicao recusado(int indice, Long id, String status, String erro) {
+            ResultadoTransicao resultado = new ResultadoTransicao();
+            resultado.indice = indice;
+            resultado.id = id;
+            resultado.status = status;
+            resultado.erro = erro;
+            return resultado;
+        }
+        
+        // Getters e Setters
+        public int getIndice() {
+            return indice;
+        }
+        
+        public void setIndice(int indice) {
+            this.indice = indice;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public void setId(Long id) {
+            this.id = id;
+        }
+        
+        public boolean isSucesso() {
+            return sucesso;
+        }
+        
+        public void setSucesso(boolean sucesso) {
+            this.sucesso = sucesso;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public void setStatus(String status) {
+            this.status = status;
+        }
+        
+        public String getErro() {
+            return erro;
+        }
+        
+        public void setErro(String erro) {
+            this.erro = erro;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.system.dto;
+
+import java.util.List;
+
+/**
+ * DTO para uma página de resultados paginados por cursor.
+ * O cursor é opaco para o cliente: basta enviá-lo de volta para obter a próxima página.
+ */
+public class PaginaDTO<T> {
+    
+    private List<T> itens;
+    private String proximoCursor;
+    private boolean temMais;
+    
+    // Construtores
+    public PaginaDTO() {}
+    
+    public PaginaDTO(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.temMais = proximoCursor != null;
+    }
+    
+    // Getters e Setters
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+    
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+    
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+    
+    public boolean isTemMais() {
+        return temMais;
+    }
+    
+    public void setTemMais(boolean temMais) {
+        this.temMais = temMais;
+    }
+}
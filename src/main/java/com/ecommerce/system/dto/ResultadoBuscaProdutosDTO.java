@@ -0,0 +1,131 @@
+package com.ecommerce.system.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO de resposta da busca de produtos: uma página dos produtos encontrados, do mais
+ * relevante para o menos relevante, e o total de produtos encontrados.
+ */
+public class ResultadoBuscaProdutosDTO {
+    
+    private String consulta;
+    private long total;
+    private int pagina;
+    private int tamanho;
+    private List<ProdutoEncontrado> produtos;
+    
+    // Construtores
+    public ResultadoBuscaProdutosDTO() {}
+    
+    public ResultadoBuscaProdutosDTO(String consulta, long total, int pagina, int tamanho, List<ProdutoEncontrado> produtos) {
+        this.consulta = consulta;
+        this.total = total;
+        this.pagina = pagina;
+        this.tamanho = tamanho;
+        this.produtos = produtos;
+    }
+    
+    // Getters e Setters
+    public String getConsulta() {
+        return consulta;
+    }
+    
+    public void setConsulta(String consulta) {
+        this.consulta = consulta;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public int getPagina() {
+        return pagina;
+    }
+    
+    public void setPagina(int pagina) {
+        this.pagina = pagina;
+    }
+    
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+    
+    public List<ProdutoEncontrado> getProdutos() {
+        return produtos;
+    }
+    
+    public void setProdutos(List<ProdutoEncontrado> produtos) {
+        this.produtos = produtos;
+    }
+    
+    /**
+     * Produto encontrado, com a relevância calculada para a consulta.
+     */
+    public static class ProdutoEncontrado {
+        
+        private Long id;
+        private String nome;
+        private String descricao;
+        private BigDecimal preco;
+        private double relevancia;
+        
+        public ProdutoEncontrado() {}
+        
+        public ProdutoEncontrado(Long id, String nome, String descricao, BigDecimal preco, double relevancia) {
+            this.id = id;
+            this.nome = nome;
+            this.descricao = descricao;
+            this.preco = preco;
+            this.relevancia = relevancia;
+        }
+        
+        public Long getId() {
+            return id;
+        }
+        
+        public void setId(Long id) {
+            this.id = id;
+        }
+        
+        public String getNome() {
+            return nome;
+        }
+        
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+        
+        public String getDescricao() {
+            return descricao;
+        }
+        
+        public void setDescricao(String descricao) {
+            this.descricao = descricao;
+        }
+        
+        public BigDecimal getPreco() {
+            return preco;
+        }
+        
+        public void setPreco(BigDecimal preco) {
+            this.preco = preco;
+        }
+        
+        public double getRelevancia() {
+            return relevancia;
+        }
+        
+        public void setRelevancia(double relevancia) {
+            this.relevancia = relevancia;
+        }
+    }
+}
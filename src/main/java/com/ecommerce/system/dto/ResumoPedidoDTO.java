@@ -0,0 +1,92 @@
+package com.ecommerce.system.dto;
+
+import com.ecommerce.system.domain.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de resumo de pedido para o histórico do cliente: só as colunas do próprio pedido, sem
+ * cliente e sem itens.
+ */
+public class ResumoPedidoDTO {
+    
+    private Long id;
+    private String numeroPedido;
+    private String status;
+    private BigDecimal valorTotal;
+    private BigDecimal valorFrete;
+    private String tipoFrete;
+    private LocalDateTime dataCriacao;
+    
+    // Construtores
+    public ResumoPedidoDTO() {}
+    
+    public ResumoPedidoDTO(Long id, String numeroPedido, StatusPedido status, BigDecimal valorTotal,
+                           BigDecimal valorFrete, String tipoFrete, LocalDateTime dataCriacao) {
+        this.id = id;
+        this.numeroPedido = numeroPedido;
+        this.status = status.name();
+        this.valorTotal = valorTotal;
+        this.valorFrete = valorFrete;
+        this.tipoFrete = tipoFrete;
+        this.dataCriacao = dataCriacao;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getNumeroPedido() {
+        return numeroPedido;
+    }
+    
+    public void setNumeroPedido(String numeroPedido) {
+        this.numeroPedido = numeroPedido;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+    
+    public void setValorTotal(BigDecimal valorTotal) {
+        this.valorTotal = valorTotal;
+    }
+    
+    public BigDecimal getValorFrete() {
+        return valorFrete;
+    }
+    
+    public void setValorFrete(BigDecimal valorFrete) {
+        this.valorFrete = valorFrete;
+    }
+    
+    public String getTipoFrete() {
+        return tipoFrete;
+    }
+    
+    public void setTipoFrete(String tipoFrete) {
+        this.tipoFrete = tipoFrete;
+    }
+    
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+    
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.system.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO de uma cotação de frete pedida em lote.
+ * Sem {@code tipoFrete}, o valor é cotado em todos os tipos de frete disponíveis.
+ */
+public class SolicitacaoCotacaoFreteDTO {
+    
+    private BigDecimal valorPedido;
+    private String tipoFrete;
+    private String cep;
+    private int pesoGramas;
+    
+    // Construtores
+    public SolicitacaoCotacaoFreteDTO() {}
+    
+    public SolicitacaoCotacaoFreteDTO(BigDecimal valorPedido, String tipoFrete, String cep, int pesoGramas) {
+        this.valorPedido = valorPedido;
+        this.tipoFrete = tipoFrete;
+        this.cep = cep;
+        this.pesoGramas = pesoGramas;
+    }
+    
+    // Getters e Setters
+    public BigDecimal getValorPedido() {
+        return valorPedido;
+    }
+    
+    public void setValorPedido(BigDecimal valorPedido) {
+        this.valorPedido = valorPedido;
+    }
+    
+    public String getTipoFrete() {
+        return tipoFrete;
+    }
+    
+    public void setTipoFrete(String tipoFrete) {
+        this.tipoFrete = tipoFrete;
+    }
+    
+    public String getCep() {
+        return cep;
+    }
+    
+    public void setCep(String cep) {
+        this.cep = cep;
+    }
+    
+    public int getPesoGramas() {
+        return pesoGramas;
+    }
+    
+    public void setPesoGramas(int pesoGramas) {
+        this.pesoGramas = pesoGramas;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.system.factory;
+
+import com.ecommerce.system.strategy.FreteStrategy;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto imutável de estratégias de frete indexadas pelo tipo.
+ * <p>
+ * A busca ignora caixa e espaços nas pontas, como {@code trim()} + {@code equalsIgnoreCase},
+ * mas sem criar a string normalizada: o hash do tipo informado é calculado caractere a caractere
+ * sobre o trecho sem espaços e comparado, na mesma passada de caracteres, com as chaves de uma
+ * tabela de endereçamento aberto com no máximo metade das posições ocupadas.
+ */
+public final class IndiceTiposFrete {
+    
+    private final List<FreteStrategy> estrategias;
+    private final List<String> tipos;
+    private final Map<String, String> descricoes;
+    private final String[] chaves;
+    private final int[] hashes;
+    private final FreteStrategy[] valores;
+    private final int mascara;
+    
+    /**
+     * @param estrategias Estratégias a indexar; a ordem é mantida nas listagens
+     * @throws IllegalArgumentException se algum tipo for vazio ou repetido (ignorando a caixa)
+     */
+    public IndiceTiposFrete(List<? extends FreteStrategy> estrategias) {
+        int capacidade = Integer.highestOneBit(Math.max(2, estrategias.size() * 2) - 1) << 1;
+        this.chaves = new String[capacidade];
+        this.hashes = new int[capacidade];
+        this.valores = new FreteStrategy[capacidade];
+        this.mascara = capacidade - 1;
+        
+        Map<String, String> descricoes = new LinkedHashMap<>();
+        for (FreteStrategy estrategia : estrategias) {
+            String tipo = estrategia.getTipoFrete();
+            if (tipo == null || tipo.isBlank()) {
+                throw new IllegalArgumentException("Tipo de frete não pode ser nulo ou vazio");
+            }
+            if (buscar(tipo) != null) {
+                throw new IllegalArgumentException("Tipo de frete duplicado: " + tipo);
+            }
+            String chave = tipo.trim();
+            int hash = hash(chave, 0, chave.length());
+            int posicao = hash & mascara;
+            while (chaves[posicao] != null) {
+                posicao = (posicao + 1) & mascara;
+            }
+            chaves[posicao] = chave;
+            hashes[posicao] = hash;
+            valores[posicao] = estrategia;
+            descricoes.put(tipo, estrategia.getDescricao());
+        }
+        this.estrategias = List.copyOf(estrategias);
+        this.tipos = List.copyOf(descricoes.keySet());
+        this.descricoes = Collections.unmodifiableMap(descricoes);
+    }
+    
+    /**
+     * Busca a estratégia de um tipo de frete.
+     * @param tipoFrete Tipo de frete, em qualquer caixa e com ou sem espaços nas pontas
+     * @return A estratégia do tipo, ou null se o tipo for nulo, vazio ou não suportado
+     */
+    public FreteStrategy buscar(String tipoFrete) {
+        if (tipoFrete == null) {
+            return null;
+        }
+        int inicio = 0;
+        int fim = tipoFrete.length();
+        while (inicio < fim && tipoFrete.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && tipoFrete.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        int tamanho = fim - inicio;
+        if (tamanho == 0) {
+            return null;
+        }
+        
+        int hash = hash(tipoFrete, inicio, fim);
+        for (int posicao = hash & mascara; chaves[posicao] != null; posicao = (posicao + 1) & mascara) {
+            String chave = chaves[posicao];
+            if (hashes[posicao] == hash && chave.length() == tamanho && iguaisIgnorandoCaixa(tipoFrete, inicio, chave, tamanho)) {
+                return valores[posicao];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @return Estratégias indexadas, na ordem recebida (lista imutável)
+     */
+    public List<FreteStrategy> estrategias() {
+        return estrategias;
+    }
+    
+    /**
+     * @return Tipos de frete, na ordem das estratégias (lista imutável)
+     */
+    public List<String> tipos() {
+        return tipos;
+    }
+    
+    /**
+     * @return Descrição de cada tipo de frete, na ordem das estratégias (mapa imutável)
+     */
+    public Map<String, String> descricoes() {
+        return descricoes;
+    }
+    
+    private static boolean iguaisIgnorandoCaixa(String texto, int inicio, String chave, int tamanho) {
+        for (int i = 0; i < tamanho; i++) {
+            char a = texto.charAt(inicio + i);
+            char b = chave.charAt(i);
+            if (a != b && semCaixa(a) != semCaixa(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Caracteres iguais ignorando a caixa têm o mesmo hash
+    private static int hash(String texto, int inicio, int fim) {
+        int h = 0;
+        for (int i = inicio; i < fim; i++) {
+            h = 31 * h + semCaixa(texto.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+    
+    // Mesma normalização de equalsIgnoreCase; ASCII (o caso comum) não passa pelas tabelas de Character
+    private static char semCaixa(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.system.factory;
+
+import com.ecommerce.system.strategy.FreteMemoizadoStrategy;
+import com.ecommerce.system.strategy.FreteStrategy;
+import com.ecommerce.system.strategy.FreteTabelaStrategy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registro das estratégias de frete da aplicação, uma instância por tipo.
+ * <p>
+ * Reúne as tabelas embutidas ({@value FreteTabelaStrategy#TABELAS_PADRAO}), as tabelas de
+ * transportadoras listadas em {@code frete.tabelas.adicionais} (recursos do Spring, como
+ * {@code file:/etc/ecommerce/transportadoras.json}) e os beans {@link FreteStrategy} do contexto,
+ * para transportadoras com cálculo próprio. A busca por tipo é feita no {@link IndiceTiposFrete},
+ * sem alocação.
+ * <p>
+ * {@link #recarregar()} relê as tabelas sem reiniciar a aplicação e publica o novo índice de uma
+ * vez: quem já obteve o índice ou uma estratégia termina a cotação com o conjunto anterior. Com
+ * {@code frete.cache.maximo-cotacoes} maior que 0, as estratégias de tabela memorizam as cotações
+ * em um cache desse tamanho, esvaziado a cada recarga. A memorização vem desligada: as tabelas
+ * embutidas cotam mais rápido do que a consulta ao cache, que só compensa para regras mais caras.
+ */
+@Component
+public class RegistroFrete {
+    
+    private static final Logger log = LoggerFactory.getLogger(RegistroFrete.class);
+    
+    private final ResourceLoader resourceLoader;
+    private final ObjectProvider<FreteStrategy> beans;
+    private final List<String> tabelasAdicionais;
+    private final boolean memorizar;
+    private final Cache<FreteMemoizadoStrategy.ChaveCotacao, BigDecimal> cotacoes;
+    
+    private volatile IndiceTiposFrete indice;
+    
+    public RegistroFrete(ResourceLoader resourceLoader, ObjectProvider<FreteStrategy> beans,
+                         @Value("${frete.tabelas.adicionais:}") List<String> tabelasAdicionais,
+                         @Value("${frete.cache.maximo-cotacoes:0}") int maximoCotacoes) {
+        this.resourceLoader = resourceLoader;
+        this.beans = beans;
+        this.tabelasAdicionais = tabelasAdicionais.stream().map(String::trim).filter(local -> !local.isEmpty()).toList();
+        this.memorizar = maximoCotacoes > 0;
+        this.cotacoes = Caffeine.newBuilder()
+                .maximumSize(maximoCotacoes)
+                .recordStats()
+                .build();
+        this.indice = carregar();
+    }
+    
+    /**
+     * Busca a estratégia de um tipo de frete.
+     * @param tipoFrete Tipo de frete, em qualquer caixa
+     * @return A estratégia do tipo
+     * @throws IllegalArgumentException se o tipo for nulo, vazio ou não suportado
+     */
+    public FreteStrategy buscar(String tipoFrete) {
+        FreteStrategy estrategia = indice.buscar(tipoFrete);
+        if (estrategia == null) {
+            if (tipoFrete == null || tipoFrete.isBlank()) {
+                throw new IllegalArgumentException("Tipo de frete não pode ser nulo ou vazio");
+            }
+            throw new IllegalArgumentException("Tipo de frete não suportado: " + tipoFrete);
+        }
+        return estrategia;
+    }
+    
+    /**
+     * @param tipoFrete Tipo de frete, em qualquer caixa
+     * @return true se o tipo de frete é suportado
+     */
+    public boolean isTipoFreteSuportado(String tipoFrete) {
+        return indice.buscar(tipoFrete) != null;
+    }
+    
+    /**
+     * Índice atual. Quem faz várias buscas seguidas (um lote de cotações, por exemplo) deve
+     * usar o mesmo índice em todas, para não misturar conjuntos diferentes durante uma recarga.
+     * @return Índice das estratégias em uso
+     */
+    public IndiceTiposFrete getIndice() {
+        return indice;
+    }
+    
+    /**
+     * Relê as tabelas de frete e os beans de estratégia e troca o índice em uso.
+     * Se alguma tabela for inválida ou inacessível, o índice atual continua em uso.
+     * @return O novo índice
+     * @throws IllegalArgumentException se alguma regra for inconsistente ou algum tipo se repetir
+     * @throws UncheckedIOException se alguma tabela não puder ser lida
+     */
+    public synchronized IndiceTiposFrete recarregar() {
+        IndiceTiposFrete novo = carregar();
+        indice = novo;
+        cotacoes.invalidateAll();
+        log.info("Tabelas de frete recarregadas: {}", novo.tipos());
+        return novo;
+    }
+    
+    /**
+     * @return Cache das cotações memorizadas (para métricas)
+     */
+    public Cache<FreteMemoizadoStrategy.ChaveCotacao, BigDecimal> getCacheCotacoes() {
+        return cotacoes;
+    }
+    
+    private IndiceTiposFrete carregar() {
+        List<FreteStrategy> estrategias = new ArrayList<>();
+        ler(ResourceLoader.CLASSPATH_URL_PREFIX + FreteTabelaStrategy.TABELAS_PADRAO, estrategias);
+        for (String local : tabelasAdicionais) {
+            ler(local, estrategias);
+        }
+        beans.orderedStream().map(this::memorizada).forEach(estrategias::add);
+        return new IndiceTiposFrete(estrategias);
+    }
+    
+    private void ler(String local, List<FreteStrategy> destino) {
+        try (InputStream entrada = resourceLoader.getResource(local).getInputStream()) {
+            for (FreteTabelaStrategy estrategia : FreteTabelaStrategy.ler(entrada)) {
+                destino.add(memorizada(estrategia));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler as tabelas de frete: " + local, e);
+        }
+    }
+    
+    private FreteStrategy memorizada(FreteStrategy estrategia) {
+        if (memorizar && estrategia instanceof FreteTabelaStrategy tabela) {
+            return new FreteMemoizadoStrategy(tabela, cotacoes);
+        }
+        return estrategia;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.system.repository;
+
+import com.ecommerce.system.domain.ItemPedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemPedidoRepository extends JpaRepository<ItemPedido, Long> {
+    
+    /**
+     * Busca os itens de vários pedidos em uma única consulta.
+     * @param pedidoIds Os IDs dos pedidos
+     * @return Lista de itens dos pedidos ordenada por ID
+     */
+    List<ItemPedido> findByPedidoIdInOrderById(Collection<Long> pedidoIds);
+}
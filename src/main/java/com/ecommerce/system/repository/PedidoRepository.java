@@ -1,9 +1,12 @@
 package com.ecommerce.system.repository;
 
 import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,27 +23,58 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     Optional<Pedido> findByNumeroPedido(String numeroPedido);
     
     /**
-     * Busca pedidos por cliente.
-     * @param clienteId O ID do cliente
-     * @return Lista de pedidos do cliente
+     * Busca um pedido com cliente e itens em uma única consulta.
+     * @param id O ID do pedido
+     * @return Optional contendo o pedido se encontrado
      */
-    @Query("SELECT p FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataCriacao DESC")
-    List<Pedido> findByClienteId(@Param("clienteId") Long clienteId);
+    @EntityGraph(attributePaths = {"cliente", "itens"})
+    Optional<Pedido> findComItensById(Long id);
     
     /**
      * Busca pedidos por status.
      * @param status O status do pedido
      * @return Lista de pedidos com o status especificado
      */
-    List<Pedido> findByStatusOrderByDataCriacaoDesc(String status);
+    List<Pedido> findByStatusOrderByDataCriacaoDesc(StatusPedido status);
+    
+    /**
+     * Busca uma página de pedidos, do mais recente para o mais antigo, a partir da posição informada.
+     * @param posicao Posição (dataCriacao, id) do último pedido da página anterior
+     * @param limite Quantidade máxima de pedidos
+     * @return Janela de pedidos
+     */
+    @EntityGraph(attributePaths = "cliente")
+    Window<Pedido> findAllByOrderByDataCriacaoDescIdDesc(ScrollPosition posicao, Limit limite);
+    
+    /**
+     * Busca uma página de pedidos por status a partir da posição informada.
+     * @param status O status do pedido
+     * @param posicao Posição (dataCriacao, id) do último pedido da página anterior
+     * @param limite Quantidade máxima de pedidos
+     * @return Janela de pedidos com o status especificado
+     */
+    @EntityGraph(attributePaths = "cliente")
+    Window<Pedido> findByStatusOrderByDataCriacaoDescIdDesc(StatusPedido status, ScrollPosition posicao, Limit limite);
     
     /**
-     * Busca pedidos por cliente e status.
+     * Busca uma página de pedidos do cliente a partir da posição informada.
+     * @param clienteId O ID do cliente
+     * @param posicao Posição (dataCriacao, id) do último pedido da página anterior
+     * @param limite Quantidade máxima de pedidos
+     * @return Janela de pedidos do cliente
+     */
+    @EntityGraph(attributePaths = "cliente")
+    Window<Pedido> findByClienteIdOrderByDataCriacaoDescIdDesc(Long clienteId, ScrollPosition posicao, Limit limite);
+    
+    /**
+     * Busca uma página de pedidos do cliente com o status informado a partir da posição informada.
      * @param clienteId O ID do cliente
      * @param status O status do pedido
-     * @return Lista de pedidos do cliente com o status especificado
+     * @param posicao Posição (dataCriacao, id) do último pedido da página anterior
+     * @param limite Quantidade máxima de pedidos
+     * @return Janela de pedidos do cliente com o status especificado
      */
-    @Query("SELECT p FROM Pedido p WHERE p.cliente.id = :clienteId AND p.status = :status ORDER BY p.dataCriacao DESC")
-    List<Pedido> findByClienteIdAndStatus(@Param("clienteId") Long clienteId, @Param("status") String status);
+    @EntityGraph(attributePaths = "cliente")
+    Window<Pedido> findByClienteIdAndStatusOrderByDataCriacaoDescIdDesc(Long clienteId, StatusPedido status,
+                                                                         ScrollPosition posicao, Limit limite);
 }
-
@@ -0,0 +1,89 @@
+package com.ecommerce.system.service;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.TransactionDefinition;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Acesso R2DBC ao banco para a API reativa, habilitado por {@code pedido.reativo.enabled=true}.
+ * <p>
+ * O pool de conexões não é exposto como bean: um {@code ConnectionFactory} no contexto faria o
+ * Spring Boot desistir de configurar o {@code DataSource} JDBC usado pelo restante da aplicação.
+ * Pelo mesmo motivo o gerenciador de transações reativo é criado aqui, sem concorrer com o do JPA.
+ * Com H2 em memória, a URL deve apontar para o mesmo banco do JDBC.
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.reativo.enabled", havingValue = "true")
+public class BancoReativo {
+    
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transacional;
+    
+    public BancoReativo(@Value("${pedido.reativo.r2dbc-url:r2dbc:h2:mem:///testdb}") String url,
+                        @Value("${spring.datasource.username:sa}") String usuario,
+                        @Value("${spring.datasource.password:}") String senha,
+                        @Value("${pedido.reativo.pool-maximo:20}") int poolMaximo) {
+        ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, usuario)
+                .option(ConnectionFactoryOptions.PASSWORD, senha)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(opcoes))
+                .initialSize(Math.min(poolMaximo, 10))
+                .maxSize(poolMaximo)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+        this.transacional = TransactionalOperator.create(new GerenciadorTransacoes(pool));
+    }
+    
+    @PreDestroy
+    void encerrar() {
+        pool.dispose();
+    }
+    
+    public DatabaseClient getDatabaseClient() {
+        return databaseClient;
+    }
+    
+    /**
+     * @return Operador que executa um {@code Mono}/{@code Flux} em uma transação R2DBC
+     */
+    public TransactionalOperator getTransacional() {
+        return transacional;
+    }
+    
+    /**
+     * Gerenciador de transações que não repassa a opção {@code readOnly} ao driver. O Spring a
+     * envia em toda transação, mesmo falsa, e o r2dbc-h2, que não a suporta, registra um WARN
+     * a cada início de transação. As transações da API reativa são todas de escrita.
+     */
+    private static final class GerenciadorTransacoes extends R2dbcTransactionManager {
+        
+        GerenciadorTransacoes(ConnectionPool pool) {
+            super(pool);
+        }
+        
+        @Override
+        protected TransactionDefinition createTransactionDefinition(
+                org.springframework.transaction.TransactionDefinition definicao) {
+            TransactionDefinition original = super.createTransactionDefinition(definicao);
+            return new TransactionDefinition() {
+                @Override
+                public <T> T getAttribute(Option<T> opcao) {
+                    return TransactionDefinition.READ_ONLY.equals(opcao) ? null : original.getAttribute(opcao);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Produto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catálogo de produtos em memória: nome, descrição e preço por ID, para precificar pedidos
+ * e montar respostas sem ir ao banco. O estoque não faz parte do catálogo (ver {@link EstoqueService}).
+ * <p>
+ * Os dados ficam em um {@link Instantaneo} imutável, com os IDs ordenados em um {@code long[]}
+ * e os atributos em arrays paralelos: a leitura é uma busca binária sem bloqueio e sem alocação.
+ * Cada alteração gera um novo instantâneo (copy-on-write), publicado depois do commit da
+ * transação que alterou o produto. Uma recarga completa periódica cobre alterações feitas
+ * por outras instâncias ou diretamente no banco; ela monta o novo instantâneo sem bloqueio
+ * e só o troca pelo atual, já com as alterações publicadas durante a consulta, com o bloqueio.
+ * <p>
+ * As escritas são serializadas por um {@link ReentrantLock}, e não por {@code synchronized}:
+ * a carga de produtos ausentes consulta o banco com o bloqueio adquirido, e com threads
+ * virtuais um monitor prenderia a thread portadora durante toda a consulta.
+ */
+@Component
+public class CatalogoProdutos {
+    
+    private static final Logger log = LoggerFactory.getLogger(CatalogoProdutos.class);
+    
+    private static final String SQL_PRODUTOS = "SELECT id, nome, descricao, preco FROM produtos";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final long intervaloRecargaMs;
+    private final Counter recargasCompletas;
+    private final Counter atualizacoesProduto;
+    private final Counter produtosAusentes;
+    private final ScheduledExecutorService recarga = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "catalogo-produtos-recarga");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final ReentrantLock bloqueio = new ReentrantLock();
+    private final ReentrantLock recargas = new ReentrantLock();
+    
+    private volatile Instantaneo atual = Instantaneo.VAZIO;
+    
+    // Alterações publicadas durante uma recarga, reaplicadas ao instantâneo recarregado
+    // (null fora de recarga); protegido pelo bloqueio
+    private List<UnaryOperator<Instantaneo>> alteracoesDuranteRecarga;
+    
+    public CatalogoProdutos(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${catalogo.intervalo-recarga-ms:60000}") long intervaloRecargaMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.intervaloRecargaMs = intervaloRecargaMs;
+        Gauge.builder("catalogo.produtos", this, catalogo -> catalogo.atual.tamanho())
+                .description("Produtos no catálogo em memória")
+                .register(meterRegistry);
+        this.recargasCompletas = Counter.builder("catalogo.atualizacoes").tag("tipo", "completa")
+                .description("Recargas completas do catálogo").register(meterRegistry);
+        this.atualizacoesProduto = Counter.builder("catalogo.atualizacoes").tag("tipo", "produto")
+                .description("Atualizações do catálogo por alteração de produto").register(meterRegistry);
+        this.produtosAusentes = Counter.builder("catalogo.ausentes")
+                .description("Produtos procurados que não estavam no catálogo").register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void agendarRecarga() {
+        recarga.scheduleWithFixedDelay(this::recarregarComSeguranca, intervaloRecargaMs, intervaloRecargaMs,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void encerrar() {
+        recarga.shutdownNow();
+    }
+    
+    /**
+     * Retorna o instantâneo atual do catálogo. O mesmo instantâneo deve ser usado em toda
+     * uma operação para que os dados lidos sejam consistentes entre si.
+     * @return Instantâneo atual
+     */
+    public Instantaneo atual() {
+        return atual;
+    }
+    
+    /**
+     * Retorna um instantâneo que contém os produtos informados, buscando no banco apenas
+     * os que ainda não estão no catálogo. IDs inexistentes no banco continuam ausentes.
+     * @param produtoIds IDs dos produtos
+     * @return Instantâneo com os produtos existentes
+     */
+    public Instantaneo garantir(Collection<Long> produtoIds) {
+        Instantaneo instantaneo = atual;
+        List<Long> ausentes = null;
+        for (Long produtoId : produtoIds) {
+            if (instantaneo.indice(produtoId) < 0) {
+                if (ausentes == null) {
+                    ausentes = new ArrayList<>();
+                }
+                ausentes.add(produtoId);
+            }
+        }
+        return ausentes == null ? instantaneo : carregar(ausentes);
+    }
+    
+    /**
+     * Como {@link #garantir(Collection)}, para os produtos referenciados por uma lista de
+     * elementos (os itens de um pedido, por exemplo). Quando todos já estão no catálogo,
+     * o caso comum, não aloca nada.
+     * @param elementos Elementos que referenciam produtos
+     * @param produtoId ID do produto de cada elemento
+     * @return Instantâneo com os produtos existentes
+     */
+    public <T> Instantaneo garantir(List<T> elementos, ToLongFunction<? super T> produtoId) {
+        Instantaneo instantaneo = atual;
+        for (int i = 0; i < elementos.size(); i++) {
+            if (instantaneo.indice(produtoId.applyAsLong(elementos.get(i))) < 0) {
+                Set<Long> ausentes = new HashSet<>();
+                for (T elemento : elementos) {
+                    long id = produtoId.applyAsLong(elemento);
+                    if (instantaneo.indice(id) < 0) {
+                        ausentes.add(id);
+                    }
+                }
+                return carregar(ausentes);
+            }
+        }
+        return instantaneo;
+    }
+    
+    /**
+     * Nome do produto para mensagens de erro.
+     * @param produtoId ID do produto
+     * @return Nome do produto, ou o ID se ele não estiver no catálogo
+     */
+    public String nomeProduto(long produtoId) {
+        Instantaneo instantaneo = atual;
+        int indice = instantaneo.indice(produtoId);
+        return indice >= 0 ? instantaneo.nome(indice) : String.valueOf(produtoId);
+    }
+    
+    private Instantaneo carregar(Collection<Long> ausentes) {
+        produtosAusentes.increment(ausentes.size());
+        bloqueio.lock();
+        try {
+            List<Object[]> carregados = new ArrayList<>();
+            namedParameterJdbcTemplate.query(SQL_PRODUTOS + " WHERE id IN (:ids)", Map.of("ids", ausentes),
+                    (RowCallbackHandler) rs -> carregados.add(linha(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4))));
+            for (Object[] produto : carregados) {
+                // Não sobrescreve um produto publicado por outra thread enquanto a consulta rodava
+                alterar(instantaneo -> instantaneo.indice((Long) produto[0]) < 0
+                        ? instantaneo.com((Long) produto[0], (String) produto[1], (String) produto[2], (BigDecimal) produto[3])
+                        : instantaneo);
+            }
+            return atual;
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+    
+    /**
+     * Recarrega todo o catálogo a partir do banco. Roda na inicialização e periodicamente.
+     * A consulta roda sem o bloqueio, e as leituras e atualizações por produto seguem
+     * normalmente; as atualizações publicadas enquanto ela roda são reaplicadas ao novo
+     * instantâneo antes da troca, para que nenhuma se perca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recarregar() {
+        recargas.lock();
+        try {
+            bloqueio.lock();
+            try {
+                alteracoesDuranteRecarga = new ArrayList<>();
+            } finally {
+                bloqueio.unlock();
+            }
+            
+            Instantaneo novo = null;
+            try {
+                List<Object[]> produtos = new ArrayList<>();
+                jdbcTemplate.query(SQL_PRODUTOS + " ORDER BY id",
+                        (RowCallbackHandler) rs -> produtos.add(linha(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4))));
+                novo = Instantaneo.de(produtos);
+            } finally {
+                bloqueio.lock();
+                try {
+                    if (novo != null) {
+                        for (UnaryOperator<Instantaneo> alteracao : alteracoesDuranteRecarga) {
+                            novo = alteracao.apply(novo);
+                        }
+                        atual = novo;
+                    }
+                    alteracoesDuranteRecarga = null;
+                } finally {
+                    bloqueio.unlock();
+                }
+            }
+        } finally {
+            recargas.unlock();
+        }
+        recargasCompletas.increment();
+    }
+    
+    /**
+     * Publica os dados do produto no catálogo quando a transação corrente for efetivada
+     * (ou imediatamente, fora de transação).
+     * @param produto Produto inserido ou alterado
+     */
+    public void atualizar(Produto produto) {
+        Long id = produto.getId();
+        String nome = produto.getNome();
+        String descricao = produto.getDescricao();
+        BigDecimal preco = produto.getPreco();
+        aposCommit(() -> {
+            bloqueio.lock();
+            try {
+                alterar(instantaneo -> instantaneo.com(id, nome, descricao, preco));
+            } finally {
+                bloqueio.unlock();
+            }
+            atualizacoesProduto.increment();
+        });
+    }
+    
+    /**
+     * Retira o produto do catálogo quando a transação corrente for efetivada.
+     * @param produto Produto removido
+     */
+    public void remover(Produto produto) {
+        Long id = produto.getId();
+        aposCommit(() -> {
+            bloqueio.lock();
+            try {
+                alterar(instantaneo -> instantaneo.sem(id));
+            } finally {
+                bloqueio.unlock();
+            }
+            atualizacoesProduto.increment();
+        });
+    }
+    
+    // Chamado com o bloqueio adquirido
+    private void alterar(UnaryOperator<Instantaneo> alteracao) {
+        atual = alteracao.apply(atual);
+        if (alteracoesDuranteRecarga != null) {
+            alteracoesDuranteRecarga.add(alteracao);
+        }
+    }
+    
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+    
+    private void recarregarComSeguranca() {
+        try {
+            recarregar();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao recarregar o catálogo de produtos; o catálogo atual foi mantido", e);
+        }
+    }
+    
+    private static Object[] linha(long id, String nome, String descricao, BigDecimal preco) {
+        return new Object[]{id, nome, descricao, preco};
+    }
+    
+    /**
+     * Versão imutável do catálogo. Os índices retornados por {@link #indice(long)} valem
+     * apenas para o próprio instantâneo.
+     */
+    public static final class Instantaneo {
+        
+        static final Instantaneo VAZIO = new Instantaneo(new long[0], new String[0], new String[0], new BigDecimal[0]);
+        
+        private final long[] ids;
+        private final String[] nomes;
+        private final String[] descricoes;
+        private final BigDecimal[] precos;
+        
+        private Instantaneo(long[] ids, String[] nomes, String[] descricoes, BigDecimal[] precos) {
+            this.ids = ids;
+            this.nomes = nomes;
+            this.descricoes = descricoes;
+            this.precos = precos;
+        }
+        
+        static Instantaneo de(List<Object[]> produtosOrdenados) {
+            int tamanho = produtosOrdenados.size();
+            long[] ids = new long[tamanho];
+            String[] nomes = new String[tamanho];
+            String[] descricoes = new String[tamanho];
+            BigDecimal[] precos = new BigDecimal[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                Object[] produto = produtosOrdenados.get(i);
+                ids[i] = (Long) produto[0];
+                nomes[i] = (String) produto[1];
+                descricoes[i] = (String) produto[2];
+                precos[i] = (BigDecimal) produto[3];
+            }
+            return new Instantaneo(ids, nomes, descricoes, precos);
+        }
+        
+        /**
+         * @param produtoId ID do produto
+         * @return Posição do produto neste instantâneo, ou um valor negativo se ele não estiver no catálogo
+         */
+        public int indice(long produtoId) {
+            return Arrays.binarySearch(ids, produtoId);
+        }
+        
+        public String nome(int indice) {
+            return nomes[indice];
+        }
+        
+        public String descricao(int indice) {
+            return descricoes[indice];
+        }
+        
+        public BigDecimal preco(int indice) {
+            return precos[indice];
+        }
+        
+        public int tamanho() {
+            return ids.length;
+        }
+        
+        Instantaneo com(long id, String nome, String descricao, BigDecimal preco) {
+            int indice = indice(id);
+            if (indice >= 0) {
+                String[] novosNomes = nomes.clone();
+                String[] novasDescricoes = descricoes.clone();
+                BigDecimal[] novosPrecos = precos.clone();
+                novosNomes[indice] = nome;
+                novasDescricoes[indice] = descricao;
+                novosPrecos[indice] = preco;
+                return new Instantaneo(ids, novosNomes, novasDescricoes, novosPrecos);
+            }
+            int posicao = -indice - 1;
+            return new Instantaneo(
+                    inserir(ids, posicao, id),
+                    inserir(nomes, new String[nomes.length + 1], posicao, nome),
+                    inserir(descricoes, new String[descricoes.length + 1], posicao, descricao),
+                    inserir(precos, new BigDecimal[precos.length + 1], posicao, preco));
+        }
+        
+        Instantaneo sem(long id) {
+            int indice = indice(id);
+            if (indice < 0) {
+                return this;
+            }
+            return new Instantaneo(
+                    remover(ids, indice),
+                    remover(nomes, new String[nomes.length - 1], indice),
+                    remover(descricoes, new String[descricoes.length - 1], indice),
+                    remover(precos, new BigDecimal[precos.length - 1], indice));
+        }
+        
+        private static long[] inserir(long[] origem, int posicao, long valor) {
+            long[] destino = new long[origem.length + 1];
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            destino[posicao] = valor;
+            System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+            return destino;
+        }
+        
+        private static <T> T[] inserir(T[] origem, T[] destino, int posicao, T valor) {
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            destino[posicao] = valor;
+            System.arraycopy(origem, posicao, destino, posicao + 1, origem.length - posicao);
+            return destino;
+        }
+        
+        private static long[] remover(long[] origem, int posicao) {
+            long[] destino = new long[origem.length - 1];
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            System.arraycopy(origem, posicao + 1, destino, posicao, origem.length - posicao - 1);
+            return destino;
+        }
+        
+        private static <T> T[] remover(T[] origem, T[] destino, int posicao) {
+            System.arraycopy(origem, 0, destino, 0, posicao);
+            System.arraycopy(origem, posicao + 1, destino, posicao, origem.length - posicao - 1);
+            return destino;
+        }
+    }
+}
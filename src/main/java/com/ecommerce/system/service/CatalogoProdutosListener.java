@@ -0,0 +1,40 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Produto;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de {@link Produto} que mantém o {@link CatalogoProdutos} e o
+ * {@link IndiceBuscaProdutos} em dia com as alterações feitas pela aplicação. Alterações de
+ * estoque por SQL direto não passam por aqui, e o estoque também não faz parte do catálogo.
+ * <p>
+ * É registrado em {@code META-INF/orm.xml}, e não com {@code @EntityListeners} na entidade,
+ * para que o domínio não dependa da camada de serviço.
+ */
+@Component
+public class CatalogoProdutosListener {
+    
+    private final CatalogoProdutos catalogoProdutos;
+    private final IndiceBuscaProdutos indiceBuscaProdutos;
+    
+    public CatalogoProdutosListener(CatalogoProdutos catalogoProdutos, IndiceBuscaProdutos indiceBuscaProdutos) {
+        this.catalogoProdutos = catalogoProdutos;
+        this.indiceBuscaProdutos = indiceBuscaProdutos;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    void aoSalvar(Produto produto) {
+        catalogoProdutos.atualizar(produto);
+        indiceBuscaProdutos.atualizar(produto);
+    }
+    
+    @PostRemove
+    void aoRemover(Produto produto) {
+        catalogoProdutos.remover(produto);
+        indiceBuscaProdutos.remover(produto);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.ItemPedido;
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conversão de pedidos para o DTO de resposta da API.
+ */
+@Component
+public class ConversorPedido {
+    
+    @Autowired
+    private CatalogoProdutos catalogoProdutos;
+    
+    /**
+     * Converte uma entidade Pedido para DTO.
+     * O cliente e os itens devem estar carregados para não gerar consultas extras.
+     * @param pedido Entidade Pedido
+     * @return DTO do pedido
+     */
+    public PedidoResponseDTO converterParaDTO(Pedido pedido) {
+        return converterParaDTO(pedido, pedido.getItens());
+    }
+    
+    /**
+     * Converte uma entidade Pedido para DTO usando itens carregados à parte.
+     * @param pedido Entidade Pedido (com o cliente carregado)
+     * @param itens Itens do pedido (os nomes dos produtos vêm do catálogo)
+     * @return DTO do pedido
+     */
+    public PedidoResponseDTO converterParaDTO(Pedido pedido, List<ItemPedido> itens) {
+        PedidoResponseDTO dto = new PedidoResponseDTO();
+        dto.setId(pedido.getId());
+        dto.setNumeroPedido(pedido.getNumeroPedido());
+        dto.setValorTotal(pedido.getValorTotal());
+        dto.setValorFrete(pedido.getValorFrete());
+        dto.setTipoFrete(pedido.getTipoFrete());
+        dto.setDataCriacao(pedido.getDataCriacao());
+        dto.setStatus(pedido.getStatus().name());
+        
+        // Cliente
+        PedidoResponseDTO.ClienteDTO clienteDTO = new PedidoResponseDTO.ClienteDTO();
+        clienteDTO.setId(pedido.getCliente().getId());
+        clienteDTO.setNome(pedido.getCliente().getNome());
+        clienteDTO.setEmail(pedido.getCliente().getEmail());
+        dto.setCliente(clienteDTO);
+        
+        // Itens (getId() da referência ao produto não inicializa a entidade)
+        CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(itens, item -> item.getProduto().getId());
+        List<PedidoResponseDTO.ItemPedidoResponseDTO> itensDTO = itens.stream()
+                .map(item -> {
+                    int indiceProduto = catalogo.indice(item.getProduto().getId());
+                    PedidoResponseDTO.ItemPedidoResponseDTO itemDTO = new PedidoResponseDTO.ItemPedidoResponseDTO();
+                    itemDTO.setId(item.getId());
+                    itemDTO.setNomeProduto(indiceProduto >= 0 ? catalogo.nome(indiceProduto) : null);
+                    itemDTO.setQuantidade(item.getQuantidade());
+                    itemDTO.setPrecoUnitario(item.getPrecoUnitario());
+                    itemDTO.setSubtotal(item.getSubtotal());
+                    return itemDTO;
+                })
+                .collect(Collectors.toList());
+        dto.setItens(itensDTO);
+        
+        return dto;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.dto.CotacaoFreteDTO;
+import com.ecommerce.system.dto.LoteCotacoesFreteDTO;
+import com.ecommerce.system.dto.SolicitacaoCotacaoFreteDTO;
+import com.ecommerce.system.factory.IndiceTiposFrete;
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.strategy.FreteStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Serviço de cotação de frete em lote, para telas que comparam todas as modalidades de
+ * vários carrinhos de uma vez.
+ * <p>
+ * As cotações não acessam o banco e as estratégias são imutáveis, então lotes a partir de
+ * {@code frete.lote.limiar-paralelo} solicitações são avaliados em paralelo no
+ * {@link java.util.concurrent.ForkJoinPool#commonPool() pool comum}; lotes menores são
+ * avaliados na própria thread da requisição, onde dividir o trabalho custaria mais que cotá-lo.
+ */
+@Service
+public class CotacaoFreteService {
+    
+    public static final int TAMANHO_MAXIMO_LOTE = 10_000;
+    
+    private final RegistroFrete registroFrete;
+    
+    @Value("${frete.lote.limiar-paralelo:256}")
+    private int limiarParalelo;
+    
+    public CotacaoFreteService(RegistroFrete registroFrete) {
+        this.registroFrete = registroFrete;
+    }
+    
+    /**
+     * Cota um lote de solicitações.
+     * @param solicitacoes Solicitações a cotar (no máximo {@link #TAMANHO_MAXIMO_LOTE})
+     * @return Resultado de cada solicitação, na ordem recebida
+     * @throws IllegalArgumentException se o lote exceder o tamanho máximo
+     */
+    public LoteCotacoesFreteDTO cotarEmLote(List<SolicitacaoCotacaoFreteDTO> solicitacoes) {
+        if (solicitacoes.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + TAMANHO_MAXIMO_LOTE + " cotações");
+        }
+        
+        // Mesmas estratégias para todo o lote, mesmo que as tabelas sejam recarregadas no meio
+        IndiceTiposFrete indice = registroFrete.getIndice();
+        LoteCotacoesFreteDTO.ResultadoCotacao[] resultados = new LoteCotacoesFreteDTO.ResultadoCotacao[solicitacoes.size()];
+        IntStream indices = IntStream.range(0, resultados.length);
+        if (resultados.length >= limiarParalelo) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> resultados[i] = cotar(i, solicitacoes.get(i), indice));
+        return new LoteCotacoesFreteDTO(Arrays.asList(resultados));
+    }
+    
+    private static LoteCotacoesFreteDTO.ResultadoCotacao cotar(int indice, SolicitacaoCotacaoFreteDTO solicitacao,
+                                                            IndiceTiposFrete tiposFrete) {
+        if (solicitacao == null || solicitacao.getValorPedido() == null) {
+            return LoteCotacoesFreteDTO.ResultadoCotacao.rejeitada(indice, "Valor do pedido é obrigatório");
+        }
+        List<FreteStrategy> estrategias = tiposFrete.estrategias();
+        if (solicitacao.getTipoFrete() != null) {
+            FreteStrategy estrategia = tiposFrete.buscar(solicitacao.getTipoFrete());
+            if (estrategia == null) {
+                return LoteCotacoesFreteDTO.ResultadoCotacao.rejeitada(indice, "Tipo de frete não suportado: " + solicitacao.getTipoFrete());
+            }
+            estrategias = List.of(estrategia);
+        }
+        try {
+            List<CotacaoFreteDTO> cotacoes = new ArrayList<>(estrategias.size());
+            for (FreteStrategy estrategia : estrategias) {
+                cotacoes.add(new CotacaoFreteDTO(solicitacao.getValorPedido(), estrategia.getTipoFrete(),
+                        estrategia.calcularFrete(solicitacao.getValorPedido(), solicitacao.getCep(), solicitacao.getPesoGramas()),
+                        estrategia.getDescricao()));
+            }
+            return LoteCotacoesFreteDTO.ResultadoCotacao.cotada(indice, cotacoes);
+        } catch (IllegalArgumentException e) {
+            return LoteCotacoesFreteDTO.ResultadoCotacao.rejeitada(indice, e.getMessage());
+        }
+    }
+}
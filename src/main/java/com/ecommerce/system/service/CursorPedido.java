@@ -0,0 +1,86 @@
+package com.ecommerce.system.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Codifica e decodifica os cursores da listagem de pedidos.
+ * O cursor guarda a chave (dataCriacao, id) do último pedido da página, que é a mesma
+ * ordenação usada pela consulta, então cada página é buscada a partir dessa posição no
+ * índice, com o mesmo custo da primeira.
+ */
+final class CursorPedido {
+    
+    private static final String CAMPO_DATA = "dataCriacao";
+    private static final String CAMPO_ID = "id";
+    private static final char SEPARADOR = '|';
+    
+    private CursorPedido() {}
+    
+    /**
+     * Converte o cursor recebido do cliente em uma posição de rolagem.
+     * @param cursor Cursor recebido, ou null para a primeira página
+     * @return A posição correspondente
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    static ScrollPosition decodificar(String cursor) {
+        Chave chave = decodificarChave(cursor);
+        return chave == null ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of(CAMPO_DATA, chave.dataCriacao(), CAMPO_ID, chave.id()));
+    }
+    
+    /**
+     * Converte o cursor recebido do cliente na chave do último pedido da página anterior,
+     * para as consultas que aplicam a chave por conta própria.
+     * @param cursor Cursor recebido, ou null para a primeira página
+     * @return A chave, ou null na primeira página
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    static Chave decodificarChave(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String chave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = chave.indexOf(SEPARADOR);
+            return new Chave(LocalDateTime.parse(chave.substring(0, separador)), Long.valueOf(chave.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+        }
+    }
+    
+    /**
+     * Gera o cursor para a página seguinte a partir da posição do último pedido.
+     * @param posicao Posição do último pedido da página
+     * @return O cursor codificado
+     */
+    static String codificar(ScrollPosition posicao) {
+        Map<String, Object> chaves = ((KeysetScrollPosition) posicao).getKeys();
+        return codificar(chaves.get(CAMPO_DATA).toString() + SEPARADOR + chaves.get(CAMPO_ID));
+    }
+    
+    /**
+     * Gera o cursor para a página seguinte a partir da chave do último pedido.
+     * @param dataCriacao Data de criação do último pedido da página
+     * @param id ID do último pedido da página
+     * @return O cursor codificado
+     */
+    static String codificar(LocalDateTime dataCriacao, Long id) {
+        return codificar(dataCriacao.toString() + SEPARADOR + id);
+    }
+    
+    private static String codificar(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Chave (dataCriacao, id) de um pedido na ordenação da listagem.
+     */
+    record Chave(LocalDateTime dataCriacao, Long id) {}
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.dto.EventoPedidoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Destino em arquivo local ({@code pedido.outbox.destino=arquivo}): acrescenta cada evento
+ * como uma linha JSON (NDJSON) em {@code pedido.outbox.arquivo}.
+ * <p>
+ * O lote é escrito com uma única chamada e sincronizado com o disco ({@code force}) antes de
+ * {@link #publicar(List)} retornar; só então o relay remove os eventos do outbox.
+ */
+public class DestinoEventosArquivo implements DestinoEventosPedido {
+    
+    private final ObjectMapper objectMapper;
+    private final FileChannel canal;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+    
+    public DestinoEventosArquivo(ObjectMapper objectMapper, Path arquivo) {
+        this.objectMapper = objectMapper;
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir o arquivo de eventos: " + arquivo, e);
+        }
+    }
+    
+    @Override
+    public synchronized void publicar(List<EventoPedidoDTO> eventos) {
+        buffer.reset();
+        try {
+            for (EventoPedidoDTO evento : eventos) {
+                objectMapper.writeValue(buffer, evento);
+                buffer.write('\n');
+            }
+            ByteBuffer conteudo = ByteBuffer.wrap(buffer.toByteArray());
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar os eventos de pedido", e);
+        }
+    }
+    
+    @PreDestroy
+    void fechar() throws IOException {
+        canal.close();
+    }
+}
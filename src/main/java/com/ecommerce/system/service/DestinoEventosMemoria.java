@@ -0,0 +1,48 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.dto.EventoPedidoDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Destino em memória ({@code pedido.outbox.destino=memoria}), para desenvolvimento e testes:
+ * guarda os últimos eventos publicados, até o limite informado.
+ */
+public class DestinoEventosMemoria implements DestinoEventosPedido {
+    
+    private final int capacidade;
+    private final ArrayDeque<EventoPedidoDTO> eventos;
+    private long publicados;
+    
+    public DestinoEventosMemoria(int capacidade) {
+        this.capacidade = capacidade;
+        this.eventos = new ArrayDeque<>(Math.min(capacidade, 1024));
+    }
+    
+    @Override
+    public synchronized void publicar(List<EventoPedidoDTO> lote) {
+        for (EventoPedidoDTO evento : lote) {
+            if (eventos.size() == capacidade) {
+                eventos.removeFirst();
+            }
+            eventos.addLast(evento);
+        }
+        publicados += lote.size();
+    }
+    
+    /**
+     * @return Cópia dos últimos eventos publicados, do mais antigo para o mais recente
+     */
+    public synchronized List<EventoPedidoDTO> getEventos() {
+        return new ArrayList<>(eventos);
+    }
+    
+    /**
+     * @return Total de eventos publicados, inclusive os que já saíram da memória
+     */
+    public synchronized long getPublicados() {
+        return publicados;
+    }
+}
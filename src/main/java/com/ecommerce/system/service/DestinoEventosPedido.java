@@ -0,0 +1,25 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.dto.EventoPedidoDTO;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos de pedido entregues pelo {@link RelayOutbox} (e-mail, ERP, expedição...).
+ * <p>
+ * A entrega é "pelo menos uma vez": se {@link #publicar(List)} falhar, ou se a aplicação cair
+ * depois da publicação e antes da remoção do lote, o lote inteiro é publicado de novo. Eventos
+ * repetidos têm o mesmo {@link EventoPedidoDTO#getId() ID}. Para usar outro destino, declare
+ * um bean deste tipo e configure {@code pedido.outbox.destino} com outro valor que não
+ * {@code memoria} ou {@code arquivo}.
+ */
+public interface DestinoEventosPedido {
+    
+    /**
+     * Publica um lote de eventos, em ordem de ID (por pedido, a ordem das transições).
+     * Só deve retornar quando o lote estiver entregue.
+     * @param eventos Eventos do lote
+     * @throws RuntimeException se a entrega falhar; o lote é tentado de novo
+     */
+    void publicar(List<EventoPedidoDTO> eventos);
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.system.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serviço responsável pelas baixas e devoluções de estoque dos produtos.
+ * As baixas usam um UPDATE condicional ({@code estoque >= quantidade}), de modo que a
+ * verificação e a atualização acontecem atomicamente no banco: compras concorrentes do
+ * mesmo produto nunca deixam o estoque negativo, sem bloqueio pessimista na leitura.
+ * Quando o {@link LedgerEstoque} está habilitado, as reservas passam por ele.
+ */
+@Service
+public class EstoqueService {
+
+    private static final String SQL_BAIXAR_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque - ? WHERE id = ? AND estoque >= ?";
+
+    private static final String SQL_DEVOLVER_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque + ? WHERE id = ?";
+
+    private static final String SQL_BLOQUEAR_ESTOQUE =
+            "SELECT id, estoque FROM produtos WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired(required = false)
+    private LedgerEstoque ledgerEstoque;
+
+    @Autowired
+    private CatalogoProdutos catalogoProdutos;
+
+    /**
+     * Baixa o estoque dos produtos em um único lote JDBC.
+     * Se algum produto não tiver estoque suficiente, uma exceção é lançada e a transação
+     * corrente desfaz as baixas já aplicadas.
+     * @param quantidadesPorProduto Quantidade a baixar por ID de produto
+     * @throws RuntimeException se algum produto não tiver estoque suficiente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservar(Map<Long, Integer> quantidadesPorProduto) {
+        if (ledgerEstoque != null) {
+            ledgerEstoque.reservar(quantidadesPorProduto);
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> entradas = ordenarPorProduto(quantidadesPorProduto);
+        int[][] resultados = jdbcTemplate.batchUpdate(SQL_BAIXAR_ESTOQUE, entradas, entradas.size(),
+                (ps, entrada) -> {
+                    ps.setInt(1, entrada.getValue());
+                    ps.setLong(2, entrada.getKey());
+                    ps.setInt(3, entrada.getValue());
+                });
+
+        int[] linhasAtualizadas = resultados.length > 0 ? resultados[0] : new int[0];
+        for (int i = 0; i < linhasAtualizadas.length; i++) {
+            if (linhasAtualizadas[i] == 0) {
+                throw new RuntimeException("Estoque insuficiente para o produto: "
+                        + catalogoProdutos.nomeProduto(entradas.get(i).getKey()));
+            }
+        }
+    }
+
+    /**
+     * Baixa o estoque de vários pedidos de uma vez, atendendo-os na ordem da lista.
+     * As linhas dos produtos envolvidos são bloqueadas em uma única consulta (em ordem de ID),
+     * o saldo é distribuído entre os pedidos em memória e as baixas somadas por produto são
+     * aplicadas em um único lote JDBC. Um pedido sem estoque suficiente é recusado sem
+     * afetar os demais.
+     * @param pedidos Quantidade a baixar por ID de produto, para cada pedido
+     * @return Para cada pedido, true se o estoque foi baixado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean[] reservarLote(List<Map<Long, Integer>> pedidos) {
+        boolean[] reservados = new boolean[pedidos.size()];
+        if (ledgerEstoque != null) {
+            for (int i = 0; i < pedidos.size(); i++) {
+                try {
+                    ledgerEstoque.reservar(pedidos.get(i));
+                    reservados[i] = true;
+                } catch (RuntimeException e) {
+                    reservados[i] = false;
+                }
+            }
+            return reservados;
+        }
+
+        Set<Long> produtoIds = new HashSet<>();
+        pedidos.forEach(quantidades -> produtoIds.addAll(quantidades.keySet()));
+        if (produtoIds.isEmpty()) {
+            return reservados;
+        }
+        Map<Long, Integer> saldos = new HashMap<>();
+        namedParameterJdbcTemplate.query(SQL_BLOQUEAR_ESTOQUE, Map.of("ids", produtoIds),
+                (RowCallbackHandler) rs -> saldos.put(rs.getLong(1), rs.getInt(2)));
+
+        Map<Long, Integer> baixas = new HashMap<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            Map<Long, Integer> quantidades = pedidos.get(i);
+            reservados[i] = quantidades.entrySet().stream().allMatch(entrada ->
+                    saldos.getOrDefault(entrada.getKey(), 0) >= entrada.getValue());
+            if (reservados[i]) {
+                quantidades.forEach((produtoId, quantidade) -> {
+                    saldos.merge(produtoId, -quantidade, Integer::sum);
+                    baixas.merge(produtoId, quantidade, Integer::sum);
+                });
+            }
+        }
+        if (!baixas.isEmpty()) {
+            reservar(baixas);
+        }
+        return reservados;
+    }
+
+    /**
+     * Devolve ao estoque as quantidades informadas, em um único lote JDBC.
+     * @param quantidadesPorProduto Quantidade a devolver por ID de produto
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void devolver(Map<Long, Integer> quantidadesPorProduto) {
+        if (ledgerEstoque != null) {
+            ledgerEstoque.devolver(quantidadesPorProduto);
+            return;
+        }
+
+        List<Map.Entry<Long, Integer>> entradas = ordenarPorProduto(quantidadesPorProduto);
+        jdbcTemplate.batchUpdate(SQL_DEVOLVER_ESTOQUE, entradas, entradas.size(),
+                (ps, entrada) -> {
+                    ps.setInt(1, entrada.getValue());
+                    ps.setLong(2, entrada.getKey());
+                });
+    }
+
+    /**
+     * Ordena as entradas pelo ID do produto. Atualizar as linhas sempre na mesma ordem
+     * evita deadlocks entre pedidos concorrentes que compartilham produtos.
+     */
+    private List<Map.Entry<Long, Integer>> ordenarPorProduto(Map<Long, Integer> quantidadesPorProduto) {
+        List<Map.Entry<Long, Integer>> entradas = new ArrayList<>(quantidadesPorProduto.entrySet());
+        entradas.sort(Map.Entry.comparingByKey());
+        return entradas;
+    }
+}
@@ -0,0 +1,294 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Exportação de todos os pedidos em streaming.
+ * As linhas são lidas por um cursor JDBC (com fetch size, sem contexto de persistência) e
+ * escritas na saída à medida que chegam, então o consumo de memória não depende da
+ * quantidade de pedidos.
+ */
+@Service
+public class ExportacaoPedidoService {
+    
+    /**
+     * Formatos de exportação suportados.
+     */
+    public enum Formato {
+        /** Um pedido por linha, em JSON, com seus itens. */
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        /** Um item por linha, com os dados do pedido repetidos. */
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+        
+        private final MediaType contentType;
+        private final String extensao;
+        
+        Formato(MediaType contentType, String extensao) {
+            this.contentType = contentType;
+            this.extensao = extensao;
+        }
+        
+        public MediaType getContentType() {
+            return contentType;
+        }
+        
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+    
+    // Ordenado por pedido para que os itens de um mesmo pedido cheguem em sequência
+    private static final String SQL_EXPORTACAO =
+            "SELECT p.id, p.numero_pedido, p.status, p.data_criacao, p.valor_total, p.valor_frete, p.tipo_frete, "
+            + "c.id, c.nome, c.email, i.id, pr.nome, i.quantidade, i.preco_unitario, i.subtotal "
+            + "FROM pedidos p "
+            + "JOIN clientes c ON c.id = p.cliente_id "
+            + "LEFT JOIN itens_pedido i ON i.pedido_id = p.id "
+            + "LEFT JOIN produtos pr ON pr.id = i.produto_id "
+            + "ORDER BY p.id, i.id";
+    
+    private static final String CABECALHO_CSV = "pedido_id,numero_pedido,status,data_criacao,valor_total,valor_frete,"
+            + "tipo_frete,cliente_id,cliente_nome,item_id,produto,quantidade,preco_unitario,subtotal\n";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    public ExportacaoPedidoService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${pedido.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Exporta todos os pedidos para a saída informada.
+     * A leitura acontece em uma transação somente leitura, necessária para que drivers
+     * como o do PostgreSQL usem um cursor em vez de carregar todo o resultado.
+     * @param formato Formato de exportação
+     * @param saida Saída onde os pedidos são escritos (não é fechada)
+     * @return Quantidade de pedidos exportados
+     */
+    public long exportar(Formato formato, OutputStream saida) throws IOException {
+        EscritorExportacao escritor = formato == Formato.NDJSON
+                ? new EscritorNdjson(saida)
+                : new EscritorCsv(saida);
+        Long exportados;
+        try {
+            exportados = transactionTemplate.execute(status -> {
+                LeitorPedidos leitor = new LeitorPedidos(escritor);
+                jdbcTemplate.query(SQL_EXPORTACAO, leitor);
+                leitor.concluir();
+                return leitor.pedidos;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.concluir();
+        return exportados;
+    }
+    
+    /**
+     * Agrupa as linhas consecutivas de um mesmo pedido e repassa ao escritor.
+     */
+    private static class LeitorPedidos implements RowCallbackHandler {
+        
+        private final EscritorExportacao escritor;
+        private long pedidoAtual = -1;
+        private long pedidos;
+        
+        LeitorPedidos(EscritorExportacao escritor) {
+            this.escritor = escritor;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long pedidoId = rs.getLong(1);
+                if (pedidoId != pedidoAtual) {
+                    if (pedidoAtual != -1) {
+                        escritor.finalizarPedido();
+                    }
+                    pedidoAtual = pedidoId;
+                    pedidos++;
+                    escritor.iniciarPedido(rs);
+                }
+                if (rs.getObject(11) != null) {
+                    escritor.escreverItem(rs);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        void concluir() {
+            if (pedidoAtual != -1) {
+                try {
+                    escritor.finalizarPedido();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+    
+    private interface EscritorExportacao {
+        
+        void iniciarPedido(ResultSet rs) throws SQLException, IOException;
+        
+        void escreverItem(ResultSet rs) throws SQLException, IOException;
+        
+        void finalizarPedido() throws IOException;
+        
+        void concluir() throws IOException;
+    }
+    
+    /**
+     * Escreve um objeto JSON por pedido, com os itens em um array, seguido de quebra de linha.
+     */
+    private class EscritorNdjson implements EscritorExportacao {
+        
+        private final JsonGenerator json;
+        
+        EscritorNdjson(OutputStream saida) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(new BufferedOutputStream(saida));
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        }
+        
+        @Override
+        public void iniciarPedido(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong(1));
+            json.writeStringField("numeroPedido", rs.getString(2));
+            json.writeStringField("status", StatusPedido.doCodigo(rs.getShort(3)).name());
+            json.writeStringField("dataCriacao", rs.getTimestamp(4).toLocalDateTime().toString());
+            json.writeNumberField("valorTotal", rs.getBigDecimal(5));
+            json.writeNumberField("valorFrete", rs.getBigDecimal(6));
+            json.writeStringField("tipoFrete", rs.getString(7));
+            json.writeObjectFieldStart("cliente");
+            json.writeNumberField("id", rs.getLong(8));
+            json.writeStringField("nome", rs.getString(9));
+            json.writeStringField("email", rs.getString(10));
+            json.writeEndObject();
+            json.writeArrayFieldStart("itens");
+        }
+        
+        @Override
+        public void escreverItem(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong(11));
+            json.writeStringField("nomeProduto", rs.getString(12));
+            json.writeNumberField("quantidade", rs.getInt(13));
+            json.writeNumberField("precoUnitario", rs.getBigDecimal(14));
+            json.writeNumberField("subtotal", rs.getBigDecimal(15));
+            json.writeEndObject();
+        }
+        
+        @Override
+        public void finalizarPedido() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        
+        @Override
+        public void concluir() throws IOException {
+            json.close();
+        }
+    }
+    
+    /**
+     * Escreve uma linha por item (ou uma linha sem item para pedidos vazios), com cabeçalho.
+     */
+    private static class EscritorCsv implements EscritorExportacao {
+        
+        private final Writer csv;
+        private final StringBuilder pedido = new StringBuilder(256);
+        private boolean pedidoTemItens;
+        
+        EscritorCsv(OutputStream saida) throws IOException {
+            this.csv = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            this.csv.write(CABECALHO_CSV);
+        }
+        
+        @Override
+        public void iniciarPedido(ResultSet rs) throws SQLException {
+            Timestamp dataCriacao = rs.getTimestamp(4);
+            pedido.setLength(0);
+            pedido.append(rs.getLong(1)).append(',');
+            campo(pedido, rs.getString(2)).append(',');
+            campo(pedido, StatusPedido.doCodigo(rs.getShort(3)).name()).append(',');
+            pedido.append(dataCriacao.toLocalDateTime()).append(',');
+            pedido.append(rs.getBigDecimal(5).toPlainString()).append(',');
+            pedido.append(rs.getBigDecimal(6) != null ? rs.getBigDecimal(6).toPlainString() : "").append(',');
+            campo(pedido, rs.getString(7)).append(',');
+            pedido.append(rs.getLong(8)).append(',');
+            campo(pedido, rs.getString(9)).append(',');
+            pedidoTemItens = false;
+        }
+        
+        @Override
+        public void escreverItem(ResultSet rs) throws SQLException, IOException {
+            csv.append(pedido);
+            csv.append(Long.toString(rs.getLong(11))).append(',');
+            csv.append(escapar(rs.getString(12))).append(',');
+            csv.append(Integer.toString(rs.getInt(13))).append(',');
+            csv.append(rs.getBigDecimal(14).toPlainString()).append(',');
+            csv.append(rs.getBigDecimal(15).toPlainString()).append('\n');
+            pedidoTemItens = true;
+        }
+        
+        @Override
+        public void finalizarPedido() throws IOException {
+            if (!pedidoTemItens) {
+                csv.append(pedido).append(",,,,\n");
+            }
+        }
+        
+        @Override
+        public void concluir() throws IOException {
+            csv.flush();
+        }
+        
+        private static StringBuilder campo(StringBuilder linha, String valor) {
+            return linha.append(escapar(valor));
+        }
+        
+        private static String escapar(String valor) {
+            if (valor == null) {
+                return "";
+            }
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+}
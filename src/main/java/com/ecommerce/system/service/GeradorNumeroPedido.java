@@ -0,0 +1,15 @@
+package com.ecommerce.system.service;
+
+/**
+ * Gera os números dos pedidos.
+ * As implementações devem produzir números únicos entre threads e entre instâncias da
+ * aplicação, e que ordenados como texto sigam a ordem de criação.
+ */
+public interface GeradorNumeroPedido {
+    
+    /**
+     * Gera um novo número de pedido.
+     * @return Número do pedido
+     */
+    String gerar();
+}
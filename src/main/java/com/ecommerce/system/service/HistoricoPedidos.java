@@ -0,0 +1,190 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.EventoPedidoDTO;
+import com.ecommerce.system.state.OperacaoPedido;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Destino do outbox ({@code pedido.outbox.destino=log}) que grava os eventos de pedido (criação,
+ * pagamento, envio e cancelamento) em um {@link LogEventosPedido} e mantém a
+ * {@link ProjecaoStatusPedidos} atualizada.
+ * <p>
+ * O log atribui a sequência de cada evento na gravação, na ordem em que os eventos chegam. O ID
+ * do outbox não serve de sequência: o relay pode entregar um ID menor depois de um maior (de uma
+ * transação efetivada mais tarde) e a identidade do outbox recomeça quando o banco é recriado.
+ * As reentregas da entrega "pelo menos uma vez" são descartadas pelo ID do outbox, lembrado para
+ * os últimos {@value #JANELA_REENTREGAS} eventos publicados. Uma reentrega depois de um reinício
+ * (queda entre a gravação e a remoção do outbox) pode repetir um evento no log; ela só repete o
+ * status do pedido, sem alterar a projeção. O lote é sincronizado com o disco antes de
+ * {@link #publicar(List)} retornar.
+ * <p>
+ * A cada {@code pedido.eventos.snapshot-a-cada} eventos (e ao encerrar), a projeção é gravada em
+ * um snapshot {@code snapshot-<sequência>.bin}; os dois mais recentes são mantidos. Na abertura,
+ * a projeção é lida do snapshot íntegro mais recente e só os eventos posteriores são reproduzidos.
+ */
+public class HistoricoPedidos implements DestinoEventosPedido {
+    
+    private static final Logger log = LoggerFactory.getLogger(HistoricoPedidos.class);
+    
+    private static final String PREFIXO_SNAPSHOT = "snapshot-";
+    private static final String EXTENSAO_SNAPSHOT = ".bin";
+    private static final int SNAPSHOTS_MANTIDOS = 2;
+    
+    // Bem maior que um lote do relay: as reentregas vêm do lote cuja remoção do outbox falhou
+    private static final int JANELA_REENTREGAS = 16_384;
+    
+    private final Path diretorio;
+    private final LogEventosPedido eventos;
+    private final long snapshotACada;
+    private final Map<Long, Boolean> publicados = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> maisAntigo) {
+            return size() > JANELA_REENTREGAS;
+        }
+    };
+    private ProjecaoStatusPedidos projecao;
+    private long sequenciaSnapshot;
+    
+    /**
+     * Abre o histórico e recupera a projeção (snapshot mais recente e eventos posteriores).
+     * @param diretorio Diretório do log e dos snapshots
+     * @param tamanhoSegmento Tamanho de cada segmento do log, em bytes
+     * @param snapshotACada Eventos entre dois snapshots (0 grava só ao encerrar)
+     */
+    public HistoricoPedidos(Path diretorio, int tamanhoSegmento, long snapshotACada) {
+        this.diretorio = diretorio;
+        this.eventos = new LogEventosPedido(diretorio, tamanhoSegmento);
+        this.snapshotACada = snapshotACada;
+        recuperar();
+    }
+    
+    @Override
+    public synchronized void publicar(List<EventoPedidoDTO> lote) {
+        for (EventoPedidoDTO evento : lote) {
+            if (publicados.containsKey(evento.getId())) {
+                continue;
+            }
+            StatusPedido novo = StatusPedido.valueOf(evento.getStatusNovo());
+            long sequencia = eventos.anexar(evento.getPedidoId(), evento.getNumeroPedido(),
+                    evento.getOperacao() == null ? null : OperacaoPedido.valueOf(evento.getOperacao()),
+                    evento.getStatusAnterior() == null ? null : StatusPedido.valueOf(evento.getStatusAnterior()),
+                    novo, evento.getDataEvento().toInstant(ZoneOffset.UTC).toEpochMilli());
+            // Só depois de gravado: se a gravação falhar, a reentrega grava o evento
+            publicados.put(evento.getId(), Boolean.TRUE);
+            projecao.aplicar(sequencia, evento.getPedidoId(), novo);
+        }
+        eventos.sincronizar();
+        if (snapshotACada > 0 && projecao.getSequencia() - sequenciaSnapshot >= snapshotACada) {
+            salvarSnapshot();
+        }
+    }
+    
+    /**
+     * @param pedidoId ID do pedido
+     * @return Status do pedido segundo os eventos gravados, ou null se não houver nenhum
+     */
+    public synchronized StatusPedido status(long pedidoId) {
+        return projecao.status(pedidoId);
+    }
+    
+    /**
+     * @return Quantidade de pedidos por status, segundo os eventos gravados
+     */
+    public synchronized Map<StatusPedido, Long> contagemPorStatus() {
+        return projecao.contagemPorStatus();
+    }
+    
+    /**
+     * @return Sequência do último evento gravado
+     */
+    public long getUltimaSequencia() {
+        return eventos.getUltimaSequencia();
+    }
+    
+    /**
+     * Reproduz os eventos gravados, para reconstruir outras projeções.
+     * @see LogEventosPedido#reproduzir(long, Consumer)
+     */
+    public long reproduzir(long aPartirDe, Consumer<LogEventosPedido.EventoLido> consumidor) {
+        return eventos.reproduzir(aPartirDe, consumidor);
+    }
+    
+    /**
+     * Grava um snapshot da projeção e remove os antigos.
+     * @throws UncheckedIOException se o snapshot não puder ser gravado
+     */
+    public synchronized void salvarSnapshot() {
+        long sequencia = projecao.getSequencia();
+        try {
+            projecao.salvar(diretorio.resolve(String.format("%s%020d%s", PREFIXO_SNAPSHOT, sequencia, EXTENSAO_SNAPSHOT)));
+            List<Path> snapshots = listarSnapshots();
+            for (Path antigo : snapshots.subList(Math.min(SNAPSHOTS_MANTIDOS, snapshots.size()), snapshots.size())) {
+                Files.deleteIfExists(antigo);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o snapshot dos pedidos", e);
+        }
+        sequenciaSnapshot = sequencia;
+    }
+    
+    @PreDestroy
+    public synchronized void fechar() {
+        eventos.close();
+        if (projecao.getSequencia() > sequenciaSnapshot) {
+            salvarSnapshot();
+        }
+    }
+    
+    private void recuperar() {
+        long inicio = System.nanoTime();
+        projecao = lerSnapshot();
+        sequenciaSnapshot = projecao.getSequencia();
+        long reproduzidos = eventos.reproduzir(sequenciaSnapshot + 1, projecao::aplicar);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Histórico de pedidos recuperado em {} ms: snapshot na sequência {}, {} eventos reproduzidos, {} pedidos",
+                duracaoMs, sequenciaSnapshot, reproduzidos, projecao.getQuantidadePedidos());
+    }
+    
+    // Snapshot íntegro mais recente; um snapshot ilegível é ignorado em favor do anterior
+    private ProjecaoStatusPedidos lerSnapshot() {
+        try {
+            for (Path snapshot : listarSnapshots()) {
+                try {
+                    return ProjecaoStatusPedidos.ler(snapshot);
+                } catch (IOException e) {
+                    log.warn("Snapshot de pedidos ignorado: {}", snapshot, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao listar os snapshots de pedidos: " + diretorio, e);
+        }
+        return new ProjecaoStatusPedidos();
+    }
+    
+    // Do mais recente para o mais antigo
+    private List<Path> listarSnapshots() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> {
+                        String nome = arquivo.getFileName().toString();
+                        return nome.startsWith(PREFIXO_SNAPSHOT) && nome.endsWith(EXTENSAO_SNAPSHOT);
+                    })
+                    .sorted(Comparator.comparing((Path arquivo) -> arquivo.getFileName().toString()).reversed())
+                    .toList();
+        }
+    }
+}
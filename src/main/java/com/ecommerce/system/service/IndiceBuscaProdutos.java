@@ -0,0 +1,651 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.ResultadoBuscaProdutosDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória sobre o nome e a descrição dos produtos, para a busca textual
+ * (em vez de {@code LIKE '%...%'}, que percorre a tabela inteira e não ordena por relevância).
+ * <p>
+ * O texto é separado em palavras sem acento e em minúsculas. Cada palavra tem a lista dos
+ * produtos em que aparece, em ordem de inclusão no índice, com o peso da ocorrência (uma
+ * ocorrência no nome vale por {@value #PESO_NOME} na descrição). Um produto só é encontrado
+ * se tiver todas as palavras da consulta; a última vale também como prefixo, para a busca
+ * conforme o usuário digita. A relevância é a do BM25, e o termo que só completa a última
+ * palavra vale menos que a palavra exata.
+ * <p>
+ * O índice é reconstruído a partir do banco na inicialização e atualizado, depois do commit,
+ * a cada produto salvo ou removido pela aplicação ({@link CatalogoProdutosListener}). A versão
+ * antiga de um produto alterado é só marcada como removida, e as listas são compactadas
+ * quando as versões removidas passam de um quarto do índice. Alterações feitas por SQL
+ * direto ou por outras instâncias só entram na próxima reconstrução.
+ * <p>
+ * As buscas compartilham o bloqueio de leitura de um {@link ReentrantReadWriteLock}; as
+ * atualizações, a compactação e a reconstrução tomam o de escrita.
+ */
+@Component
+public class IndiceBuscaProdutos {
+    
+    private static final Logger log = LoggerFactory.getLogger(IndiceBuscaProdutos.class);
+    
+    /** Produtos por página da busca. */
+    public static final int TAMANHO_MAXIMO_PAGINA = 100;
+    
+    /** Posição máxima alcançável pela paginação da busca. */
+    public static final int JANELA_MAXIMA = 10_000;
+    
+    /** Sugestões por chamada de {@link #sugerir(String, int)}. */
+    public static final int LIMITE_MAXIMO_SUGESTOES = 50;
+    
+    private static final String SQL_PRODUTOS = "SELECT id, nome, descricao FROM produtos";
+    
+    private static final int PESO_NOME = 3;
+    
+    // Parâmetros do BM25 (saturação da frequência e normalização pelo tamanho do texto)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    private static final double FATOR_PREFIXO = 0.8;
+    
+    // Termos mais frequentes usados para completar a última palavra da consulta
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 64;
+    
+    private static final double FRACAO_COMPACTACAO = 0.25;
+    private static final int MINIMO_COMPACTACAO = 1024;
+    
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogoProdutos catalogoProdutos;
+    private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+    
+    // Protegido pelo bloqueio
+    private Indice indice = new Indice();
+    
+    public IndiceBuscaProdutos(JdbcTemplate jdbcTemplate, CatalogoProdutos catalogoProdutos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogoProdutos = catalogoProdutos;
+    }
+    
+    /**
+     * Busca os produtos que contêm todas as palavras da consulta (a última também como prefixo),
+     * do mais relevante para o menos relevante. Nome, descrição e preço vêm do {@link CatalogoProdutos}.
+     * @param consulta Texto da consulta
+     * @param pagina Página, a partir de 0
+     * @param tamanho Produtos por página (no máximo {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return Página de produtos e total encontrado
+     * @throws IllegalArgumentException se a consulta não tiver palavras ou a página for inválida
+     *         ou passar de {@value #JANELA_MAXIMA} produtos
+     */
+    public ResultadoBuscaProdutosDTO buscar(String consulta, int pagina, int tamanho) {
+        if (pagina < 0 || tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Página deve ser positiva e tamanho entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        if ((long) (pagina + 1) * tamanho > JANELA_MAXIMA) {
+            throw new IllegalArgumentException("A busca só pagina os " + JANELA_MAXIMA + " produtos mais relevantes");
+        }
+        List<String> palavras = new ArrayList<>(new LinkedHashSet<>(palavras(consulta)));
+        if (palavras.isEmpty()) {
+            throw new IllegalArgumentException("Consulta sem palavras");
+        }
+        
+        Encontrados encontrados;
+        bloqueio.readLock().lock();
+        try {
+            encontrados = indice.buscar(palavras, (pagina + 1) * tamanho);
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        
+        int inicio = pagina * tamanho;
+        List<Long> ids = new ArrayList<>(tamanho);
+        for (int i = inicio; i < encontrados.produtos().length; i++) {
+            ids.add(encontrados.produtos()[i]);
+        }
+        CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(ids);
+        List<ResultadoBuscaProdutosDTO.ProdutoEncontrado> produtos = new ArrayList<>(ids.size());
+        for (int i = inicio; i < encontrados.produtos().length; i++) {
+            long id = encontrados.produtos()[i];
+            int posicao = catalogo.indice(id);
+            // Removido entre a busca e a leitura do catálogo
+            if (posicao < 0) {
+                continue;
+            }
+            produtos.add(new ResultadoBuscaProdutosDTO.ProdutoEncontrado(id, catalogo.nome(posicao),
+                    catalogo.descricao(posicao), catalogo.preco(posicao), encontrados.relevancias()[i]));
+        }
+        return new ResultadoBuscaProdutosDTO(consulta, encontrados.total(), pagina, tamanho, produtos);
+    }
+    
+    /**
+     * Sugere como completar a última palavra digitada: as palavras do índice que começam por
+     * ela, das que aparecem em mais produtos para as que aparecem em menos, precedidas das
+     * palavras anteriores do texto.
+     * @param texto Texto digitado
+     * @param limite Quantidade máxima de sugestões (no máximo {@value #LIMITE_MAXIMO_SUGESTOES})
+     * @return Sugestões, vazia se o texto não tiver palavras
+     * @throws IllegalArgumentException se o limite for inválido
+     */
+    public List<String> sugerir(String texto, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_SUGESTOES) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_SUGESTOES);
+        }
+        List<String> palavras = palavras(texto);
+        if (palavras.isEmpty()) {
+            return List.of();
+        }
+        String anteriores = String.join(" ", palavras.subList(0, palavras.size() - 1));
+        List<String> completas;
+        bloqueio.readLock().lock();
+        try {
+            completas = indice.maisFrequentes(palavras.get(palavras.size() - 1), limite).stream()
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+        return anteriores.isEmpty() ? completas : completas.stream().map(palavra -> anteriores + " " + palavra).toList();
+    }
+    
+    /**
+     * Reconstrói o índice a partir do banco. Roda na inicialização, com o bloqueio de escrita
+     * (as buscas esperam) para que nenhuma atualização confirmada durante a consulta se perca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        Indice novo = new Indice();
+        bloqueio.writeLock().lock();
+        try {
+            jdbcTemplate.query(SQL_PRODUTOS, (RowCallbackHandler) rs -> novo.indexar(rs.getLong(1), rs.getString(2), rs.getString(3)));
+            indice = novo;
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+        log.info("Índice de busca de produtos reconstruído em {} ms: {} produtos, {} palavras",
+                (System.nanoTime() - inicio) / 1_000_000, novo.vivos, novo.termos.size());
+    }
+    
+    /**
+     * Indexa o produto quando a transação corrente for efetivada (ou imediatamente, fora de transação).
+     * @param produto Produto inserido ou alterado
+     */
+    public void atualizar(Produto produto) {
+        long id = produto.getId();
+        String nome = produto.getNome();
+        String descricao = produto.getDescricao();
+        aposCommit(() -> alterar(indice -> indice.indexar(id, nome, descricao)));
+    }
+    
+    /**
+     * Retira o produto do índice quando a transação corrente for efetivada.
+     * @param produto Produto removido
+     */
+    public void remover(Produto produto) {
+        long id = produto.getId();
+        aposCommit(() -> alterar(indice -> indice.remover(id)));
+    }
+    
+    /**
+     * @return Produtos no índice
+     */
+    public int getQuantidadeProdutos() {
+        bloqueio.readLock().lock();
+        try {
+            return indice.vivos;
+        } finally {
+            bloqueio.readLock().unlock();
+        }
+    }
+    
+    private void alterar(Consumer<Indice> alteracao) {
+        bloqueio.writeLock().lock();
+        try {
+            alteracao.accept(indice);
+            if (indice.precisaCompactar()) {
+                indice.compactar();
+            }
+        } finally {
+            bloqueio.writeLock().unlock();
+        }
+    }
+    
+    private void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+    
+    /**
+     * Separa o texto em palavras (letras e dígitos), sem acentos e em minúsculas.
+     */
+    static List<String> palavras(String texto) {
+        List<String> palavras = new ArrayList<>();
+        if (texto == null) {
+            return palavras;
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                palavras.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palavras;
+    }
+    
+    /**
+     * Produtos encontrados, do mais relevante para o menos relevante, até a quantidade pedida.
+     */
+    private record Encontrados(long[] produtos, float[] relevancias, int total) {
+        
+        static final Encontrados NENHUM = new Encontrados(new long[0], new float[0], 0);
+    }
+    
+    /**
+     * Índice de um conjunto de produtos. Cada versão indexada de um produto é um documento,
+     * numerado em ordem de inclusão.
+     */
+    private static final class Indice {
+        
+        private final TreeMap<String, Termo> termos = new TreeMap<>();
+        private final Map<Long, Integer> documentoPorProduto = new HashMap<>();
+        private final BitSet removidos = new BitSet();
+        private long[] produtos = new long[1024];
+        private short[] tamanhos = new short[1024];
+        private int[] assinaturas = new int[1024];
+        private Termo[][] termosDocumento = new Termo[1024][];
+        private int documentos;
+        private int vivos;
+        private long somaTamanhos;
+        
+        void indexar(long produtoId, String nome, String descricao) {
+            // Alterações só de preço ou estoque não mudam o texto indexado
+            int assinatura = Objects.hash(nome, descricao);
+            Integer atual = documentoPorProduto.get(produtoId);
+            if (atual != null && assinaturas[atual] == assinatura) {
+                return;
+            }
+            remover(produtoId);
+            int documento = documentos++;
+            if (documento == produtos.length) {
+                produtos = Arrays.copyOf(produtos, documento * 2);
+                tamanhos = Arrays.copyOf(tamanhos, documento * 2);
+                assinaturas = Arrays.copyOf(assinaturas, documento * 2);
+                termosDocumento = Arrays.copyOf(termosDocumento, documento * 2);
+            }
+            Map<String, int[]> pesos = new HashMap<>();
+            int tamanho = contar(nome, PESO_NOME, pesos) + contar(descricao, 1, pesos);
+            Termo[] termosDoTexto = new Termo[pesos.size()];
+            int t = 0;
+            for (Map.Entry<String, int[]> peso : pesos.entrySet()) {
+                Termo termo = termos.computeIfAbsent(peso.getKey(), p -> new Termo());
+                termo.adicionar(documento, peso.getValue()[0]);
+                termosDoTexto[t++] = termo;
+            }
+            termosDocumento[documento] = termosDoTexto;
+            produtos[documento] = produtoId;
+            tamanhos[documento] = (short) Math.min(tamanho, Short.MAX_VALUE);
+            assinaturas[documento] = assinatura;
+            documentoPorProduto.put(produtoId, documento);
+            vivos++;
+            somaTamanhos += tamanhos[documento];
+        }
+        
+        void remover(long produtoId) {
+            Integer documento = documentoPorProduto.remove(produtoId);
+            if (documento != null) {
+                removidos.set(documento);
+                for (Termo termo : termosDocumento[documento]) {
+                    termo.vivos--;
+                }
+                termosDocumento[documento] = null;
+                vivos--;
+                somaTamanhos -= tamanhos[documento];
+            }
+        }
+        
+        boolean precisaCompactar() {
+            int removidosNoIndice = documentos - vivos;
+            return removidosNoIndice >= MINIMO_COMPACTACAO && removidosNoIndice > documentos * FRACAO_COMPACTACAO;
+        }
+        
+        // Renumera os documentos vivos, na mesma ordem, e tira os removidos das listas
+        void compactar() {
+            int[] novos = new int[documentos];
+            int proximo = 0;
+            for (int documento = 0; documento < documentos; documento++) {
+                if (removidos.get(documento)) {
+                    novos[documento] = -1;
+                } else {
+                    novos[documento] = proximo;
+                    produtos[proximo] = produtos[documento];
+                    tamanhos[proximo] = tamanhos[documento];
+                    assinaturas[proximo] = assinaturas[documento];
+                    termosDocumento[proximo] = termosDocumento[documento];
+                    proximo++;
+                }
+            }
+            termos.values().removeIf(termo -> termo.compactar(novos) == 0);
+            documentoPorProduto.replaceAll((produtoId, documento) -> novos[documento]);
+            Arrays.fill(termosDocumento, proximo, documentos, null);
+            removidos.clear();
+            documentos = proximo;
+        }
+        
+        Encontrados buscar(List<String> palavras, int quantidade) {
+            if (vivos == 0) {
+                return Encontrados.NENHUM;
+            }
+            double mediaTamanhos = (double) somaTamanhos / vivos;
+            List<Grupo> grupos = new ArrayList<>(palavras.size());
+            for (int i = 0; i < palavras.size(); i++) {
+                String palavra = palavras.get(i);
+                Grupo grupo = new Grupo();
+                Termo exato = termos.get(palavra);
+                if (exato != null && exato.vivos > 0) {
+                    grupo.adicionar(exato, idf(exato));
+                }
+                if (i == palavras.size() - 1) {
+                    for (Map.Entry<String, Termo> expansao : maisFrequentes(palavra, MAXIMO_EXPANSOES_PREFIXO)) {
+                        if (expansao.getValue() != exato) {
+                            grupo.adicionar(expansao.getValue(), FATOR_PREFIXO * idf(expansao.getValue()));
+                        }
+                    }
+                }
+                if (grupo.termos.isEmpty()) {
+                    return Encontrados.NENHUM;
+                }
+                grupos.add(grupo);
+            }
+            // Começa pela palavra com menos ocorrências: os candidatos só diminuem
+            grupos.sort(Comparator.comparingLong(grupo -> grupo.ocorrencias));
+            
+            Candidatos candidatos = primeiros(grupos.get(0), mediaTamanhos);
+            for (int g = 1; g < grupos.size() && candidatos.quantidade > 0; g++) {
+                filtrar(candidatos, grupos.get(g), mediaTamanhos);
+            }
+            return melhores(candidatos, quantidade);
+        }
+        
+        // Palavras de produtos vivos que começam pelo prefixo, das mais frequentes para as menos
+        // (e em ordem alfabética no empate)
+        List<Map.Entry<String, Termo>> maisFrequentes(String prefixo, int limite) {
+            Comparator<Map.Entry<String, Termo>> ordem = Comparator
+                    .comparingInt((Map.Entry<String, Termo> entrada) -> entrada.getValue().vivos)
+                    .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+            PriorityQueue<Map.Entry<String, Termo>> melhores = new PriorityQueue<>(limite + 1, ordem);
+            for (Map.Entry<String, Termo> entrada : termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).entrySet()) {
+                if (entrada.getValue().vivos == 0) {
+                    continue;
+                }
+                melhores.add(entrada);
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+            List<Map.Entry<String, Termo>> lista = new ArrayList<>(melhores);
+            lista.sort(ordem.reversed());
+            return lista;
+        }
+        
+        // Só os produtos vivos contam na frequência: com ela nunca acima de vivos, o idf é sempre positivo
+        private double idf(Termo termo) {
+            return Math.log(1 + (vivos - termo.vivos + 0.5) / (termo.vivos + 0.5));
+        }
+        
+        private double relevancia(double idf, int peso, int documento, double mediaTamanhos) {
+            return idf * peso * (K1 + 1) / (peso + K1 * (1 - B + B * tamanhos[documento] / mediaTamanhos));
+        }
+        
+        // União dos termos do grupo, com a maior relevância de cada documento
+        private Candidatos primeiros(Grupo grupo, double mediaTamanhos) {
+            if (grupo.termos.size() == 1) {
+                // Um único termo já está em ordem de documento
+                Termo termo = grupo.termos.get(0);
+                Candidatos candidatos = new Candidatos(termo.tamanho);
+                for (int i = 0; i < termo.tamanho; i++) {
+                    int documento = termo.documentos[i];
+                    if (!removidos.get(documento)) {
+                        candidatos.documentos[candidatos.quantidade] = documento;
+                        candidatos.relevancias[candidatos.quantidade++] =
+                                (float) relevancia(grupo.idfs[0], termo.pesos[i], documento, mediaTamanhos);
+                    }
+                }
+                return candidatos;
+            }
+            long[] pares = new long[(int) grupo.ocorrencias];
+            int quantidade = 0;
+            for (int t = 0; t < grupo.termos.size(); t++) {
+                Termo termo = grupo.termos.get(t);
+                double idf = grupo.idfs[t];
+                for (int i = 0; i < termo.tamanho; i++) {
+                    int documento = termo.documentos[i];
+                    if (!removidos.get(documento)) {
+                        float relevancia = (float) relevancia(idf, termo.pesos[i], documento, mediaTamanhos);
+                        // Relevância positiva: a ordem dos bits do float é a ordem dos valores
+                        pares[quantidade++] = ((long) documento << 32) | (Float.floatToIntBits(relevancia) & 0xFFFFFFFFL);
+                    }
+                }
+            }
+            Arrays.sort(pares, 0, quantidade);
+            Candidatos candidatos = new Candidatos(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                int documento = (int) (pares[i] >>> 32);
+                if (i + 1 < quantidade && (int) (pares[i + 1] >>> 32) == documento) {
+                    continue;
+                }
+                candidatos.documentos[candidatos.quantidade] = documento;
+                candidatos.relevancias[candidatos.quantidade++] = Float.intBitsToFloat((int) pares[i]);
+            }
+            return candidatos;
+        }
+        
+        // Mantém só os candidatos que têm algum termo do grupo, somando a maior relevância entre eles
+        private void filtrar(Candidatos candidatos, Grupo grupo, double mediaTamanhos) {
+            int mantidos = 0;
+            for (int c = 0; c < candidatos.quantidade; c++) {
+                int documento = candidatos.documentos[c];
+                double maior = 0;
+                for (int t = 0; t < grupo.termos.size(); t++) {
+                    Termo termo = grupo.termos.get(t);
+                    int posicao = Arrays.binarySearch(termo.documentos, 0, termo.tamanho, documento);
+                    if (posicao >= 0) {
+                        maior = Math.max(maior, relevancia(grupo.idfs[t], termo.pesos[posicao], documento, mediaTamanhos));
+                    }
+                }
+                if (maior > 0) {
+                    candidatos.documentos[mantidos] = documento;
+                    candidatos.relevancias[mantidos++] = (float) (candidatos.relevancias[c] + maior);
+                }
+            }
+            candidatos.quantidade = mantidos;
+        }
+        
+        // Os mais relevantes (no empate, o menor ID) em um heap com o pior no topo
+        private Encontrados melhores(Candidatos candidatos, int quantidade) {
+            int limite = Math.min(quantidade, candidatos.quantidade);
+            int[] heap = new int[limite];
+            int tamanhoHeap = 0;
+            for (int c = 0; c < candidatos.quantidade; c++) {
+                if (tamanhoHeap < limite) {
+                    heap[tamanhoHeap++] = c;
+                    subir(heap, tamanhoHeap - 1, candidatos);
+                } else if (melhor(c, heap[0], candidatos)) {
+                    heap[0] = c;
+                    descer(heap, limite, candidatos);
+                }
+            }
+            long[] encontrados = new long[limite];
+            float[] relevancias = new float[limite];
+            for (int i = limite - 1; i >= 0; i--) {
+                int c = heap[0];
+                encontrados[i] = produtos[candidatos.documentos[c]];
+                relevancias[i] = candidatos.relevancias[c];
+                heap[0] = heap[i];
+                descer(heap, i, candidatos);
+            }
+            return new Encontrados(encontrados, relevancias, candidatos.quantidade);
+        }
+        
+        private boolean melhor(int a, int b, Candidatos candidatos) {
+            float relevanciaA = candidatos.relevancias[a];
+            float relevanciaB = candidatos.relevancias[b];
+            return relevanciaA > relevanciaB || relevanciaA == relevanciaB
+                    && produtos[candidatos.documentos[a]] < produtos[candidatos.documentos[b]];
+        }
+        
+        private void subir(int[] heap, int posicao, Candidatos candidatos) {
+            while (posicao > 0) {
+                int pai = (posicao - 1) / 2;
+                if (!melhor(heap[pai], heap[posicao], candidatos)) {
+                    return;
+                }
+                trocar(heap, pai, posicao);
+                posicao = pai;
+            }
+        }
+        
+        private void descer(int[] heap, int tamanho, Candidatos candidatos) {
+            int posicao = 0;
+            while (true) {
+                int pior = posicao;
+                int esquerda = 2 * posicao + 1;
+                if (esquerda < tamanho && melhor(heap[pior], heap[esquerda], candidatos)) {
+                    pior = esquerda;
+                }
+                if (esquerda + 1 < tamanho && melhor(heap[pior], heap[esquerda + 1], candidatos)) {
+                    pior = esquerda + 1;
+                }
+                if (pior == posicao) {
+                    return;
+                }
+                trocar(heap, posicao, pior);
+                posicao = pior;
+            }
+        }
+        
+        private static void trocar(int[] heap, int a, int b) {
+            int valor = heap[a];
+            heap[a] = heap[b];
+            heap[b] = valor;
+        }
+        
+        // Peso de cada palavra do texto, somado ao mapa; retorna o tamanho ponderado do texto
+        private static int contar(String texto, int peso, Map<String, int[]> pesos) {
+            List<String> palavras = palavras(texto);
+            for (String palavra : palavras) {
+                pesos.computeIfAbsent(palavra, p -> new int[1])[0] += peso;
+            }
+            return palavras.size() * peso;
+        }
+    }
+    
+    /**
+     * Documentos em que uma palavra aparece, em ordem crescente, com o peso de cada ocorrência.
+     * As ocorrências em documentos removidos só saem da lista na compactação, mas deixam de
+     * contar em {@code vivos} assim que o documento é removido.
+     */
+    private static final class Termo {
+        
+        private int[] documentos = new int[4];
+        private short[] pesos = new short[4];
+        private int tamanho;
+        private int vivos;
+        
+        void adicionar(int documento, int peso) {
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamanho * 2);
+                pesos = Arrays.copyOf(pesos, tamanho * 2);
+            }
+            documentos[tamanho] = documento;
+            pesos[tamanho++] = (short) Math.min(peso, Short.MAX_VALUE);
+            vivos++;
+        }
+        
+        int compactar(int[] novos) {
+            int mantidos = 0;
+            for (int i = 0; i < tamanho; i++) {
+                int novo = novos[documentos[i]];
+                if (novo >= 0) {
+                    documentos[mantidos] = novo;
+                    pesos[mantidos++] = pesos[i];
+                }
+            }
+            tamanho = mantidos;
+            return mantidos;
+        }
+    }
+    
+    /**
+     * Termos que satisfazem uma palavra da consulta (a própria palavra e, na última, as que a completam).
+     */
+    private static final class Grupo {
+        
+        private final List<Termo> termos = new ArrayList<>();
+        private double[] idfs = new double[4];
+        private long ocorrencias;
+        
+        void adicionar(Termo termo, double idf) {
+            if (termos.size() == idfs.length) {
+                idfs = Arrays.copyOf(idfs, idfs.length * 2);
+            }
+            idfs[termos.size()] = idf;
+            termos.add(termo);
+            ocorrencias += termo.tamanho;
+        }
+    }
+    
+    /**
+     * Documentos candidatos, em ordem crescente, com a relevância acumulada.
+     */
+    private static final class Candidatos {
+        
+        private final int[] documentos;
+        private final float[] relevancias;
+        private int quantidade;
+        
+        Candidatos(int capacidade) {
+            this.documentos = new int[capacidade];
+            this.relevancias = new float[capacidade];
+        }
+    }
+}
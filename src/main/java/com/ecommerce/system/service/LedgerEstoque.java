@@ -0,0 +1,228 @@
+package com.ecommerce.system.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Livro-razão de reservas de estoque em memória, habilitado por {@code estoque.ledger.enabled=true}.
+ * <p>
+ * Quando ativo, é a fonte de verdade do estoque disponível: as reservas são feitas com CAS
+ * sobre um contador por produto, sem bloquear a linha do produto no banco. As alterações
+ * confirmadas são acumuladas e escritas no banco de forma assíncrona, em lotes que agrupam
+ * todas as variações de um mesmo produto. Na inicialização o saldo é carregado do banco.
+ * <p>
+ * Como a escrita é assíncrona, uma queda da aplicação pode perder os ajustes ainda não
+ * gravados (no máximo um intervalo de escrita).
+ */
+@Component
+@ConditionalOnProperty(name = "estoque.ledger.enabled", havingValue = "true")
+public class LedgerEstoque {
+    
+    private static final Logger log = LoggerFactory.getLogger(LedgerEstoque.class);
+    
+    private static final String SQL_AJUSTAR_ESTOQUE = "UPDATE produtos SET estoque = estoque + ? WHERE id = ?";
+    private static final String SQL_CONSULTAR_ESTOQUE = "SELECT estoque FROM produtos WHERE id = ?";
+    
+    private final ConcurrentHashMap<Long, AtomicInteger> disponivel = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> ajustesPendentes = new ConcurrentHashMap<>();
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogoProdutos catalogoProdutos;
+    private final long intervaloEscritaMs;
+    private final ScheduledExecutorService escritor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "ledger-estoque-escrita");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public LedgerEstoque(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                         CatalogoProdutos catalogoProdutos,
+                         @Value("${estoque.ledger.intervalo-escrita-ms:100}") long intervaloEscritaMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogoProdutos = catalogoProdutos;
+        this.intervaloEscritaMs = intervaloEscritaMs;
+    }
+    
+    @PostConstruct
+    void iniciarEscrita() {
+        escritor.scheduleWithFixedDelay(this::escreverComSeguranca, intervaloEscritaMs, intervaloEscritaMs,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Carrega o saldo de todos os produtos a partir do banco. Produtos já carregados sob
+     * demanda (e possivelmente já reservados) são mantidos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliar() {
+        jdbcTemplate.query("SELECT id, estoque FROM produtos",
+                (RowCallbackHandler) rs ->
+                        disponivel.putIfAbsent(rs.getLong(1), new AtomicInteger(rs.getInt(2))));
+    }
+    
+    /**
+     * Retorna o saldo disponível de um produto.
+     * @param produtoId ID do produto
+     * @return Quantidade disponível para reserva
+     */
+    public int consultarDisponivel(Long produtoId) {
+        return saldo(produtoId).get();
+    }
+    
+    /**
+     * Reserva imediatamente as quantidades informadas. A reserva é confirmada quando a
+     * transação corrente é efetivada e desfeita se ela sofrer rollback.
+     * @param quantidadesPorProduto Quantidade a reservar por ID de produto
+     * @throws RuntimeException se algum produto não tiver estoque suficiente
+     */
+    public void reservar(Map<Long, Integer> quantidadesPorProduto) {
+        List<Map.Entry<Long, Integer>> reservadas = new ArrayList<>(quantidadesPorProduto.size());
+        for (Map.Entry<Long, Integer> entrada : quantidadesPorProduto.entrySet()) {
+            if (!reservar(entrada.getKey(), entrada.getValue())) {
+                reservadas.forEach(reservada -> saldo(reservada.getKey()).addAndGet(reservada.getValue()));
+                throw new RuntimeException("Estoque insuficiente para o produto: " + catalogoProdutos.nomeProduto(entrada.getKey()));
+            }
+            reservadas.add(entrada);
+        }
+        
+        aoConcluirTransacao(confirmada -> {
+            if (confirmada) {
+                quantidadesPorProduto.forEach((produtoId, quantidade) -> registrarAjuste(produtoId, -quantidade));
+            } else {
+                quantidadesPorProduto.forEach((produtoId, quantidade) -> saldo(produtoId).addAndGet(quantidade));
+            }
+        });
+    }
+    
+    /**
+     * Devolve as quantidades informadas ao saldo quando a transação corrente for efetivada.
+     * @param quantidadesPorProduto Quantidade a devolver por ID de produto
+     */
+    public void devolver(Map<Long, Integer> quantidadesPorProduto) {
+        aoConcluirTransacao(confirmada -> {
+            if (confirmada) {
+                quantidadesPorProduto.forEach((produtoId, quantidade) -> {
+                    saldo(produtoId).addAndGet(quantidade);
+                    registrarAjuste(produtoId, quantidade);
+                });
+            }
+        });
+    }
+    
+    /**
+     * Grava no banco, em um único lote, os ajustes acumulados desde a última escrita.
+     * Em caso de falha, os ajustes voltam para a fila e são tentados na próxima escrita.
+     */
+    public void escreverAjustesPendentes() {
+        Map<Long, Integer> lote = new HashMap<>();
+        ajustesPendentes.forEach((produtoId, ajuste) -> {
+            long delta = ajuste.sumThenReset();
+            if (delta != 0) {
+                lote.put(produtoId, (int) delta);
+            }
+        });
+        if (lote.isEmpty()) {
+            return;
+        }
+        
+        List<Map.Entry<Long, Integer>> entradas = new ArrayList<>(lote.entrySet());
+        entradas.sort(Map.Entry.comparingByKey());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(SQL_AJUSTAR_ESTOQUE, entradas, entradas.size(), (ps, entrada) -> {
+                        ps.setInt(1, entrada.getValue());
+                        ps.setLong(2, entrada.getKey());
+                    }));
+        } catch (RuntimeException e) {
+            lote.forEach(this::registrarAjuste);
+            throw e;
+        }
+    }
+    
+    @PreDestroy
+    void encerrar() {
+        escritor.shutdown();
+        try {
+            escritor.awaitTermination(intervaloEscritaMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        escreverAjustesPendentes();
+    }
+    
+    private boolean reservar(Long produtoId, int quantidade) {
+        AtomicInteger saldo = saldo(produtoId);
+        int atual;
+        do {
+            atual = saldo.get();
+            if (atual < quantidade) {
+                return false;
+            }
+        } while (!saldo.compareAndSet(atual, atual - quantidade));
+        return true;
+    }
+    
+    private AtomicInteger saldo(Long produtoId) {
+        AtomicInteger saldo = disponivel.get(produtoId);
+        if (saldo != null) {
+            return saldo;
+        }
+        // Consulta fora do mapa: computeIfAbsent bloquearia o bin durante o acesso ao banco.
+        // Se outra thread carregar o produto ao mesmo tempo, vale o saldo que entrou primeiro
+        List<Integer> estoque = jdbcTemplate.queryForList(SQL_CONSULTAR_ESTOQUE, Integer.class, produtoId);
+        if (estoque.isEmpty()) {
+            throw new RuntimeException("Produto não encontrado: " + produtoId);
+        }
+        AtomicInteger carregado = new AtomicInteger(estoque.get(0));
+        AtomicInteger existente = disponivel.putIfAbsent(produtoId, carregado);
+        return existente != null ? existente : carregado;
+    }
+    
+    private void registrarAjuste(Long produtoId, long quantidade) {
+        ajustesPendentes.computeIfAbsent(produtoId, id -> new LongAdder()).add(quantidade);
+    }
+    
+    private void escreverComSeguranca() {
+        try {
+            escreverAjustesPendentes();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar ajustes de estoque; nova tentativa no próximo ciclo", e);
+        }
+    }
+    
+    private static void aoConcluirTransacao(Consumer<Boolean> acao) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acao.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
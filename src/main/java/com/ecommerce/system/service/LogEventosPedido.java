@@ -0,0 +1,367 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.state.OperacaoPedido;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de eventos de pedido só de acréscimo, em segmentos de tamanho fixo mapeados em memória.
+ * <p>
+ * Cada segmento é um arquivo {@code eventos-<primeira sequência>.log}; quando o próximo evento
+ * não cabe, um novo segmento é criado e o restante do anterior fica zerado, marcando o fim. Cada
+ * registro traz o tamanho e o CRC32C do conteúdo (sequência, pedido, data, operação, status
+ * anterior e novo e número do pedido). A sequência é atribuída pelo log ao gravar: começa em 1 e
+ * cresce de um em um, sem lacunas, na ordem de gravação, e continua de onde parou ao reabrir.
+ * Descartar eventos repetidos cabe a quem grava.
+ * <p>
+ * Ao abrir, o último segmento é percorrido até o primeiro registro incompleto ou corrompido (uma
+ * gravação interrompida pela queda do processo), e os próximos eventos são gravados a partir dali.
+ * Os registros ficam na memória mapeada até {@link #sincronizar()} forçá-los para o disco.
+ * <p>
+ * Há um único escritor por vez (a gravação é sincronizada); {@link #reproduzir(long, Consumer)}
+ * pode rodar em paralelo e vê os eventos gravados até o seu início.
+ */
+public class LogEventosPedido implements Closeable {
+    
+    private static final String PREFIXO_SEGMENTO = "eventos-";
+    private static final String EXTENSAO_SEGMENTO = ".log";
+    
+    // Tamanho do conteúdo (int) e CRC32C do conteúdo (int)
+    private static final int CABECALHO = 2 * Integer.BYTES;
+    
+    // Sequência, pedido e data (long); operação, status anterior, status novo e tamanho do número (byte)
+    private static final int CONTEUDO_FIXO = 3 * Long.BYTES + 4;
+    
+    private static final int TAMANHO_MAXIMO_NUMERO = 255;
+    
+    /**
+     * Maior registro possível: o segmento precisa comportar ao menos um.
+     */
+    public static final int TAMANHO_MAXIMO_REGISTRO = CABECALHO + CONTEUDO_FIXO + TAMANHO_MAXIMO_NUMERO;
+    
+    private static final OperacaoPedido[] OPERACOES = OperacaoPedido.values();
+    
+    private final Path diretorio;
+    private final int capacidade;
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    
+    // Segmento em que os eventos são acrescentados (null até o primeiro evento) e a visão usada no CRC
+    private MappedByteBuffer ativo;
+    private ByteBuffer visaoAtivo;
+    private int posicao;
+    private int posicaoSincronizada;
+    private long ultimaSequencia;
+    
+    /**
+     * Abre (ou cria) o log no diretório informado.
+     * @param diretorio Diretório dos segmentos
+     * @param capacidade Tamanho de cada novo segmento, em bytes
+     * @throws IllegalArgumentException se a capacidade não comportar o maior registro possível
+     * @throws UncheckedIOException se os segmentos não puderem ser lidos
+     */
+    public LogEventosPedido(Path diretorio, int capacidade) {
+        if (capacidade < TAMANHO_MAXIMO_REGISTRO) {
+            throw new IllegalArgumentException("Segmento deve ter ao menos " + TAMANHO_MAXIMO_REGISTRO + " bytes");
+        }
+        this.diretorio = diretorio;
+        this.capacidade = capacidade;
+        try {
+            Files.createDirectories(diretorio);
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                arquivos.filter(LogEventosPedido::isSegmento)
+                        .map(arquivo -> new Segmento(primeiraSequencia(arquivo), arquivo))
+                        .sorted(Comparator.comparingLong(Segmento::primeiraSequencia))
+                        .forEach(segmentos::add);
+            }
+            if (!segmentos.isEmpty()) {
+                recuperarUltimoSegmento();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao abrir o log de eventos: " + diretorio, e);
+        }
+    }
+    
+    /**
+     * Acrescenta um evento ao log.
+     * @param pedidoId ID do pedido
+     * @param numeroPedido Número do pedido
+     * @param operacao Operação aplicada, ou null na criação do pedido
+     * @param anterior Status antes do evento, ou null na criação do pedido
+     * @param novo Status depois do evento
+     * @param dataEvento Momento do evento, em milissegundos desde a época (UTC)
+     * @return Sequência atribuída ao evento
+     * @throws IllegalArgumentException se o número do pedido for longo demais
+     */
+    public synchronized long anexar(long pedidoId, String numeroPedido, OperacaoPedido operacao,
+                                    StatusPedido anterior, StatusPedido novo, long dataEvento) {
+        byte[] numero = numeroPedido.getBytes(StandardCharsets.UTF_8);
+        if (numero.length > TAMANHO_MAXIMO_NUMERO) {
+            throw new IllegalArgumentException("Número do pedido longo demais: " + numeroPedido);
+        }
+        long sequencia = ultimaSequencia + 1;
+        int tamanho = CONTEUDO_FIXO + numero.length;
+        if (ativo == null || posicao + CABECALHO + tamanho > ativo.capacity()) {
+            criarSegmento(sequencia);
+        }
+        
+        int conteudo = posicao + CABECALHO;
+        ativo.putLong(conteudo, sequencia);
+        ativo.putLong(conteudo + 8, pedidoId);
+        ativo.putLong(conteudo + 16, dataEvento);
+        ativo.put(conteudo + 24, operacao == null ? 0 : (byte) (operacao.ordinal() + 1));
+        ativo.put(conteudo + 25, anterior == null ? 0 : (byte) (anterior.getCodigo() + 1));
+        ativo.put(conteudo + 26, (byte) (novo.getCodigo() + 1));
+        ativo.put(conteudo + 27, (byte) numero.length);
+        ativo.put(conteudo + CONTEUDO_FIXO, numero);
+        crc.reset();
+        crc.update(visaoAtivo.clear().position(conteudo).limit(conteudo + tamanho));
+        ativo.putInt(posicao + Integer.BYTES, (int) crc.getValue());
+        // O tamanho por último: enquanto ele é zero, o registro não existe para a leitura
+        ativo.putInt(posicao, tamanho);
+        
+        posicao = conteudo + tamanho;
+        ultimaSequencia = sequencia;
+        return sequencia;
+    }
+    
+    /**
+     * Força para o disco os registros gravados desde a última sincronização.
+     */
+    public synchronized void sincronizar() {
+        if (ativo != null && posicao > posicaoSincronizada) {
+            ativo.force(posicaoSincronizada, posicao - posicaoSincronizada);
+            posicaoSincronizada = posicao;
+        }
+    }
+    
+    /**
+     * Entrega ao consumidor, em ordem, os eventos a partir de uma sequência. O evento entregue é
+     * reaproveitado entre as chamadas e só é válido durante a chamada ao consumidor.
+     * @param aPartirDe Menor sequência a entregar
+     * @param consumidor Consumidor dos eventos
+     * @return Quantidade de eventos entregues
+     * @throws UncheckedIOException se algum segmento não puder ser lido
+     */
+    public long reproduzir(long aPartirDe, Consumer<EventoLido> consumidor) {
+        List<Segmento> lidos;
+        int fimAtivo;
+        synchronized (this) {
+            lidos = List.copyOf(segmentos);
+            fimAtivo = posicao;
+        }
+        int primeiro = 0;
+        while (primeiro + 1 < lidos.size() && lidos.get(primeiro + 1).primeiraSequencia() <= aPartirDe) {
+            primeiro++;
+        }
+        
+        EventoLido evento = new EventoLido();
+        CRC32C verificacao = new CRC32C();
+        long entregues = 0;
+        for (int i = primeiro; i < lidos.size(); i++) {
+            ByteBuffer segmento = mapear(lidos.get(i).arquivo(), FileChannel.MapMode.READ_ONLY);
+            ByteBuffer visao = segmento.duplicate();
+            int limite = i == lidos.size() - 1 ? fimAtivo : segmento.capacity();
+            int fim = 0;
+            for (int proximo; (proximo = proximoRegistro(segmento, visao, fim, limite, verificacao)) > 0; fim = proximo) {
+                evento.ler(segmento, fim + CABECALHO);
+                if (evento.sequencia >= aPartirDe) {
+                    consumidor.accept(evento);
+                    entregues++;
+                }
+            }
+        }
+        return entregues;
+    }
+    
+    /**
+     * @return Sequência do último evento gravado (0 se o log estiver vazio)
+     */
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+    
+    /**
+     * @return Quantidade de segmentos do log
+     */
+    public synchronized int getQuantidadeSegmentos() {
+        return segmentos.size();
+    }
+    
+    /**
+     * Sincroniza os registros pendentes e solta o segmento ativo. Um novo acréscimo reabre um segmento.
+     */
+    @Override
+    public synchronized void close() {
+        sincronizar();
+        ativo = null;
+    }
+    
+    private void recuperarUltimoSegmento() {
+        Segmento ultimo = segmentos.get(segmentos.size() - 1);
+        ativo = (MappedByteBuffer) mapear(ultimo.arquivo(), FileChannel.MapMode.READ_WRITE);
+        visaoAtivo = ativo.duplicate();
+        ultimaSequencia = ultimo.primeiraSequencia() - 1;
+        posicao = 0;
+        for (int proximo; (proximo = proximoRegistro(ativo, visaoAtivo, posicao, ativo.capacity(), crc)) > 0; posicao = proximo) {
+            ultimaSequencia = ativo.getLong(posicao + CABECALHO);
+        }
+        // Apaga o que sobrou de uma gravação interrompida, para não ser confundido com um registro
+        int resto = Math.min(TAMANHO_MAXIMO_REGISTRO, ativo.capacity() - posicao);
+        ativo.put(posicao, new byte[resto]);
+        ativo.force(posicao, resto);
+        posicaoSincronizada = posicao;
+    }
+    
+    private void criarSegmento(long primeiraSequencia) {
+        sincronizar();
+        int ultimo = segmentos.size() - 1;
+        if (ultimo >= 0 && segmentos.get(ultimo).primeiraSequencia() == primeiraSequencia) {
+            // Segmento criado para este mesmo evento, sem nenhum registro, antes de uma queda: é reaproveitado
+            segmentos.remove(ultimo);
+        }
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, primeiraSequencia, EXTENSAO_SEGMENTO));
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ativo = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidade);
+            visaoAtivo = ativo.duplicate();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao criar o segmento do log de eventos: " + arquivo, e);
+        }
+        segmentos.add(new Segmento(primeiraSequencia, arquivo));
+        posicao = 0;
+        posicaoSincronizada = 0;
+    }
+    
+    /**
+     * @param visao Cópia do segmento cuja posição e limite são alterados para calcular o CRC
+     * @return Posição seguinte ao registro que começa em {@code inicio}, ou -1 se ali não houver
+     *         um registro completo e íntegro (fim do segmento ou gravação interrompida)
+     */
+    private static int proximoRegistro(ByteBuffer segmento, ByteBuffer visao, int inicio, int limite, CRC32C verificacao) {
+        if (inicio + CABECALHO + CONTEUDO_FIXO > limite) {
+            return -1;
+        }
+        int tamanho = segmento.getInt(inicio);
+        if (tamanho < CONTEUDO_FIXO || tamanho > CONTEUDO_FIXO + TAMANHO_MAXIMO_NUMERO
+                || inicio + CABECALHO + tamanho > limite) {
+            return -1;
+        }
+        verificacao.reset();
+        verificacao.update(visao.clear().position(inicio + CABECALHO).limit(inicio + CABECALHO + tamanho));
+        if ((int) verificacao.getValue() != segmento.getInt(inicio + Integer.BYTES)) {
+            return -1;
+        }
+        return inicio + CABECALHO + tamanho;
+    }
+    
+    private static ByteBuffer mapear(Path arquivo, FileChannel.MapMode modo) {
+        StandardOpenOption[] opcoes = modo == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel canal = FileChannel.open(arquivo, opcoes)) {
+            return canal.map(modo, 0, canal.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o segmento do log de eventos: " + arquivo, e);
+        }
+    }
+    
+    private static boolean isSegmento(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return nome.startsWith(PREFIXO_SEGMENTO) && nome.endsWith(EXTENSAO_SEGMENTO);
+    }
+    
+    private static long primeiraSequencia(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - EXTENSAO_SEGMENTO.length()));
+    }
+    
+    private record Segmento(long primeiraSequencia, Path arquivo) {
+    }
+    
+    /**
+     * Evento lido do log durante a reprodução. Os campos numéricos são lidos de uma vez; o
+     * número do pedido e a data só são convertidos quando pedidos.
+     */
+    public static final class EventoLido {
+        
+        private ByteBuffer segmento;
+        private int conteudo;
+        private long sequencia;
+        private long pedidoId;
+        private byte novo;
+        
+        private void ler(ByteBuffer segmento, int conteudo) {
+            this.segmento = segmento;
+            this.conteudo = conteudo;
+            this.sequencia = segmento.getLong(conteudo);
+            this.pedidoId = segmento.getLong(conteudo + 8);
+            this.novo = segmento.get(conteudo + 26);
+        }
+        
+        public long getSequencia() {
+            return sequencia;
+        }
+        
+        public long getPedidoId() {
+            return pedidoId;
+        }
+        
+        /**
+         * @return Momento do evento, em milissegundos desde a época (UTC)
+         */
+        public long getDataEventoMillis() {
+            return segmento.getLong(conteudo + 16);
+        }
+        
+        public LocalDateTime getDataEvento() {
+            long millis = getDataEventoMillis();
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000,
+                    ZoneOffset.UTC);
+        }
+        
+        /**
+         * @return Operação aplicada, ou null no evento de criação do pedido
+         */
+        public OperacaoPedido getOperacao() {
+            byte codigo = segmento.get(conteudo + 24);
+            return codigo == 0 ? null : OPERACOES[codigo - 1];
+        }
+        
+        /**
+         * @return Status antes do evento, ou null no evento de criação do pedido
+         */
+        public StatusPedido getStatusAnterior() {
+            byte codigo = segmento.get(conteudo + 25);
+            return codigo == 0 ? null : StatusPedido.doCodigo(codigo - 1);
+        }
+        
+        public StatusPedido getStatusNovo() {
+            return StatusPedido.doCodigo(novo - 1);
+        }
+        
+        public String getNumeroPedido() {
+            byte[] numero = new byte[segmento.get(conteudo + 27) & 0xFF];
+            segmento.get(conteudo + CONTEUDO_FIXO, numero);
+            return new String(numero, StandardCharsets.UTF_8);
+        }
+    }
+}
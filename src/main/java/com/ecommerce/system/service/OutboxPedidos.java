@@ -0,0 +1,102 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.state.OperacaoPedido;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grava os eventos de mudança de status dos pedidos na tabela de outbox ({@code outbox_pedidos}).
+ * <p>
+ * A gravação acontece na transação que altera o status: o evento existe se, e somente se, a
+ * mudança foi efetivada. A entrega aos sistemas externos fica com o {@link RelayOutbox}, fora
+ * da requisição, então a latência das transições não depende deles.
+ */
+@Component
+public class OutboxPedidos {
+    
+    private static final String SQL_INSERIR_EVENTO = "INSERT INTO outbox_pedidos "
+            + "(pedido_id, numero_pedido, operacao, status_anterior, status_novo, data_evento) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public OutboxPedidos(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Registra a criação de um pedido.
+     * @param pedido O pedido, já com ID
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCriacao(Pedido pedido) {
+        registrar(List.of(Transicao.criacao(pedido)));
+    }
+    
+    /**
+     * Registra a transição de um pedido.
+     * @param pedido O pedido, já com o novo status
+     * @param operacao A operação aplicada
+     * @param anterior O status antes da operação
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Pedido pedido, OperacaoPedido operacao, StatusPedido anterior) {
+        registrar(List.of(Transicao.de(pedido, operacao, anterior)));
+    }
+    
+    /**
+     * Registra várias transições em um único lote JDBC.
+     * @param transicoes As transições, na ordem em que foram aplicadas
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(List<Transicao> transicoes) {
+        if (transicoes.isEmpty()) {
+            return;
+        }
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(SQL_INSERIR_EVENTO, transicoes, transicoes.size(), (ps, transicao) -> {
+            ps.setLong(1, transicao.pedidoId());
+            ps.setString(2, transicao.numeroPedido());
+            if (transicao.operacao() == null) {
+                ps.setNull(3, Types.VARCHAR);
+                ps.setNull(4, Types.SMALLINT);
+            } else {
+                ps.setString(3, transicao.operacao().name());
+                ps.setShort(4, transicao.anterior().getCodigo());
+            }
+            ps.setShort(5, transicao.novo().getCodigo());
+            ps.setTimestamp(6, agora);
+        });
+    }
+    
+    /**
+     * Mudança de status de um pedido; na criação, sem operação e sem status anterior.
+     */
+    public record Transicao(Long pedidoId, String numeroPedido, OperacaoPedido operacao,
+                            StatusPedido anterior, StatusPedido novo) {
+        
+        /**
+         * @param pedido O pedido, já com o novo status
+         * @param operacao A operação aplicada
+         * @param anterior O status antes da operação
+         */
+        public static Transicao de(Pedido pedido, OperacaoPedido operacao, StatusPedido anterior) {
+            return new Transicao(pedido.getId(), pedido.getNumeroPedido(), operacao, anterior, pedido.getStatus());
+        }
+        
+        /**
+         * @param pedido O pedido recém-criado, já com ID
+         */
+        public static Transicao criacao(Pedido pedido) {
+            return new Transicao(pedido.getId(), pedido.getNumeroPedido(), null, null, pedido.getStatus());
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.EstatisticasPedidosDTO;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Agregados de vendas em memória para o painel: pedidos, valor e frete por status, por tipo de
+ * frete e por minuto e hora de criação.
+ * <p>
+ * A cada criação e transição de pedido, depois do commit, o pedido é somado ao novo status e
+ * subtraído do anterior. Por tipo de frete e por intervalo só contam os não cancelados, então o
+ * cancelamento retira o pedido do tipo e do minuto em que ele foi criado. Os agregados equivalem
+ * a um {@code GROUP BY} sobre a tabela de pedidos, e a consulta não depende da quantidade de
+ * pedidos. Os intervalos ficam em janelas circulares de {@value #MINUTOS_NA_JANELA} minutos e
+ * {@value #HORAS_NA_JANELA} horas.
+ * <p>
+ * Na inicialização os agregados são recalculados a partir do banco. Com várias instâncias da
+ * aplicação, cada uma só vê as próprias alterações até a próxima {@link #reconstruir() reconstrução}.
+ */
+@Component
+public class PainelVendas {
+    
+    /** Minutos consultáveis em {@link #consultar(int, int)}. */
+    public static final int MINUTOS_NA_JANELA = 24 * 60;
+    
+    /** Horas consultáveis em {@link #consultar(int, int)}. */
+    public static final int HORAS_NA_JANELA = 30 * 24;
+    
+    private static final String TIPO_FRETE_NAO_INFORMADO = "NAO_INFORMADO";
+    
+    private static final String SQL_TOTAIS = "SELECT status, tipo_frete, COUNT(*), SUM(valor_total), SUM(valor_frete) "
+            + "FROM pedidos GROUP BY status, tipo_frete";
+    
+    private static final String SQL_MINUTOS = "SELECT DATE_TRUNC('MINUTE', data_criacao), COUNT(*), SUM(valor_total), "
+            + "SUM(valor_frete) FROM pedidos WHERE status <> ? AND data_criacao >= ? "
+            + "GROUP BY DATE_TRUNC('MINUTE', data_criacao)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    // Trocado por inteiro na reconstrução; lido e alterado sob o monitor desta instância
+    private Agregados agregados = new Agregados();
+    
+    public PainelVendas(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Registra a criação ou a transição de um pedido (ver {@link #registrar(List)}).
+     * @param movimento O movimento
+     */
+    public void registrar(Movimento movimento) {
+        registrar(List.of(movimento));
+    }
+    
+    /**
+     * Registra criações e transições de pedidos. Dentro de uma transação, os agregados só são
+     * alterados depois do commit (e nunca, em caso de rollback); fora dela, imediatamente.
+     * @param movimentos Os movimentos
+     */
+    public void registrar(List<Movimento> movimentos) {
+        if (movimentos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(movimentos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(movimentos);
+            }
+        });
+    }
+    
+    /**
+     * Consulta os agregados.
+     * @param minutos Últimos minutos a listar, incluindo o atual (0 a {@value #MINUTOS_NA_JANELA})
+     * @param horas Últimas horas a listar, incluindo a atual (0 a {@value #HORAS_NA_JANELA})
+     * @return Totais por status, por tipo de frete, por minuto e por hora (do mais antigo para o atual)
+     * @throws IllegalArgumentException se algum dos intervalos estiver fora dos limites
+     */
+    public EstatisticasPedidosDTO consultar(int minutos, int horas) {
+        if (minutos < 0 || minutos > MINUTOS_NA_JANELA) {
+            throw new IllegalArgumentException("Minutos devem estar entre 0 e " + MINUTOS_NA_JANELA);
+        }
+        if (horas < 0 || horas > HORAS_NA_JANELA) {
+            throw new IllegalArgumentException("Horas devem estar entre 0 e " + HORAS_NA_JANELA);
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        synchronized (this) {
+            return agregados.consultar(agora, minutos, horas);
+        }
+    }
+    
+    /**
+     * Recalcula os agregados a partir do banco e os troca pelos atuais. Alterações efetivadas
+     * durante a reconstrução podem ser contadas em dobro ou ficar de fora, então ela é feita na
+     * inicialização, antes de a aplicação receber pedidos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        Agregados novos = new Agregados();
+        jdbcTemplate.query(SQL_TOTAIS, (RowCallbackHandler) rs -> novos.somarTotais(
+                StatusPedido.doCodigo(rs.getShort(1)), rs.getString(2), rs.getLong(3),
+                centavos(rs.getBigDecimal(4)), centavos(rs.getBigDecimal(5))));
+        LocalDateTime inicioJanela = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)
+                .minusHours(HORAS_NA_JANELA - 1);
+        jdbcTemplate.query(SQL_MINUTOS, (RowCallbackHandler) rs -> novos.somarIntervalos(
+                minuto(rs.getTimestamp(1).toLocalDateTime()), rs.getLong(2),
+                centavos(rs.getBigDecimal(3)), centavos(rs.getBigDecimal(4))),
+                StatusPedido.CANCELADO.getCodigo(), Timestamp.valueOf(inicioJanela));
+        synchronized (this) {
+            agregados = novos;
+        }
+    }
+    
+    private synchronized void aplicar(List<Movimento> movimentos) {
+        for (Movimento movimento : movimentos) {
+            agregados.aplicar(movimento);
+        }
+    }
+    
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : valor.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+    
+    private static BigDecimal reais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+    
+    private static long minuto(LocalDateTime data) {
+        return Math.floorDiv(data.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+    
+    private static String chaveTipoFrete(String tipoFrete) {
+        return tipoFrete == null || tipoFrete.isBlank() ? TIPO_FRETE_NAO_INFORMADO : tipoFrete.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    private static boolean naoCancelado(StatusPedido status) {
+        return status != null && status != StatusPedido.CANCELADO;
+    }
+    
+    /**
+     * Criação (sem status anterior) ou transição de um pedido, com os valores usados nos agregados.
+     */
+    public record Movimento(StatusPedido anterior, StatusPedido novo, String tipoFrete,
+                            BigDecimal valorTotal, BigDecimal valorFrete, LocalDateTime dataCriacao) {
+        
+        /**
+         * @param pedido O pedido recém-criado
+         */
+        public static Movimento criacao(Pedido pedido) {
+            return new Movimento(null, pedido.getStatus(), pedido.getTipoFrete(), pedido.getValorTotal(),
+                    pedido.getValorFrete(), pedido.getDataCriacao());
+        }
+        
+        /**
+         * @param pedido O pedido, já com o novo status
+         * @param anterior O status antes da transição
+         */
+        public static Movimento transicao(Pedido pedido, StatusPedido anterior) {
+            return new Movimento(anterior, pedido.getStatus(), pedido.getTipoFrete(), pedido.getValorTotal(),
+                    pedido.getValorFrete(), pedido.getDataCriacao());
+        }
+    }
+    
+    /**
+     * Totais (pedidos, valor e frete em centavos) por status, por tipo de frete e por intervalo.
+     */
+    private static final class Agregados {
+        
+        private final long[][] porStatus = new long[StatusPedido.values().length][3];
+        private final Map<String, long[]> porTipoFrete = new TreeMap<>();
+        private final Janela minutos = new Janela(MINUTOS_NA_JANELA, 1);
+        private final Janela horas = new Janela(HORAS_NA_JANELA, 60);
+        private final long[] naoCancelados = new long[3];
+        
+        void aplicar(Movimento movimento) {
+            long valor = centavos(movimento.valorTotal());
+            long frete = centavos(movimento.valorFrete());
+            if (movimento.anterior() != null) {
+                somar(porStatus[movimento.anterior().getCodigo()], -1, -valor, -frete);
+            }
+            somar(porStatus[movimento.novo().getCodigo()], 1, valor, frete);
+            
+            // +1 na criação de um pedido não cancelado, -1 no cancelamento
+            int sinal = (naoCancelado(movimento.novo()) ? 1 : 0) - (naoCancelado(movimento.anterior()) ? 1 : 0);
+            if (sinal != 0) {
+                String tipo = chaveTipoFrete(movimento.tipoFrete());
+                long[] totaisTipo = porTipoFrete.computeIfAbsent(tipo, chave -> new long[3]);
+                somar(totaisTipo, sinal, sinal * valor, sinal * frete);
+                if (totaisTipo[0] == 0) {
+                    // Como no GROUP BY, um tipo sem pedidos não aparece
+                    porTipoFrete.remove(tipo);
+                }
+                somar(naoCancelados, sinal, sinal * valor, sinal * frete);
+                somarIntervalos(minuto(movimento.dataCriacao()), sinal, sinal * valor, sinal * frete);
+            }
+        }
+        
+        void somarTotais(StatusPedido status, String tipoFrete, long pedidos, long valor, long frete) {
+            somar(porStatus[status.getCodigo()], pedidos, valor, frete);
+            if (naoCancelado(status)) {
+                somar(porTipoFrete.computeIfAbsent(chaveTipoFrete(tipoFrete), tipo -> new long[3]), pedidos, valor, frete);
+                somar(naoCancelados, pedidos, valor, frete);
+            }
+        }
+        
+        // Só as janelas: os não cancelados de qualquer data vêm dos totais
+        void somarIntervalos(long minuto, long pedidos, long valor, long frete) {
+            minutos.somar(minuto, pedidos, valor, frete);
+            horas.somar(minuto, pedidos, valor, frete);
+        }
+        
+        EstatisticasPedidosDTO consultar(LocalDateTime agora, int quantidadeMinutos, int quantidadeHoras) {
+            Map<String, EstatisticasPedidosDTO.Totais> status = new LinkedHashMap<>();
+            for (StatusPedido s : StatusPedido.values()) {
+                status.put(s.name(), totais(porStatus[s.getCodigo()]));
+            }
+            Map<String, EstatisticasPedidosDTO.Totais> tipos = new LinkedHashMap<>();
+            porTipoFrete.forEach((tipo, totais) -> tipos.put(tipo, totais(totais)));
+            return new EstatisticasPedidosDTO(agora, totais(naoCancelados), status, tipos,
+                    minutos.listar(minuto(agora), quantidadeMinutos), horas.listar(minuto(agora), quantidadeHoras));
+        }
+        
+        private static EstatisticasPedidosDTO.Totais totais(long[] totais) {
+            return new EstatisticasPedidosDTO.Totais(totais[0], reais(totais[1]), reais(totais[2]));
+        }
+        
+        private static void somar(long[] totais, long pedidos, long valor, long frete) {
+            totais[0] += pedidos;
+            totais[1] += valor;
+            totais[2] += frete;
+        }
+    }
+    
+    /**
+     * Janela circular de intervalos de {@code minutosPorIntervalo} minutos. Cada posição guarda
+     * o intervalo a que se refere, e é zerada quando passa a ser usada por um intervalo mais novo.
+     */
+    private static final class Janela {
+        
+        private final int minutosPorIntervalo;
+        private final long[] intervalos;
+        private final long[][] totais;
+        
+        Janela(int tamanho, int minutosPorIntervalo) {
+            this.minutosPorIntervalo = minutosPorIntervalo;
+            this.intervalos = new long[tamanho];
+            this.totais = new long[tamanho][3];
+            Arrays.fill(intervalos, Long.MIN_VALUE);
+        }
+        
+        void somar(long minuto, long pedidos, long valor, long frete) {
+            long intervalo = Math.floorDiv(minuto, minutosPorIntervalo);
+            int posicao = (int) Math.floorMod(intervalo, intervalos.length);
+            if (intervalos[posicao] != intervalo) {
+                // Subtração de um intervalo que já saiu da janela, ou soma em um mais antigo que o da posição
+                if (pedidos < 0 || intervalo < intervalos[posicao]) {
+                    return;
+                }
+                intervalos[posicao] = intervalo;
+                Arrays.fill(totais[posicao], 0);
+            }
+            Agregados.somar(totais[posicao], pedidos, valor, frete);
+        }
+        
+        List<EstatisticasPedidosDTO.Intervalo> listar(long minutoAtual, int quantidade) {
+            long atual = Math.floorDiv(minutoAtual, minutosPorIntervalo);
+            List<EstatisticasPedidosDTO.Intervalo> lista = new ArrayList<>(quantidade);
+            for (long intervalo = atual - quantidade + 1; intervalo <= atual; intervalo++) {
+                int posicao = (int) Math.floorMod(intervalo, intervalos.length);
+                long[] valores = intervalos[posicao] == intervalo ? totais[posicao] : new long[3];
+                lista.add(new EstatisticasPedidosDTO.Intervalo(
+                        LocalDateTime.ofEpochSecond(intervalo * minutosPorIntervalo * 60, 0, ZoneOffset.UTC),
+                        valores[0], reais(valores[1]), reais(valores[2])));
+            }
+            return lista;
+        }
+    }
+}
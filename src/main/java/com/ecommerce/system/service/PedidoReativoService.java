@@ -0,0 +1,563 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.config.CacheConfig;
+import com.ecommerce.system.domain.ItemPedido;
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PaginaDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.state.OperacaoPedido;
+import com.ecommerce.system.state.PedidoStateManager;
+import com.ecommerce.system.strategy.FreteCalculator;
+import io.r2dbc.spi.Readable;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Versão não bloqueante (R2DBC) das operações de pedido, usada pela API reativa.
+ * <p>
+ * As regras são as mesmas do {@link PedidoService}: o frete vem do {@link RegistroFrete},
+ * as transições passam pelo {@link PedidoStateManager} e o estoque é baixado com o mesmo UPDATE
+ * condicional do {@link EstoqueService}. Uma transição só é gravada se o status no banco ainda
+ * for o lido (senão a operação é repetida), grava o seu evento no outbox na mesma transação
+ * e remove o pedido do cache de leitura da API servlet depois do commit. Criações e transições
+ * são somadas ao {@link PainelVendas} depois do commit.
+ * <p>
+ * Não suporta o {@link LedgerEstoque}, que mantém o saldo fora do banco.
+ */
+@Service
+@ConditionalOnProperty(name = "pedido.reativo.enabled", havingValue = "true")
+public class PedidoReativoService {
+    
+    private static final String SQL_CLIENTE = "SELECT nome, email FROM clientes WHERE id = :id";
+    
+    private static final String SQL_PRODUTOS = "SELECT id, nome, preco FROM produtos WHERE id IN (:ids)";
+    
+    private static final String SQL_BAIXAR_ESTOQUE =
+            "UPDATE produtos SET estoque = estoque - :quantidade WHERE id = :id AND estoque >= :quantidade";
+    
+    private static final String SQL_DEVOLVER_ESTOQUE = "UPDATE produtos SET estoque = estoque + :quantidade WHERE id = :id";
+    
+    private static final String SQL_INSERIR_PEDIDO = "INSERT INTO pedidos "
+            + "(id, numero_pedido, valor_total, data_criacao, status, cliente_id, valor_frete, tipo_frete) "
+            + "VALUES (:id, :numero, :total, :data, :status, :cliente, :frete, :tipoFrete)";
+    
+    private static final String SQL_INSERIR_ITEM = "INSERT INTO itens_pedido "
+            + "(id, pedido_id, produto_id, quantidade, preco_unitario, subtotal) "
+            + "VALUES (:id, :pedido, :produto, :quantidade, :preco, :subtotal)";
+    
+    private static final String SQL_STATUS = "SELECT numero_pedido, status, valor_total, valor_frete, tipo_frete, data_criacao "
+            + "FROM pedidos WHERE id = :id";
+    
+    private static final String SQL_ATUALIZAR_STATUS = "UPDATE pedidos SET status = :novo WHERE id = :id AND status = :anterior";
+    
+    private static final String SQL_INSERIR_EVENTO = "INSERT INTO outbox_pedidos "
+            + "(pedido_id, numero_pedido, operacao, status_anterior, status_novo, data_evento) "
+            + "VALUES (:pedido, :numero, :operacao, :anterior, :novo, :data)";
+    
+    private static final String SQL_QUANTIDADES = "SELECT produto_id, SUM(quantidade) FROM itens_pedido "
+            + "WHERE pedido_id = :id GROUP BY produto_id ORDER BY produto_id";
+    
+    private static final String COLUNAS_PEDIDO = "p.id, p.numero_pedido, p.status, p.data_criacao, p.valor_total, "
+            + "p.valor_frete, p.tipo_frete, c.id, c.nome, c.email";
+    
+    private static final String SQL_ITENS = "SELECT i.pedido_id, i.id, pr.nome, i.quantidade, i.preco_unitario, i.subtotal "
+            + "FROM itens_pedido i JOIN produtos pr ON pr.id = i.produto_id WHERE i.pedido_id IN (:ids) ORDER BY i.id";
+    
+    // Tentativas de uma transição cujo status foi alterado por outra transação
+    private static final int TENTATIVAS_TRANSICAO = 3;
+    
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transacional;
+    private final SequenciaReativa sequenciaPedidos;
+    private final SequenciaReativa sequenciaItens;
+    private final GeradorNumeroPedido geradorNumeroPedido;
+    private final CatalogoProdutos catalogoProdutos;
+    private final Validator validator;
+    private final Cache cachePedidos;
+    private final RegistroFrete registroFrete;
+    private final FreteCalculator freteCalculator;
+    private final PainelVendas painelVendas;
+    
+    public PedidoReativoService(BancoReativo bancoReativo, GeradorNumeroPedido geradorNumeroPedido,
+                                CatalogoProdutos catalogoProdutos, Validator validator, CacheManager cacheManager,
+                                RegistroFrete registroFrete, FreteCalculator freteCalculator, PainelVendas painelVendas,
+                                ObjectProvider<LedgerEstoque> ledgerEstoque) {
+        if (ledgerEstoque.getIfAvailable() != null) {
+            throw new IllegalStateException("A API reativa não suporta estoque.ledger.enabled=true");
+        }
+        this.databaseClient = bancoReativo.getDatabaseClient();
+        this.transacional = bancoReativo.getTransacional();
+        // Mesmas sequências e tamanho de bloco das entidades Pedido e ItemPedido
+        this.sequenciaPedidos = new SequenciaReativa(databaseClient, "pedidos_seq", 50);
+        this.sequenciaItens = new SequenciaReativa(databaseClient, "itens_pedido_seq", 50);
+        this.geradorNumeroPedido = geradorNumeroPedido;
+        this.catalogoProdutos = catalogoProdutos;
+        this.validator = validator;
+        this.cachePedidos = cacheManager.getCache(CacheConfig.CACHE_PEDIDOS);
+        this.registroFrete = registroFrete;
+        this.freteCalculator = freteCalculator;
+        this.painelVendas = painelVendas;
+    }
+    
+    /**
+     * Cria um novo pedido em uma transação R2DBC.
+     * @param criarPedidoDTO DTO com os dados do pedido
+     * @return DTO do pedido criado, ou erro se o pedido for inválido ou faltar estoque
+     */
+    public Mono<PedidoResponseDTO> criarPedido(CriarPedidoDTO criarPedidoDTO) {
+        return Mono.fromCallable(() -> validar(criarPedidoDTO))
+                .flatMap(dto -> {
+                    Map<Long, Integer> quantidadesPorProduto = new TreeMap<>();
+                    dto.getItens().forEach(item -> quantidadesPorProduto.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum));
+                    return buscarCliente(dto.getClienteId())
+                            .zipWith(buscarProdutos(quantidadesPorProduto.keySet()))
+                            .flatMap(dados -> reservar(quantidadesPorProduto)
+                                    .then(inserir(dto, dados.getT1(), dados.getT2())));
+                })
+                .as(transacional::transactional)
+                .doOnNext(resposta -> painelVendas.registrar(new PainelVendas.Movimento(null,
+                        StatusPedido.valueOf(resposta.getStatus()), resposta.getTipoFrete(), resposta.getValorTotal(),
+                        resposta.getValorFrete(), resposta.getDataCriacao())));
+    }
+    
+    /**
+     * Busca pedido por ID, com cliente e itens, em uma única consulta.
+     * @param id ID do pedido
+     * @return DTO do pedido, ou vazio se não existir
+     */
+    public Mono<PedidoResponseDTO> buscarPorId(Long id) {
+        return consultarCompletos("WHERE p.id = :id", Map.of("id", id)).next();
+    }
+    
+    /**
+     * Lista os pedidos do mais recente para o mais antigo, paginados pelo mesmo cursor da API servlet.
+     * @param status Filtro opcional por status
+     * @param clienteId Filtro opcional por cliente
+     * @param cursor Cursor da página anterior, ou null para a primeira página
+     * @param tamanho Quantidade de pedidos por página (limitada a {@value PedidoService#TAMANHO_MAXIMO_PAGINA})
+     * @return Página de pedidos com o cursor da próxima página
+     */
+    public Mono<PaginaDTO<PedidoResponseDTO>> listar(StatusPedido status, Long clienteId, String cursor, int tamanho) {
+        if (tamanho < 1) {
+            return Mono.error(new IllegalArgumentException("Tamanho da página deve ser positivo"));
+        }
+        ScrollPosition posicao;
+        try {
+            posicao = CursorPedido.decodificar(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        int limite = Math.min(tamanho, PedidoService.TAMANHO_MAXIMO_PAGINA);
+        
+        List<String> condicoes = new ArrayList<>();
+        Map<String, Object> parametros = filtros(status, clienteId, condicoes);
+        Map<String, Object> chaves = ((KeysetScrollPosition) posicao).getKeys();
+        if (!chaves.isEmpty()) {
+            condicoes.add("(p.data_criacao < :data OR (p.data_criacao = :data AND p.id < :ultimo))");
+            parametros.put("data", chaves.get("dataCriacao"));
+            parametros.put("ultimo", chaves.get("id"));
+        }
+        // Um pedido a mais indica se existe próxima página
+        String sql = "SELECT " + COLUNAS_PEDIDO + " FROM pedidos p JOIN clientes c ON c.id = p.cliente_id "
+                + where(condicoes) + " ORDER BY p.data_criacao DESC, p.id DESC LIMIT " + (limite + 1);
+        
+        return vincular(databaseClient.sql(sql), parametros)
+                .map(this::lerPedido)
+                .all()
+                .collectList()
+                .flatMap(pedidos -> {
+                    List<PedidoResponseDTO> pagina = pedidos.size() > limite ? pedidos.subList(0, limite) : pedidos;
+                    String proximoCursor = null;
+                    if (pedidos.size() > limite) {
+                        PedidoResponseDTO ultimo = pagina.get(pagina.size() - 1);
+                        proximoCursor = CursorPedido.codificar(ScrollPosition.forward(
+                                Map.of("dataCriacao", ultimo.getDataCriacao(), "id", ultimo.getId())));
+                    }
+                    String cursorSeguinte = proximoCursor;
+                    return preencherItens(pagina).thenReturn(new PaginaDTO<>(pagina, cursorSeguinte));
+                });
+    }
+    
+    /**
+     * Emite todos os pedidos (com cliente e itens) em ordem de ID, à medida que são lidos.
+     * A leitura acompanha a demanda do assinante: um cliente lento não faz os pedidos se
+     * acumularem em memória.
+     * @param status Filtro opcional por status
+     * @param clienteId Filtro opcional por cliente
+     * @return Fluxo de pedidos
+     */
+    public Flux<PedidoResponseDTO> transmitir(StatusPedido status, Long clienteId) {
+        List<String> condicoes = new ArrayList<>();
+        Map<String, Object> parametros = filtros(status, clienteId, condicoes);
+        return consultarCompletos(where(condicoes), parametros);
+    }
+    
+    /**
+     * Processa o pagamento de um pedido.
+     * @param id ID do pedido
+     * @return DTO do pedido atualizado
+     */
+    public Mono<PedidoResponseDTO> pagarPedido(Long id) {
+        return transicionar(id, OperacaoPedido.PAGAR, "Não foi possível processar o pagamento do pedido", false);
+    }
+    
+    /**
+     * Cancela um pedido, devolvendo os itens ao estoque.
+     * @param id ID do pedido
+     * @return DTO do pedido atualizado
+     */
+    public Mono<PedidoResponseDTO> cancelarPedido(Long id) {
+        return transicionar(id, OperacaoPedido.CANCELAR, "Não foi possível cancelar o pedido", true);
+    }
+    
+    /**
+     * Envia um pedido.
+     * @param id ID do pedido
+     * @return DTO do pedido atualizado
+     */
+    public Mono<PedidoResponseDTO> enviarPedido(Long id) {
+        return transicionar(id, OperacaoPedido.ENVIAR, "Não foi possível enviar o pedido", false);
+    }
+    
+    private Mono<PedidoResponseDTO> transicionar(Long id, OperacaoPedido operacao, String erro, boolean devolverEstoque) {
+        Mono<PainelVendas.Movimento> gravacao = databaseClient.sql(SQL_STATUS)
+                .bind("id", id)
+                .map(linha -> {
+                    Pedido pedido = new Pedido();
+                    pedido.setId(id);
+                    pedido.setNumeroPedido(linha.get(0, String.class));
+                    pedido.setStatus(StatusPedido.doCodigo(linha.get(1, Number.class).intValue()));
+                    pedido.setValorTotal(linha.get(2, BigDecimal.class));
+                    pedido.setValorFrete(linha.get(3, BigDecimal.class));
+                    pedido.setTipoFrete(linha.get(4, String.class));
+                    pedido.setDataCriacao(linha.get(5, LocalDateTime.class));
+                    return pedido;
+                })
+                .one()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Pedido não encontrado")))
+                .flatMap(pedido -> {
+                    StatusPedido anterior = pedido.getStatus();
+                    if (!PedidoStateManager.transicionar(pedido, operacao)) {
+                        return Mono.error(new RuntimeException(erro));
+                    }
+                    return databaseClient.sql(SQL_ATUALIZAR_STATUS)
+                            .bind("novo", pedido.getStatus().getCodigo())
+                            .bind("id", id)
+                            .bind("anterior", anterior.getCodigo())
+                            .fetch()
+                            .rowsUpdated()
+                            .flatMap(linhas -> linhas == 0
+                                    ? Mono.error(new OptimisticLockingFailureException("Pedido alterado por outra transação: " + id))
+                                    : registrarEvento(pedido, operacao, anterior)
+                                            .then(devolverEstoque && anterior != StatusPedido.ENVIADO ? devolver(id) : Mono.empty())
+                                            .thenReturn(PainelVendas.Movimento.transicao(pedido, anterior)));
+                })
+                .as(transacional::transactional);
+        
+        return gravacao
+                .retryWhen(Retry.max(TENTATIVAS_TRANSICAO).filter(OptimisticLockingFailureException.class::isInstance))
+                .doOnNext(painelVendas::registrar)
+                .then(Mono.fromRunnable(() -> cachePedidos.evict(id)))
+                .then(buscarPorId(id));
+    }
+    
+    /**
+     * Grava o evento da transição (ou da criação, sem operação e status anterior) no outbox,
+     * na transação R2DBC em curso (ver {@link OutboxPedidos}).
+     */
+    private Mono<Void> registrarEvento(Pedido pedido, OperacaoPedido operacao, StatusPedido anterior) {
+        DatabaseClient.GenericExecuteSpec insercao = databaseClient.sql(SQL_INSERIR_EVENTO)
+                .bind("pedido", pedido.getId())
+                .bind("numero", pedido.getNumeroPedido())
+                .bind("novo", pedido.getStatus().getCodigo())
+                .bind("data", LocalDateTime.now());
+        if (operacao == null) {
+            insercao = insercao.bindNull("operacao", String.class).bindNull("anterior", Short.class);
+        } else {
+            insercao = insercao.bind("operacao", operacao.name()).bind("anterior", anterior.getCodigo());
+        }
+        return insercao.then();
+    }
+    
+    private CriarPedidoDTO validar(CriarPedidoDTO dto) {
+        Set<ConstraintViolation<CriarPedidoDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            throw new RuntimeException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (!registroFrete.isTipoFreteSuportado(dto.getTipoFrete())) {
+            throw new RuntimeException("Tipo de frete não suportado: " + dto.getTipoFrete());
+        }
+        return dto;
+    }
+    
+    private Mono<PedidoResponseDTO.ClienteDTO> buscarCliente(Long clienteId) {
+        return databaseClient.sql(SQL_CLIENTE)
+                .bind("id", clienteId)
+                .map(linha -> new PedidoResponseDTO.ClienteDTO(clienteId, linha.get(0, String.class), linha.get(1, String.class)))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Cliente não encontrado")));
+    }
+    
+    /**
+     * Nome e preço dos produtos: do catálogo em memória, consultando o banco só os ausentes.
+     */
+    private Mono<Map<Long, PedidoResponseDTO.ItemPedidoResponseDTO>> buscarProdutos(Set<Long> produtoIds) {
+        CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.atual();
+        Map<Long, PedidoResponseDTO.ItemPedidoResponseDTO> produtos = new HashMap<>();
+        List<Long> ausentes = new ArrayList<>();
+        for (Long produtoId : produtoIds) {
+            int indice = catalogo.indice(produtoId);
+            if (indice >= 0) {
+                produtos.put(produtoId, produto(catalogo.nome(indice), catalogo.preco(indice)));
+            } else {
+                ausentes.add(produtoId);
+            }
+        }
+        if (ausentes.isEmpty()) {
+            return Mono.just(produtos);
+        }
+        return databaseClient.sql(SQL_PRODUTOS)
+                .bind("ids", ausentes)
+                .map(linha -> Map.entry(linha.get(0, Long.class), produto(linha.get(1, String.class), linha.get(2, BigDecimal.class))))
+                .all()
+                .doOnNext(produto -> produtos.put(produto.getKey(), produto.getValue()))
+                .then(Mono.fromCallable(() -> {
+                    for (Long produtoId : ausentes) {
+                        if (!produtos.containsKey(produtoId)) {
+                            throw new RuntimeException("Produto não encontrado: " + produtoId);
+                        }
+                    }
+                    return produtos;
+                }));
+    }
+    
+    private static PedidoResponseDTO.ItemPedidoResponseDTO produto(String nome, BigDecimal preco) {
+        PedidoResponseDTO.ItemPedidoResponseDTO produto = new PedidoResponseDTO.ItemPedidoResponseDTO();
+        produto.setNomeProduto(nome);
+        produto.setPrecoUnitario(preco);
+        return produto;
+    }
+    
+    /**
+     * Baixa o estoque produto a produto, em ordem de ID (a mesma do {@link EstoqueService}).
+     */
+    private Mono<Void> reservar(Map<Long, Integer> quantidadesPorProduto) {
+        return Flux.fromIterable(quantidadesPorProduto.entrySet())
+                .concatMap(entrada -> databaseClient.sql(SQL_BAIXAR_ESTOQUE)
+                        .bind("quantidade", entrada.getValue())
+                        .bind("id", entrada.getKey())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(linhas -> linhas == 0
+                                ? Mono.error(new RuntimeException("Estoque insuficiente para o produto: "
+                                        + catalogoProdutos.nomeProduto(entrada.getKey())))
+                                : Mono.empty()))
+                .then();
+    }
+    
+    private Mono<Void> devolver(Long pedidoId) {
+        return databaseClient.sql(SQL_QUANTIDADES)
+                .bind("id", pedidoId)
+                .map(linha -> Map.entry(linha.get(0, Long.class), linha.get(1, Number.class).intValue()))
+                .all()
+                .concatMap(entrada -> databaseClient.sql(SQL_DEVOLVER_ESTOQUE)
+                        .bind("quantidade", entrada.getValue())
+                        .bind("id", entrada.getKey())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+    
+    /**
+     * Grava o pedido, os itens e o evento de criação, calculando totais e frete com as mesmas classes da API servlet.
+     */
+    private Mono<PedidoResponseDTO> inserir(CriarPedidoDTO dto, PedidoResponseDTO.ClienteDTO cliente,
+                                            Map<Long, PedidoResponseDTO.ItemPedidoResponseDTO> produtos) {
+        Pedido pedido = new Pedido(geradorNumeroPedido.gerar(), BigDecimal.ZERO, null);
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        List<ItemPedido> itens = new ArrayList<>();
+        for (CriarPedidoDTO.ItemPedidoDTO itemDTO : dto.getItens()) {
+            ItemPedido item = new ItemPedido(pedido, null, itemDTO.getQuantidade(),
+                    produtos.get(itemDTO.getProdutoId()).getPrecoUnitario());
+            itens.add(item);
+            valorTotal = valorTotal.add(item.getSubtotal());
+        }
+        pedido.setValorTotal(valorTotal);
+        pedido.setValorFrete(freteCalculator.calcularFrete(registroFrete.buscar(dto.getTipoFrete()), valorTotal));
+        pedido.setTipoFrete(dto.getTipoFrete());
+        
+        PedidoResponseDTO resposta = new PedidoResponseDTO();
+        resposta.setNumeroPedido(pedido.getNumeroPedido());
+        resposta.setValorTotal(pedido.getValorTotal());
+        resposta.setValorFrete(pedido.getValorFrete());
+        resposta.setTipoFrete(pedido.getTipoFrete());
+        resposta.setDataCriacao(pedido.getDataCriacao());
+        resposta.setStatus(pedido.getStatus().name());
+        resposta.setCliente(cliente);
+        resposta.setItens(new ArrayList<>());
+        
+        return sequenciaPedidos.proximo()
+                .flatMap(pedidoId -> {
+                    pedido.setId(pedidoId);
+                    resposta.setId(pedidoId);
+                    return databaseClient.sql(SQL_INSERIR_PEDIDO)
+                            .bind("id", pedidoId)
+                            .bind("numero", pedido.getNumeroPedido())
+                            .bind("total", pedido.getValorTotal())
+                            .bind("data", pedido.getDataCriacao())
+                            .bind("status", pedido.getStatus().getCodigo())
+                            .bind("cliente", cliente.getId())
+                            .bind("frete", pedido.getValorFrete())
+                            .bind("tipoFrete", pedido.getTipoFrete())
+                            .fetch()
+                            .rowsUpdated();
+                })
+                .thenMany(Flux.range(0, itens.size()))
+                .concatMap(i -> sequenciaItens.proximo().flatMap(itemId -> {
+                    ItemPedido item = itens.get(i);
+                    Long produtoId = dto.getItens().get(i).getProdutoId();
+                    PedidoResponseDTO.ItemPedidoResponseDTO itemDTO = new PedidoResponseDTO.ItemPedidoResponseDTO();
+                    itemDTO.setId(itemId);
+                    itemDTO.setNomeProduto(produtos.get(produtoId).getNomeProduto());
+                    itemDTO.setQuantidade(item.getQuantidade());
+                    itemDTO.setPrecoUnitario(item.getPrecoUnitario());
+                    itemDTO.setSubtotal(item.getSubtotal());
+                    resposta.getItens().add(itemDTO);
+                    return databaseClient.sql(SQL_INSERIR_ITEM)
+                            .bind("id", itemId)
+                            .bind("pedido", resposta.getId())
+                            .bind("produto", produtoId)
+                            .bind("quantidade", item.getQuantidade())
+                            .bind("preco", item.getPrecoUnitario())
+                            .bind("subtotal", item.getSubtotal())
+                            .fetch()
+                            .rowsUpdated();
+                }))
+                .then(Mono.defer(() -> registrarEvento(pedido, null, null)))
+                .then(Mono.just(resposta));
+    }
+    
+    /**
+     * Pedidos com cliente e itens em uma única consulta, ordenada por pedido para que as
+     * linhas de um mesmo pedido cheguem em sequência e sejam agrupadas sem acumular o resultado.
+     */
+    private Flux<PedidoResponseDTO> consultarCompletos(String where, Map<String, Object> parametros) {
+        String sql = "SELECT " + COLUNAS_PEDIDO + ", i.id, pr.nome, i.quantidade, i.preco_unitario, i.subtotal "
+                + "FROM pedidos p JOIN clientes c ON c.id = p.cliente_id "
+                + "LEFT JOIN itens_pedido i ON i.pedido_id = p.id "
+                + "LEFT JOIN produtos pr ON pr.id = i.produto_id "
+                + where + " ORDER BY p.id, i.id";
+        return vincular(databaseClient.sql(sql), parametros)
+                .map(linha -> {
+                    PedidoResponseDTO pedido = lerPedido(linha);
+                    pedido.setItens(new ArrayList<>());
+                    if (linha.get(10) != null) {
+                        pedido.getItens().add(lerItem(linha, 10));
+                    }
+                    return pedido;
+                })
+                .all()
+                .bufferUntilChanged(PedidoResponseDTO::getId)
+                .map(linhas -> {
+                    PedidoResponseDTO pedido = linhas.get(0);
+                    for (int i = 1; i < linhas.size(); i++) {
+                        pedido.getItens().addAll(linhas.get(i).getItens());
+                    }
+                    return pedido;
+                });
+    }
+    
+    private Mono<Void> preencherItens(List<PedidoResponseDTO> pedidos) {
+        if (pedidos.isEmpty()) {
+            return Mono.empty();
+        }
+        Map<Long, PedidoResponseDTO> porId = new LinkedHashMap<>();
+        pedidos.forEach(pedido -> {
+            pedido.setItens(new ArrayList<>());
+            porId.put(pedido.getId(), pedido);
+        });
+        return databaseClient.sql(SQL_ITENS)
+                .bind("ids", porId.keySet())
+                .map(linha -> Map.entry(linha.get(0, Long.class), lerItem(linha, 1)))
+                .all()
+                .doOnNext(item -> porId.get(item.getKey()).getItens().add(item.getValue()))
+                .then();
+    }
+    
+    private PedidoResponseDTO lerPedido(Readable linha) {
+        PedidoResponseDTO pedido = new PedidoResponseDTO();
+        pedido.setId(linha.get(0, Long.class));
+        pedido.setNumeroPedido(linha.get(1, String.class));
+        pedido.setStatus(StatusPedido.doCodigo(linha.get(2, Number.class).intValue()).name());
+        pedido.setDataCriacao(linha.get(3, LocalDateTime.class));
+        pedido.setValorTotal(linha.get(4, BigDecimal.class));
+        pedido.setValorFrete(linha.get(5, BigDecimal.class));
+        pedido.setTipoFrete(linha.get(6, String.class));
+        pedido.setCliente(new PedidoResponseDTO.ClienteDTO(linha.get(7, Long.class), linha.get(8, String.class), linha.get(9, String.class)));
+        return pedido;
+    }
+    
+    private static PedidoResponseDTO.ItemPedidoResponseDTO lerItem(Readable linha, int inicio) {
+        PedidoResponseDTO.ItemPedidoResponseDTO item = new PedidoResponseDTO.ItemPedidoResponseDTO();
+        item.setId(linha.get(inicio, Long.class));
+        item.setNomeProduto(linha.get(inicio + 1, String.class));
+        item.setQuantidade(linha.get(inicio + 2, Integer.class));
+        item.setPrecoUnitario(linha.get(inicio + 3, BigDecimal.class));
+        item.setSubtotal(linha.get(inicio + 4, BigDecimal.class));
+        return item;
+    }
+    
+    private static Map<String, Object> filtros(StatusPedido status, Long clienteId, List<String> condicoes) {
+        Map<String, Object> parametros = new HashMap<>();
+        if (status != null) {
+            condicoes.add("p.status = :status");
+            parametros.put("status", status.getCodigo());
+        }
+        if (clienteId != null) {
+            condicoes.add("p.cliente_id = :clienteId");
+            parametros.put("clienteId", clienteId);
+        }
+        return parametros;
+    }
+    
+    private static String where(List<String> condicoes) {
+        return condicoes.isEmpty() ? "" : "WHERE " + String.join(" AND ", condicoes);
+    }
+    
+    private static DatabaseClient.GenericExecuteSpec vincular(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> parametros) {
+        for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+            spec = spec.bind(parametro.getKey(), parametro.getValue());
+        }
+        return spec;
+    }
+}
@@ -1,33 +1,97 @@
 package com.ecommerce.system.service;
 
+import com.ecommerce.system.config.CacheConfig;
 import com.ecommerce.system.domain.Cliente;
 import com.ecommerce.system.domain.ItemPedido;
 import com.ecommerce.system.domain.Pedido;
 import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.domain.StatusPedido;
 import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.LotePedidosResponseDTO;
+import com.ecommerce.system.dto.LoteTransicoesResponseDTO;
+import com.ecommerce.system.dto.PaginaDTO;
 import com.ecommerce.system.dto.PedidoResponseDTO;
-import com.ecommerce.system.factory.FreteStrategyFactory;
+import com.ecommerce.system.dto.ResumoPedidoDTO;
+import com.ecommerce.system.factory.RegistroFrete;
 import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ItemPedidoRepository;
 import com.ecommerce.system.repository.PedidoRepository;
 import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.state.OperacaoPedido;
 import com.ecommerce.system.state.PedidoStateManager;
 import com.ecommerce.system.strategy.FreteCalculator;
 import com.ecommerce.system.strategy.FreteStrategy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PedidoService {
     
+    /** Quantidade máxima de pedidos por página na listagem. */
+    public static final int TAMANHO_MAXIMO_PAGINA = 100;
+    
+    /** Quantidade máxima de pedidos por chamada de criação em lote. */
+    public static final int TAMANHO_MAXIMO_LOTE = 1000;
+    
+    /** Quantidade máxima de pedidos por chamada de transição em lote. */
+    public static final int TAMANHO_MAXIMO_LOTE_TRANSICOES = 10_000;
+    
+    // Transições em lote: as linhas são bloqueadas em ordem de ID, como no estoque, para que
+    // lotes concorrentes com pedidos em comum não entrem em deadlock
+    private static final String SQL_BLOQUEAR_PEDIDOS =
+            "SELECT id, numero_pedido, status, valor_total, valor_frete, tipo_frete, data_criacao "
+            + "FROM pedidos WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+    
+    private static final String SQL_ATUALIZAR_STATUS =
+            "UPDATE pedidos SET status = :status WHERE id IN (:ids)";
+    
+    // Histórico do cliente: a chave (dataCriacao, id) do cursor vira um intervalo na data de
+    // criação, para que a página comece na posição certa do índice em vez de descartar as anteriores
+    private static final String SQL_HISTORICO_CLIENTE = "SELECT id, numero_pedido, status, valor_total, valor_frete, "
+            + "tipo_frete, data_criacao FROM pedidos WHERE cliente_id = :cliente";
+    
+    private static final String SQL_HISTORICO_CLIENTE_APOS_CHAVE =
+            " AND data_criacao <= :data AND (data_criacao < :data OR id < :id)";
+    
+    private static final String SQL_HISTORICO_CLIENTE_ORDEM =
+            " ORDER BY cliente_id, data_criacao DESC, id DESC LIMIT :limite";
+    
+    private static final String SQL_HISTORICO_CLIENTE_ORDEM_STATUS =
+            " ORDER BY cliente_id, status, data_criacao DESC, id DESC LIMIT :limite";
+    
+    private static final String SQL_SOMAR_ITENS_POR_PRODUTO =
+            "SELECT produto_id, SUM(quantidade) FROM itens_pedido WHERE pedido_id IN (:ids) GROUP BY produto_id";
+    
     @Autowired
     private PedidoRepository pedidoRepository;
     
@@ -37,82 +101,333 @@ public class PedidoService {
     @Autowired
     private ProdutoRepository produtoRepository;
     
+    @Autowired
+    private ItemPedidoRepository itemPedidoRepository;
+    
+    @Autowired
+    private EstoqueService estoqueService;
+    
+    @Autowired
+    private RetentativaTransacional retentativaTransacional;
+    
+    @Autowired
+    private GeradorNumeroPedido geradorNumeroPedido;
+    
+    @Autowired
+    private CatalogoProdutos catalogoProdutos;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private ConversorPedido conversorPedido;
+    
+    @Autowired
+    private RegistroFrete registroFrete;
+    
+    @Autowired
+    private FreteCalculator freteCalculator;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private OutboxPedidos outboxPedidos;
+    
+    @Autowired
+    private PainelVendas painelVendas;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
     /**
      * Cria um novo pedido.
+     * A transação é repetida (com limite de tentativas) em caso de conflito de concorrência.
      * @param criarPedidoDTO DTO com os dados do pedido
      * @return DTO com os dados do pedido criado
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PedidoResponseDTO criarPedido(CriarPedidoDTO criarPedidoDTO) {
+        return retentativaTransacional.executar(() -> criarPedidoNaTransacao(criarPedidoDTO));
+    }
+    
+    private PedidoResponseDTO criarPedidoNaTransacao(CriarPedidoDTO criarPedidoDTO) {
         // Validar cliente
         Cliente cliente = clienteRepository.findById(criarPedidoDTO.getClienteId())
                 .orElseThrow(() -> new RuntimeException("Cliente não encontrado"));
         
+        Map<Long, Integer> quantidadesPorProduto = agruparQuantidades(criarPedidoDTO);
+        CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(quantidadesPorProduto.keySet());
+        Pedido pedido = montarPedido(criarPedidoDTO, cliente, quantidadesPorProduto, catalogo);
+        
+        // Baixar estoque atomicamente: a verificação de saldo acontece no próprio UPDATE
+        estoqueService.reservar(quantidadesPorProduto);
+        
+        // Salvar pedido
+        pedido = pedidoRepository.save(pedido);
+        outboxPedidos.registrarCriacao(pedido);
+        painelVendas.registrar(PainelVendas.Movimento.criacao(pedido));
+        
+        return conversorPedido.converterParaDTO(pedido);
+    }
+    
+    /**
+     * Cria vários pedidos em uma única chamada, com resultado individual por pedido.
+     * Clientes e produtos de todo o lote são buscados de uma vez, o estoque é baixado por
+     * {@link EstoqueService#reservarLote(List)} e pedidos e itens são gravados com inserts em
+     * lote. Um pedido inválido ou sem estoque é recusado sem impedir a criação dos demais.
+     * @param pedidos Pedidos a criar (no máximo {@link #TAMANHO_MAXIMO_LOTE})
+     * @return Resultado de cada pedido, na ordem recebida
+     * @throws IllegalArgumentException se o lote exceder o tamanho máximo
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public LotePedidosResponseDTO criarPedidosEmLote(List<CriarPedidoDTO> pedidos) {
+        if (pedidos.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + TAMANHO_MAXIMO_LOTE + " pedidos");
+        }
+        return retentativaTransacional.executar(() -> criarPedidosEmLoteNaTransacao(pedidos));
+    }
+    
+    private LotePedidosResponseDTO criarPedidosEmLoteNaTransacao(List<CriarPedidoDTO> pedidos) {
+        LotePedidosResponseDTO.ResultadoPedido[] resultados = new LotePedidosResponseDTO.ResultadoPedido[pedidos.size()];
+        
+        // Buscar clientes e produtos de todo o lote de uma vez
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> produtoIds = new HashSet<>();
+        for (CriarPedidoDTO dto : pedidos) {
+            if (dto != null && dto.getClienteId() != null && dto.getItens() != null) {
+                clienteIds.add(dto.getClienteId());
+                dto.getItens().stream()
+                        .filter(item -> item != null && item.getProdutoId() != null)
+                        .forEach(item -> produtoIds.add(item.getProdutoId()));
+            }
+        }
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(clienteIds).stream()
+                .collect(Collectors.toMap(Cliente::getId, cliente -> cliente));
+        CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(produtoIds);
+        
+        // Montar os pedidos válidos
+        List<Integer> indices = new ArrayList<>();
+        List<Pedido> montados = new ArrayList<>();
+        List<Map<Long, Integer>> quantidades = new ArrayList<>();
+        for (int i = 0; i < pedidos.size(); i++) {
+            try {
+                CriarPedidoDTO dto = validar(pedidos.get(i));
+                Cliente cliente = clientes.get(dto.getClienteId());
+                if (cliente == null) {
+                    throw new RuntimeException("Cliente não encontrado");
+                }
+                Map<Long, Integer> quantidadesPorProduto = agruparQuantidades(dto);
+                montados.add(montarPedido(dto, cliente, quantidadesPorProduto, catalogo));
+                quantidades.add(quantidadesPorProduto);
+                indices.add(i);
+            } catch (RuntimeException e) {
+                resultados[i] = LotePedidosResponseDTO.ResultadoPedido.rejeitado(i, e.getMessage());
+            }
+        }
+        
+        // Baixar o estoque do lote; pedidos sem saldo são recusados individualmente
+        boolean[] reservados = estoqueService.reservarLote(quantidades);
+        List<Pedido> aprovados = new ArrayList<>();
+        List<Integer> indicesAprovados = new ArrayList<>();
+        for (int j = 0; j < montados.size(); j++) {
+            if (reservados[j]) {
+                aprovados.add(montados.get(j));
+                indicesAprovados.add(indices.get(j));
+            } else {
+                resultados[indices.get(j)] = LotePedidosResponseDTO.ResultadoPedido.rejeitado(indices.get(j),
+                        "Estoque insuficiente");
+            }
+        }
+        
+        // Salvar pedidos e itens (inserts em lote pelo Hibernate)
+        aprovados = pedidoRepository.saveAll(aprovados);
+        outboxPedidos.registrar(aprovados.stream().map(OutboxPedidos.Transicao::criacao).toList());
+        painelVendas.registrar(aprovados.stream().map(PainelVendas.Movimento::criacao).toList());
+        for (int j = 0; j < aprovados.size(); j++) {
+            int indice = indicesAprovados.get(j);
+            resultados[indice] = LotePedidosResponseDTO.ResultadoPedido.criado(indice, conversorPedido.converterParaDTO(aprovados.get(j)));
+        }
+        
+        return new LotePedidosResponseDTO(Arrays.asList(resultados));
+    }
+    
+    /**
+     * Aplica as validações de bean validation do DTO (as mesmas do endpoint unitário).
+     */
+    private CriarPedidoDTO validar(CriarPedidoDTO dto) {
+        if (dto == null) {
+            throw new RuntimeException("Pedido não informado");
+        }
+        Set<ConstraintViolation<CriarPedidoDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            throw new RuntimeException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return dto;
+    }
+    
+    /**
+     * Agrupa as quantidades por produto (o mesmo produto pode aparecer em mais de uma linha).
+     */
+    private Map<Long, Integer> agruparQuantidades(CriarPedidoDTO criarPedidoDTO) {
+        Map<Long, Integer> quantidadesPorProduto = new LinkedHashMap<>();
+        for (CriarPedidoDTO.ItemPedidoDTO itemDTO : criarPedidoDTO.getItens()) {
+            quantidadesPorProduto.merge(itemDTO.getProdutoId(), itemDTO.getQuantidade(), Integer::sum);
+        }
+        return quantidadesPorProduto;
+    }
+    
+    /**
+     * Monta o pedido com itens, valor total e frete, sem baixar estoque nem gravar.
+     * @throws RuntimeException se o tipo de frete não for suportado ou algum produto não existir
+     */
+    private Pedido montarPedido(CriarPedidoDTO criarPedidoDTO, Cliente cliente,
+                                Map<Long, Integer> quantidadesPorProduto, CatalogoProdutos.Instantaneo catalogo) {
         // Validar tipo de frete
-        if (!FreteStrategyFactory.isTipoFreteSuportado(criarPedidoDTO.getTipoFrete())) {
+        FreteStrategy freteStrategy = registroFrete.getIndice().buscar(criarPedidoDTO.getTipoFrete());
+        if (freteStrategy == null) {
             throw new RuntimeException("Tipo de frete não suportado: " + criarPedidoDTO.getTipoFrete());
         }
         
+        // Nome e preço vêm do catálogo em memória; só produtos fora do catálogo são buscados no banco
+        for (Long produtoId : quantidadesPorProduto.keySet()) {
+            if (catalogo.indice(produtoId) < 0) {
+                throw new RuntimeException("Produto não encontrado: " + produtoId);
+            }
+        }
+        
         // Criar pedido
-        String numeroPedido = gerarNumeroPedido();
+        String numeroPedido = geradorNumeroPedido.gerar();
         Pedido pedido = new Pedido(numeroPedido, BigDecimal.ZERO, cliente);
         
-        // Calcular valor total dos itens
+        // Calcular valor total dos itens (o produto entra como referência, sem consulta)
         BigDecimal valorTotal = BigDecimal.ZERO;
         for (CriarPedidoDTO.ItemPedidoDTO itemDTO : criarPedidoDTO.getItens()) {
-            Produto produto = produtoRepository.findById(itemDTO.getProdutoId())
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado: " + itemDTO.getProdutoId()));
-            
-            // Verificar estoque
-            if (produto.getEstoque() < itemDTO.getQuantidade()) {
-                throw new RuntimeException("Estoque insuficiente para o produto: " + produto.getNome());
-            }
-            
-            ItemPedido item = new ItemPedido(pedido, produto, itemDTO.getQuantidade(), produto.getPreco());
+            Produto produto = produtoRepository.getReferenceById(itemDTO.getProdutoId());
+            BigDecimal preco = catalogo.preco(catalogo.indice(itemDTO.getProdutoId()));
+            ItemPedido item = new ItemPedido(pedido, produto, itemDTO.getQuantidade(), preco);
             pedido.getItens().add(item);
             valorTotal = valorTotal.add(item.getSubtotal());
-            
-            // Atualizar estoque
-            produto.setEstoque(produto.getEstoque() - itemDTO.getQuantidade());
-            produtoRepository.save(produto);
         }
-        
         pedido.setValorTotal(valorTotal);
         
         // Calcular frete
-        FreteStrategy freteStrategy = FreteStrategyFactory.criarFreteStrategy(criarPedidoDTO.getTipoFrete());
-        FreteCalculator freteCalculator = new FreteCalculator(freteStrategy);
-        BigDecimal valorFrete = freteCalculator.calcularFrete(valorTotal);
+        BigDecimal valorFrete = freteCalculator.calcularFrete(freteStrategy, valorTotal);
         
         pedido.setValorFrete(valorFrete);
         pedido.setTipoFrete(criarPedidoDTO.getTipoFrete());
-        
-        // Salvar pedido
-        pedido = pedidoRepository.save(pedido);
-        
-        return converterParaDTO(pedido);
+        return pedido;
     }
     
     /**
      * Busca pedido por ID.
+     * O resultado fica no cache {@link CacheConfig#CACHE_PEDIDOS} até a próxima transição do
+     * pedido (ou até expirar); o DTO retornado é compartilhado e não deve ser alterado.
      * @param id ID do pedido
      * @return DTO com os dados do pedido
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CACHE_PEDIDOS, key = "#id", sync = true)
     public PedidoResponseDTO buscarPorId(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findComItensById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
-        return converterParaDTO(pedido);
+        return conversorPedido.converterParaDTO(pedido);
     }
     
     /**
-     * Lista todos os pedidos.
-     * @return Lista de DTOs com os dados dos pedidos
+     * Lista os pedidos do mais recente para o mais antigo, paginados por cursor.
+     * @param status Filtro opcional por status
+     * @param clienteId Filtro opcional por cliente
+     * @param cursor Cursor da página anterior, ou null para a primeira página
+     * @param tamanho Quantidade de pedidos por página (limitada a {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return Página de pedidos com o cursor da próxima página
      */
     @Transactional(readOnly = true)
-    public List<PedidoResponseDTO> listarTodos() {
-        return pedidoRepository.findAll().stream()
-                .map(this::converterParaDTO)
+    public PaginaDTO<PedidoResponseDTO> listar(StatusPedido status, Long clienteId, String cursor, int tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser positivo");
+        }
+        ScrollPosition posicao = CursorPedido.decodificar(cursor);
+        Limit limite = Limit.of(Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+        
+        Window<Pedido> janela;
+        if (clienteId != null && status != null) {
+            janela = pedidoRepository.findByClienteIdAndStatusOrderByDataCriacaoDescIdDesc(clienteId, status, posicao, limite);
+        } else if (clienteId != null) {
+            janela = pedidoRepository.findByClienteIdOrderByDataCriacaoDescIdDesc(clienteId, posicao, limite);
+        } else if (status != null) {
+            janela = pedidoRepository.findByStatusOrderByDataCriacaoDescIdDesc(status, posicao, limite);
+        } else {
+            janela = pedidoRepository.findAllByOrderByDataCriacaoDescIdDesc(posicao, limite);
+        }
+        
+        // Itens de todos os pedidos da página em uma única consulta (evita N+1)
+        List<Long> pedidoIds = janela.stream().map(Pedido::getId).collect(Collectors.toList());
+        Map<Long, List<ItemPedido>> itensPorPedido = pedidoIds.isEmpty() ? Map.of()
+                : itemPedidoRepository.findByPedidoIdInOrderById(pedidoIds).stream()
+                        .collect(Collectors.groupingBy(item -> item.getPedido().getId()));
+        
+        List<PedidoResponseDTO> pedidos = janela.stream()
+                .map(pedido -> conversorPedido.converterParaDTO(pedido, itensPorPedido.getOrDefault(pedido.getId(), List.of())))
                 .collect(Collectors.toList());
+        String proximoCursor = janela.hasNext() ? CursorPedido.codificar(janela.positionAt(janela.size() - 1)) : null;
+        return new PaginaDTO<>(pedidos, proximoCursor);
+    }
+    
+    /**
+     * Lista o histórico de pedidos de um cliente, do mais recente para o mais antigo, paginado por cursor.
+     * Cada pedido vem resumido, sem cliente e sem itens, direto das colunas da tabela (nenhuma
+     * entidade é carregada). A página é lida em ordem no índice {@code (cliente_id, dataCriacao DESC, id DESC)}
+     * (ou {@code (cliente_id, status, dataCriacao DESC, id DESC)} com filtro de status) a partir da
+     * chave do cursor, então custa um único comando e as mesmas linhas lidas em qualquer ponto
+     * do histórico, independente de quantos pedidos o cliente tem.
+     * @param clienteId ID do cliente
+     * @param status Filtro opcional por status
+     * @param cursor Cursor da página anterior, ou null para a primeira página
+     * @param tamanho Quantidade de pedidos por página (limitada a {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return Página de resumos com o cursor da próxima página
+     * @throws IllegalArgumentException se o tamanho ou o cursor forem inválidos
+     * @throws EntityNotFoundException se o cliente não existir
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ResumoPedidoDTO> listarPorCliente(Long clienteId, StatusPedido status, String cursor, int tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser positivo");
+        }
+        CursorPedido.Chave chave = CursorPedido.decodificarChave(cursor);
+        int limite = Math.min(tamanho, TAMANHO_MAXIMO_PAGINA);
+        
+        // O H2 só lê o índice já ordenado se o ORDER BY começar pelas colunas filtradas por igualdade
+        StringBuilder sql = new StringBuilder(SQL_HISTORICO_CLIENTE);
+        MapSqlParameterSource parametros = new MapSqlParameterSource("cliente", clienteId).addValue("limite", limite + 1);
+        if (status != null) {
+            sql.append(" AND status = :status");
+            parametros.addValue("status", status.getCodigo());
+        }
+        if (chave != null) {
+            sql.append(SQL_HISTORICO_CLIENTE_APOS_CHAVE);
+            parametros.addValue("data", chave.dataCriacao()).addValue("id", chave.id());
+        }
+        sql.append(status == null ? SQL_HISTORICO_CLIENTE_ORDEM : SQL_HISTORICO_CLIENTE_ORDEM_STATUS);
+        List<ResumoPedidoDTO> pedidos = namedParameterJdbcTemplate.query(sql.toString(), parametros, (rs, linha) ->
+                new ResumoPedidoDTO(rs.getLong(1), rs.getString(2), StatusPedido.doCodigo(rs.getShort(3)), rs.getBigDecimal(4),
+                        rs.getBigDecimal(5), rs.getString(6), rs.getTimestamp(7).toLocalDateTime()));
+        
+        // Só uma página vazia distingue "cliente sem pedidos" de "cliente inexistente"
+        if (pedidos.isEmpty() && !clienteRepository.existsById(clienteId)) {
+            throw new EntityNotFoundException("Cliente não encontrado");
+        }
+        // Um pedido além do limite indica que há uma próxima página
+        String proximoCursor = null;
+        if (pedidos.size() > limite) {
+            pedidos = pedidos.subList(0, limite);
+            ResumoPedidoDTO ultimo = pedidos.get(limite - 1);
+            proximoCursor = CursorPedido.codificar(ultimo.getDataCriacao(), ultimo.getId());
+        }
+        return new PaginaDTO<>(pedidos, proximoCursor);
     }
     
     /**
@@ -120,44 +435,58 @@ public class PedidoService {
      * @param id ID do pedido
      * @return DTO com os dados do pedido atualizado
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PEDIDOS, key = "#id")
     public PedidoResponseDTO pagarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findComItensById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
         
+        StatusPedido anterior = pedido.getStatus();
         boolean sucesso = PedidoStateManager.pagar(pedido);
         if (!sucesso) {
             throw new RuntimeException("Não foi possível processar o pagamento do pedido");
         }
         
         pedido = pedidoRepository.save(pedido);
-        return converterParaDTO(pedido);
+        outboxPedidos.registrar(pedido, OperacaoPedido.PAGAR, anterior);
+        painelVendas.registrar(PainelVendas.Movimento.transicao(pedido, anterior));
+        return conversorPedido.converterParaDTO(pedido);
     }
     
     /**
      * Cancela um pedido.
+     * A transação é repetida (com limite de tentativas) em caso de conflito de concorrência.
      * @param id ID do pedido
      * @return DTO com os dados do pedido atualizado
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PEDIDOS, key = "#id")
     public PedidoResponseDTO cancelarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        return retentativaTransacional.executar(() -> cancelarPedidoNaTransacao(id));
+    }
+    
+    private PedidoResponseDTO cancelarPedidoNaTransacao(Long id) {
+        Pedido pedido = pedidoRepository.findComItensById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
         
+        StatusPedido anterior = pedido.getStatus();
         boolean sucesso = PedidoStateManager.cancelar(pedido);
         if (!sucesso) {
             throw new RuntimeException("Não foi possível cancelar o pedido");
         }
         
         // Devolver itens ao estoque se o pedido ainda não foi enviado
-        if (!"ENVIADO".equals(pedido.getStatus())) {
+        if (pedido.getStatus() != StatusPedido.ENVIADO) {
+            Map<Long, Integer> quantidadesPorProduto = new LinkedHashMap<>();
             for (ItemPedido item : pedido.getItens()) {
-                Produto produto = item.getProduto();
-                produto.setEstoque(produto.getEstoque() + item.getQuantidade());
-                produtoRepository.save(produto);
+                quantidadesPorProduto.merge(item.getProduto().getId(), item.getQuantidade(), Integer::sum);
             }
+            estoqueService.devolver(quantidadesPorProduto);
         }
         
         pedido = pedidoRepository.save(pedido);
-        return converterParaDTO(pedido);
+        outboxPedidos.registrar(pedido, OperacaoPedido.CANCELAR, anterior);
+        painelVendas.registrar(PainelVendas.Movimento.transicao(pedido, anterior));
+        return conversorPedido.converterParaDTO(pedido);
     }
     
     /**
@@ -165,66 +494,142 @@ public class PedidoService {
      * @param id ID do pedido
      * @return DTO com os dados do pedido atualizado
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PEDIDOS, key = "#id")
     public PedidoResponseDTO enviarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findComItensById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
         
+        StatusPedido anterior = pedido.getStatus();
         boolean sucesso = PedidoStateManager.enviar(pedido);
         if (!sucesso) {
             throw new RuntimeException("Não foi possível enviar o pedido");
         }
         
         pedido = pedidoRepository.save(pedido);
-        return converterParaDTO(pedido);
+        outboxPedidos.registrar(pedido, OperacaoPedido.ENVIAR, anterior);
+        painelVendas.registrar(PainelVendas.Movimento.transicao(pedido, anterior));
+        return conversorPedido.converterParaDTO(pedido);
     }
     
     /**
-     * Gera um número único para o pedido.
-     * @return Número do pedido
+     * Aplica a mesma operação (pagar, cancelar ou enviar) a vários pedidos, com resultado individual por pedido.
+     * Os pedidos são buscados e bloqueados em uma única consulta, as regras da matriz de
+     * transições são aplicadas em memória e o novo status (um só por operação) é gravado
+     * em um único update para todos os pedidos transicionados. No cancelamento, os itens
+     * de todos os pedidos cancelados são somados por produto no banco e devolvidos ao
+     * estoque em um único lote JDBC. Nada passa pelo contexto de persistência: o custo é de
+     * três comandos por lote, não de uma entidade por pedido. Um pedido inexistente,
+     * repetido ou cuja transição não é permitida é recusado sem impedir os demais.
+     * Os pedidos alterados saem do cache {@link CacheConfig#CACHE_PEDIDOS} depois do commit.
+     * Cada transição gera um evento no {@link OutboxPedidos}, na mesma transação, e é
+     * somada ao {@link PainelVendas} depois do commit.
+     * @param operacao Operação a aplicar
+     * @param ids IDs dos pedidos (no máximo {@link #TAMANHO_MAXIMO_LOTE_TRANSICOES})
+     * @return Resultado de cada ID, na ordem recebida
+     * @throws IllegalArgumentException se o lote exceder o tamanho máximo
      */
-    private String gerarNumeroPedido() {
-        LocalDateTime agora = LocalDateTime.now();
-        String timestamp = agora.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "PED" + timestamp;
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public LoteTransicoesResponseDTO transicionarEmLote(OperacaoPedido operacao, List<Long> ids) {
+        if (ids.size() > TAMANHO_MAXIMO_LOTE_TRANSICOES) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + TAMANHO_MAXIMO_LOTE_TRANSICOES + " pedidos");
+        }
+        return retentativaTransacional.executar(() -> transicionarEmLoteNaTransacao(operacao, ids));
+    }
+    
+    private LoteTransicoesResponseDTO transicionarEmLoteNaTransacao(OperacaoPedido operacao, List<Long> ids) {
+        LoteTransicoesResponseDTO.ResultadoTransicao[] resultados = new LoteTransicoesResponseDTO.ResultadoTransicao[ids.size()];
+        
+        // IDs nulos e repetidos são recusados antes da consulta
+        Set<Long> distintos = new HashSet<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                resultados[i] = LoteTransicoesResponseDTO.ResultadoTransicao.recusado(i, null, null, "ID do pedido não informado");
+            } else if (!distintos.add(id)) {
+                resultados[i] = LoteTransicoesResponseDTO.ResultadoTransicao.recusado(i, id, null, "Pedido repetido no lote");
+            }
+        }
+        
+        // Buscar e bloquear todos os pedidos do lote de uma vez
+        Map<Long, Pedido> pedidos = new HashMap<>(distintos.size() * 2);
+        if (!distintos.isEmpty()) {
+            namedParameterJdbcTemplate.query(SQL_BLOQUEAR_PEDIDOS, Map.of("ids", distintos), (RowCallbackHandler) rs -> {
+                // Só os campos usados pela transição e pelo painel; o pedido não é gerenciado pelo JPA
+                Pedido pedido = new Pedido();
+                pedido.setId(rs.getLong(1));
+                pedido.setNumeroPedido(rs.getString(2));
+                pedido.setStatus(StatusPedido.doCodigo(rs.getShort(3)));
+                pedido.setValorTotal(rs.getBigDecimal(4));
+                pedido.setValorFrete(rs.getBigDecimal(5));
+                pedido.setTipoFrete(rs.getString(6));
+                pedido.setDataCriacao(rs.getTimestamp(7).toLocalDateTime());
+                pedidos.put(pedido.getId(), pedido);
+            });
+        }
+        
+        // Aplicar a transição em memória
+        List<Long> transicionados = new ArrayList<>(pedidos.size());
+        List<OutboxPedidos.Transicao> eventos = new ArrayList<>(pedidos.size());
+        List<PainelVendas.Movimento> movimentos = new ArrayList<>(pedidos.size());
+        StatusPedido destino = null;
+        for (int i = 0; i < ids.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            Long id = ids.get(i);
+            Pedido pedido = pedidos.get(id);
+            if (pedido == null) {
+                resultados[i] = LoteTransicoesResponseDTO.ResultadoTransicao.recusado(i, id, null, "Pedido não encontrado");
+                continue;
+            }
+            StatusPedido anterior = pedido.getStatus();
+            if (PedidoStateManager.transicionar(pedido, operacao)) {
+                transicionados.add(id);
+                eventos.add(OutboxPedidos.Transicao.de(pedido, operacao, anterior));
+                movimentos.add(PainelVendas.Movimento.transicao(pedido, anterior));
+                destino = pedido.getStatus();
+                resultados[i] = LoteTransicoesResponseDTO.ResultadoTransicao.transicionado(i, id, pedido.getStatus().name());
+            } else {
+                resultados[i] = LoteTransicoesResponseDTO.ResultadoTransicao.recusado(i, id, anterior.name(),
+                        "Pedido " + PedidoStateManager.motivoRecusa(anterior, operacao));
+            }
+        }
+        
+        // Gravar o novo status (cada operação tem um único destino) em um só comando, e os eventos em um lote
+        if (destino != null) {
+            namedParameterJdbcTemplate.update(SQL_ATUALIZAR_STATUS, Map.of("status", destino.getCodigo(), "ids", transicionados));
+            outboxPedidos.registrar(eventos);
+            painelVendas.registrar(movimentos);
+        }
+        
+        // Devolver itens ao estoque: a matriz só permite cancelar pedidos ainda não enviados
+        if (operacao == OperacaoPedido.CANCELAR && !transicionados.isEmpty()) {
+            Map<Long, Integer> quantidadesPorProduto = new LinkedHashMap<>();
+            namedParameterJdbcTemplate.query(SQL_SOMAR_ITENS_POR_PRODUTO, Map.of("ids", transicionados),
+                    (RowCallbackHandler) rs -> quantidadesPorProduto.put(rs.getLong(1), rs.getInt(2)));
+            if (!quantidadesPorProduto.isEmpty()) {
+                estoqueService.devolver(quantidadesPorProduto);
+            }
+        }
+        
+        removerDoCacheAposCommit(transicionados);
+        return new LoteTransicoesResponseDTO(operacao.name(), Arrays.asList(resultados));
     }
     
     /**
-     * Converte uma entidade Pedido para DTO.
-     * @param pedido Entidade Pedido
-     * @return DTO do pedido
+     * Remove os pedidos do cache depois do commit da transação corrente, como o
+     * {@link CacheEvict} faz nas transições individuais. Em caso de rollback, nada é removido.
      */
-    private PedidoResponseDTO converterParaDTO(Pedido pedido) {
-        PedidoResponseDTO dto = new PedidoResponseDTO();
-        dto.setId(pedido.getId());
-        dto.setNumeroPedido(pedido.getNumeroPedido());
-        dto.setValorTotal(pedido.getValorTotal());
-        dto.setValorFrete(pedido.getValorFrete());
-        dto.setTipoFrete(pedido.getTipoFrete());
-        dto.setDataCriacao(pedido.getDataCriacao());
-        dto.setStatus(pedido.getStatus());
-        
-        // Cliente
-        PedidoResponseDTO.ClienteDTO clienteDTO = new PedidoResponseDTO.ClienteDTO();
-        clienteDTO.setId(pedido.getCliente().getId());
-        clienteDTO.setNome(pedido.getCliente().getNome());
-        clienteDTO.setEmail(pedido.getCliente().getEmail());
-        dto.setCliente(clienteDTO);
-        
-        // Itens
-        List<PedidoResponseDTO.ItemPedidoResponseDTO> itensDTO = pedido.getItens().stream()
-                .map(item -> {
-                    PedidoResponseDTO.ItemPedidoResponseDTO itemDTO = new PedidoResponseDTO.ItemPedidoResponseDTO();
-                    itemDTO.setId(item.getId());
-                    itemDTO.setNomeProduto(item.getProduto().getNome());
-                    itemDTO.setQuantidade(item.getQuantidade());
-                    itemDTO.setPrecoUnitario(item.getPrecoUnitario());
-                    itemDTO.setSubtotal(item.getSubtotal());
-                    return itemDTO;
-                })
-                .collect(Collectors.toList());
-        dto.setItens(itensDTO);
-        
-        return dto;
+    private void removerDoCacheAposCommit(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_PEDIDOS);
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(cache::evict);
+            }
+        });
     }
 }
-
@@ -0,0 +1,222 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Status atual de cada pedido, reconstruído a partir dos eventos do {@link LogEventosPedido}.
+ * <p>
+ * Os pedidos ficam em uma tabela de endereçamento aberto com dois vetores primitivos (ID e código
+ * do status), sem um objeto por pedido, junto com a contagem por status e a sequência do último
+ * evento aplicado. A projeção pode ser gravada em um snapshot e lida de volta, para que a
+ * recuperação só reproduza os eventos posteriores a ele. Não é thread-safe.
+ */
+public class ProjecaoStatusPedidos {
+    
+    private static final int MARCA_SNAPSHOT = 0x50524F4A;
+    private static final int VERSAO_SNAPSHOT = 1;
+    private static final int CAPACIDADE_INICIAL = 1024;
+    
+    private static final StatusPedido[] STATUS = StatusPedido.values();
+    
+    private long[] ids;
+    // Código do status + 1; 0 marca posição livre
+    private byte[] status;
+    private int mascara;
+    private int quantidade;
+    private final long[] porStatus = new long[STATUS.length];
+    private long sequencia;
+    
+    public ProjecaoStatusPedidos() {
+        this(CAPACIDADE_INICIAL);
+    }
+    
+    private ProjecaoStatusPedidos(int capacidade) {
+        this.ids = new long[capacidade];
+        this.status = new byte[capacidade];
+        this.mascara = capacidade - 1;
+    }
+    
+    /**
+     * Aplica um evento lido do log.
+     * @param evento O evento
+     */
+    public void aplicar(LogEventosPedido.EventoLido evento) {
+        aplicar(evento.getSequencia(), evento.getPedidoId(), evento.getStatusNovo());
+    }
+    
+    /**
+     * Registra o novo status de um pedido.
+     * @param sequencia Sequência do evento
+     * @param pedidoId ID do pedido
+     * @param novo Status depois do evento
+     */
+    public void aplicar(long sequencia, long pedidoId, StatusPedido novo) {
+        int posicao = posicao(pedidoId);
+        byte codigo = (byte) (novo.getCodigo() + 1);
+        if (status[posicao] == 0) {
+            ids[posicao] = pedidoId;
+            status[posicao] = codigo;
+            porStatus[novo.getCodigo()]++;
+            if (++quantidade * 4L > ids.length * 3L) {
+                redimensionar();
+            }
+        } else {
+            porStatus[status[posicao] - 1]--;
+            status[posicao] = codigo;
+            porStatus[novo.getCodigo()]++;
+        }
+        this.sequencia = sequencia;
+    }
+    
+    /**
+     * @param pedidoId ID do pedido
+     * @return Status atual do pedido, ou null se ele não aparece em nenhum evento
+     */
+    public StatusPedido status(long pedidoId) {
+        byte codigo = status[posicao(pedidoId)];
+        return codigo == 0 ? null : StatusPedido.doCodigo(codigo - 1);
+    }
+    
+    /**
+     * @return Quantidade de pedidos por status
+     */
+    public Map<StatusPedido, Long> contagemPorStatus() {
+        Map<StatusPedido, Long> contagem = new EnumMap<>(StatusPedido.class);
+        for (StatusPedido s : STATUS) {
+            contagem.put(s, porStatus[s.getCodigo()]);
+        }
+        return contagem;
+    }
+    
+    /**
+     * @return Quantidade de pedidos
+     */
+    public int getQuantidadePedidos() {
+        return quantidade;
+    }
+    
+    /**
+     * @return Sequência do último evento aplicado (0 se nenhum)
+     */
+    public long getSequencia() {
+        return sequencia;
+    }
+    
+    /**
+     * Grava a projeção em um snapshot, com CRC32C no final. O arquivo é escrito ao lado e
+     * renomeado ao terminar, então um snapshot interrompido não substitui o anterior.
+     * @param arquivo Arquivo do snapshot
+     * @throws IOException se o arquivo não puder ser gravado
+     */
+    public void salvar(Path arquivo) throws IOException {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream verificado = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(canal), 64 * 1024), new CRC32C());
+            DataOutputStream saida = new DataOutputStream(verificado);
+            saida.writeInt(MARCA_SNAPSHOT);
+            saida.writeInt(VERSAO_SNAPSHOT);
+            saida.writeLong(sequencia);
+            saida.writeInt(quantidade);
+            for (int i = 0; i < ids.length; i++) {
+                if (status[i] != 0) {
+                    saida.writeLong(ids[i]);
+                    saida.writeByte(status[i]);
+                }
+            }
+            saida.writeLong(verificado.getChecksum().getValue());
+            saida.flush();
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Lê uma projeção gravada por {@link #salvar(Path)}.
+     * @param arquivo Arquivo do snapshot
+     * @return A projeção
+     * @throws IOException se o arquivo não puder ser lido, estiver incompleto ou corrompido
+     */
+    public static ProjecaoStatusPedidos ler(Path arquivo) throws IOException {
+        try (InputStream arquivoLido = Files.newInputStream(arquivo)) {
+            CheckedInputStream verificado = new CheckedInputStream(new BufferedInputStream(arquivoLido, 64 * 1024), new CRC32C());
+            DataInputStream entrada = new DataInputStream(verificado);
+            if (entrada.readInt() != MARCA_SNAPSHOT || entrada.readInt() != VERSAO_SNAPSHOT) {
+                throw new IOException("Snapshot de pedidos em formato desconhecido: " + arquivo);
+            }
+            long sequencia = entrada.readLong();
+            int quantidade = entrada.readInt();
+            ProjecaoStatusPedidos projecao = new ProjecaoStatusPedidos(capacidadePara(quantidade));
+            for (int i = 0; i < quantidade; i++) {
+                long pedidoId = entrada.readLong();
+                int codigo = entrada.readByte();
+                if (codigo < 1 || codigo > STATUS.length) {
+                    throw new IOException("Snapshot de pedidos corrompido: " + arquivo);
+                }
+                projecao.aplicar(sequencia, pedidoId, StatusPedido.doCodigo(codigo - 1));
+            }
+            long esperado = verificado.getChecksum().getValue();
+            if (entrada.readLong() != esperado) {
+                throw new IOException("Snapshot de pedidos corrompido: " + arquivo);
+            }
+            projecao.sequencia = sequencia;
+            return projecao;
+        }
+    }
+    
+    private int posicao(long pedidoId) {
+        int posicao = espalhar(pedidoId) & mascara;
+        while (status[posicao] != 0 && ids[posicao] != pedidoId) {
+            posicao = (posicao + 1) & mascara;
+        }
+        return posicao;
+    }
+    
+    private void redimensionar() {
+        long[] idsAnteriores = ids;
+        byte[] statusAnteriores = status;
+        ids = new long[idsAnteriores.length * 2];
+        status = new byte[idsAnteriores.length * 2];
+        mascara = ids.length - 1;
+        for (int i = 0; i < idsAnteriores.length; i++) {
+            if (statusAnteriores[i] != 0) {
+                int posicao = posicao(idsAnteriores[i]);
+                ids[posicao] = idsAnteriores[i];
+                status[posicao] = statusAnteriores[i];
+            }
+        }
+    }
+    
+    private static int capacidadePara(int quantidade) {
+        int capacidade = CAPACIDADE_INICIAL;
+        while (quantidade * 4L > capacidade * 3L) {
+            capacidade *= 2;
+        }
+        return capacidade;
+    }
+    
+    // Sem a multiplicação, IDs múltiplos do tamanho da tabela cairiam todos na mesma posição
+    private static int espalhar(long pedidoId) {
+        long h = pedidoId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.EventoPedidoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega os eventos do outbox ({@link OutboxPedidos}) ao {@link DestinoEventosPedido}, em
+ * segundo plano, habilitado por padrão ({@code pedido.outbox.relay.enabled}).
+ * <p>
+ * A cada {@code pedido.outbox.intervalo-ms}, lê os eventos pendentes em ordem de ID, em lotes de
+ * até {@code pedido.outbox.lote}, publica cada lote e só então o remove da tabela; enquanto os
+ * lotes vêm cheios, o próximo é lido sem esperar. Se a publicação falhar, o lote fica na tabela
+ * e é publicado de novo no próximo ciclo: a entrega é "pelo menos uma vez". Como a remoção é
+ * por ID, eventos de transações que ainda não tinham sido efetivadas na leitura ficam para o
+ * lote seguinte. Várias instâncias sobre o mesmo banco podem publicar o mesmo evento mais de
+ * uma vez, o que o destino já precisa tolerar.
+ * <p>
+ * Métricas: {@code outbox.eventos.publicados} (vazão), {@code outbox.lote.publicacao} (duração
+ * da publicação de cada lote), {@code outbox.lote.eventos} (tamanho dos lotes),
+ * {@code outbox.falhas} e {@code outbox.pendentes} (eventos na tabela).
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class RelayOutbox {
+    
+    private static final Logger log = LoggerFactory.getLogger(RelayOutbox.class);
+    
+    private static final String SQL_PENDENTES = "SELECT id, pedido_id, numero_pedido, operacao, status_anterior, "
+            + "status_novo, data_evento FROM outbox_pedidos ORDER BY id LIMIT ?";
+    
+    private static final String SQL_REMOVER = "DELETE FROM outbox_pedidos WHERE id IN (:ids)";
+    
+    private static final String SQL_CONTAR_PENDENTES = "SELECT COUNT(*) FROM outbox_pedidos";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final DestinoEventosPedido destino;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final Counter publicados;
+    private final Counter falhas;
+    private final Timer publicacao;
+    private final DistributionSummary eventosPorLote;
+    private final ScheduledExecutorService relay = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public RelayOutbox(JdbcTemplate jdbcTemplate, DestinoEventosPedido destino, MeterRegistry meterRegistry,
+                       @Value("${pedido.outbox.lote:500}") int tamanhoLote,
+                       @Value("${pedido.outbox.intervalo-ms:200}") long intervaloMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.destino = destino;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+        this.publicados = Counter.builder("outbox.eventos.publicados")
+                .description("Eventos de pedido entregues ao destino").register(meterRegistry);
+        this.falhas = Counter.builder("outbox.falhas")
+                .description("Lotes cuja publicação falhou (serão publicados de novo)").register(meterRegistry);
+        this.publicacao = Timer.builder("outbox.lote.publicacao")
+                .description("Duração da publicação de um lote no destino").register(meterRegistry);
+        this.eventosPorLote = DistributionSummary.builder("outbox.lote.eventos")
+                .description("Eventos por lote publicado").register(meterRegistry);
+        Gauge.builder("outbox.pendentes", this, RelayOutbox::contarPendentes)
+                .description("Eventos de pedido aguardando entrega")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Começa a drenar o outbox quando a aplicação termina de subir (com o esquema já criado).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        relay.scheduleWithFixedDelay(this::drenarComSeguranca, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void encerrar() {
+        relay.shutdown();
+        try {
+            relay.awaitTermination(intervaloMs * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Publica e remove um lote de eventos pendentes. Chamadas concorrentes são serializadas,
+     * para que a mesma instância não publique um lote duas vezes.
+     * @return Quantidade de eventos publicados (0 se o outbox estava vazio)
+     * @throws RuntimeException se a publicação falhar; o lote continua pendente
+     */
+    public synchronized int publicarLote() {
+        List<EventoPedidoDTO> lote = jdbcTemplate.query(SQL_PENDENTES, (rs, linha) -> new EventoPedidoDTO(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getObject(5) == null ? null : StatusPedido.doCodigo(rs.getShort(5)).name(),
+                StatusPedido.doCodigo(rs.getShort(6)).name(),
+                rs.getTimestamp(7).toLocalDateTime()), tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            publicacao.record(() -> destino.publicar(lote));
+        } catch (RuntimeException e) {
+            falhas.increment();
+            throw e;
+        }
+        namedParameterJdbcTemplate.update(SQL_REMOVER, Map.of("ids", lote.stream().map(EventoPedidoDTO::getId).toList()));
+        publicados.increment(lote.size());
+        eventosPorLote.record(lote.size());
+        return lote.size();
+    }
+    
+    /**
+     * Publica lotes até esvaziar o outbox.
+     * @return Quantidade de eventos publicados
+     */
+    public long drenar() {
+        long total = 0;
+        int publicadosNoLote;
+        do {
+            publicadosNoLote = publicarLote();
+            total += publicadosNoLote;
+        } while (publicadosNoLote == tamanhoLote);
+        return total;
+    }
+    
+    private void drenarComSeguranca() {
+        try {
+            drenar();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao publicar os eventos do outbox; o lote será publicado de novo", e);
+        }
+    }
+    
+    private double contarPendentes() {
+        Long pendentes = jdbcTemplate.queryForObject(SQL_CONTAR_PENDENTES, Long.class);
+        return pendentes == null ? 0 : pendentes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma operação em uma transação própria, repetindo-a quando falha por um
+ * conflito transitório de concorrência (timeout de lock, deadlock, conflito otimista).
+ * O número de tentativas é limitado e a espera entre elas cresce exponencialmente,
+ * com variação aleatória para que as transações em conflito não voltem juntas.
+ */
+@Component
+public class RetentativaTransacional {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxTentativas;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    public RetentativaTransacional(PlatformTransactionManager transactionManager,
+                                   @Value("${pedido.retentativa.max-tentativas:5}") int maxTentativas,
+                                   @Value("${pedido.retentativa.espera-inicial-ms:5}") long esperaInicialMs,
+                                   @Value("${pedido.retentativa.espera-maxima-ms:200}") long esperaMaximaMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxTentativas = maxTentativas;
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    /**
+     * Executa a operação com retentativas.
+     * Se já existir uma transação ativa, a operação participa dela e é executada uma única
+     * vez, pois uma transação marcada para rollback não pode ser repetida por aqui.
+     * @param operacao A operação a ser executada
+     * @return O resultado da operação
+     */
+    public <T> T executar(Supplier<T> operacao) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacao.get();
+        }
+
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> operacao.get());
+            } catch (TransientDataAccessException e) {
+                if (tentativa >= maxTentativas) {
+                    throw e;
+                }
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    private void aguardar(int tentativa) {
+        long limite = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(tentativa - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limite + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retentativa interrompida", e);
+        }
+    }
+}
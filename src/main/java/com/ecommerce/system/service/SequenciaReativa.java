@@ -0,0 +1,48 @@
+package com.ecommerce.system.service;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * IDs de uma sequência do banco compartilhada com o Hibernate, para inserts feitos via R2DBC.
+ * <p>
+ * As entidades usam o otimizador "pooled" do Hibernate: cada valor V obtido da sequência
+ * reserva o bloco {@code [V - tamanhoBloco + 1, V]}. Aqui os valores são consumidos da mesma
+ * forma, então os IDs nunca colidem com os gerados pelo JPA. Se duas buscas concorrerem, o
+ * resto do bloco anterior é descartado (há lacunas, mas não repetição).
+ */
+final class SequenciaReativa {
+    
+    private final DatabaseClient databaseClient;
+    private final String sql;
+    private final long tamanhoBloco;
+    
+    // Próximo ID livre e último ID do bloco atual (protegidos por this, sem I/O dentro)
+    private long proximo = 1;
+    private long limite = 0;
+    
+    SequenciaReativa(DatabaseClient databaseClient, String sequencia, int tamanhoBloco) {
+        this.databaseClient = databaseClient;
+        this.sql = "SELECT NEXT VALUE FOR " + sequencia;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+    
+    Mono<Long> proximo() {
+        synchronized (this) {
+            if (proximo <= limite) {
+                return Mono.just(proximo++);
+            }
+        }
+        return databaseClient.sql(sql)
+                .map(linha -> linha.get(0, Long.class))
+                .one()
+                .map(valor -> {
+                    synchronized (this) {
+                        long inicio = Math.max(1, valor - tamanhoBloco + 1);
+                        proximo = inicio + 1;
+                        limite = valor;
+                        return inicio;
+                    }
+                });
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.system.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Gerador de números de pedido no estilo Snowflake: cada ID de 63 bits é composto por
+ * 41 bits de milissegundos desde {@link #EPOCA}, 10 bits de identificador do nó e 12 bits
+ * de sequência dentro do milissegundo.
+ * <p>
+ * O par (milissegundo, sequência) é mantido em um único {@link AtomicLong} e avançado com
+ * CAS, sem bloqueio. Se a sequência de um milissegundo se esgota, ou se o relógio do sistema
+ * volta no tempo, o gerador segue no próximo milissegundo lógico em vez de esperar ou repetir.
+ * <p>
+ * O número é formatado como "PED" seguido de 19 dígitos com zeros à esquerda, de modo que
+ * a ordem textual é a mesma da ordem numérica.
+ */
+@Component
+public class SnowflakeGeradorNumeroPedido implements GeradorNumeroPedido {
+    
+    /** 2024-01-01T00:00:00Z em milissegundos. */
+    static final long EPOCA = 1704067200000L;
+    
+    private static final int BITS_NO = 10;
+    private static final int BITS_SEQUENCIA = 12;
+    private static final long MAX_NO = (1L << BITS_NO) - 1;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    
+    private static final byte[] PREFIXO = "PED".getBytes(StandardCharsets.US_ASCII);
+    private static final int DIGITOS = 19;
+    
+    private final long no;
+    private final LongSupplier relogio;
+    private final AtomicLong ultimo = new AtomicLong();
+    
+    @Autowired
+    public SnowflakeGeradorNumeroPedido(@Value("${pedido.numero.no:0}") long no) {
+        this(no, System::currentTimeMillis);
+    }
+    
+    /**
+     * @param no Identificador do nó
+     * @param relogio Fonte dos milissegundos (nos testes, um relógio parado ou atrasado)
+     */
+    SnowflakeGeradorNumeroPedido(long no, LongSupplier relogio) {
+        if (no < 0 || no > MAX_NO) {
+            throw new IllegalArgumentException("Identificador do nó deve estar entre 0 e " + MAX_NO + ": " + no);
+        }
+        this.no = no;
+        this.relogio = relogio;
+    }
+    
+    @Override
+    public String gerar() {
+        long id = proximoId();
+        byte[] numero = new byte[PREFIXO.length + DIGITOS];
+        System.arraycopy(PREFIXO, 0, numero, 0, PREFIXO.length);
+        for (int i = numero.length - 1; i >= PREFIXO.length; i--) {
+            numero[i] = (byte) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(numero, StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * Gera o próximo ID numérico.
+     * @return ID único e crescente para este nó
+     */
+    public long proximoId() {
+        while (true) {
+            long atual = ultimo.get();
+            long agora = relogio.getAsLong() - EPOCA;
+            // No mesmo milissegundo (ou com o relógio atrasado) incrementa a sequência;
+            // ao estourar os 12 bits, o incremento avança para o próximo milissegundo lógico
+            long proximo = agora > (atual >>> BITS_SEQUENCIA) ? agora << BITS_SEQUENCIA : atual + 1;
+            if (ultimo.compareAndSet(atual, proximo)) {
+                long milissegundo = proximo >>> BITS_SEQUENCIA;
+                return (milissegundo << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | (proximo & MASCARA_SEQUENCIA);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.system.state;
+
+/**
+ * Operações que mudam o status de um pedido (as colunas da matriz de transições).
+ */
+public enum OperacaoPedido {
+    
+    PAGAR,
+    CANCELAR,
+    ENVIAR
+}
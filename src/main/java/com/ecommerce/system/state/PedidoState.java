@@ -1,10 +1,12 @@
 package com.ecommerce.system.state;
 
 import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
 
 /**
  * Interface que define o padrão State para o gerenciamento de estados do pedido.
- * Cada estado concreto implementa esta interface definindo as transições permitidas.
+ * Cada estado define as transições permitidas a partir do seu status. Os estados não
+ * guardam dados do pedido, então há uma única instância por status.
  */
 public interface PedidoState {
     
@@ -30,9 +32,8 @@ public interface PedidoState {
     boolean enviar(Pedido pedido);
     
     /**
-     * Retorna o nome do estado atual.
-     * @return String representando o estado
+     * Retorna o status representado por este estado.
+     * @return O status
      */
-    String getEstado();
+    StatusPedido getEstado();
 }
-
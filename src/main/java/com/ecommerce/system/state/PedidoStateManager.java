@@ -1,32 +1,127 @@
 package com.ecommerce.system.state;
 
 import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Context do padrão State que gerencia as transições de estado do pedido.
- * Esta classe encapsula a lógica de mudança de estados e delega as operações
- * para o estado atual do pedido.
+ * <p>
+ * As transições vêm de uma matriz status × operação montada na carga da classe: cada célula
+ * tem o status de destino ou, se a transição não é permitida, o motivo da recusa. Há um único
+ * estado (sem dados do pedido) por status, obtido pelo índice do status, então uma transição
+ * não cria objetos nem compara strings.
+ * <p>
+ * Cada transição, aceita ou recusada, é registrada no log com os campos {@code pedido},
+ * {@code operacao}, {@code de} e {@code para} (ou {@code motivo}). O logger deste pacote
+ * escreve por um appender assíncrono (ver {@code logback-spring.xml}), fora da thread da requisição.
  */
 public class PedidoStateManager {
     
+    private static final Logger log = LoggerFactory.getLogger(PedidoStateManager.class);
+    
+    private static final int STATUS = StatusPedido.values().length;
+    private static final int OPERACOES = OperacaoPedido.values().length;
+    
+    // [status][operação]: destino da transição, ou null se ela for recusada
+    private static final StatusPedido[][] DESTINOS = new StatusPedido[STATUS][OPERACOES];
+    
+    // [status][operação]: motivo da recusa, para as células sem destino
+    private static final String[][] MOTIVOS = new String[STATUS][OPERACOES];
+    
+    private static final PedidoState[] ESTADOS = new PedidoState[STATUS];
+    
+    static {
+        permitir(StatusPedido.AGUARDANDO_PAGAMENTO, OperacaoPedido.PAGAR, StatusPedido.PAGO);
+        permitir(StatusPedido.AGUARDANDO_PAGAMENTO, OperacaoPedido.CANCELAR, StatusPedido.CANCELADO);
+        recusar(StatusPedido.AGUARDANDO_PAGAMENTO, OperacaoPedido.ENVIAR, "ainda não foi pago");
+        
+        recusar(StatusPedido.PAGO, OperacaoPedido.PAGAR, "já foi pago e não pode ser pago novamente");
+        permitir(StatusPedido.PAGO, OperacaoPedido.CANCELAR, StatusPedido.CANCELADO);
+        permitir(StatusPedido.PAGO, OperacaoPedido.ENVIAR, StatusPedido.ENVIADO);
+        
+        recusar(StatusPedido.ENVIADO, OperacaoPedido.PAGAR, "já foi enviado e não pode ser alterado");
+        recusar(StatusPedido.ENVIADO, OperacaoPedido.CANCELAR, "já foi enviado e não pode ser cancelado");
+        recusar(StatusPedido.ENVIADO, OperacaoPedido.ENVIAR, "já foi enviado");
+        
+        recusar(StatusPedido.CANCELADO, OperacaoPedido.PAGAR, "foi cancelado e não pode ser pago");
+        recusar(StatusPedido.CANCELADO, OperacaoPedido.CANCELAR, "já foi cancelado");
+        recusar(StatusPedido.CANCELADO, OperacaoPedido.ENVIAR, "foi cancelado e não pode ser enviado");
+        
+        for (StatusPedido status : StatusPedido.values()) {
+            for (OperacaoPedido operacao : OperacaoPedido.values()) {
+                if (DESTINOS[status.ordinal()][operacao.ordinal()] == null && MOTIVOS[status.ordinal()][operacao.ordinal()] == null) {
+                    throw new ExceptionInInitializerError("Transição não definida: " + status + " / " + operacao);
+                }
+            }
+            ESTADOS[status.ordinal()] = new Estado(status);
+        }
+    }
+    
     /**
      * Obtém o estado atual do pedido baseado no seu status.
      * @param pedido O pedido para obter o estado
-     * @return O estado correspondente ao status do pedido
+     * @return O estado correspondente ao status do pedido (sempre a mesma instância por status)
      */
     public static PedidoState getState(Pedido pedido) {
-        switch (pedido.getStatus()) {
-            case "AGUARDANDO_PAGAMENTO":
-                return new AguardandoPagamentoState();
-            case "PAGO":
-                return new PagoState();
-            case "ENVIADO":
-                return new EnviadoState();
-            case "CANCELADO":
-                return new CanceladoState();
-            default:
-                throw new IllegalStateException("Estado inválido: " + pedido.getStatus());
+        if (pedido.getStatus() == null) {
+            throw new IllegalStateException("Estado inválido: " + pedido.getStatus());
         }
+        return ESTADOS[pedido.getStatus().ordinal()];
+    }
+    
+    /**
+     * Consulta a matriz de transições.
+     * @param status Status de origem
+     * @param operacao Operação pretendida
+     * @return Status de destino, ou null se a transição não for permitida
+     */
+    public static StatusPedido destino(StatusPedido status, OperacaoPedido operacao) {
+        return DESTINOS[status.ordinal()][operacao.ordinal()];
+    }
+    
+    /**
+     * Consulta o motivo de uma transição recusada.
+     * @param status Status de origem
+     * @param operacao Operação pretendida
+     * @return Motivo da recusa (ex.: "já foi enviado"), ou null se a transição for permitida
+     */
+    public static String motivoRecusa(StatusPedido status, OperacaoPedido operacao) {
+        return MOTIVOS[status.ordinal()][operacao.ordinal()];
+    }
+    
+    /**
+     * Aplica uma operação ao pedido, se a matriz permitir.
+     * @param pedido O pedido
+     * @param operacao A operação
+     * @return true se o status do pedido foi alterado
+     */
+    public static boolean transicionar(Pedido pedido, OperacaoPedido operacao) {
+        StatusPedido anterior = pedido.getStatus();
+        if (anterior == null) {
+            throw new IllegalStateException("Estado inválido: " + anterior);
+        }
+        StatusPedido destino = DESTINOS[anterior.ordinal()][operacao.ordinal()];
+        if (destino == null) {
+            log.atInfo()
+                    .setMessage("Transição de pedido recusada")
+                    .addKeyValue("pedido", pedido.getNumeroPedido())
+                    .addKeyValue("operacao", operacao)
+                    .addKeyValue("de", anterior)
+                    .addKeyValue("motivo", MOTIVOS[anterior.ordinal()][operacao.ordinal()])
+                    .log();
+            return false;
+        }
+        pedido.setStatus(destino);
+        log.atInfo()
+                .setMessage("Transição de pedido")
+                .addKeyValue("pedido", pedido.getNumeroPedido())
+                .addKeyValue("operacao", operacao)
+                .addKeyValue("de", anterior)
+                .addKeyValue("para", destino)
+                .log();
+        return true;
     }
     
     /**
@@ -35,8 +130,7 @@ public class PedidoStateManager {
      * @return true se o pagamento foi processado com sucesso
      */
     public static boolean pagar(Pedido pedido) {
-        PedidoState state = getState(pedido);
-        return state.pagar(pedido);
+        return getState(pedido).pagar(pedido);
     }
     
     /**
@@ -45,8 +139,7 @@ public class PedidoStateManager {
      * @return true se o cancelamento foi processado com sucesso
      */
     public static boolean cancelar(Pedido pedido) {
-        PedidoState state = getState(pedido);
-        return state.cancelar(pedido);
+        return getState(pedido).cancelar(pedido);
     }
     
     /**
@@ -55,8 +148,53 @@ public class PedidoStateManager {
      * @return true se o envio foi processado com sucesso
      */
     public static boolean enviar(Pedido pedido) {
-        PedidoState state = getState(pedido);
-        return state.enviar(pedido);
+        return getState(pedido).enviar(pedido);
+    }
+    
+    private static void permitir(StatusPedido origem, OperacaoPedido operacao, StatusPedido destino) {
+        DESTINOS[origem.ordinal()][operacao.ordinal()] = destino;
+    }
+    
+    private static void recusar(StatusPedido origem, OperacaoPedido operacao, String motivo) {
+        MOTIVOS[origem.ordinal()][operacao.ordinal()] = motivo;
+    }
+    
+    /**
+     * Estado de um status: aplica as transições da linha do status na matriz.
+     */
+    private static final class Estado implements PedidoState {
+        
+        private final StatusPedido status;
+        
+        private Estado(StatusPedido status) {
+            this.status = status;
+        }
+        
+        @Override
+        public boolean pagar(Pedido pedido) {
+            return aplicar(pedido, OperacaoPedido.PAGAR);
+        }
+        
+        @Override
+        public boolean cancelar(Pedido pedido) {
+            return aplicar(pedido, OperacaoPedido.CANCELAR);
+        }
+        
+        @Override
+        public boolean enviar(Pedido pedido) {
+            return aplicar(pedido, OperacaoPedido.ENVIAR);
+        }
+        
+        @Override
+        public StatusPedido getEstado() {
+            return status;
+        }
+        
+        private boolean aplicar(Pedido pedido, OperacaoPedido operacao) {
+            if (pedido.getStatus() != status) {
+                throw new IllegalStateException("Pedido " + pedido.getNumeroPedido() + " não está em " + status);
+            }
+            return transicionar(pedido, operacao);
+        }
     }
 }
-
@@ -0,0 +1,60 @@
+package com.ecommerce.system.strategy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.math.BigDecimal;
+
+/**
+ * Decorator que memoriza as cotações de uma {@link FreteTabelaStrategy}.
+ * <p>
+ * O frete só depende do valor do pedido e da tarifa (região do CEP e faixa de peso), então a
+ * chave usa o valor em centavos e {@link FreteTabelaStrategy#faixaTarifa}: CEPs da mesma região
+ * e pesos da mesma faixa compartilham a entrada. A chave também leva a estratégia memorizada,
+ * de modo que, depois de uma recarga das tabelas, cotações das regras antigas nunca são reaproveitadas.
+ * Valores com mais de duas casas decimais não passam pelo cache.
+ */
+public class FreteMemoizadoStrategy implements FreteStrategy {
+    
+    private final FreteTabelaStrategy estrategia;
+    private final Cache<ChaveCotacao, BigDecimal> cotacoes;
+    
+    public FreteMemoizadoStrategy(FreteTabelaStrategy estrategia, Cache<ChaveCotacao, BigDecimal> cotacoes) {
+        this.estrategia = estrategia;
+        this.cotacoes = cotacoes;
+    }
+    
+    @Override
+    public BigDecimal calcularFrete(BigDecimal valorPedido) {
+        return calcularFrete(valorPedido, null, 0);
+    }
+    
+    @Override
+    public BigDecimal calcularFrete(BigDecimal valorPedido, String cep, int pesoGramas) {
+        if (valorPedido == null || valorPedido.signum() <= 0) {
+            // A estratégia rejeita o valor
+            return estrategia.calcularFrete(valorPedido, cep, pesoGramas);
+        }
+        long centavos = TabelaFrete.emCentavos(valorPedido);
+        if (centavos == TabelaFrete.VALOR_FORA_DOS_CENTAVOS) {
+            return estrategia.calcularFrete(valorPedido, cep, pesoGramas);
+        }
+        
+        ChaveCotacao chave = new ChaveCotacao(estrategia, centavos, estrategia.faixaTarifa(cep, pesoGramas));
+        return cotacoes.get(chave, ignorada -> estrategia.calcularFrete(valorPedido, cep, pesoGramas));
+    }
+    
+    @Override
+    public String getTipoFrete() {
+        return estrategia.getTipoFrete();
+    }
+    
+    @Override
+    public String getDescricao() {
+        return estrategia.getDescricao();
+    }
+    
+    /**
+     * Chave de uma cotação memorizada. A estratégia é comparada por identidade.
+     */
+    public record ChaveCotacao(FreteTabelaStrategy estrategia, long centavos, long faixaTarifa) {}
+}
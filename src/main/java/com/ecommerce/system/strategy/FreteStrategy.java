@@ -15,6 +15,18 @@ public interface FreteStrategy {
      */
     BigDecimal calcularFrete(BigDecimal valorPedido);
     
+    /**
+     * Calcula o frete considerando também o destino e o peso da entrega.
+     * Estratégias que não dependem deles calculam apenas pelo valor.
+     * @param valorPedido O valor total do pedido
+     * @param cep CEP de destino (com ou sem hífen), ou null se não informado
+     * @param pesoGramas Peso total em gramas (0 se não informado)
+     * @return O valor do frete calculado
+     */
+    default BigDecimal calcularFrete(BigDecimal valorPedido, String cep, int pesoGramas) {
+        return calcularFrete(valorPedido);
+    }
+    
     /**
      * Retorna o tipo de frete.
      * @return String representando o tipo de frete
@@ -0,0 +1,81 @@
+package com.ecommerce.system.strategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Estratégia de frete calculada por uma {@link TabelaFrete} (região do CEP, faixa de peso e
+ * faixa de valor). Imutável: uma instância por tipo de frete é compartilhada por toda a aplicação.
+ */
+public class FreteTabelaStrategy implements FreteStrategy {
+    
+    /** Tabelas de frete embutidas na aplicação (recurso do classpath). */
+    public static final String TABELAS_PADRAO = "frete/tabelas-frete.json";
+    
+    private final String tipoFrete;
+    private final String descricao;
+    private final TabelaFrete tabela;
+    
+    public FreteTabelaStrategy(String tipoFrete, String descricao, TabelaFrete tabela) {
+        this.tipoFrete = tipoFrete;
+        this.descricao = descricao;
+        this.tabela = tabela;
+    }
+    
+    /**
+     * Compila as regras de um tipo de frete.
+     * @param regras Regras do tipo de frete
+     * @return Estratégia pronta para uso
+     */
+    public static FreteTabelaStrategy compilar(RegrasFrete regras) {
+        if (regras.getTipo() == null || regras.getTipo().isBlank()) {
+            throw new IllegalArgumentException("Tipo de frete não pode ser nulo ou vazio");
+        }
+        return new FreteTabelaStrategy(regras.getTipo().toUpperCase(Locale.ROOT), regras.getDescricao(), TabelaFrete.compilar(regras));
+    }
+    
+    /**
+     * Lê e compila as regras de um JSON no formato de {@value #TABELAS_PADRAO}.
+     * @param entrada JSON com a lista de regras
+     * @return Uma estratégia por tipo de frete, na ordem do JSON
+     * @throws IOException se o JSON não puder ser lido
+     * @throws IllegalArgumentException se alguma regra for inconsistente
+     */
+    public static List<FreteTabelaStrategy> ler(InputStream entrada) throws IOException {
+        RegrasFrete[] regras = new ObjectMapper().readValue(entrada, RegrasFrete[].class);
+        return Arrays.stream(regras).map(FreteTabelaStrategy::compilar).toList();
+    }
+    
+    @Override
+    public BigDecimal calcularFrete(BigDecimal valorPedido) {
+        return tabela.calcular(valorPedido, TabelaFrete.CEP_NAO_INFORMADO, 0);
+    }
+    
+    @Override
+    public BigDecimal calcularFrete(BigDecimal valorPedido, String cep, int pesoGramas) {
+        return tabela.calcular(valorPedido, TabelaFrete.cepNumerico(cep), pesoGramas);
+    }
+    
+    /**
+     * @return Região e faixa de peso da tarifa aplicada (ver {@link TabelaFrete#faixaTarifa})
+     */
+    public long faixaTarifa(String cep, int pesoGramas) {
+        return tabela.faixaTarifa(TabelaFrete.cepNumerico(cep), pesoGramas);
+    }
+    
+    @Override
+    public String getTipoFrete() {
+        return tipoFrete;
+    }
+    
+    @Override
+    public String getDescricao() {
+        return descricao;
+    }
+}
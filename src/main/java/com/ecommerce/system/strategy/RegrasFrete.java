@@ -0,0 +1,163 @@
+package com.ecommerce.system.strategy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regras de um tipo de frete como escritas em {@code frete/tabelas-frete.json}.
+ * São compiladas em uma {@link TabelaFrete} na carga; nada aqui é usado no cálculo.
+ * <p>
+ * Frete = tarifa da região do CEP na faixa de peso + percentual da faixa de valor do pedido.
+ * Acima da última faixa de peso soma-se {@code adicionalPorKgExcedente} por kg (ou fração).
+ * CEP não informado ou fora das regiões usa a tarifa de {@code regiaoPadrao}.
+ */
+public class RegrasFrete {
+    
+    private String tipo;
+    private String descricao;
+    private String regiaoPadrao;
+    private List<Regiao> regioes;
+    private List<Integer> faixasPesoGramas;
+    private Map<String, List<String>> tarifas;
+    private String adicionalPorKgExcedente;
+    private List<FaixaValor> faixasValor;
+    
+    // Getters e Setters
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public String getRegiaoPadrao() {
+        return regiaoPadrao;
+    }
+    
+    public void setRegiaoPadrao(String regiaoPadrao) {
+        this.regiaoPadrao = regiaoPadrao;
+    }
+    
+    public List<Regiao> getRegioes() {
+        return regioes;
+    }
+    
+    public void setRegioes(List<Regiao> regioes) {
+        this.regioes = regioes;
+    }
+    
+    public List<Integer> getFaixasPesoGramas() {
+        return faixasPesoGramas;
+    }
+    
+    public void setFaixasPesoGramas(List<Integer> faixasPesoGramas) {
+        this.faixasPesoGramas = faixasPesoGramas;
+    }
+    
+    public Map<String, List<String>> getTarifas() {
+        return tarifas;
+    }
+    
+    public void setTarifas(Map<String, List<String>> tarifas) {
+        this.tarifas = tarifas;
+    }
+    
+    public String getAdicionalPorKgExcedente() {
+        return adicionalPorKgExcedente;
+    }
+    
+    public void setAdicionalPorKgExcedente(String adicionalPorKgExcedente) {
+        this.adicionalPorKgExcedente = adicionalPorKgExcedente;
+    }
+    
+    public List<FaixaValor> getFaixasValor() {
+        return faixasValor;
+    }
+    
+    public void setFaixasValor(List<FaixaValor> faixasValor) {
+        this.faixasValor = faixasValor;
+    }
+    
+    /**
+     * Intervalo de CEPs (inclusivo) de uma região. Uma região pode ter vários intervalos.
+     */
+    public static class Regiao {
+        
+        private String nome;
+        private String cepInicial;
+        private String cepFinal;
+        
+        public Regiao() {}
+        
+        public Regiao(String nome, String cepInicial, String cepFinal) {
+            this.nome = nome;
+            this.cepInicial = cepInicial;
+            this.cepFinal = cepFinal;
+        }
+        
+        public String getNome() {
+            return nome;
+        }
+        
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+        
+        public String getCepInicial() {
+            return cepInicial;
+        }
+        
+        public void setCepInicial(String cepInicial) {
+            this.cepInicial = cepInicial;
+        }
+        
+        public String getCepFinal() {
+            return cepFinal;
+        }
+        
+        public void setCepFinal(String cepFinal) {
+            this.cepFinal = cepFinal;
+        }
+    }
+    
+    /**
+     * Percentual cobrado sobre pedidos a partir de {@code valorMinimo} (até a próxima faixa).
+     */
+    public static class FaixaValor {
+        
+        private String valorMinimo;
+        private String percentual;
+        
+        public FaixaValor() {}
+        
+        public FaixaValor(String valorMinimo, String percentual) {
+            this.valorMinimo = valorMinimo;
+            this.percentual = percentual;
+        }
+        
+        public String getValorMinimo() {
+            return valorMinimo;
+        }
+        
+        public void setValorMinimo(String valorMinimo) {
+            this.valorMinimo = valorMinimo;
+        }
+        
+        public String getPercentual() {
+            return percentual;
+        }
+        
+        public void setPercentual(String percentual) {
+            this.percentual = percentual;
+        }
+    }
+}
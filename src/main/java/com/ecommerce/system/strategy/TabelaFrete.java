@@ -0,0 +1,324 @@
+package com.ecommerce.system.strategy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RegrasFrete} compiladas em arrays primitivos ordenados, imutáveis depois da carga.
+ * <p>
+ * Cada cotação faz três buscas binárias (intervalo de CEP, faixa de peso e faixa de valor) e
+ * soma centavos em {@code long}; o único objeto criado é o {@link BigDecimal} do resultado.
+ * Valores com mais de duas casas decimais seguem por {@link BigDecimal}, com o mesmo arredondamento.
+ */
+public final class TabelaFrete {
+    
+    /** CEP não informado: usa a região padrão. */
+    public static final int CEP_NAO_INFORMADO = -1;
+    
+    /** Retorno de {@link #emCentavos} para valores que não cabem em centavos inteiros. */
+    public static final long VALOR_FORA_DOS_CENTAVOS = -1;
+    
+    private static final long BASE_PERCENTUAL = 10_000;
+    
+    // Maior valor em centavos cujo produto pelo percentual (em centésimos de ponto) cabe em long
+    private static final long LIMITE_CENTAVOS = Long.MAX_VALUE / BASE_PERCENTUAL;
+    
+    // Intervalos de CEP ordenados pelo início, sem sobreposição, e a região de cada um
+    private final int[] cepInicial;
+    private final int[] cepFinal;
+    private final int[] regiaoDoIntervalo;
+    private final int regiaoPadrao;
+    
+    // Limite superior (inclusivo) de cada faixa de peso e tarifa em centavos por [região][faixa]
+    private final int[] limitesPeso;
+    private final long[][] tarifas;
+    private final long adicionalPorKg;
+    
+    // Início de cada faixa de valor e percentual cobrado, em centésimos de ponto (500 = 5%)
+    private final BigDecimal[] valoresMinimos;
+    private final long[] percentuais;
+    private final BigDecimal[] percentuaisDecimais;
+    
+    private TabelaFrete(int[] cepInicial, int[] cepFinal, int[] regiaoDoIntervalo, int regiaoPadrao,
+                        int[] limitesPeso, long[][] tarifas, long adicionalPorKg,
+                        BigDecimal[] valoresMinimos, long[] percentuais) {
+        this.cepInicial = cepInicial;
+        this.cepFinal = cepFinal;
+        this.regiaoDoIntervalo = regiaoDoIntervalo;
+        this.regiaoPadrao = regiaoPadrao;
+        this.limitesPeso = limitesPeso;
+        this.tarifas = tarifas;
+        this.adicionalPorKg = adicionalPorKg;
+        this.valoresMinimos = valoresMinimos;
+        this.percentuais = percentuais;
+        this.percentuaisDecimais = new BigDecimal[percentuais.length];
+        for (int i = 0; i < percentuais.length; i++) {
+            percentuaisDecimais[i] = BigDecimal.valueOf(percentuais[i], 4);
+        }
+    }
+    
+    /**
+     * Valida e compila as regras de um tipo de frete.
+     * @param regras Regras lidas da configuração
+     * @return Tabela pronta para cotação
+     * @throws IllegalArgumentException se as regras forem inconsistentes
+     */
+    public static TabelaFrete compilar(RegrasFrete regras) {
+        String tipo = regras.getTipo();
+        if (regras.getTarifas() == null || regras.getTarifas().isEmpty()) {
+            throw new IllegalArgumentException("Frete " + tipo + ": nenhuma tarifa definida");
+        }
+        
+        // Regiões na ordem das tarifas
+        Map<String, Integer> indiceRegiao = new HashMap<>();
+        for (String regiao : regras.getTarifas().keySet()) {
+            indiceRegiao.put(regiao, indiceRegiao.size());
+        }
+        Integer regiaoPadrao = indiceRegiao.get(regras.getRegiaoPadrao());
+        if (regiaoPadrao == null) {
+            throw new IllegalArgumentException("Frete " + tipo + ": região padrão sem tarifa: " + regras.getRegiaoPadrao());
+        }
+        
+        List<int[]> intervalos = new ArrayList<>();
+        if (regras.getRegioes() != null) {
+            for (RegrasFrete.Regiao regiao : regras.getRegioes()) {
+                Integer indice = indiceRegiao.get(regiao.getNome());
+                if (indice == null) {
+                    throw new IllegalArgumentException("Frete " + tipo + ": região sem tarifa: " + regiao.getNome());
+                }
+                int inicio = cepNumerico(regiao.getCepInicial());
+                int fim = cepNumerico(regiao.getCepFinal());
+                if (inicio == CEP_NAO_INFORMADO || fim == CEP_NAO_INFORMADO || inicio > fim) {
+                    throw new IllegalArgumentException("Frete " + tipo + ": intervalo de CEP inválido na região " + regiao.getNome());
+                }
+                intervalos.add(new int[] {inicio, fim, indice});
+            }
+        }
+        intervalos.sort(Comparator.comparingInt(intervalo -> intervalo[0]));
+        int[] cepInicial = new int[intervalos.size()];
+        int[] cepFinal = new int[intervalos.size()];
+        int[] regiaoDoIntervalo = new int[intervalos.size()];
+        for (int i = 0; i < intervalos.size(); i++) {
+            int[] intervalo = intervalos.get(i);
+            if (i > 0 && intervalo[0] <= cepFinal[i - 1]) {
+                throw new IllegalArgumentException("Frete " + tipo + ": intervalos de CEP sobrepostos a partir de " + intervalo[0]);
+            }
+            cepInicial[i] = intervalo[0];
+            cepFinal[i] = intervalo[1];
+            regiaoDoIntervalo[i] = intervalo[2];
+        }
+        
+        List<Integer> faixasPeso = regras.getFaixasPesoGramas();
+        if (faixasPeso == null || faixasPeso.isEmpty()) {
+            throw new IllegalArgumentException("Frete " + tipo + ": nenhuma faixa de peso definida");
+        }
+        int[] limitesPeso = new int[faixasPeso.size()];
+        for (int i = 0; i < limitesPeso.length; i++) {
+            limitesPeso[i] = faixasPeso.get(i);
+            if (limitesPeso[i] <= 0 || (i > 0 && limitesPeso[i] <= limitesPeso[i - 1])) {
+                throw new IllegalArgumentException("Frete " + tipo + ": faixas de peso devem ser positivas e crescentes");
+            }
+        }
+        
+        long[][] tarifas = new long[indiceRegiao.size()][];
+        for (Map.Entry<String, List<String>> tarifa : regras.getTarifas().entrySet()) {
+            if (tarifa.getValue().size() != limitesPeso.length) {
+                throw new IllegalArgumentException("Frete " + tipo + ": a região " + tarifa.getKey()
+                        + " deve ter uma tarifa por faixa de peso");
+            }
+            long[] centavos = new long[limitesPeso.length];
+            for (int i = 0; i < centavos.length; i++) {
+                centavos[i] = centavos(tarifa.getValue().get(i), tipo);
+            }
+            tarifas[indiceRegiao.get(tarifa.getKey())] = centavos;
+        }
+        long adicionalPorKg = regras.getAdicionalPorKgExcedente() == null ? 0 : centavos(regras.getAdicionalPorKgExcedente(), tipo);
+        
+        List<RegrasFrete.FaixaValor> faixasValor = regras.getFaixasValor();
+        if (faixasValor == null || faixasValor.isEmpty()) {
+            throw new IllegalArgumentException("Frete " + tipo + ": nenhuma faixa de valor definida");
+        }
+        BigDecimal[] valoresMinimos = new BigDecimal[faixasValor.size()];
+        long[] percentuais = new long[faixasValor.size()];
+        for (int i = 0; i < valoresMinimos.length; i++) {
+            valoresMinimos[i] = new BigDecimal(faixasValor.get(i).getValorMinimo());
+            if (i == 0 ? valoresMinimos[i].signum() != 0 : valoresMinimos[i].compareTo(valoresMinimos[i - 1]) <= 0) {
+                throw new IllegalArgumentException("Frete " + tipo + ": faixas de valor devem começar em zero e ser crescentes");
+            }
+            BigDecimal percentual = new BigDecimal(faixasValor.get(i).getPercentual());
+            if (percentual.signum() < 0 || percentual.scale() > 4) {
+                throw new IllegalArgumentException("Frete " + tipo + ": percentual inválido: " + percentual);
+            }
+            percentuais[i] = percentual.movePointRight(4).longValueExact();
+        }
+        
+        return new TabelaFrete(cepInicial, cepFinal, regiaoDoIntervalo, regiaoPadrao,
+                limitesPeso, tarifas, adicionalPorKg, valoresMinimos, percentuais);
+    }
+    
+    /**
+     * Calcula o frete.
+     * @param valorPedido Valor do pedido (maior que zero)
+     * @param cep CEP de destino com 8 dígitos, ou {@link #CEP_NAO_INFORMADO}
+     * @param pesoGramas Peso total em gramas (0 se não informado)
+     * @return Valor do frete com duas casas decimais
+     */
+    public BigDecimal calcular(BigDecimal valorPedido, int cep, int pesoGramas) {
+        if (valorPedido == null || valorPedido.signum() <= 0) {
+            throw new IllegalArgumentException("Valor do pedido deve ser maior que zero");
+        }
+        if (pesoGramas < 0) {
+            throw new IllegalArgumentException("Peso não pode ser negativo");
+        }
+        long tarifa = tarifa(regiao(cep), pesoGramas);
+        int faixaValor = faixaValor(valorPedido);
+        
+        long centavos = emCentavos(valorPedido);
+        if (centavos != VALOR_FORA_DOS_CENTAVOS && centavos <= LIMITE_CENTAVOS) {
+            // Arredondamento HALF_UP de um valor positivo
+            long parcelaValor = (centavos * percentuais[faixaValor] + BASE_PERCENTUAL / 2) / BASE_PERCENTUAL;
+            return BigDecimal.valueOf(parcelaValor + tarifa, 2);
+        }
+        return valorPedido.multiply(percentuaisDecimais[faixaValor])
+                .setScale(2, RoundingMode.HALF_UP)
+                .add(BigDecimal.valueOf(tarifa, 2));
+    }
+    
+    /**
+     * Identifica a tarifa aplicada a um destino e peso: região do CEP e faixa de peso (ou, acima
+     * da última faixa, a quantidade de kg excedentes). Destinos e pesos com o mesmo valor aqui
+     * pagam a mesma tarifa.
+     * @param cep CEP de destino com 8 dígitos, ou {@link #CEP_NAO_INFORMADO}
+     * @param pesoGramas Peso total em gramas (0 se não informado)
+     * @return Região nos 32 bits altos e faixa de peso nos 32 bits baixos
+     */
+    public long faixaTarifa(int cep, int pesoGramas) {
+        if (pesoGramas < 0) {
+            throw new IllegalArgumentException("Peso não pode ser negativo");
+        }
+        int ultima = limitesPeso.length - 1;
+        long faixaPeso = pesoGramas > limitesPeso[ultima]
+                ? ultima + (pesoGramas - limitesPeso[ultima] + 999L) / 1000
+                : faixaPeso(pesoGramas);
+        return ((long) regiao(cep) << 32) | faixaPeso;
+    }
+    
+    /**
+     * Valor em centavos, sem criar objetos para valores com até duas casas decimais.
+     * @param valor Valor positivo
+     * @return Centavos, ou {@link #VALOR_FORA_DOS_CENTAVOS} se o valor tiver mais de duas
+     * casas decimais ou não couber em {@code long}
+     */
+    public static long emCentavos(BigDecimal valor) {
+        if (valor.scale() > 2) {
+            return VALOR_FORA_DOS_CENTAVOS;
+        }
+        BigDecimal comDuasCasas = valor.setScale(2);
+        if (comDuasCasas.precision() > 18) {
+            return VALOR_FORA_DOS_CENTAVOS;
+        }
+        // Não escapa do método: o JIT elimina a instância intermediária
+        return comDuasCasas.movePointRight(2).longValue();
+    }
+    
+    /**
+     * Converte um CEP ("01310-100" ou "01310100") em número, sem criar objetos.
+     * @param cep CEP em texto, ou null
+     * @return CEP numérico, ou {@link #CEP_NAO_INFORMADO} se for nulo ou vazio
+     * @throws IllegalArgumentException se o CEP não tiver 8 dígitos
+     */
+    public static int cepNumerico(String cep) {
+        if (cep == null || cep.isBlank()) {
+            return CEP_NAO_INFORMADO;
+        }
+        int valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                valor = valor * 10 + (c - '0');
+                digitos++;
+            } else if (c != '-' || i != 5) {
+                digitos = -1;
+                break;
+            }
+        }
+        if (digitos != 8) {
+            throw new IllegalArgumentException("CEP inválido: " + cep);
+        }
+        return valor;
+    }
+    
+    private int regiao(int cep) {
+        if (cep == CEP_NAO_INFORMADO) {
+            return regiaoPadrao;
+        }
+        // Último intervalo que começa até o CEP
+        int baixo = 0;
+        int alto = cepInicial.length - 1;
+        int encontrado = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (cepInicial[meio] <= cep) {
+                encontrado = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return encontrado >= 0 && cep <= cepFinal[encontrado] ? regiaoDoIntervalo[encontrado] : regiaoPadrao;
+    }
+    
+    private long tarifa(int regiao, int pesoGramas) {
+        long[] tarifasRegiao = tarifas[regiao];
+        int ultima = limitesPeso.length - 1;
+        if (pesoGramas > limitesPeso[ultima]) {
+            long kgExcedentes = (pesoGramas - limitesPeso[ultima] + 999L) / 1000;
+            return tarifasRegiao[ultima] + kgExcedentes * adicionalPorKg;
+        }
+        return tarifasRegiao[faixaPeso(pesoGramas)];
+    }
+    
+    private int faixaPeso(int pesoGramas) {
+        // Primeira faixa cujo limite comporta o peso
+        int baixo = 0;
+        int alto = limitesPeso.length - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (limitesPeso[meio] >= pesoGramas) {
+                alto = meio;
+            } else {
+                baixo = meio + 1;
+            }
+        }
+        return baixo;
+    }
+    
+    private int faixaValor(BigDecimal valorPedido) {
+        // Última faixa cujo mínimo é atingido (a primeira começa em zero)
+        int baixo = 0;
+        int alto = valoresMinimos.length - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            if (valoresMinimos[meio].compareTo(valorPedido) <= 0) {
+                baixo = meio;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return baixo;
+    }
+    
+    private static long centavos(String valor, String tipo) {
+        BigDecimal decimal = new BigDecimal(valor);
+        if (decimal.signum() < 0 || decimal.scale() > 2) {
+            throw new IllegalArgumentException("Frete " + tipo + ": valor inválido: " + valor);
+        }
+        return decimal.movePointRight(2).longValueExact();
+    }
+}
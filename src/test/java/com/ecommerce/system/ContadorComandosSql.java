@@ -0,0 +1,125 @@
+package com.ecommerce.system;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Conta os comandos SQL enviados ao banco pela thread do teste, no nível do {@link DataSource}:
+ * pega tanto o Hibernate quanto o {@code JdbcTemplate}, que as estatísticas do Hibernate não
+ * enxergam. Cada {@code execute*} conta como um comando, e um lote ({@code executeBatch})
+ * também conta como um só.
+ * <p>
+ * Só contam os comandos da thread que chamou {@link #zerar()}, para que o relay do outbox e
+ * as demais tarefas de fundo não interfiram. Uso: {@code @Import(ContadorComandosSql.class)}.
+ */
+@TestComponent
+public class ContadorComandosSql implements BeanPostProcessor {
+
+	private final List<String> comandos = new CopyOnWriteArrayList<>();
+	private volatile Thread monitorada;
+
+	/**
+	 * Zera a contagem e passa a contar os comandos da thread corrente.
+	 */
+	public void zerar() {
+		monitorada = Thread.currentThread();
+		comandos.clear();
+	}
+
+	/**
+	 * @return Quantidade de comandos executados pela thread monitorada desde o último {@link #zerar()}
+	 */
+	public long comandos() {
+		return comandos.size();
+	}
+
+	/**
+	 * @return SQL dos comandos contados, na ordem de execução (para as mensagens de falha)
+	 */
+	public List<String> sql() {
+		return List.copyOf(comandos);
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String nome) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof Contador)) {
+			return new Contador(dataSource);
+		}
+		return bean;
+	}
+
+	private final class Contador extends DelegatingDataSource {
+
+		Contador(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return conexao(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String usuario, String senha) throws SQLException {
+			return conexao(super.getConnection(usuario, senha));
+		}
+	}
+
+	private Connection conexao(Connection conexao) {
+		return proxy(Connection.class, conexao, (metodo, argumentos, resultado) -> {
+			String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto ? texto : null;
+			if (resultado instanceof CallableStatement comando) {
+				return proxy(CallableStatement.class, comando, (executado, ignorados, retorno) -> aoExecutar(executado, sql, retorno));
+			}
+			if (resultado instanceof PreparedStatement comando) {
+				return proxy(PreparedStatement.class, comando, (executado, ignorados, retorno) -> aoExecutar(executado, sql, retorno));
+			}
+			if (resultado instanceof Statement comando) {
+				return proxy(Statement.class, comando, (executado, argumentosExecucao, retorno) ->
+						aoExecutar(executado, argumentosExecucao != null && argumentosExecucao.length > 0
+								? String.valueOf(argumentosExecucao[0]) : null, retorno));
+			}
+			return resultado;
+		});
+	}
+
+	private Object aoExecutar(String metodo, String sql, Object resultado) {
+		if (metodo.startsWith("execute") && Thread.currentThread() == monitorada) {
+			comandos.add(sql);
+		}
+		return resultado;
+	}
+
+	@FunctionalInterface
+	private interface Interceptador {
+
+		Object depois(String metodo, Object[] argumentos, Object resultado);
+	}
+
+	private static <T> T proxy(Class<T> tipo, T alvo, Interceptador interceptador) {
+		InvocationHandler handler = (proxy, metodo, argumentos) -> {
+			if (metodo.getName().equals("unwrap") && argumentos[0] == tipo) {
+				return proxy;
+			}
+			try {
+				return interceptador.depois(metodo.getName(), argumentos, metodo.invoke(alvo, argumentos));
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return tipo.cast(Proxy.newProxyInstance(ContadorComandosSql.class.getClassLoader(), new Class<?>[] {tipo}, handler));
+	}
+}
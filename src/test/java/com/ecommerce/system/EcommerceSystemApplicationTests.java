@@ -1,54 +1,75 @@
 package com.ecommerce.system;
 
-import com.ecommerce.system.factory.FreteStrategyFactory;
+import com.ecommerce.system.factory.RegistroFrete;
 import com.ecommerce.system.strategy.FreteCalculator;
 import com.ecommerce.system.strategy.FreteStrategy;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 class EcommerceSystemApplicationTests {
 
+	@Autowired
+	private RegistroFrete registroFrete;
+
+	@Autowired
+	private FreteCalculator freteCalculator;
+
 	@Test
 	void contextLoads() {
 	}
 	
 	@Test
 	void testFreteTerrestre() {
-		FreteStrategy strategy = FreteStrategyFactory.criarFreteStrategy("TERRESTRE");
-		FreteCalculator calculator = new FreteCalculator(strategy);
+		FreteStrategy strategy = registroFrete.buscar("TERRESTRE");
 		
 		BigDecimal valorPedido = new BigDecimal("1000.00");
-		BigDecimal valorFrete = calculator.calcularFrete(valorPedido);
+		BigDecimal valorFrete = freteCalculator.calcularFrete(strategy, valorPedido);
 		
 		assertEquals(new BigDecimal("50.00"), valorFrete);
-		assertEquals("TERRESTRE", calculator.getTipoFrete());
+		assertEquals("TERRESTRE", strategy.getTipoFrete());
 	}
 	
 	@Test
 	void testFreteAereo() {
-		FreteStrategy strategy = FreteStrategyFactory.criarFreteStrategy("AEREO");
-		FreteCalculator calculator = new FreteCalculator(strategy);
+		FreteStrategy strategy = registroFrete.buscar("AEREO");
 		
 		BigDecimal valorPedido = new BigDecimal("1000.00");
-		BigDecimal valorFrete = calculator.calcularFrete(valorPedido);
+		BigDecimal valorFrete = freteCalculator.calcularFrete(strategy, valorPedido);
 		
 		assertEquals(new BigDecimal("100.00"), valorFrete);
-		assertEquals("AEREO", calculator.getTipoFrete());
+		assertEquals("AEREO", strategy.getTipoFrete());
+		assertThrows(IllegalArgumentException.class, () -> freteCalculator.calcularFrete(null, valorPedido));
+	}
+	
+	@Test
+	void testFretePedidosGrandes() {
+		FreteStrategy terrestre = registroFrete.buscar("TERRESTRE");
+		FreteStrategy aereo = registroFrete.buscar("AEREO");
+		
+		// Sem faixas de valor nem tarifas nas tabelas embutidas: o percentual vale para qualquer pedido
+		assertEquals(new BigDecimal("150.00"), terrestre.calcularFrete(new BigDecimal("3000.00")));
+		assertEquals(new BigDecimal("150.00"), terrestre.calcularFrete(new BigDecimal("3000.00"), "01310-100", 12000));
+		assertEquals(new BigDecimal("300.00"), terrestre.calcularFrete(new BigDecimal("6000.00")));
+		assertEquals(new BigDecimal("300.00"), aereo.calcularFrete(new BigDecimal("3000.00")));
+		assertEquals(new BigDecimal("600.00"), aereo.calcularFrete(new BigDecimal("6000.00")));
+		assertEquals(new BigDecimal("600.00"), aereo.calcularFrete(new BigDecimal("6000.00"), "69900-000", 12000));
 	}
 	
 	@Test
-	void testFreteStrategyFactory() {
-		String[] tiposDisponiveis = FreteStrategyFactory.getTiposFreteDisponiveis();
-		assertEquals(2, tiposDisponiveis.length);
+	void testRegistroFrete() {
+		List<String> tiposDisponiveis = registroFrete.getIndice().tipos();
+		assertEquals(2, tiposDisponiveis.size());
 		
-		assertTrue(FreteStrategyFactory.isTipoFreteSuportado("TERRESTRE"));
-		assertTrue(FreteStrategyFactory.isTipoFreteSuportado("AEREO"));
-		assertFalse(FreteStrategyFactory.isTipoFreteSuportado("MARITIMO"));
+		assertTrue(registroFrete.isTipoFreteSuportado("TERRESTRE"));
+		assertTrue(registroFrete.isTipoFreteSuportado("AEREO"));
+		assertFalse(registroFrete.isTipoFreteSuportado("MARITIMO"));
 	}
 
 }
@@ -0,0 +1,72 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de {@code buscarPorId} (distribuição amostrada, com p99 no resultado) com o cache
+ * de pedidos ligado e desligado ({@code spring.cache.type=none}).
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="BuscaPedido"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BuscaPedidoBenchmark {
+
+	private static final int PEDIDOS = 1000;
+	private static final int ITENS_POR_PEDIDO = 5;
+
+	@Param({"false", "true"})
+	public boolean cache;
+
+	private ConfigurableApplicationContext contexto;
+	private PedidoService pedidoService;
+	private long[] ids;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = cache ? ContextoBenchmark.iniciar() : ContextoBenchmark.iniciar("spring.cache.type=none");
+		pedidoService = contexto.getBean(PedidoService.class);
+
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+		for (int i = 0; i < ITENS_POR_PEDIDO; i++) {
+			Produto produto = contexto.getBean(ProdutoRepository.class)
+					.save(new Produto("Produto " + i, "Produto do benchmark", new BigDecimal("10.00"), PEDIDOS));
+			itens.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		CriarPedidoDTO carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens);
+		ids = new long[PEDIDOS];
+		for (int i = 0; i < PEDIDOS; i++) {
+			ids[i] = pedidoService.criarPedido(carrinho).getId();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public PedidoResponseDTO buscarPorId() {
+		return pedidoService.buscarPorId(ids[ThreadLocalRandom.current().nextInt(PEDIDOS)]);
+	}
+}
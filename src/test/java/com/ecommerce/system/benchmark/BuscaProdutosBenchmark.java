@@ -0,0 +1,123 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.dto.ResultadoBuscaProdutosDTO;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.CatalogoProdutos;
+import com.ecommerce.system.service.IndiceBuscaProdutos;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca de produtos em um catálogo de {@link #PRODUTOS} produtos:
+ * <ul>
+ *   <li>{@code indice*}: {@link IndiceBuscaProdutos}, primeira página de {@link #TAMANHO_PAGINA}
+ *   produtos por relevância, com uma palavra rara (100 produtos), duas palavras comuns e um prefixo;</li>
+ *   <li>{@code jpql*}: a consulta {@code LIKE '%...%'} de {@code findByNomeContainingIgnoreCase},
+ *   que percorre a tabela e carrega todos os produtos encontrados, sem ordem de relevância;</li>
+ *   <li>{@code sugestoes}: {@code sugerir} com um prefixo de duas letras;</li>
+ *   <li>{@code reconstrucao}: {@code reconstruir}, como na inicialização.</li>
+ * </ul>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="BuscaProdutos"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BuscaProdutosBenchmark {
+
+	private static final int PRODUTOS = 1_000_000;
+	private static final int TAMANHO_PAGINA = 20;
+	private static final int LOTE = 5000;
+
+	private static final String[] TIPOS = {"camiseta", "calca", "tenis", "mochila", "caneca", "garrafa", "luminaria",
+			"cadeira", "mesa", "relogio", "fone", "teclado", "mouse", "monitor", "caderno", "caneta", "bola", "raquete",
+			"toalha", "travesseiro"};
+	private static final String[] CORES = {"azul", "verde", "vermelho", "preto", "branco", "cinza", "amarelo", "rosa",
+			"roxo", "laranja", "marrom", "bege", "dourado"};
+	private static final String[] MATERIAIS = {"algodão", "poliéster", "couro", "madeira", "metal", "plástico", "vidro"};
+
+	private static final String SQL_INSERIR_PRODUTO = "INSERT INTO produtos (nome, descricao, preco, estoque) VALUES (?, ?, 49.90, 100)";
+
+	private ConfigurableApplicationContext contexto;
+	private IndiceBuscaProdutos indiceBuscaProdutos;
+	private ProdutoRepository produtoRepository;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		indiceBuscaProdutos = contexto.getBean(IndiceBuscaProdutos.class);
+		produtoRepository = contexto.getBean(ProdutoRepository.class);
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+		// Cada "modeloN" em 100 produtos; tipos, cores e materiais em dezenas de milhares
+		List<Object[]> produtos = new ArrayList<>(LOTE);
+		for (int i = 0; i < PRODUTOS; i++) {
+			String nome = TIPOS[i % TIPOS.length] + " " + CORES[i % CORES.length] + " modelo" + (i % 10_000);
+			String descricao = "Produto de " + MATERIAIS[i % MATERIAIS.length] + " na cor " + CORES[(i / 7) % CORES.length]
+					+ ", código " + i;
+			produtos.add(new Object[] {nome, descricao});
+			if (produtos.size() == LOTE) {
+				jdbcTemplate.batchUpdate(SQL_INSERIR_PRODUTO, produtos);
+				produtos.clear();
+			}
+		}
+		contexto.getBean(CatalogoProdutos.class).recarregar();
+		indiceBuscaProdutos.reconstruir();
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public ResultadoBuscaProdutosDTO indicePalavraRara() {
+		return indiceBuscaProdutos.buscar("modelo4242", 0, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public ResultadoBuscaProdutosDTO indicePalavrasComuns() {
+		return indiceBuscaProdutos.buscar("camiseta azul", 0, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public ResultadoBuscaProdutosDTO indicePrefixo() {
+		return indiceBuscaProdutos.buscar("caderno verm", 0, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public List<String> sugestoes() {
+		return indiceBuscaProdutos.sugerir("ca", 10);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 3)
+	public int jpqlPalavraRara() {
+		return produtoRepository.findByNomeContainingIgnoreCase("modelo4242").size();
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 3)
+	public int jpqlPalavraComum() {
+		return produtoRepository.findByNomeContainingIgnoreCase("camiseta").size();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public int reconstrucao() {
+		indiceBuscaProdutos.reconstruir();
+		return indiceBuscaProdutos.getQuantidadeProdutos();
+	}
+}
@@ -0,0 +1,153 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.LotePedidosResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga fechada de {@code GET <url><id>}: mantém um número fixo de requisições em andamento
+ * (cada resposta dispara a próxima) e amostra o pico de heap usado e de threads de plataforma.
+ * Usada pelos benchmarks que comparam modos de execução da API na mesma JVM.
+ */
+final class CargaConcorrente {
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+	private final String url;
+	private final List<Long> pedidos;
+	private final int clientes;
+	private final int aquecimento;
+	private final int duracao;
+	private final Histogram latencia = new ConcurrentHistogram(3);
+	private final LongAdder erros = new LongAdder();
+	private final AtomicLong heapMaximo = new AtomicLong();
+	private final AtomicLong threadsMaximo = new AtomicLong();
+	private volatile long inicioMedicao;
+	private volatile long fim;
+
+	CargaConcorrente(String url, List<Long> pedidos, int clientes, int aquecimento, int duracao) {
+		this.url = url;
+		this.pedidos = pedidos;
+		this.clientes = clientes;
+		this.aquecimento = aquecimento;
+		this.duracao = duracao;
+	}
+
+	static void imprimirCabecalho() {
+		System.out.printf("%-11s %9s %7s %9s %9s %9s %12s %10s%n",
+				"Modo", "Reqs", "Erros", "Req/s", "p50 ms", "p99 ms", "Heap máx MB", "Threads");
+	}
+
+	/**
+	 * Cria pedidos de um item para um cliente e um produto novos, direto pelo serviço.
+	 * @return IDs dos pedidos criados
+	 */
+	static List<Long> criarPedidos(ConfigurableApplicationContext contexto, int quantidade) {
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+		Produto produto = contexto.getBean(ProdutoRepository.class)
+				.save(new Produto("Produto Benchmark", "Produto do benchmark", new BigDecimal("10.00"), Integer.MAX_VALUE / 2));
+		CriarPedidoDTO carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+		List<Long> pedidos = new ArrayList<>();
+		for (LotePedidosResponseDTO.ResultadoPedido resultado : contexto.getBean(PedidoService.class)
+				.criarPedidosEmLote(Collections.nCopies(quantidade, carrinho)).getResultados()) {
+			pedidos.add(resultado.getPedido().getId());
+		}
+		return pedidos;
+	}
+
+	ObjectNode executar(String modo, ObjectMapper objectMapper) throws InterruptedException {
+		MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long agora = System.nanoTime();
+		inicioMedicao = agora + TimeUnit.SECONDS.toNanos(aquecimento);
+		fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+
+		ScheduledExecutorService amostragem = Executors.newSingleThreadScheduledExecutor();
+		amostragem.scheduleAtFixedRate(() -> {
+			if (System.nanoTime() >= inicioMedicao) {
+				heapMaximo.accumulateAndGet(memoria.getHeapMemoryUsage().getUsed(), Math::max);
+				threadsMaximo.accumulateAndGet(threads.getThreadCount(), Math::max);
+			}
+		}, 100, 100, TimeUnit.MILLISECONDS);
+
+		CountDownLatch concluidos = new CountDownLatch(clientes);
+		for (int i = 0; i < clientes; i++) {
+			requisitar(concluidos);
+		}
+		concluidos.await();
+		amostragem.shutdownNow();
+
+		double vazao = (double) latencia.getTotalCount() / duracao;
+		double heapMb = heapMaximo.get() / (1024.0 * 1024.0);
+		System.out.printf("%-11s %9d %7d %9.1f %9.2f %9.2f %12.1f %10d%n", modo, latencia.getTotalCount(), erros.sum(),
+				vazao, latencia.getValueAtPercentile(50) / 1000.0, latencia.getValueAtPercentile(99) / 1000.0,
+				heapMb, threadsMaximo.get());
+
+		ObjectNode resultado = objectMapper.createObjectNode();
+		resultado.put("modo", modo);
+		resultado.put("requisicoes", latencia.getTotalCount());
+		resultado.put("erros", erros.sum());
+		resultado.put("vazao", vazao);
+		resultado.put("p50Ms", latencia.getValueAtPercentile(50) / 1000.0);
+		resultado.put("p99Ms", latencia.getValueAtPercentile(99) / 1000.0);
+		resultado.put("maxMs", latencia.getMaxValue() / 1000.0);
+		resultado.put("heapMaximoMb", heapMb);
+		resultado.put("threadsPlataformaMaximo", threadsMaximo.get());
+		return resultado;
+	}
+
+	private void requisitar(CountDownLatch concluidos) {
+		long envio = System.nanoTime();
+		if (envio >= fim) {
+			concluidos.countDown();
+			return;
+		}
+		Long pedidoId = pedidos.get(ThreadLocalRandom.current().nextInt(pedidos.size()));
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url + pedidoId))
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+		http.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding()).whenComplete((resposta, erro) -> {
+			if (envio >= inicioMedicao) {
+				latencia.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - envio));
+				if (erro != null || resposta.statusCode() != 200) {
+					erros.increment();
+				}
+			}
+			requisitar(concluidos);
+		});
+	}
+}
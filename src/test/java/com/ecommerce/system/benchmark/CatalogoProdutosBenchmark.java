@@ -0,0 +1,79 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.CatalogoProdutos;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precificação de um carrinho pelo catálogo em memória comparada à busca dos produtos no
+ * repositório, como era feito na criação de pedidos.
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CatalogoProdutos -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogoProdutosBenchmark {
+
+	private static final int PRODUTOS = 10_000;
+
+	@Param({"5", "40"})
+	public int itensCarrinho;
+
+	private ConfigurableApplicationContext contexto;
+	private CatalogoProdutos catalogoProdutos;
+	private ProdutoRepository produtoRepository;
+	private List<Long> carrinho;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		catalogoProdutos = contexto.getBean(CatalogoProdutos.class);
+		produtoRepository = contexto.getBean(ProdutoRepository.class);
+
+		List<Produto> produtos = new ArrayList<>();
+		for (int i = 0; i < PRODUTOS; i++) {
+			produtos.add(new Produto("Produto " + i, "Produto do benchmark", new BigDecimal("10.00"), 100));
+		}
+		produtos = produtoRepository.saveAll(produtos);
+		catalogoProdutos.recarregar();
+
+		carrinho = new ArrayList<>();
+		for (int i = 0; i < itensCarrinho; i++) {
+			carrinho.add(produtos.get(i * (PRODUTOS / itensCarrinho)).getId());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public BigDecimal catalogo() {
+		CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(carrinho);
+		BigDecimal total = BigDecimal.ZERO;
+		for (Long produtoId : carrinho) {
+			total = total.add(catalogo.preco(catalogo.indice(produtoId)));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public BigDecimal repositorio() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (Produto produto : produtoRepository.findAllById(carrinho)) {
+			total = total.add(produto.getPreco());
+		}
+		return total;
+	}
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.system.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara um resultado JMH (formato JSON, {@code -rf json}) com a baseline versionada e
+ * termina com código 1 se algum benchmark regrediu além da tolerância, em tempo (ou vazão)
+ * ou em bytes alocados por operação ({@code gc.alloc.rate.norm}, do profiler {@code gc}).
+ * Um benchmark medido que não está na baseline também falha a comparação: a baseline precisa
+ * ser regenerada junto com a mudança que o criou.
+ * <p>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:java@comparar-baseline}
+ * (argumentos: baseline, resultado atual e tolerância em %).
+ */
+public final class ComparacaoBaseline {
+
+	private static final String ALOCACAO = "gc.alloc.rate.norm";
+	// Variação de alocação abaixo disso (em bytes/op) é ruído de medição
+	private static final double FOLGA_ALOCACAO_BYTES = 16;
+
+	private ComparacaoBaseline() {}
+
+	public static void main(String[] args) throws IOException {
+		File baseline = new File(args.length > 0 ? args[0] : "benchmarks/baseline.json");
+		File atual = new File(args.length > 1 ? args[1] : "target/jmh-result.json");
+		double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : 20;
+
+		Map<String, JsonNode> referencia = carregar(baseline);
+		Map<String, JsonNode> medidos = carregar(atual);
+		int regressoes = 0;
+		int semBaseline = 0;
+
+		System.out.printf("%-75s %14s %14s %8s %12s %12s%n", "Benchmark", "Baseline", "Atual", "Δ%", "B/op base", "B/op atual");
+		for (Map.Entry<String, JsonNode> entrada : medidos.entrySet()) {
+			JsonNode base = referencia.get(entrada.getKey());
+			if (base == null) {
+				System.out.printf("%-75s %14s%n", entrada.getKey(), "(sem baseline)");
+				semBaseline++;
+				continue;
+			}
+			JsonNode medido = entrada.getValue();
+			double scoreBase = base.path("primaryMetric").path("score").asDouble();
+			double scoreAtual = medido.path("primaryMetric").path("score").asDouble();
+			// Em vazão, maior é melhor; nos demais modos (tempo), menor é melhor
+			boolean maiorMelhor = "thrpt".equals(medido.path("mode").asText());
+			double variacao = (scoreAtual - scoreBase) / scoreBase * 100;
+			boolean regrediuTempo = maiorMelhor ? variacao < -tolerancia : variacao > tolerancia;
+
+			double alocacaoBase = alocacao(base);
+			double alocacaoAtual = alocacao(medido);
+			boolean regrediuAlocacao = alocacaoBase >= 0 && alocacaoAtual >= 0
+					&& alocacaoAtual > alocacaoBase * (1 + tolerancia / 100) + FOLGA_ALOCACAO_BYTES;
+
+			System.out.printf("%-75s %14.3f %14.3f %+8.1f %12.1f %12.1f%s%n", entrada.getKey(), scoreBase, scoreAtual,
+					variacao, alocacaoBase, alocacaoAtual, regrediuTempo || regrediuAlocacao ? "  << REGRESSÃO" : "");
+			if (regrediuTempo || regrediuAlocacao) {
+				regressoes++;
+			}
+		}
+
+		if (regressoes > 0) {
+			System.out.printf("%d benchmark(s) regrediram mais de %.0f%% em relação à baseline%n", regressoes, tolerancia);
+		}
+		if (semBaseline > 0) {
+			System.out.printf("%d benchmark(s) sem baseline; atualize %s%n", semBaseline, baseline.getPath());
+		}
+		if (regressoes > 0 || semBaseline > 0) {
+			System.exit(1);
+		}
+	}
+
+	private static Map<String, JsonNode> carregar(File arquivo) throws IOException {
+		Map<String, JsonNode> resultados = new LinkedHashMap<>();
+		for (JsonNode resultado : new ObjectMapper().readTree(arquivo)) {
+			resultados.put(chave(resultado), resultado);
+		}
+		return resultados;
+	}
+
+	private static String chave(JsonNode resultado) {
+		String nome = resultado.path("benchmark").asText();
+		nome = nome.substring(nome.lastIndexOf('.', nome.lastIndexOf('.') - 1) + 1);
+		Map<String, String> parametros = new TreeMap<>();
+		resultado.path("params").fields().forEachRemaining(parametro -> parametros.put(parametro.getKey(), parametro.getValue().asText()));
+		return parametros.isEmpty() ? nome : nome + parametros;
+	}
+
+	private static double alocacao(JsonNode resultado) {
+		JsonNode metrica = resultado.path("secondaryMetrics").path(ALOCACAO);
+		return metrica.isMissingNode() ? -1 : metrica.path("score").asDouble();
+	}
+}
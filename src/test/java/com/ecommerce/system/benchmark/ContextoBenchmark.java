@@ -0,0 +1,32 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.EcommerceSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inicia a aplicação para os benchmarks, sem servidor web e sem log de SQL.
+ */
+final class ContextoBenchmark {
+
+	private ContextoBenchmark() {}
+
+	/**
+	 * @param propriedades Propriedades adicionais no formato {@code chave=valor}
+	 * @return O contexto iniciado; deve ser fechado no {@code @TearDown} do benchmark
+	 */
+	static ConfigurableApplicationContext iniciar(String... propriedades) {
+		List<String> argumentos = new ArrayList<>(List.of(
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN"));
+		Arrays.stream(propriedades).map(propriedade -> "--" + propriedade).forEach(argumentos::add);
+		return new SpringApplicationBuilder(EcommerceSystemApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(argumentos.toArray(String[]::new));
+	}
+}
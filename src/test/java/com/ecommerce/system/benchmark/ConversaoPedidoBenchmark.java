@@ -0,0 +1,83 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.ItemPedido;
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.ConversorPedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de um pedido (já carregado) para {@link PedidoResponseDTO} e serialização do
+ * DTO em JSON com o {@link ObjectMapper} configurado pela aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoPedidoBenchmark {
+
+	@Param({"1", "10", "50"})
+	public int itens;
+
+	private ConfigurableApplicationContext contexto;
+	private ConversorPedido conversorPedido;
+	private ObjectMapper objectMapper;
+	private Pedido pedido;
+	private PedidoResponseDTO dto;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		conversorPedido = contexto.getBean(ConversorPedido.class);
+		objectMapper = contexto.getBean(ObjectMapper.class);
+
+		Cliente cliente = new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1");
+		cliente.setId(1L);
+		pedido = new Pedido("PED0000000000000000001", BigDecimal.ZERO, cliente);
+		pedido.setId(1L);
+		pedido.setTipoFrete("TERRESTRE");
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < itens; i++) {
+			Produto produto = contexto.getBean(ProdutoRepository.class)
+					.save(new Produto("Produto " + i, "Produto do benchmark", new BigDecimal("19.90"), 100));
+			ItemPedido item = new ItemPedido(pedido, produto, 2, produto.getPreco());
+			item.setId((long) i + 1);
+			pedido.getItens().add(item);
+			total = total.add(item.getSubtotal());
+		}
+		pedido.setValorTotal(total);
+		pedido.setValorFrete(new BigDecimal("9.95"));
+		dto = conversorPedido.converterParaDTO(pedido);
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public PedidoResponseDTO converterParaDTO() {
+		return conversorPedido.converterParaDTO(pedido);
+	}
+
+	@Benchmark
+	public byte[] serializarJson() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(dto);
+	}
+
+	@Benchmark
+	public byte[] converterESerializar() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(conversorPedido.converterParaDTO(pedido));
+	}
+}
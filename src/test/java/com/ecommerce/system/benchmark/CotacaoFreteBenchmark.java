@@ -0,0 +1,66 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.strategy.FreteStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cotações de frete por segundo nas tabelas compiladas (CEP, peso e valor variando a cada
+ * chamada), pelas estratégias do {@link RegistroFrete}, sem e com a memorização das cotações
+ * ({@code frete.cache.maximo-cotacoes}). As tabelas de exemplo têm regiões, faixas de peso e
+ * faixas de valor; as embutidas, só o percentual. Com {@code -prof gc}, a alocação por operação sem
+ * memorização deve ser só a do resultado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CotacaoFreteBenchmark {
+
+	@Param({"TERRESTRE", "TERRESTRE_REGIONAL", "AEREO_REGIONAL"})
+	public String tipoFrete;
+
+	@Param({"0", "10000"})
+	public int maximoCotacoes;
+
+	private FreteStrategy strategy;
+	private BigDecimal[] valores;
+	private String[] ceps;
+	private int[] pesos;
+	private int proximo;
+
+	@Setup
+	public void iniciar() {
+		strategy = new RegistroFrete(new DefaultResourceLoader(), new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class),
+				List.of("classpath:frete/exemplo-transportadoras.json"), maximoCotacoes).buscar(tipoFrete);
+		Random random = new Random(42);
+		valores = new BigDecimal[1024];
+		ceps = new String[valores.length];
+		pesos = new int[valores.length];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = BigDecimal.valueOf(100 + random.nextInt(800_000), 2);
+			ceps[i] = String.format("%05d-%03d", random.nextInt(100_000), random.nextInt(1000));
+			pesos[i] = random.nextInt(40_000);
+		}
+	}
+
+	@Benchmark
+	public BigDecimal cotar() {
+		int i = proximo++ & (valores.length - 1);
+		return strategy.calcularFrete(valores[i], ceps[i], pesos[i]);
+	}
+
+	@Benchmark
+	public BigDecimal cotarSemCep() {
+		return strategy.calcularFrete(valores[proximo++ & (valores.length - 1)]);
+	}
+}
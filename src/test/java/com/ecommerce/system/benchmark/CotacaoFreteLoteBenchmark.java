@@ -0,0 +1,136 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.EcommerceSystemApplication;
+import com.ecommerce.system.dto.SolicitacaoCotacaoFreteDTO;
+import com.ecommerce.system.factory.RegistroFrete;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compara N chamadas a {@code GET /api/pedidos/frete/calcular} com uma única chamada a
+ * {@code POST /api/pedidos/frete/lote} com as mesmas N cotações, para vários N.
+ * <p>
+ * As chamadas são feitas em sequência por uma conexão HTTP mantida aberta, como faria a tela
+ * de checkout. Cada rodada é repetida {@code frete-lote.rodadas} vezes e é reportada a mediana.
+ * <p>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:java@frete-lote}
+ * (também {@code frete-lote.tamanhos}, por exemplo {@code 10,100,1000}, e {@code frete-lote.saida}).
+ */
+public final class CotacaoFreteLoteBenchmark {
+
+	private static final int[] TAMANHOS = Arrays.stream(System.getProperty("frete-lote.tamanhos", "10,100,1000").split(","))
+			.mapToInt(tamanho -> Integer.parseInt(tamanho.trim()))
+			.toArray();
+	private static final int RODADAS = Integer.getInteger("frete-lote.rodadas", 15);
+	private static final File SAIDA = new File(System.getProperty("frete-lote.saida", "target/frete-lote.json"));
+
+	private CotacaoFreteLoteBenchmark() {}
+
+	public static void main(String[] args) throws Exception {
+		// O restart do devtools recarregaria a aplicação em outro class loader
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		ObjectMapper objectMapper = new ObjectMapper();
+		ObjectNode relatorio = objectMapper.createObjectNode();
+		relatorio.put("rodadas", RODADAS);
+		ArrayNode medicoes = relatorio.putArray("medicoes");
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(EcommerceSystemApplication.class)
+				.run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+		try {
+			String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/pedidos/frete/";
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			List<String> tipos = contexto.getBean(RegistroFrete.class).getIndice().tipos();
+
+			System.out.printf("%8s %16s %14s %10s%n", "Cotações", "Individuais ms", "Lote ms", "Ganho");
+			for (int tamanho : TAMANHOS) {
+				List<SolicitacaoCotacaoFreteDTO> solicitacoes = solicitacoes(tamanho, tipos);
+				HttpRequest lote = HttpRequest.newBuilder(URI.create(base + "lote"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(solicitacoes)))
+						.build();
+				List<HttpRequest> individuais = new ArrayList<>();
+				for (SolicitacaoCotacaoFreteDTO solicitacao : solicitacoes) {
+					individuais.add(HttpRequest.newBuilder(URI.create(base + "calcular?valorPedido=" + solicitacao.getValorPedido()
+							+ "&tipoFrete=" + solicitacao.getTipoFrete() + "&cep=" + solicitacao.getCep()
+							+ "&pesoGramas=" + solicitacao.getPesoGramas())).GET().build());
+				}
+
+				double individuaisMs = mediana(() -> {
+					for (HttpRequest requisicao : individuais) {
+						enviar(http, requisicao);
+					}
+				});
+				double loteMs = mediana(() -> enviar(http, lote));
+				System.out.printf("%8d %16.2f %14.2f %9.1fx%n", tamanho, individuaisMs, loteMs, individuaisMs / loteMs);
+
+				ObjectNode medicao = medicoes.addObject();
+				medicao.put("cotacoes", tamanho);
+				medicao.put("individuaisMs", individuaisMs);
+				medicao.put("loteMs", loteMs);
+			}
+		} finally {
+			contexto.close();
+		}
+
+		File diretorio = SAIDA.getAbsoluteFile().getParentFile();
+		if (diretorio != null) {
+			diretorio.mkdirs();
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(SAIDA, relatorio);
+		System.out.println("Resultado gravado em " + SAIDA.getPath());
+	}
+
+	private static List<SolicitacaoCotacaoFreteDTO> solicitacoes(int tamanho, List<String> tipos) {
+		Random random = new Random(tamanho);
+		List<SolicitacaoCotacaoFreteDTO> solicitacoes = new ArrayList<>();
+		for (int i = 0; i < tamanho; i++) {
+			solicitacoes.add(new SolicitacaoCotacaoFreteDTO(BigDecimal.valueOf(100 + random.nextInt(800_000), 2),
+					tipos.get(random.nextInt(tipos.size())),
+					String.format("%05d-%03d", random.nextInt(100_000), random.nextInt(1000)), random.nextInt(40_000)));
+		}
+		return solicitacoes;
+	}
+
+	/**
+	 * Tempo mediano, em ms, de {@link #RODADAS} execuções (depois de algumas de aquecimento).
+	 */
+	private static double mediana(Rodada rodada) throws Exception {
+		for (int i = 0; i < 3; i++) {
+			rodada.executar();
+		}
+		long[] tempos = new long[RODADAS];
+		for (int i = 0; i < RODADAS; i++) {
+			long inicio = System.nanoTime();
+			rodada.executar();
+			tempos[i] = System.nanoTime() - inicio;
+		}
+		Arrays.sort(tempos);
+		return tempos[RODADAS / 2] / 1_000_000.0;
+	}
+
+	private static void enviar(HttpClient http, HttpRequest requisicao) throws Exception {
+		HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+		if (resposta.statusCode() != 200) {
+			throw new IllegalStateException("HTTP " + resposta.statusCode() + " em " + requisicao.uri());
+		}
+	}
+
+	@FunctionalInterface
+	private interface Rodada {
+		void executar() throws Exception;
+	}
+}
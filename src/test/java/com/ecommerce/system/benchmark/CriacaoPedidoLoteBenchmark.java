@@ -0,0 +1,75 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.LotePedidosResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pedidos por segundo criados pelo endpoint em lote comparados à criação um a um.
+ * Cada invocação cria {@link #PEDIDOS} pedidos de três itens; o resultado já está em pedidos/s.
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CriacaoPedidoLote"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriacaoPedidoLoteBenchmark {
+
+	private static final int PEDIDOS = 200;
+
+	private ConfigurableApplicationContext contexto;
+	private PedidoService pedidoService;
+	private CriarPedidoDTO carrinho;
+	private List<CriarPedidoDTO> lote;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		pedidoService = contexto.getBean(PedidoService.class);
+
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Produto produto = contexto.getBean(ProdutoRepository.class)
+					.save(new Produto("Produto " + i, "Produto do benchmark", new BigDecimal("10.00"), Integer.MAX_VALUE / 2));
+			itens.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens);
+		lote = Collections.nCopies(PEDIDOS, carrinho);
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PEDIDOS)
+	public void umPorVez(Blackhole blackhole) {
+		for (int i = 0; i < PEDIDOS; i++) {
+			blackhole.consume(pedidoService.criarPedido(carrinho));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PEDIDOS)
+	public LotePedidosResponseDTO emLote() {
+		return pedidoService.criarPedidosEmLote(lote);
+	}
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.strategy.FreteCalculator;
+import com.ecommerce.system.strategy.FreteStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de frete: a estratégia isolada e o caminho usado na criação de pedidos
+ * (busca no {@link RegistroFrete} da aplicação + {@link FreteCalculator} compartilhado).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreteBenchmark {
+
+	@Param({"TERRESTRE", "AEREO"})
+	public String tipoFrete;
+
+	private ConfigurableApplicationContext contexto;
+	private RegistroFrete registroFrete;
+	private FreteCalculator freteCalculator;
+	private FreteStrategy strategy;
+	private BigDecimal[] valores;
+	private int proximo;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		registroFrete = contexto.getBean(RegistroFrete.class);
+		freteCalculator = contexto.getBean(FreteCalculator.class);
+		strategy = registroFrete.buscar(tipoFrete);
+		valores = new BigDecimal[1024];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = new BigDecimal(i + 1).multiply(new BigDecimal("37.19"));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public BigDecimal calcularFrete() {
+		return strategy.calcularFrete(proximoValor());
+	}
+
+	@Benchmark
+	public BigDecimal calcularFretePeloRegistro() {
+		return freteCalculator.calcularFrete(registroFrete.buscar(tipoFrete), proximoValor());
+	}
+
+	private BigDecimal proximoValor() {
+		return valores[proximo++ & (valores.length - 1)];
+	}
+}
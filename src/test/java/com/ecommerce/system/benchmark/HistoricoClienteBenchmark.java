@@ -0,0 +1,162 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.PaginaDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.dto.ResumoPedidoDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histórico de um cliente com {@link #PEDIDOS} pedidos (de dois itens), em uma base com outros
+ * {@link #PEDIDOS_OUTROS_CLIENTES} pedidos de outros clientes:
+ * <ul>
+ *   <li>{@code resumo*}: {@code listarPorCliente}, página de {@link #TAMANHO_PAGINA} resumos pelo
+ *   índice {@code (cliente_id, [status,] dataCriacao, id)}, na primeira página, a partir do meio
+ *   do histórico (cursor) e com filtro de status;</li>
+ *   <li>{@code completo*}: {@code listar} com filtro de cliente, mesma página com cliente e itens;</li>
+ *   <li>{@code semPaginacao}: todos os pedidos do cliente como entidades, como a antiga
+ *   consulta {@code findByClienteId}.</li>
+ * </ul>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="HistoricoCliente"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class HistoricoClienteBenchmark {
+
+	private static final int PEDIDOS = 100_000;
+	private static final int PEDIDOS_OUTROS_CLIENTES = 100_000;
+	private static final int OUTROS_CLIENTES = 100;
+	private static final int TAMANHO_PAGINA = 20;
+	private static final int LOTE = 1000;
+
+	// Acima do que as sequências pedidos_seq e itens_pedido_seq chegam a gerar no benchmark
+	private static final long PRIMEIRO_ID = 1_000_000_000L;
+
+	private static final String SQL_INSERIR_PEDIDO = "INSERT INTO pedidos "
+			+ "(id, numero_pedido, valor_total, data_criacao, status, cliente_id, valor_frete, tipo_frete) "
+			+ "VALUES (?, ?, 100.00, ?, ?, ?, 10.00, 'TERRESTRE')";
+
+	private static final String SQL_INSERIR_ITEM = "INSERT INTO itens_pedido "
+			+ "(id, pedido_id, produto_id, quantidade, preco_unitario, subtotal) VALUES (?, ?, ?, 1, 50.00, 50.00)";
+
+	private ConfigurableApplicationContext contexto;
+	private PedidoService pedidoService;
+	private EntityManagerFactory entityManagerFactory;
+	private Long clienteId;
+	private String cursorMeio;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		pedidoService = contexto.getBean(PedidoService.class);
+		entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+		JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+		ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+
+		clienteId = clienteRepository.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000",
+				"Rua Benchmark, 1")).getId();
+		List<Long> outros = new ArrayList<>();
+		for (int i = 0; i < OUTROS_CLIENTES; i++) {
+			outros.add(clienteRepository.save(new Cliente("Outro " + i, "outro" + i + "@email.com", "(11) 90000-0000",
+					"Rua Benchmark, 1")).getId());
+		}
+		Long produtoId = contexto.getBean(ProdutoRepository.class)
+				.save(new Produto("Produto", "Produto do benchmark", new BigDecimal("50.00"), 0)).getId();
+
+		// Pedidos do cliente e dos outros intercalados no tempo; um quarto dos do cliente pago
+		LocalDateTime inicio = LocalDateTime.now().minusYears(1);
+		List<Object[]> pedidos = new ArrayList<>(LOTE);
+		List<Object[]> itens = new ArrayList<>(2 * LOTE);
+		for (int i = 0; i < PEDIDOS + PEDIDOS_OUTROS_CLIENTES; i++) {
+			long id = PRIMEIRO_ID + i;
+			boolean doCliente = i % 2 == 0;
+			StatusPedido status = doCliente && i % 8 == 0 ? StatusPedido.PAGO : StatusPedido.AGUARDANDO_PAGAMENTO;
+			pedidos.add(new Object[] {id, "BENCH" + id, Timestamp.valueOf(inicio.plusSeconds(i)), status.getCodigo(),
+					doCliente ? clienteId : outros.get(i % OUTROS_CLIENTES)});
+			if (doCliente) {
+				itens.add(new Object[] {2 * id, id, produtoId});
+				itens.add(new Object[] {2 * id + 1, id, produtoId});
+			}
+			if (pedidos.size() == LOTE) {
+				jdbcTemplate.batchUpdate(SQL_INSERIR_PEDIDO, pedidos);
+				jdbcTemplate.batchUpdate(SQL_INSERIR_ITEM, itens);
+				pedidos.clear();
+				itens.clear();
+			}
+		}
+		jdbcTemplate.execute("ANALYZE");
+
+		String cursor = null;
+		for (int pagina = 0; pagina < PEDIDOS / 2 / PedidoService.TAMANHO_MAXIMO_PAGINA; pagina++) {
+			cursor = pedidoService.listarPorCliente(clienteId, null, cursor, PedidoService.TAMANHO_MAXIMO_PAGINA).getProximoCursor();
+		}
+		cursorMeio = cursor;
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public PaginaDTO<ResumoPedidoDTO> resumoPrimeiraPagina() {
+		return pedidoService.listarPorCliente(clienteId, null, null, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public PaginaDTO<ResumoPedidoDTO> resumoMeioDoHistorico() {
+		return pedidoService.listarPorCliente(clienteId, null, cursorMeio, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public PaginaDTO<ResumoPedidoDTO> resumoPorStatus() {
+		return pedidoService.listarPorCliente(clienteId, StatusPedido.PAGO, null, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public PaginaDTO<PedidoResponseDTO> completoPrimeiraPagina() {
+		return pedidoService.listar(null, clienteId, null, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	public PaginaDTO<PedidoResponseDTO> completoMeioDoHistorico() {
+		return pedidoService.listar(null, clienteId, cursorMeio, TAMANHO_PAGINA);
+	}
+
+	@Benchmark
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 3)
+	public int semPaginacao() {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return entityManager.createQuery("SELECT p FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataCriacao DESC",
+							Pedido.class)
+					.setParameter("clienteId", clienteId)
+					.getResultList()
+					.size();
+		} finally {
+			entityManager.close();
+		}
+	}
+}
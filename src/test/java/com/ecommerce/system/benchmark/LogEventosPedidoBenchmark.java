@@ -0,0 +1,157 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.service.HistoricoPedidos;
+import com.ecommerce.system.service.LogEventosPedido;
+import com.ecommerce.system.service.ProjecaoStatusPedidos;
+import com.ecommerce.system.state.OperacaoPedido;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Log de eventos de pedido com {@link #EVENTOS} eventos (criação, pagamento e envio ou
+ * cancelamento de cada pedido), em segmentos de 64 MB:
+ * <ul>
+ *   <li>{@code reproducao}: reconstrução da projeção de status a partir do log inteiro, em eventos/s;</li>
+ *   <li>{@code recuperacao}: abertura do {@link HistoricoPedidos} após uma queda, com snapshot
+ *   em 90% dos eventos e o restante reproduzido do log, em ms;</li>
+ *   <li>{@code anexacao}: gravação de eventos, sincronizada com o disco a cada lote de 500 (como o
+ *   relay do outbox), em eventos/s.</li>
+ * </ul>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="LogEventosPedido"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LogEventosPedidoBenchmark {
+
+	private static final int EVENTOS = 10_000_000;
+	private static final int TAMANHO_SEGMENTO = 64 * 1024 * 1024;
+	private static final int LOTE_SINCRONIZACAO = 500;
+	private static final long DATA = 1_700_000_000_000L;
+
+	private Path diretorio;
+
+	@Setup(Level.Trial)
+	public void gravarEventos() throws IOException {
+		diretorio = Files.createTempDirectory("log-eventos-pedido");
+		long snapshot = EVENTOS / 10 * 9;
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, TAMANHO_SEGMENTO)) {
+			gravar(log, 1, snapshot);
+		}
+		HistoricoPedidos historico = new HistoricoPedidos(diretorio, TAMANHO_SEGMENTO, 0);
+		historico.salvarSnapshot();
+		historico.fechar();
+		// Eventos posteriores ao snapshot, como se a aplicação tivesse caído antes do próximo
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, TAMANHO_SEGMENTO)) {
+			gravar(log, snapshot + 1, EVENTOS);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void apagar() {
+		apagar(diretorio);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTOS)
+	public ProjecaoStatusPedidos reproducao() {
+		ProjecaoStatusPedidos projecao = new ProjecaoStatusPedidos();
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, TAMANHO_SEGMENTO)) {
+			log.reproduzir(1, projecao::aplicar);
+		}
+		return projecao;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Measurement(iterations = 5)
+	public HistoricoPedidos recuperacao() {
+		// Sem fechar: o encerramento gravaria um novo snapshot no fim do log
+		return new HistoricoPedidos(diretorio, TAMANHO_SEGMENTO, 0);
+	}
+
+	@Benchmark
+	public long anexacao(Gravacao gravacao) {
+		return gravacao.anexar();
+	}
+
+	/**
+	 * Log vazio, recriado a cada iteração para não acumular gigabytes em disco.
+	 */
+	@State(Scope.Thread)
+	public static class Gravacao {
+
+		private Path diretorio;
+		private LogEventosPedido log;
+		private long sequencia;
+
+		@Setup(Level.Iteration)
+		public void abrir() throws IOException {
+			diretorio = Files.createTempDirectory("log-eventos-pedido-gravacao");
+			log = new LogEventosPedido(diretorio, TAMANHO_SEGMENTO);
+			sequencia = 0;
+		}
+
+		@TearDown(Level.Iteration)
+		public void fechar() {
+			log.close();
+			apagar(diretorio);
+		}
+
+		long anexar() {
+			sequencia++;
+			long gravada = anexarEvento(log, sequencia);
+			if (sequencia % LOTE_SINCRONIZACAO == 0) {
+				log.sincronizar();
+			}
+			return gravada;
+		}
+	}
+
+	private static void gravar(LogEventosPedido log, long primeira, long ultima) {
+		for (long sequencia = primeira; sequencia <= ultima; sequencia++) {
+			anexarEvento(log, sequencia);
+			if (sequencia % LOTE_SINCRONIZACAO == 0) {
+				log.sincronizar();
+			}
+		}
+	}
+
+	// Três eventos por pedido: criação, pagamento e então envio (pedidos ímpares) ou cancelamento
+	private static long anexarEvento(LogEventosPedido log, long sequencia) {
+		long pedido = (sequencia - 1) / 3 + 1;
+		String digitos = Long.toString(pedido);
+		String numero = "PED" + "0".repeat(19 - digitos.length()) + digitos;
+		return switch ((int) ((sequencia - 1) % 3)) {
+			case 0 -> log.anexar(pedido, numero, null, null, StatusPedido.AGUARDANDO_PAGAMENTO, DATA + sequencia);
+			case 1 -> log.anexar(pedido, numero, OperacaoPedido.PAGAR, StatusPedido.AGUARDANDO_PAGAMENTO,
+					StatusPedido.PAGO, DATA + sequencia);
+			default -> pedido % 2 == 1
+					? log.anexar(pedido, numero, OperacaoPedido.ENVIAR, StatusPedido.PAGO, StatusPedido.ENVIADO, DATA + sequencia)
+					: log.anexar(pedido, numero, OperacaoPedido.CANCELAR, StatusPedido.PAGO, StatusPedido.CANCELADO,
+							DATA + sequencia);
+		};
+	}
+
+	private static void apagar(Path diretorio) {
+		try (Stream<Path> arquivos = Files.walk(diretorio)) {
+			for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(arquivo);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.system.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.state.OperacaoPedido;
+import com.ecommerce.system.state.PedidoStateManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transições de estado pelo {@link PedidoStateManager}: o ciclo pagar/enviar, uma
+ * transição recusada (enviar sem pagamento) e a vazão (transições/s) percorrendo todas as
+ * células da matriz status × operação.
+ * O log das transições passa por um appender assíncrono como o de {@code logback-spring.xml},
+ * mas escrevendo em uma saída descartada: a criação e o enfileiramento dos eventos entram na
+ * medição, a E/S do console não. {@code transicoesSemLog} mede só a matriz, com o log desligado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PedidoStateBenchmark {
+
+	private static final StatusPedido[] STATUS = StatusPedido.values();
+	private static final OperacaoPedido[] OPERACOES = OperacaoPedido.values();
+
+	private AsyncAppender appender;
+	private Pedido pedido;
+	private int celula;
+
+	@Setup
+	public void iniciar(BenchmarkParams parametros) {
+		LoggerContext contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(contexto);
+		encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp%n");
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> descarte = new OutputStreamAppender<>();
+		descarte.setContext(contexto);
+		descarte.setEncoder(encoder);
+		descarte.setOutputStream(OutputStream.nullOutputStream());
+		descarte.start();
+		appender = new AsyncAppender();
+		appender.setContext(contexto);
+		appender.setQueueSize(8192);
+		appender.setDiscardingThreshold(0);
+		appender.setNeverBlock(true);
+		appender.addAppender(descarte);
+		appender.start();
+
+		Logger logger = contexto.getLogger("com.ecommerce.system.state");
+		logger.detachAndStopAllAppenders();
+		logger.setLevel(parametros.getBenchmark().endsWith("SemLog") ? Level.OFF : Level.INFO);
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+
+		pedido = new Pedido("PED0000000000000000001", new BigDecimal("100.00"), null);
+	}
+
+	@TearDown
+	public void encerrar() {
+		appender.stop();
+	}
+
+	@Benchmark
+	public boolean pagarEEnviar() {
+		pedido.setStatus(StatusPedido.AGUARDANDO_PAGAMENTO);
+		return PedidoStateManager.pagar(pedido) & PedidoStateManager.enviar(pedido);
+	}
+
+	@Benchmark
+	public boolean transicaoRecusada() {
+		pedido.setStatus(StatusPedido.AGUARDANDO_PAGAMENTO);
+		return PedidoStateManager.enviar(pedido);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public boolean transicoes() {
+		return proximaCelula();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public boolean transicoesSemLog() {
+		return proximaCelula();
+	}
+
+	private boolean proximaCelula() {
+		int atual = celula;
+		celula = atual + 1 == STATUS.length * OPERACOES.length ? 0 : atual + 1;
+		pedido.setStatus(STATUS[atual / OPERACOES.length]);
+		return PedidoStateManager.transicionar(pedido, OPERACOES[atual % OPERACOES.length]);
+	}
+}
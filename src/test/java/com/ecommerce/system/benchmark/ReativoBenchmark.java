@@ -0,0 +1,82 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.EcommerceSystemApplication;
+import com.ecommerce.system.config.ServidorReativo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Compara a API servlet (Spring MVC + JPA, uma thread do Tomcat por requisição) com a API
+ * reativa (WebFlux + R2DBC em event loops do Netty) sob alta concorrência: vazão, latência,
+ * pico de heap usado e pico de threads de plataforma.
+ * <p>
+ * As duas APIs sobem no mesmo contexto e leem os mesmos pedidos com {@code GET /api/pedidos/{id}}
+ * (sem cache), uma de cada vez, com {@code reativo.clientes} requisições sempre em andamento.
+ * Os pools JDBC e R2DBC têm o mesmo tamanho ({@code reativo.pool}). Como a API reativa é
+ * medida depois, o seu pico de threads inclui as threads ociosas que o Tomcat já criou.
+ * <p>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:java@reativo -Dreativo.clientes=2000}
+ * (também {@code reativo.pool}, {@code reativo.duracao}, {@code reativo.aquecimento} e
+ * {@code reativo.saida}).
+ */
+public final class ReativoBenchmark {
+
+	private static final int CLIENTES = Integer.getInteger("reativo.clientes", 1000);
+	private static final int POOL = Integer.getInteger("reativo.pool", 20);
+	private static final int DURACAO = Integer.getInteger("reativo.duracao", 20);
+	private static final int AQUECIMENTO = Integer.getInteger("reativo.aquecimento", 5);
+	private static final File SAIDA = new File(System.getProperty("reativo.saida", "target/reativo.json"));
+
+	private static final int PEDIDOS = 100;
+
+	private ReativoBenchmark() {}
+
+	public static void main(String[] args) throws Exception {
+		// O restart do devtools recarregaria a aplicação em outro class loader
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		ObjectMapper objectMapper = new ObjectMapper();
+		ObjectNode relatorio = objectMapper.createObjectNode();
+		relatorio.put("java", Runtime.version().toString());
+		relatorio.put("clientes", CLIENTES);
+		relatorio.put("poolConexoes", POOL);
+		relatorio.put("duracaoSegundos", DURACAO);
+		ArrayNode modos = relatorio.putArray("modos");
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(EcommerceSystemApplication.class)
+				.run("--server.port=0",
+						"--pedido.reativo.enabled=true",
+						"--pedido.reativo.porta=0",
+						"--pedido.reativo.pool-maximo=" + POOL,
+						"--spring.datasource.hikari.maximum-pool-size=" + POOL,
+						"--spring.cache.type=none",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN");
+		try {
+			List<Long> pedidos = CargaConcorrente.criarPedidos(contexto, PEDIDOS);
+			String mvc = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/pedidos/";
+			String reativo = "http://localhost:" + contexto.getBean(ServidorReativo.class).getPorta() + "/api/pedidos/";
+
+			System.out.printf("%d clientes simultâneos, pools de %d conexões, %ds medidos%n", CLIENTES, POOL, DURACAO);
+			CargaConcorrente.imprimirCabecalho();
+			System.gc();
+			modos.add(new CargaConcorrente(mvc, pedidos, CLIENTES, AQUECIMENTO, DURACAO).executar("mvc", objectMapper));
+			System.gc();
+			modos.add(new CargaConcorrente(reativo, pedidos, CLIENTES, AQUECIMENTO, DURACAO).executar("reativo", objectMapper));
+		} finally {
+			contexto.close();
+		}
+
+		File diretorio = SAIDA.getAbsoluteFile().getParentFile();
+		if (diretorio != null) {
+			diretorio.mkdirs();
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(SAIDA, relatorio);
+		System.out.println("Resultado gravado em " + SAIDA.getPath());
+	}
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a criação de pedidos de um único produto concorrido com a baixa de estoque
+ * direta no banco (UPDATE condicional) e com o {@code LedgerEstoque} em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ReservaEstoqueBenchmark {
+
+	@Param({"false", "true"})
+	public boolean ledger;
+
+	private ConfigurableApplicationContext contexto;
+	private PedidoService pedidoService;
+	private CriarPedidoDTO carrinho;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar("estoque.ledger.enabled=" + ledger);
+		pedidoService = contexto.getBean(PedidoService.class);
+
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+		Produto produto = contexto.getBean(ProdutoRepository.class)
+				.save(new Produto("Produto concorrido", "Produto da promoção", new BigDecimal("10.00"), Integer.MAX_VALUE / 2));
+		carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public PedidoResponseDTO criarPedidoProdutoConcorrido() {
+		return pedidoService.criarPedido(carrinho);
+	}
+}
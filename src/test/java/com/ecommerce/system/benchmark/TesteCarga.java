@@ -0,0 +1,397 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.EcommerceSystemApplication;
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga da API de pedidos: dispara uma mistura de criação, consulta, pagamento,
+ * envio e cancelamento a uma taxa fixa e mede a latência de cada endpoint com HdrHistogram.
+ * <p>
+ * A taxa é dividida entre as threads, e cada requisição tem um horário agendado. A latência
+ * registrada é medida a partir desse horário, e não do envio, para que um servidor lento não
+ * reduza a carga sem aparecer nos percentis (omissão coordenada); o tempo de serviço, medido
+ * a partir do envio, é registrado à parte.
+ * <p>
+ * Pagamento, envio e cancelamento usam pedidos criados pelo próprio teste nos estados certos;
+ * quando não há pedido disponível, a requisição vira uma criação.
+ * <p>
+ * Sem {@code carga.url}, a aplicação é iniciada na mesma JVM (H2 em memória, porta aleatória)
+ * com um cliente e produtos próprios, com estoque suficiente para toda a execução.
+ * <p>
+ * Uso: {@code mvn -Pbenchmark test-compile exec:java@teste-carga -Dcarga.taxa=500 -Dcarga.duracao=60}
+ * <ul>
+ * <li>{@code carga.taxa}: requisições por segundo (padrão 200)</li>
+ * <li>{@code carga.concorrencia}: threads de envio (padrão 16)</li>
+ * <li>{@code carga.duracao} / {@code carga.aquecimento}: segundos medidos e de aquecimento (padrão 60 e 10)</li>
+ * <li>{@code carga.mix}: pesos por operação (padrão {@value #MIX_PADRAO})</li>
+ * <li>{@code carga.url}: aplicação já em execução; usa {@code carga.cliente-id} e {@code carga.produto-ids}</li>
+ * <li>{@code carga.saida}: arquivo JSON com o resultado (padrão {@code target/carga-resultado.json})</li>
+ * </ul>
+ */
+public final class TesteCarga {
+
+	static final String MIX_PADRAO = "criar=30,buscar=40,pagar=15,enviar=10,cancelar=5";
+
+	// Pedidos recentes de onde as consultas sorteiam o ID
+	private static final int RECENTES = 4096;
+
+	enum Operacao {
+		CRIAR("POST", "/api/pedidos"),
+		BUSCAR("GET", "/api/pedidos/{id}"),
+		PAGAR("PUT", "/api/pedidos/{id}/pagar"),
+		ENVIAR("PUT", "/api/pedidos/{id}/enviar"),
+		CANCELAR("PUT", "/api/pedidos/{id}/cancelar");
+
+		private final String metodo;
+		private final String caminho;
+
+		Operacao(String metodo, String caminho) {
+			this.metodo = metodo;
+			this.caminho = caminho;
+		}
+	}
+
+	/**
+	 * Medições de um endpoint, em microssegundos.
+	 */
+	private static class Medicao {
+
+		private final Histogram latencia = new ConcurrentHistogram(3);
+		private final Histogram servico = new ConcurrentHistogram(3);
+		private final LongAdder erros = new LongAdder();
+	}
+
+	/**
+	 * Operação efetivamente executada (pode ter virado uma criação) e se teve sucesso.
+	 */
+	private static class Resultado {
+
+		private final Operacao operacao;
+		private final boolean sucesso;
+
+		Resultado(Operacao operacao, boolean sucesso) {
+			this.operacao = operacao;
+			this.sucesso = sucesso;
+		}
+	}
+
+	private final String url;
+	private final int taxa;
+	private final int concorrencia;
+	private final int duracao;
+	private final int aquecimento;
+	private final int[] pesos = new int[Operacao.values().length];
+	private final int somaPesos;
+	private final File saida;
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+
+	private final Queue<Long> aguardandoPagamento = new ConcurrentLinkedQueue<>();
+	private final Queue<Long> pagos = new ConcurrentLinkedQueue<>();
+	private final AtomicLongArray recentes = new AtomicLongArray(RECENTES);
+	private final AtomicLong criados = new AtomicLong();
+
+	private byte[] corpoCriacao;
+
+	private TesteCarga(String url) {
+		this.url = url;
+		this.taxa = Integer.getInteger("carga.taxa", 200);
+		this.concorrencia = Integer.getInteger("carga.concorrencia", 16);
+		this.duracao = Integer.getInteger("carga.duracao", 60);
+		this.aquecimento = Integer.getInteger("carga.aquecimento", 10);
+		this.saida = new File(System.getProperty("carga.saida", "target/carga-resultado.json"));
+		for (String peso : System.getProperty("carga.mix", MIX_PADRAO).split(",")) {
+			String[] partes = peso.trim().split("=");
+			pesos[Operacao.valueOf(partes[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(partes[1].trim());
+		}
+		this.somaPesos = Arrays.stream(pesos).sum();
+		if (taxa <= 0 || concorrencia <= 0 || duracao <= 0 || somaPesos <= 0) {
+			throw new IllegalArgumentException("Taxa, concorrência, duração e mix devem ser positivos");
+		}
+		for (Operacao operacao : Operacao.values()) {
+			medicoes.put(operacao, new Medicao());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		String url = System.getProperty("carga.url", "");
+		ConfigurableApplicationContext contexto = null;
+		CriarPedidoDTO carrinho;
+		if (url.isBlank()) {
+			contexto = iniciarAplicacao();
+			url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+			carrinho = prepararDados(contexto);
+		} else {
+			List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+			for (String produtoId : System.getProperty("carga.produto-ids", "1,2,3").split(",")) {
+				itens.add(new CriarPedidoDTO.ItemPedidoDTO(Long.valueOf(produtoId.trim()), 1));
+			}
+			carrinho = new CriarPedidoDTO(Long.getLong("carga.cliente-id", 1L), "TERRESTRE", itens);
+		}
+
+		try {
+			TesteCarga teste = new TesteCarga(url);
+			teste.corpoCriacao = teste.objectMapper.writeValueAsBytes(carrinho);
+			teste.executar();
+			teste.relatar();
+		} finally {
+			if (contexto != null) {
+				contexto.close();
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext iniciarAplicacao() {
+		// O restart do devtools recarregaria a aplicação em outro class loader
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		return new SpringApplicationBuilder(EcommerceSystemApplication.class).run(
+				"--server.port=0",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN");
+	}
+
+	private static CriarPedidoDTO prepararDados(ConfigurableApplicationContext contexto) {
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Carga", "carga@email.com", "(11) 90000-0000", "Rua Carga, 1"));
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Produto produto = contexto.getBean(ProdutoRepository.class)
+					.save(new Produto("Produto Carga " + i, "Produto do teste de carga", new BigDecimal("10.00"), Integer.MAX_VALUE / 2));
+			itens.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		return new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens);
+	}
+
+	private void executar() throws Exception {
+		System.out.printf("Carga em %s: %d req/s, %d threads, %ds de aquecimento + %ds medidos%n",
+				url, taxa, concorrencia, aquecimento, duracao);
+		long intervalo = TimeUnit.SECONDS.toNanos(1) * concorrencia / taxa;
+		long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+		long inicioMedicao = inicio + TimeUnit.SECONDS.toNanos(aquecimento);
+		long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+
+		ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+		try {
+			List<Future<?>> threads = new ArrayList<>();
+			for (int i = 0; i < concorrencia; i++) {
+				// Defasa as threads para que as requisições fiquem espalhadas no intervalo
+				long primeiro = inicio + intervalo * i / concorrencia;
+				threads.add(executor.submit(() -> gerarCarga(primeiro, intervalo, inicioMedicao, fim)));
+			}
+			for (Future<?> thread : threads) {
+				thread.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void gerarCarga(long primeiro, long intervalo, long inicioMedicao, long fim) {
+		for (long agendado = primeiro; agendado < fim; agendado += intervalo) {
+			long espera = agendado - System.nanoTime();
+			if (espera > 0) {
+				LockSupport.parkNanos(espera);
+			}
+			long envio = System.nanoTime();
+			Operacao operacao = sortear();
+			boolean sucesso;
+			try {
+				Resultado resultado = requisitar(operacao);
+				operacao = resultado.operacao;
+				sucesso = resultado.sucesso;
+			} catch (IOException e) {
+				sucesso = false;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			long concluido = System.nanoTime();
+			if (agendado >= inicioMedicao) {
+				Medicao medicao = medicoes.get(operacao);
+				medicao.latencia.recordValue(TimeUnit.NANOSECONDS.toMicros(concluido - agendado));
+				medicao.servico.recordValue(TimeUnit.NANOSECONDS.toMicros(concluido - envio));
+				if (!sucesso) {
+					medicao.erros.increment();
+				}
+			}
+		}
+	}
+
+	private Operacao sortear() {
+		int sorteio = ThreadLocalRandom.current().nextInt(somaPesos);
+		for (Operacao operacao : Operacao.values()) {
+			sorteio -= pesos[operacao.ordinal()];
+			if (sorteio < 0) {
+				return operacao;
+			}
+		}
+		return Operacao.CRIAR;
+	}
+
+	private Resultado requisitar(Operacao operacao) throws IOException, InterruptedException {
+		Long id = switch (operacao) {
+			case CRIAR -> null;
+			case BUSCAR -> recente();
+			case PAGAR -> aguardandoPagamento.poll();
+			case ENVIAR -> pagos.poll();
+			// Cancela tanto pedidos pendentes quanto pagos
+			case CANCELAR -> ThreadLocalRandom.current().nextBoolean() && !pagos.isEmpty()
+					? pagos.poll() : aguardandoPagamento.poll();
+		};
+		if (id == null) {
+			return new Resultado(Operacao.CRIAR, criar());
+		}
+
+		String caminho = operacao.caminho.replace("{id}", id.toString());
+		HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url + caminho)).timeout(Duration.ofSeconds(30));
+		if (operacao == Operacao.BUSCAR) {
+			requisicao.GET();
+		} else {
+			requisicao.PUT(HttpRequest.BodyPublishers.noBody());
+		}
+		int status = http.send(requisicao.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+		boolean sucesso = status == 200;
+		if (sucesso && operacao == Operacao.PAGAR) {
+			pagos.offer(id);
+		}
+		return new Resultado(operacao, sucesso);
+	}
+
+	private boolean criar() throws IOException, InterruptedException {
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url + Operacao.CRIAR.caminho))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(corpoCriacao))
+				.build();
+		HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+		if (resposta.statusCode() != 201) {
+			return false;
+		}
+		long id = objectMapper.readTree(resposta.body()).path("id").asLong();
+		recentes.set((int) (criados.getAndIncrement() % RECENTES), id);
+		aguardandoPagamento.offer(id);
+		return true;
+	}
+
+	private Long recente() {
+		long total = Math.min(criados.get(), RECENTES);
+		return total == 0 ? null : recentes.get(ThreadLocalRandom.current().nextInt((int) total));
+	}
+
+	private void relatar() throws IOException {
+		ObjectNode relatorio = objectMapper.createObjectNode();
+		relatorio.put("data", Instant.now().toString());
+		relatorio.put("url", url);
+		relatorio.put("taxaAlvo", taxa);
+		relatorio.put("concorrencia", concorrencia);
+		relatorio.put("duracaoSegundos", duracao);
+		relatorio.put("aquecimentoSegundos", aquecimento);
+		relatorio.put("mix", System.getProperty("carga.mix", MIX_PADRAO));
+
+		Histogram total = new Histogram(3);
+		long erros = 0;
+		ObjectNode endpoints = relatorio.putObject("endpoints");
+		System.out.printf("%-9s %-30s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+				"Operação", "Endpoint", "Reqs", "Erros", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms");
+		for (Map.Entry<Operacao, Medicao> entrada : medicoes.entrySet()) {
+			Operacao operacao = entrada.getKey();
+			Medicao medicao = entrada.getValue();
+			total.add(medicao.latencia);
+			erros += medicao.erros.sum();
+
+			ObjectNode endpoint = endpoints.putObject(operacao.name().toLowerCase());
+			endpoint.put("metodo", operacao.metodo);
+			endpoint.put("caminho", operacao.caminho);
+			escrever(endpoint, medicao.latencia, medicao.erros.sum());
+			endpoint.set("tempoServicoMs", percentis(medicao.servico));
+			endpoint.put("histograma", codificar(medicao.latencia));
+			imprimir(operacao.name().toLowerCase(), operacao.metodo + " " + operacao.caminho, medicao.latencia, medicao.erros.sum());
+		}
+		escrever(relatorio.putObject("total"), total, erros);
+		imprimir("total", "", total, erros);
+
+		File diretorio = saida.getAbsoluteFile().getParentFile();
+		if (diretorio != null) {
+			diretorio.mkdirs();
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(saida, relatorio);
+		System.out.println("Resultado gravado em " + saida.getPath());
+	}
+
+	private void escrever(ObjectNode no, Histogram latencia, long erros) {
+		no.put("requisicoes", latencia.getTotalCount());
+		no.put("erros", erros);
+		no.put("vazao", (double) latencia.getTotalCount() / duracao);
+		no.set("latenciaMs", percentis(latencia));
+	}
+
+	private ObjectNode percentis(Histogram histograma) {
+		Map<String, Double> valores = new LinkedHashMap<>();
+		valores.put("media", histograma.getTotalCount() == 0 ? 0 : histograma.getMean() / 1000);
+		for (double percentil : new double[] {50, 90, 99, 99.9, 99.99}) {
+			valores.put("p" + (percentil == (long) percentil ? String.valueOf((long) percentil) : String.valueOf(percentil)),
+					histograma.getValueAtPercentile(percentil) / 1000.0);
+		}
+		valores.put("max", histograma.getMaxValue() / 1000.0);
+		return objectMapper.valueToTree(valores);
+	}
+
+	// Histograma completo (formato comprimido do HdrHistogram, em base64), para combinar execuções
+	private static String codificar(Histogram histograma) {
+		ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+		int tamanho = histograma.encodeIntoCompressedByteBuffer(buffer);
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), tamanho));
+	}
+
+	private void imprimir(String nome, String endpoint, Histogram latencia, long erros) {
+		System.out.printf("%-9s %-30s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome, endpoint,
+				latencia.getTotalCount(), erros, (double) latencia.getTotalCount() / duracao,
+				latencia.getValueAtPercentile(50) / 1000.0, latencia.getValueAtPercentile(90) / 1000.0,
+				latencia.getValueAtPercentile(99) / 1000.0, latencia.getValueAtPercentile(99.9) / 1000.0,
+				latencia.getMaxValue() / 1000.0);
+	}
+}
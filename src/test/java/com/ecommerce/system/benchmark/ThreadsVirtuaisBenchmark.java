@@ -0,0 +1,157 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.EcommerceSystemApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Compara o modo padrão (pool de threads do Tomcat) com o modo de threads virtuais
+ * (perfil Spring {@code virtual}) sob um banco lento: vazão, latência, pico de heap usado e
+ * pico de threads de plataforma.
+ * <p>
+ * A lentidão é simulada com uma espera antes de cada comando JDBC, com a conexão emprestada,
+ * como em um banco remoto. Os dois modos usam o mesmo pool de conexões ({@code virtuais.pool},
+ * maior que as 200 threads do Tomcat, já que o banco simulado não tem limite próprio), de modo
+ * que a única diferença é quem limita a concorrência: as threads do Tomcat ou as conexões.
+ * <p>
+ * Os clientes ficam na mesma JVM e mantêm sempre {@code virtuais.clientes} requisições
+ * {@code GET /api/pedidos/{id}} em andamento (sem cache). O consumo dos clientes entra nas
+ * duas medições igualmente. O modo virtual só roda em Java 21 ou superior.
+ * <p>
+ * Uso: {@code mvn -Pjava21,benchmark test-compile exec:java@threads-virtuais -Dvirtuais.latencia-ms=50}
+ * (também {@code virtuais.clientes}, {@code virtuais.pool}, {@code virtuais.duracao},
+ * {@code virtuais.aquecimento} e {@code virtuais.saida}).
+ */
+public final class ThreadsVirtuaisBenchmark {
+
+	private static final int LATENCIA_MS = Integer.getInteger("virtuais.latencia-ms", 50);
+	private static final int CLIENTES = Integer.getInteger("virtuais.clientes", 1000);
+	private static final int POOL = Integer.getInteger("virtuais.pool", 400);
+	private static final int DURACAO = Integer.getInteger("virtuais.duracao", 20);
+	private static final int AQUECIMENTO = Integer.getInteger("virtuais.aquecimento", 5);
+	private static final File SAIDA = new File(System.getProperty("virtuais.saida", "target/threads-virtuais.json"));
+
+	private static final int PEDIDOS = 100;
+
+	private ThreadsVirtuaisBenchmark() {}
+
+	public static void main(String[] args) throws Exception {
+		// O restart do devtools recarregaria a aplicação em outro class loader
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		ObjectMapper objectMapper = new ObjectMapper();
+		ObjectNode relatorio = objectMapper.createObjectNode();
+		relatorio.put("java", Runtime.version().toString());
+		relatorio.put("latenciaBancoMs", LATENCIA_MS);
+		relatorio.put("clientes", CLIENTES);
+		relatorio.put("poolConexoes", POOL);
+		relatorio.put("duracaoSegundos", DURACAO);
+		ArrayNode modos = relatorio.putArray("modos");
+
+		System.out.printf("Banco com %dms por comando, %d clientes simultâneos, pool de %d conexões, %ds medidos%n",
+				LATENCIA_MS, CLIENTES, POOL, DURACAO);
+		CargaConcorrente.imprimirCabecalho();
+		modos.add(medir("plataforma", false, objectMapper));
+		if (Runtime.version().feature() >= 21) {
+			modos.add(medir("virtual", true, objectMapper));
+		} else {
+			System.out.printf("%-11s (requer Java 21; em execução: %s)%n", "virtual", Runtime.version());
+		}
+
+		File diretorio = SAIDA.getAbsoluteFile().getParentFile();
+		if (diretorio != null) {
+			diretorio.mkdirs();
+		}
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(SAIDA, relatorio);
+		System.out.println("Resultado gravado em " + SAIDA.getPath());
+	}
+
+	private static ObjectNode medir(String modo, boolean threadsVirtuais, ObjectMapper objectMapper) throws Exception {
+		System.gc();
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(EcommerceSystemApplication.class)
+				.initializers(aplicacao -> aplicacao.getBeanFactory().addBeanPostProcessor(new BancoLento()))
+				.run("--server.port=0",
+						"--spring.profiles.active=virtual",
+						"--spring.threads.virtual.enabled=" + threadsVirtuais,
+						"--spring.datasource.hikari.maximum-pool-size=" + POOL,
+						"--spring.datasource.hikari.minimum-idle=" + POOL,
+						"--spring.datasource.hikari.connection-timeout=30000",
+						"--spring.cache.type=none",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN");
+		try {
+			String url = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/pedidos/";
+			List<Long> pedidos = CargaConcorrente.criarPedidos(contexto, PEDIDOS);
+			CargaConcorrente carga = new CargaConcorrente(url, pedidos, CLIENTES, AQUECIMENTO, DURACAO);
+			ObjectNode resultado = carga.executar(modo, objectMapper);
+			resultado.put("threadsVirtuais", threadsVirtuais);
+			return resultado;
+		} finally {
+			contexto.close();
+		}
+	}
+
+	/**
+	 * Envolve o {@link DataSource} da aplicação para que cada comando JDBC espere
+	 * {@link #LATENCIA_MS} antes de executar, com a conexão emprestada.
+	 */
+	private static class BancoLento implements BeanPostProcessor {
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String nome) {
+			if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+				return bean;
+			}
+			return new DelegatingDataSource(dataSource) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					return conexaoLenta(super.getConnection());
+				}
+
+				@Override
+				public Connection getConnection(String usuario, String senha) throws SQLException {
+					return conexaoLenta(super.getConnection(usuario, senha));
+				}
+			};
+		}
+
+		private static Connection conexaoLenta(Connection conexao) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+					(proxy, metodo, argumentos) -> {
+						Object resultado = invocar(conexao, metodo, argumentos);
+						return resultado instanceof Statement comando ? comandoLento(comando, metodo.getReturnType()) : resultado;
+					});
+		}
+
+		private static Object comandoLento(Statement comando, Class<?> tipo) {
+			return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, argumentos) -> {
+				if (metodo.getName().startsWith("execute")) {
+					Thread.sleep(LATENCIA_MS);
+				}
+				return invocar(comando, metodo, argumentos);
+			});
+		}
+
+		private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+			try {
+				return metodo.invoke(alvo, argumentos);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
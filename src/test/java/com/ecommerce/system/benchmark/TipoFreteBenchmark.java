@@ -0,0 +1,66 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.strategy.FreteStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolução do tipo de frete informado na requisição: a busca do {@link RegistroFrete}
+ * (índice hash, sem alocação) contra a forma anterior da factory, que normalizava o tipo
+ * com {@code trim().toUpperCase()} e percorria a lista de tipos. Rodar com {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TipoFreteBenchmark {
+
+	@Param({"TERRESTRE", " aereo", "MARITIMO"})
+	public String tipoFrete;
+
+	private RegistroFrete registro;
+	private List<FreteStrategy> estrategias;
+	private String[] tipos;
+
+	@Setup
+	public void iniciar() {
+		registro = new RegistroFrete(new DefaultResourceLoader(),
+				new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class), List.of(), 0);
+		estrategias = registro.getIndice().estrategias();
+		tipos = registro.getIndice().tipos().toArray(String[]::new);
+	}
+
+	@Benchmark
+	public FreteStrategy registro() {
+		return registro.getIndice().buscar(tipoFrete);
+	}
+
+	@Benchmark
+	public FreteStrategy varreduraNormalizada() {
+		// isTipoFreteSuportado + criarFreteStrategy da factory anterior
+		String tipo = tipoFrete.trim().toUpperCase();
+		boolean suportado = false;
+		for (String disponivel : tipos) {
+			if (disponivel.equals(tipo)) {
+				suportado = true;
+				break;
+			}
+		}
+		if (!suportado) {
+			return null;
+		}
+		for (FreteStrategy estrategia : estrategias) {
+			if (estrategia.getTipoFrete().equalsIgnoreCase(tipoFrete.trim())) {
+				return estrategia;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.system.benchmark;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.LoteTransicoesResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import com.ecommerce.system.state.OperacaoPedido;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transições por segundo do endpoint em lote comparadas às transições um a um.
+ * Cada invocação paga e cancela (com devolução de estoque) {@link #PEDIDOS} pedidos de três
+ * itens, ou seja, {@code 2 * PEDIDOS} transições; o resultado já está em transições/s.
+ * Os pedidos voltam a aguardar pagamento antes de cada invocação.
+ * Uso: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransicaoPedidoLote"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransicaoPedidoLoteBenchmark {
+
+	private static final int PEDIDOS = 1000;
+
+	private ConfigurableApplicationContext contexto;
+	private PedidoService pedidoService;
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	private List<Long> ids;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		// Sem o log das transições: mede o lote, não o appender
+		contexto = ContextoBenchmark.iniciar("logging.level.com.ecommerce.system.state=WARN");
+		pedidoService = contexto.getBean(PedidoService.class);
+		jdbcTemplate = contexto.getBean(NamedParameterJdbcTemplate.class);
+
+		Cliente cliente = contexto.getBean(ClienteRepository.class)
+				.save(new Cliente("Benchmark", "benchmark@email.com", "(11) 90000-0000", "Rua Benchmark, 1"));
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Produto produto = contexto.getBean(ProdutoRepository.class)
+					.save(new Produto("Produto " + i, "Produto do benchmark", new BigDecimal("10.00"), Integer.MAX_VALUE / 2));
+			itens.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		CriarPedidoDTO carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens);
+		ids = pedidoService.criarPedidosEmLote(Collections.nCopies(PEDIDOS, carrinho)).getResultados().stream()
+				.map(resultado -> resultado.getPedido().getId())
+				.toList();
+	}
+
+	@Setup(Level.Invocation)
+	public void reiniciarPedidos() {
+		jdbcTemplate.update("UPDATE pedidos SET status = :status WHERE id IN (:ids)",
+				Map.of("status", StatusPedido.AGUARDANDO_PAGAMENTO.getCodigo(), "ids", ids));
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(2 * PEDIDOS)
+	public void umPorVez(Blackhole blackhole) {
+		for (Long id : ids) {
+			blackhole.consume(pedidoService.pagarPedido(id));
+			blackhole.consume(pedidoService.cancelarPedido(id));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(2 * PEDIDOS)
+	public void emLote(Blackhole blackhole) {
+		LoteTransicoesResponseDTO pagos = pedidoService.transicionarEmLote(OperacaoPedido.PAGAR, ids);
+		LoteTransicoesResponseDTO cancelados = pedidoService.transicionarEmLote(OperacaoPedido.CANCELAR, ids);
+		if (pagos.getTransicionados() != PEDIDOS || cancelados.getTransicionados() != PEDIDOS) {
+			throw new IllegalStateException("Transições recusadas no lote");
+		}
+		blackhole.consume(cancelados);
+	}
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.ContadorComandosSql;
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(ContadorComandosSql.class)
+class ClienteControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private ContadorComandosSql contadorComandosSql;
+
+	@Test
+	void historicoDoClientePercorrePaginasComUmaConsultaPorPagina() throws Exception {
+		Cliente cliente = clienteRepository.save(new Cliente("Cliente Histórico", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+		Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+				new BigDecimal("15.00"), 1000));
+		CriarPedidoDTO carrinho = new CriarPedidoDTO(cliente.getId(), "AEREO",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+		List<Long> criados = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			criados.add(0, pedidoService.criarPedido(carrinho).getId());
+		}
+		pedidoService.pagarPedido(criados.get(1));
+
+		List<Long> lidos = new ArrayList<>();
+		String cursor = null;
+		do {
+			var requisicao = get("/api/clientes/{id}/pedidos", cliente.getId()).param("tamanho", "2");
+			if (cursor != null) {
+				requisicao.param("cursor", cursor);
+			}
+			contadorComandosSql.zerar();
+			JsonNode pagina = objectMapper.readTree(mockMvc.perform(requisicao)
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.itens[0].itens").doesNotExist())
+					.andReturn().getResponse().getContentAsString());
+			// Resumos lidos direto da tabela, sem carregar pedidos, itens nem o cliente
+			assertEquals(1, contadorComandosSql.comandos(), () -> String.join("\n", contadorComandosSql.sql()));
+			pagina.get("itens").forEach(resumo -> lidos.add(resumo.get("id").asLong()));
+			cursor = pagina.get("proximoCursor").isNull() ? null : pagina.get("proximoCursor").asText();
+		} while (cursor != null);
+		assertEquals(criados, lidos);
+
+		mockMvc.perform(get("/api/clientes/{id}/pedidos", cliente.getId()).param("status", "PAGO"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(1))
+				.andExpect(jsonPath("$.itens[0].id").value(criados.get(1)))
+				.andExpect(jsonPath("$.itens[0].status").value("PAGO"));
+	}
+
+	@Test
+	void clienteInexistenteOuParametroInvalidoNaoResponde200() throws Exception {
+		Cliente semPedidos = clienteRepository.save(new Cliente("Cliente Sem Pedidos", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+
+		mockMvc.perform(get("/api/clientes/{id}/pedidos", semPedidos.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(0));
+		mockMvc.perform(get("/api/clientes/{id}/pedidos", -1L))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/clientes/{id}/pedidos", semPedidos.getId()).param("cursor", "invalido"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/clientes/{id}/pedidos", semPedidos.getId()).param("status", "ARQUIVADO"))
+				.andExpect(status().isBadRequest());
+	}
+}
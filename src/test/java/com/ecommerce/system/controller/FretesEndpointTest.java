@@ -0,0 +1,42 @@
+package com.ecommerce.system.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class FretesEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void listaERecarregaOsTiposDeFrete() throws Exception {
+		mockMvc.perform(get("/api/pedidos/frete/tipos"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.tiposDisponiveis[0]").value("TERRESTRE"))
+				.andExpect(jsonPath("$.tiposDisponiveis[1]").value("AEREO"))
+				.andExpect(jsonPath("$.descricoes.AEREO").exists());
+
+		mockMvc.perform(post("/actuator/fretes"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.TERRESTRE").exists());
+
+		mockMvc.perform(get("/api/pedidos/frete/calcular")
+						.param("valorPedido", "1000.00")
+						.param("tipoFrete", " aereo "))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.valorFrete").value(100.00));
+
+		mockMvc.perform(get("/api/pedidos/frete/calcular")
+						.param("valorPedido", "1000.00")
+						.param("tipoFrete", "MARITIMO"))
+				.andExpect(status().isBadRequest());
+	}
+}
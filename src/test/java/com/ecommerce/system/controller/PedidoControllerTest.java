@@ -0,0 +1,202 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.ContadorComandosSql;
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica, no {@code DataSource}, quantos comandos SQL cada endpoint executa (pelo Hibernate
+ * e pelo {@code JdbcTemplate}). As contagens não podem depender da quantidade de pedidos ou de itens.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(ContadorComandosSql.class)
+class PedidoControllerTest {
+
+	private static final int ITENS_POR_PEDIDO = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private ContadorComandosSql contadorComandosSql;
+
+	private Cliente cliente;
+	private CriarPedidoDTO carrinho;
+
+	@BeforeEach
+	void setUp() {
+		cliente = clienteRepository.save(new Cliente("Cliente Consultas", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = new ArrayList<>();
+		for (int i = 0; i < ITENS_POR_PEDIDO; i++) {
+			Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+					new BigDecimal("15.00"), 1000));
+			itens.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		carrinho = new CriarPedidoDTO(cliente.getId(), "AEREO", itens);
+	}
+
+	@Test
+	void buscarPorIdExecutaUmaConsulta() throws Exception {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+
+		assertEquals(1, comandosExecutados(get("/api/pedidos/{id}", id)), this::sqlExecutado);
+	}
+
+	@Test
+	void listarExecutaDuasConsultasIndependenteDoTamanhoDaPagina() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			pedidoService.criarPedido(carrinho);
+		}
+
+		assertEquals(2, comandosExecutados(get("/api/pedidos").param("clienteId", cliente.getId().toString()).param("tamanho", "2")),
+				this::sqlExecutado);
+		assertEquals(2, comandosExecutados(get("/api/pedidos").param("clienteId", cliente.getId().toString()).param("tamanho", "10")),
+				this::sqlExecutado);
+	}
+
+	@Test
+	void transicoesExecutamUmaConsultaUmaAtualizacaoEOEventoDoOutbox() throws Exception {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+
+		assertEquals(3, comandosExecutados(put("/api/pedidos/{id}/pagar", id)), this::sqlExecutado);
+		assertEquals(3, comandosExecutados(put("/api/pedidos/{id}/enviar", id)), this::sqlExecutado);
+
+		// O cancelamento devolve o estoque de todos os itens em um único lote
+		Long outro = pedidoService.criarPedido(carrinho).getId();
+		assertEquals(4, comandosExecutados(put("/api/pedidos/{id}/cancelar", outro)), this::sqlExecutado);
+	}
+
+	@Test
+	void criarPedidoNaoCresceComOsItens() throws Exception {
+		CriarPedidoDTO umItem = new CriarPedidoDTO(cliente.getId(), "AEREO", carrinho.getItens().subList(0, 1));
+
+		// cliente, lote de baixa do estoque, evento do outbox, insert do pedido e lote de itens;
+		// preços e nomes vêm do catálogo em memória
+		assertEquals(5, comandosCriacao(umItem), this::sqlExecutado);
+		assertEquals(5, comandosCriacao(carrinho), this::sqlExecutado);
+	}
+
+	@Test
+	void criarPedidosEmLoteRetornaResultadoPorPedido() throws Exception {
+		CriarPedidoDTO semCliente = new CriarPedidoDTO(-1L, "AEREO", carrinho.getItens());
+
+		mockMvc.perform(post("/api/pedidos/lote")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(carrinho, semCliente, carrinho))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.criados").value(2))
+				.andExpect(jsonPath("$.rejeitados").value(1))
+				.andExpect(jsonPath("$.resultados[0].pedido.itens.length()").value(ITENS_POR_PEDIDO))
+				.andExpect(jsonPath("$.resultados[1].erro").value("Cliente não encontrado"))
+				.andExpect(jsonPath("$.resultados[2].sucesso").value(true));
+	}
+
+	@Test
+	void transicionarEmLoteRetornaResultadoPorPedido() throws Exception {
+		Long aguardando = pedidoService.criarPedido(carrinho).getId();
+		Long cancelado = pedidoService.criarPedido(carrinho).getId();
+		pedidoService.cancelarPedido(cancelado);
+
+		mockMvc.perform(post("/api/pedidos/lote/pagar")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(aguardando, cancelado))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.transicionados").value(1))
+				.andExpect(jsonPath("$.resultados[0].status").value("PAGO"))
+				.andExpect(jsonPath("$.resultados[1].erro").value("Pedido foi cancelado e não pode ser pago"));
+
+		mockMvc.perform(post("/api/pedidos/lote/arquivar")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(List.of(aguardando))))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportarEscreveUmPedidoPorLinhaEmNdjsonEUmItemPorLinhaEmCsv() throws Exception {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+
+		String ndjson = exportar("ndjson");
+		String linhaPedido = ndjson.lines()
+				.filter(linha -> linha.startsWith("{\"id\":" + id + ","))
+				.findFirst().orElseThrow();
+		PedidoResponseDTO exportado = objectMapper.readValue(linhaPedido, PedidoResponseDTO.class);
+		assertEquals(ITENS_POR_PEDIDO, exportado.getItens().size());
+
+		String csv = exportar("csv");
+		assertTrue(csv.startsWith("pedido_id,numero_pedido,"));
+		assertEquals(ITENS_POR_PEDIDO, csv.lines().filter(linha -> linha.startsWith(id + ",")).count());
+
+		mockMvc.perform(get("/api/pedidos/exportar").param("formato", "xml"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private String exportar(String formato) throws Exception {
+		MvcResult resultado = mockMvc.perform(get("/api/pedidos/exportar").param("formato", formato))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(resultado))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private long comandosExecutados(RequestBuilder requisicao) throws Exception {
+		contadorComandosSql.zerar();
+		String resposta = mockMvc.perform(requisicao)
+				.andExpect(status().is2xxSuccessful())
+				.andReturn().getResponse().getContentAsString();
+		assertFalse(resposta.isEmpty());
+		objectMapper.readTree(resposta);
+		return contadorComandosSql.comandos();
+	}
+
+	// A sequência dos itens só é consultada a cada bloco de IDs alocado pelo Hibernate
+	private long comandosCriacao(CriarPedidoDTO pedido) throws Exception {
+		comandosExecutados(post("/api/pedidos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(pedido)));
+		return contadorComandosSql.sql().stream().filter(sql -> !sql.startsWith("select next value")).count();
+	}
+
+	private String sqlExecutado() {
+		return String.join("\n", contadorComandosSql.sql());
+	}
+}
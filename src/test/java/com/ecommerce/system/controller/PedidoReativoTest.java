@@ -0,0 +1,183 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.config.ServidorReativo;
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.service.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercita a API reativa (porta própria) sobre o mesmo banco da API servlet.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"pedido.reativo.enabled=true",
+		"pedido.reativo.porta=0"
+})
+class PedidoReativoTest {
+
+	@Autowired
+	private ServidorReativo servidorReativo;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	private WebTestClient cliente;
+	private Cliente comprador;
+
+	@BeforeEach
+	void setUp() {
+		cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + servidorReativo.getPorta()).build();
+		comprador = clienteRepository.save(new Cliente("Cliente Reativo", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void criaPagaEEnviaPedido() {
+		Produto produto = criarProduto(new BigDecimal("10.00"), 10);
+
+		PedidoResponseDTO criado = criar(new CriarPedidoDTO(comprador.getId(), "TERRESTRE", List.of(
+				new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 3),
+				new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 4))));
+
+		assertEquals("AGUARDANDO_PAGAMENTO", criado.getStatus());
+		assertEquals(2, criado.getItens().size());
+		assertEquals(0, new BigDecimal("70.00").compareTo(criado.getValorTotal()));
+		assertEquals(3, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+
+		assertEquals("PAGO", transicionar(criado.getId(), "pagar").getStatus());
+		assertEquals("ENVIADO", transicionar(criado.getId(), "enviar").getStatus());
+
+		// A API servlet enxerga o mesmo pedido
+		PedidoResponseDTO lido = pedidoService.buscarPorId(criado.getId());
+		assertEquals("ENVIADO", lido.getStatus());
+		assertEquals(criado.getNumeroPedido(), lido.getNumeroPedido());
+
+		cliente.put().uri("/api/pedidos/{id}/cancelar", criado.getId())
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void cancelamentoDevolveEstoque() {
+		Produto produto = criarProduto(new BigDecimal("5.00"), 4);
+		PedidoResponseDTO criado = criar(new CriarPedidoDTO(comprador.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 4))));
+		assertEquals(0, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+
+		assertEquals("CANCELADO", transicionar(criado.getId(), "cancelar").getStatus());
+		assertEquals(4, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+	}
+
+	@Test
+	void estoqueInsuficienteNaoGravaNada() {
+		Produto suficiente = criarProduto(new BigDecimal("10.00"), 5);
+		Produto insuficiente = criarProduto(new BigDecimal("10.00"), 1);
+
+		cliente.post().uri("/api/pedidos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(new CriarPedidoDTO(comprador.getId(), "TERRESTRE", List.of(
+						new CriarPedidoDTO.ItemPedidoDTO(suficiente.getId(), 2),
+						new CriarPedidoDTO.ItemPedidoDTO(insuficiente.getId(), 2))))
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		// A baixa do primeiro produto foi desfeita com a transação
+		assertEquals(5, produtoRepository.findById(suficiente.getId()).orElseThrow().getEstoque());
+		assertEquals(1, produtoRepository.findById(insuficiente.getId()).orElseThrow().getEstoque());
+	}
+
+	@Test
+	void idsNaoColidemComPedidosDoJpa() {
+		Produto produto = criarProduto(new BigDecimal("1.00"), 100);
+		CriarPedidoDTO dto = new CriarPedidoDTO(comprador.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+
+		Set<Long> ids = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			assertTrue(ids.add(criar(dto).getId()));
+			assertTrue(ids.add(pedidoService.criarPedido(dto).getId()));
+		}
+	}
+
+	@Test
+	void transmiteEListaPedidosDoCliente() {
+		Produto produto = criarProduto(new BigDecimal("2.00"), 100);
+		CriarPedidoDTO dto = new CriarPedidoDTO(comprador.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+		for (int i = 0; i < 5; i++) {
+			criar(dto);
+		}
+
+		List<PedidoResponseDTO> transmitidos = cliente.get()
+				.uri("/api/pedidos/stream?clienteId={id}", comprador.getId())
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(PedidoResponseDTO.class)
+				.getResponseBody()
+				.collectList()
+				.block();
+		assertEquals(5, transmitidos.size());
+		transmitidos.forEach(pedido -> assertEquals(1, pedido.getItens().size()));
+
+		cliente.get().uri("/api/pedidos?clienteId={id}&tamanho=3", comprador.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.itens.length()").isEqualTo(3)
+				.jsonPath("$.temMais").isEqualTo(true);
+
+		cliente.get().uri("/api/pedidos/{id}", Long.MAX_VALUE)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private PedidoResponseDTO criar(CriarPedidoDTO dto) {
+		return cliente.post().uri("/api/pedidos")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(dto)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(PedidoResponseDTO.class)
+				.returnResult()
+				.getResponseBody();
+	}
+
+	private PedidoResponseDTO transicionar(Long id, String operacao) {
+		return cliente.put().uri("/api/pedidos/{id}/" + operacao, id)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(PedidoResponseDTO.class)
+				.returnResult()
+				.getResponseBody();
+	}
+
+	private Produto criarProduto(BigDecimal preco, int estoque) {
+		return produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste", preco, estoque));
+	}
+}
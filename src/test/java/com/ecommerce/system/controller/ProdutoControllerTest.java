@@ -0,0 +1,62 @@
+package com.ecommerce.system.controller;
+
+import com.ecommerce.system.ContadorComandosSql;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A busca e as sugestões respondem pelo índice e pelo catálogo em memória: o {@code DataSource}
+ * não pode receber nenhum comando SQL.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@Import(ContadorComandosSql.class)
+class ProdutoControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private ContadorComandosSql contadorComandosSql;
+
+	@Test
+	void buscaESugestoesRespondemSemConsultarOBanco() throws Exception {
+		String palavra = "busca" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+		Long id = produtoRepository.save(new Produto("Luminária " + palavra, "Mesa", new BigDecimal("80.00"), 5)).getId();
+
+		contadorComandosSql.zerar();
+		mockMvc.perform(get("/api/produtos/busca").param("q", palavra.substring(0, 10)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(1))
+				.andExpect(jsonPath("$.produtos[0].id").value(id))
+				.andExpect(jsonPath("$.produtos[0].nome").value("Luminária " + palavra));
+		mockMvc.perform(get("/api/produtos/sugestoes").param("prefixo", "Luminaria " + palavra.substring(0, 10)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0]").value("luminaria " + palavra));
+		assertEquals(0, contadorComandosSql.comandos(), () -> String.join("\n", contadorComandosSql.sql()));
+	}
+
+	@Test
+	void paginacaoForaDosLimitesResponde400() throws Exception {
+		mockMvc.perform(get("/api/produtos/busca").param("q", "luminaria").param("tamanho", "500"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/produtos/sugestoes").param("prefixo", "lum").param("limite", "0"))
+				.andExpect(status().isBadRequest());
+	}
+}
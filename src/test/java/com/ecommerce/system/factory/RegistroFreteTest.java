@@ -0,0 +1,163 @@
+package com.ecommerce.system.factory;
+
+import com.ecommerce.system.strategy.FreteStrategy;
+import com.ecommerce.system.strategy.FreteTabelaStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroFreteTest {
+
+	private static final String EXPRESSO = """
+			[{"tipo": "expresso", "descricao": "Frete expresso", "regiaoPadrao": "BRASIL",
+			  "faixasPesoGramas": [1000], "tarifas": {"BRASIL": ["20.00"]}, "adicionalPorKgExcedente": "5.00",
+			  "faixasValor": [{"valorMinimo": "0", "percentual": "0.02"}]}]
+			""";
+
+	private static final String MARITIMO = """
+			[{"tipo": "EXPRESSO", "descricao": "Frete expresso", "regiaoPadrao": "BRASIL",
+			  "faixasPesoGramas": [1000], "tarifas": {"BRASIL": ["25.00"]}, "adicionalPorKgExcedente": "5.00",
+			  "faixasValor": [{"valorMinimo": "0", "percentual": "0.02"}]},
+			 {"tipo": "MARITIMO", "descricao": "Frete marítimo", "regiaoPadrao": "BRASIL",
+			  "faixasPesoGramas": [1000], "tarifas": {"BRASIL": ["0.00"]}, "adicionalPorKgExcedente": "1.00",
+			  "faixasValor": [{"valorMinimo": "0", "percentual": "0.01"}]}]
+			""";
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void buscaIgnoraCaixaEEspacosENaoMudaAsCotacoesDasTabelas() throws IOException {
+		RegistroFrete registro = registro(List.of());
+		List<FreteTabelaStrategy> tabelas;
+		try (InputStream entrada = new ClassPathResource(FreteTabelaStrategy.TABELAS_PADRAO).getInputStream()) {
+			tabelas = FreteTabelaStrategy.ler(entrada);
+		}
+
+		for (FreteTabelaStrategy tabela : tabelas) {
+			FreteStrategy estrategia = registro.buscar(tabela.getTipoFrete());
+			assertSame(estrategia, registro.buscar("  " + tabela.getTipoFrete().toLowerCase() + "\t"));
+			assertEquals(tabela.calcularFrete(new BigDecimal("1234.56"), "01310-100", 2500),
+					estrategia.calcularFrete(new BigDecimal("1234.56"), "01310-100", 2500));
+		}
+		assertEquals(tabelas.stream().map(FreteStrategy::getTipoFrete).toList(), registro.getIndice().tipos());
+		assertFalse(registro.isTipoFreteSuportado("TERRESTRES"));
+		assertFalse(registro.isTipoFreteSuportado("AER"));
+		assertFalse(registro.isTipoFreteSuportado(" "));
+		assertFalse(registro.isTipoFreteSuportado(null));
+		assertThrows(IllegalArgumentException.class, () -> registro.buscar("MARITIMO"));
+		assertThrows(IllegalArgumentException.class, () -> registro.buscar(null));
+	}
+
+	@Test
+	void indiceRejeitaTiposRepetidos() {
+		FreteStrategy terrestre = registro(List.of()).buscar("TERRESTRE");
+		FreteStrategy outro = new FreteStrategy() {
+			@Override
+			public BigDecimal calcularFrete(BigDecimal valorPedido) {
+				return BigDecimal.ZERO;
+			}
+
+			@Override
+			public String getTipoFrete() {
+				return " terrestre";
+			}
+
+			@Override
+			public String getDescricao() {
+				return "Outro terrestre";
+			}
+		};
+
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+				() -> new IndiceTiposFrete(List.of(terrestre, outro)));
+		assertTrue(erro.getMessage().startsWith("Tipo de frete duplicado"));
+	}
+
+	@Test
+	void incluiBeansETabelasConfiguradas() throws IOException {
+		Path tabela = Files.writeString(diretorio.resolve("transportadoras.json"), EXPRESSO);
+		FreteStrategy retirada = new FreteStrategy() {
+			@Override
+			public BigDecimal calcularFrete(BigDecimal valorPedido) {
+				return new BigDecimal("0.00");
+			}
+
+			@Override
+			public String getTipoFrete() {
+				return "RETIRADA";
+			}
+
+			@Override
+			public String getDescricao() {
+				return "Retirada na loja";
+			}
+		};
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("retirada", retirada);
+
+		RegistroFrete registro = new RegistroFrete(new DefaultResourceLoader(), beans.getBeanProvider(FreteStrategy.class),
+				List.of(" " + tabela.toUri() + " "), 100);
+
+		assertEquals(List.of("TERRESTRE", "AEREO", "EXPRESSO", "RETIRADA"), registro.getIndice().tipos());
+		assertSame(retirada, registro.buscar("retirada"));
+		assertEquals("Frete expresso", registro.getIndice().descricoes().get("EXPRESSO"));
+		assertEquals(new BigDecimal("22.00"), registro.buscar("Expresso").calcularFrete(new BigDecimal("100.00")));
+	}
+
+	@Test
+	void recargaTrocaAsTabelasDeUmaVezEEsvaziaOCache() throws IOException {
+		Path tabela = Files.writeString(diretorio.resolve("transportadoras.json"), EXPRESSO);
+		RegistroFrete registro = registro(List.of(tabela.toUri().toString()));
+		IndiceTiposFrete anterior = registro.getIndice();
+		FreteStrategy expresso = registro.buscar("EXPRESSO");
+		assertEquals(new BigDecimal("22.00"), expresso.calcularFrete(new BigDecimal("100.00")));
+		assertTrue(registro.getCacheCotacoes().estimatedSize() > 0);
+
+		Files.writeString(tabela, MARITIMO);
+		IndiceTiposFrete novo = registro.recarregar();
+
+		assertSame(novo, registro.getIndice());
+		assertEquals(0, registro.getCacheCotacoes().estimatedSize());
+		assertEquals(List.of("TERRESTRE", "AEREO", "EXPRESSO", "MARITIMO"), novo.tipos());
+		assertEquals(new BigDecimal("27.00"), registro.buscar("EXPRESSO").calcularFrete(new BigDecimal("100.00")));
+		// Quem ficou com o índice ou a estratégia anterior continua com as regras antigas
+		assertEquals(List.of("TERRESTRE", "AEREO", "EXPRESSO"), anterior.tipos());
+		assertEquals(new BigDecimal("22.00"), expresso.calcularFrete(new BigDecimal("100.00")));
+
+		Files.writeString(tabela, "[{\"tipo\": \"QUEBRADO\"}]");
+		assertThrows(IllegalArgumentException.class, registro::recarregar);
+		assertSame(novo, registro.getIndice());
+
+		Files.delete(tabela);
+		assertThrows(UncheckedIOException.class, registro::recarregar);
+		assertSame(novo, registro.getIndice());
+	}
+
+	@Test
+	void semMemorizacaoUsaAsEstrategiasDeTabela() {
+		RegistroFrete registro = new RegistroFrete(new DefaultResourceLoader(),
+				new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class), List.of(), 0);
+
+		assertInstanceOf(FreteTabelaStrategy.class, registro.buscar("TERRESTRE"));
+		registro.buscar("TERRESTRE").calcularFrete(new BigDecimal("100.00"));
+		assertEquals(0, registro.getCacheCotacoes().estimatedSize());
+	}
+
+	static RegistroFrete registro(List<String> tabelasAdicionais) {
+		return new RegistroFrete(new DefaultResourceLoader(), new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class),
+				tabelasAdicionais, 10_000);
+	}
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CatalogoProdutosTest {
+
+	@Autowired
+	private CatalogoProdutos catalogoProdutos;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@SpyBean
+	private JdbcTemplate jdbcTemplate;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	void setUp() {
+		cliente = clienteRepository.save(new Cliente("Cliente Catálogo", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void criarPedidoPrecificaPeloCatalogoSemCarregarProdutos() {
+		Produto produto = produtoRepository.save(new Produto("Produto Catálogo", "Produto de teste", new BigDecimal("12.50"), 10));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		PedidoResponseDTO pedido = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 2))));
+
+		assertEquals(0, statistics.getEntityStatistics(Produto.class.getName()).getLoadCount());
+		assertEquals(0, new BigDecimal("25.00").compareTo(pedido.getValorTotal()));
+		assertEquals("Produto Catálogo", pedido.getItens().get(0).getNomeProduto());
+		assertEquals(8, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+	}
+
+	@Test
+	void alteracaoDePrecoEntraNoCatalogoAposCommit() {
+		Produto produto = produtoRepository.save(new Produto("Produto Reajuste", "Produto de teste", new BigDecimal("10.00"), 10));
+
+		produto.setPreco(new BigDecimal("15.00"));
+		produtoRepository.save(produto);
+
+		CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.atual();
+		assertEquals(0, new BigDecimal("15.00").compareTo(catalogo.preco(catalogo.indice(produto.getId()))));
+		PedidoResponseDTO pedido = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1))));
+		assertEquals(0, new BigDecimal("15.00").compareTo(pedido.getValorTotal()));
+	}
+
+	@Test
+	void alteracaoDesfeitaNaoEntraNoCatalogo() {
+		Produto produto = produtoRepository.save(new Produto("Produto Original", "Produto de teste", new BigDecimal("10.00"), 10));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Produto alterado = produtoRepository.findById(produto.getId()).orElseThrow();
+			alterado.setNome("Produto Alterado");
+			produtoRepository.saveAndFlush(alterado);
+			status.setRollbackOnly();
+		});
+
+		CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.atual();
+		assertEquals("Produto Original", catalogo.nome(catalogo.indice(produto.getId())));
+	}
+
+	@Test
+	void produtoForaDoCatalogoEhBuscadoUmaVez() {
+		Produto produto = produtoRepository.save(new Produto("Produto Externo", "Produto de teste", new BigDecimal("10.00"), 10));
+		catalogoProdutos.recarregar();
+		// Produto inserido por fora da aplicação (sem passar pelo listener), com ID fora da faixa gerada
+		Long externo = 1_000_000_000L + produto.getId();
+		entityManagerFactory.unwrap(SessionFactory.class).inTransaction(sessao -> sessao.createNativeMutationQuery(
+				"INSERT INTO produtos (id, nome, descricao, preco, estoque) VALUES (?1, 'Inserido no banco', 'Externo', 7.00, 5)")
+				.setParameter(1, externo)
+				.executeUpdate());
+		assertTrue(catalogoProdutos.atual().indice(externo) < 0);
+
+		CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.garantir(List.of(externo, -1L));
+
+		assertEquals("Inserido no banco", catalogo.nome(catalogo.indice(externo)));
+		assertTrue(catalogo.indice(-1L) < 0);
+		assertSame(catalogo, catalogoProdutos.garantir(List.of(externo, produto.getId())));
+	}
+
+	@Test
+	void recargaNaoBloqueiaAtualizacoesENaoPerdeAsPublicadasDuranteAConsulta() throws Exception {
+		Produto produto = produtoRepository.save(new Produto("Produto Recarga", "Produto de teste", new BigDecimal("10.00"), 10));
+		Produto publicado = new Produto("Produto Recarga", "Produto de teste", new BigDecimal("20.00"), 10);
+		publicado.setId(produto.getId());
+
+		// Durante a consulta da recarga, outra thread publica um preço que a consulta não vê
+		doAnswer(invocacao -> {
+			CompletableFuture.runAsync(() -> catalogoProdutos.atualizar(publicado)).get(5, TimeUnit.SECONDS);
+			CatalogoProdutos.Instantaneo durante = catalogoProdutos.atual();
+			assertEquals(0, new BigDecimal("20.00").compareTo(durante.preco(durante.indice(produto.getId()))));
+			return invocacao.callRealMethod();
+		}).when(jdbcTemplate).query(startsWith("SELECT id, nome, descricao, preco FROM produtos ORDER BY"), any(RowCallbackHandler.class));
+
+		catalogoProdutos.recarregar();
+
+		CatalogoProdutos.Instantaneo catalogo = catalogoProdutos.atual();
+		assertEquals(0, new BigDecimal("20.00").compareTo(catalogo.preco(catalogo.indice(produto.getId()))));
+	}
+
+	@Test
+	void conversaoComProdutosNoCatalogoNaoCriaNovoInstantaneo() {
+		Produto produto = produtoRepository.save(new Produto("Produto Conversão", "Produto de teste", new BigDecimal("10.00"), 10));
+		CatalogoProdutos.Instantaneo atual = catalogoProdutos.atual();
+
+		assertSame(atual, catalogoProdutos.garantir(List.of(produto, produto), Produto::getId));
+	}
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.dto.CotacaoFreteDTO;
+import com.ecommerce.system.dto.LoteCotacoesFreteDTO;
+import com.ecommerce.system.dto.SolicitacaoCotacaoFreteDTO;
+import com.ecommerce.system.factory.RegistroFrete;
+import com.ecommerce.system.strategy.FreteStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CotacaoFreteServiceTest {
+
+	@Test
+	void cotaTodosOsTiposOuApenasOInformado() {
+		RegistroFrete registro = registro();
+		CotacaoFreteService servico = servico(registro, 256);
+		LoteCotacoesFreteDTO lote = servico.cotarEmLote(List.of(
+				new SolicitacaoCotacaoFreteDTO(new BigDecimal("1000.00"), null, null, 0),
+				new SolicitacaoCotacaoFreteDTO(new BigDecimal("1000.00"), "aereo", "01310-100", 2500),
+				new SolicitacaoCotacaoFreteDTO(new BigDecimal("1000.00"), "MARITIMO", null, 0),
+				new SolicitacaoCotacaoFreteDTO(new BigDecimal("1000.00"), null, "123", 0),
+				new SolicitacaoCotacaoFreteDTO(BigDecimal.ZERO, null, null, 0)));
+
+		assertEquals(5, lote.getTotal());
+		assertEquals(3, lote.getRejeitadas());
+		List<CotacaoFreteDTO> todas = lote.getResultados().get(0).getCotacoes();
+		assertEquals(registro.getIndice().tipos(),
+				todas.stream().map(CotacaoFreteDTO::getTipoFrete).toList());
+		assertEquals(new BigDecimal("50.00"), todas.get(0).getValorFrete());
+		assertEquals(new BigDecimal("1050.00"), todas.get(0).getValorTotal());
+
+		List<CotacaoFreteDTO> aereo = lote.getResultados().get(1).getCotacoes();
+		assertEquals(1, aereo.size());
+		assertEquals(registro.buscar("AEREO").calcularFrete(new BigDecimal("1000.00"), "01310-100", 2500),
+				aereo.get(0).getValorFrete());
+
+		assertTrue(lote.getResultados().get(2).getErro().startsWith("Tipo de frete não suportado"));
+		assertTrue(lote.getResultados().get(3).getErro().startsWith("CEP inválido"));
+		assertFalse(lote.getResultados().get(4).isSucesso());
+	}
+
+	@Test
+	void loteParaleloIgualAoSequencial() {
+		Random random = new Random(7);
+		List<SolicitacaoCotacaoFreteDTO> solicitacoes = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			solicitacoes.add(new SolicitacaoCotacaoFreteDTO(BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2), null,
+					String.format("%05d-%03d", random.nextInt(100_000), random.nextInt(1000)), random.nextInt(40_000)));
+		}
+
+		List<LoteCotacoesFreteDTO.ResultadoCotacao> sequencial = servico(registro(), Integer.MAX_VALUE).cotarEmLote(solicitacoes).getResultados();
+		List<LoteCotacoesFreteDTO.ResultadoCotacao> paralelo = servico(registro(), 1).cotarEmLote(solicitacoes).getResultados();
+
+		for (int i = 0; i < solicitacoes.size(); i++) {
+			assertEquals(i, paralelo.get(i).getIndice());
+			assertEquals(sequencial.get(i).getCotacoes().stream().map(CotacaoFreteDTO::getValorFrete).toList(),
+					paralelo.get(i).getCotacoes().stream().map(CotacaoFreteDTO::getValorFrete).toList());
+		}
+	}
+
+	@Test
+	void rejeitaLoteAcimaDoMaximo() {
+		List<SolicitacaoCotacaoFreteDTO> solicitacoes = new ArrayList<>();
+		for (int i = 0; i <= CotacaoFreteService.TAMANHO_MAXIMO_LOTE; i++) {
+			solicitacoes.add(new SolicitacaoCotacaoFreteDTO(BigDecimal.TEN, null, null, 0));
+		}
+		assertThrows(IllegalArgumentException.class, () -> servico(registro(), 256).cotarEmLote(solicitacoes));
+	}
+
+	private static RegistroFrete registro() {
+		return new RegistroFrete(new DefaultResourceLoader(), new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class),
+				List.of(), 0);
+	}
+
+	private static CotacaoFreteService servico(RegistroFrete registro, int limiarParalelo) {
+		CotacaoFreteService servico = new CotacaoFreteService(registro);
+		ReflectionTestUtils.setField(servico, "limiarParalelo", limiarParalelo);
+		return servico;
+	}
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class EstoqueServiceTest {
+
+	private static final int COMPRADORES = 1000;
+	private static final int THREADS = 64;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	void setUp() {
+		String email = UUID.randomUUID() + "@email.com";
+		cliente = clienteRepository.save(new Cliente("Comprador", email, "(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void compradoresConcorrentesNuncaDeixamEstoqueNegativo() throws Exception {
+		int estoqueInicial = 100;
+		Produto produto = criarProduto(estoqueInicial);
+
+		Resultado resultado = comprarConcorrentemente(i -> List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+
+		assertTrue(resultado.erros.isEmpty(), () -> "Falhas inesperadas: " + resultado.erros);
+		assertEquals(estoqueInicial, resultado.sucessos.get());
+		assertEquals(COMPRADORES - estoqueInicial, resultado.semEstoque.get());
+		assertEquals(0, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+		assertEquals(estoqueInicial, quantidadeVendida(produto));
+	}
+
+	@Test
+	void carrinhosComProdutosEmOrdensDiferentesNaoEntramEmDeadlock() throws Exception {
+		Produto produtoA = criarProduto(COMPRADORES);
+		Produto produtoB = criarProduto(COMPRADORES);
+		CriarPedidoDTO.ItemPedidoDTO itemA = new CriarPedidoDTO.ItemPedidoDTO(produtoA.getId(), 1);
+		CriarPedidoDTO.ItemPedidoDTO itemB = new CriarPedidoDTO.ItemPedidoDTO(produtoB.getId(), 1);
+
+		Resultado resultado = comprarConcorrentemente(i -> i % 2 == 0 ? List.of(itemA, itemB) : List.of(itemB, itemA));
+
+		assertTrue(resultado.erros.isEmpty(), () -> "Falhas inesperadas: " + resultado.erros);
+		assertEquals(COMPRADORES, resultado.sucessos.get());
+		assertEquals(0, produtoRepository.findById(produtoA.getId()).orElseThrow().getEstoque());
+		assertEquals(0, produtoRepository.findById(produtoB.getId()).orElseThrow().getEstoque());
+	}
+
+	private Resultado comprarConcorrentemente(IntFunction<List<CriarPedidoDTO.ItemPedidoDTO>> carrinho)
+			throws Exception {
+		Resultado resultado = new Resultado();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> compras = new ArrayList<>();
+			for (int i = 0; i < COMPRADORES; i++) {
+				List<CriarPedidoDTO.ItemPedidoDTO> itens = carrinho.apply(i);
+				compras.add(executor.submit(() -> {
+					largada.await();
+					try {
+						pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens));
+						resultado.sucessos.incrementAndGet();
+					} catch (RuntimeException e) {
+						if (e.getMessage() != null && e.getMessage().startsWith("Estoque insuficiente")) {
+							resultado.semEstoque.incrementAndGet();
+						} else {
+							resultado.erros.add(e.toString());
+						}
+					}
+					return null;
+				}));
+			}
+
+			largada.countDown();
+			for (Future<?> compra : compras) {
+				compra.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return resultado;
+	}
+
+	private Produto criarProduto(int estoque) {
+		return produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto concorrido",
+				new BigDecimal("99.90"), estoque));
+	}
+
+	private int quantidadeVendida(Produto produto) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(quantidade), 0) FROM itens_pedido WHERE produto_id = ?", Integer.class, produto.getId());
+	}
+
+	private static class Resultado {
+		final AtomicInteger sucessos = new AtomicInteger();
+		final AtomicInteger semEstoque = new AtomicInteger();
+		final ConcurrentLinkedQueue<String> erros = new ConcurrentLinkedQueue<>();
+	}
+}
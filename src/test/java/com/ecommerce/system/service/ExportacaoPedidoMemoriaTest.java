@@ -0,0 +1,99 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exporta um volume grande de pedidos sintéticos com heap reduzido.
+ * Roda em uma execução própria do Surefire com -Xmx pequeno (ver pom.xml) e com o H2 em
+ * arquivo, para que os dados não ocupem o heap: se a exportação acumulasse o resultado em
+ * memória, o teste terminaria em OutOfMemoryError.
+ * A quantidade pode ser alterada com -Dexportacao.pedidos=N.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+		"spring.jpa.show-sql=false",
+		"spring.datasource.url=jdbc:h2:file:./target/exportacao-pedidos;DB_CLOSE_ON_EXIT=FALSE",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ExportacaoPedidoMemoriaTest {
+
+	private static final int PEDIDOS = Integer.getInteger("exportacao.pedidos", 1_000_000);
+	private static final int LOTE_INSERCAO = 100_000;
+
+	@Autowired
+	private ExportacaoPedidoService exportacaoPedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void exportaMilhaoDePedidosEmMemoriaConstante() throws Exception {
+		Cliente cliente = clienteRepository.save(new Cliente("Cliente Exportação", "exportacao@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+		Produto produto = produtoRepository.save(new Produto("Produto Exportação", "Produto de teste",
+				new BigDecimal("10.00"), 1000));
+		inserirPedidosSinteticos(cliente.getId(), produto.getId());
+
+		ContadorLinhas ndjson = new ContadorLinhas();
+		assertEquals(PEDIDOS, exportacaoPedidoService.exportar(ExportacaoPedidoService.Formato.NDJSON, ndjson));
+		assertEquals(PEDIDOS, ndjson.linhas);
+
+		ContadorLinhas csv = new ContadorLinhas();
+		assertEquals(PEDIDOS, exportacaoPedidoService.exportar(ExportacaoPedidoService.Formato.CSV, csv));
+		// cabeçalho + um item por pedido
+		assertEquals(PEDIDOS + 1, csv.linhas);
+	}
+
+	private void inserirPedidosSinteticos(Long clienteId, Long produtoId) {
+		for (int inicio = 1; inicio <= PEDIDOS; inicio += LOTE_INSERCAO) {
+			int fim = Math.min(inicio + LOTE_INSERCAO - 1, PEDIDOS);
+			jdbcTemplate.update("INSERT INTO pedidos (id, numero_pedido, valor_total, data_criacao, status, cliente_id, valor_frete, tipo_frete) "
+					+ "SELECT X, CONCAT('EXP', X), 20.00, TIMESTAMP '2024-01-01 00:00:00', ?, ?, 5.00, 'TERRESTRE' "
+					+ "FROM SYSTEM_RANGE(?, ?)", StatusPedido.AGUARDANDO_PAGAMENTO.getCodigo(), clienteId, inicio, fim);
+			jdbcTemplate.update("INSERT INTO itens_pedido (id, pedido_id, produto_id, quantidade, preco_unitario, subtotal) "
+					+ "SELECT X, X, ?, 2, 10.00, 20.00 FROM SYSTEM_RANGE(?, ?)", produtoId, inicio, fim);
+		}
+	}
+
+	/**
+	 * Descarta a saída, contando apenas as quebras de linha.
+	 */
+	private static class ContadorLinhas extends OutputStream {
+
+		private long linhas;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n') {
+				linhas++;
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				if (b[i] == '\n') {
+					linhas++;
+				}
+			}
+		}
+	}
+}
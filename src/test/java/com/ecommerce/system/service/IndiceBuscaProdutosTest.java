@@ -0,0 +1,143 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.ResultadoBuscaProdutosDTO;
+import com.ecommerce.system.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class IndiceBuscaProdutosTest {
+
+	@Autowired
+	private IndiceBuscaProdutos indiceBuscaProdutos;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	// Palavras únicas por teste, para não encontrar produtos de outros testes
+	private String marca;
+	private String modelo;
+
+	@BeforeEach
+	void setUp() {
+		String sufixo = UUID.randomUUID().toString().replace("-", "").replaceAll("[0-9]", "");
+		marca = "marca" + sufixo;
+		modelo = "modelo" + sufixo;
+	}
+
+	@Test
+	void buscaExigeTodasAsPalavrasEOrdenaPeloNomeAntesDaDescricao() {
+		Produto naDescricao = salvar("Camiseta", "Camiseta da " + marca + " " + modelo);
+		Produto noNome = salvar("Camiseta " + marca + " " + modelo, "Algodão");
+		salvar("Camiseta " + marca, "Sem o modelo");
+
+		ResultadoBuscaProdutosDTO resultado = indiceBuscaProdutos.buscar(marca + " " + modelo, 0, 10);
+
+		assertEquals(2, resultado.getTotal());
+		assertEquals(List.of(noNome.getId(), naDescricao.getId()), ids(resultado));
+		assertEquals("Algodão", resultado.getProdutos().get(0).getDescricao());
+		assertEquals(0, new BigDecimal("10.00").compareTo(resultado.getProdutos().get(0).getPreco()));
+		assertTrue(resultado.getProdutos().get(0).getRelevancia() > resultado.getProdutos().get(1).getRelevancia());
+	}
+
+	@Test
+	void ultimaPalavraValeComoPrefixoEIgnoraAcentosEMaiusculas() {
+		Produto produto = salvar("Tênis " + marca.toUpperCase(), "Corrida");
+
+		assertEquals(List.of(produto.getId()), ids(indiceBuscaProdutos.buscar("TENIS " + marca.substring(0, 8), 0, 10)));
+		assertEquals(List.of(produto.getId()), ids(indiceBuscaProdutos.buscar(marca + " corr", 0, 10)));
+		// Só a última palavra completa
+		assertEquals(0, indiceBuscaProdutos.buscar(marca.substring(0, 8) + " corrida", 0, 10).getTotal());
+	}
+
+	@Test
+	void paginaPelaRelevanciaComEmpatePeloId() {
+		Produto primeiro = salvar("Caneca " + marca, "Porcelana");
+		Produto segundo = salvar("Caneca " + marca, "Porcelana");
+		Produto terceiro = salvar("Caneca " + marca, "Porcelana");
+
+		ResultadoBuscaProdutosDTO primeiraPagina = indiceBuscaProdutos.buscar(marca, 0, 2);
+		ResultadoBuscaProdutosDTO segundaPagina = indiceBuscaProdutos.buscar(marca, 1, 2);
+
+		assertEquals(3, primeiraPagina.getTotal());
+		assertEquals(List.of(primeiro.getId(), segundo.getId()), ids(primeiraPagina));
+		assertEquals(List.of(terceiro.getId()), ids(segundaPagina));
+	}
+
+	@Test
+	void alteracaoERemocaoEntramNoIndiceAposCommit() {
+		Produto produto = salvar("Mochila " + marca, "Escolar");
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Produto gerenciado = produtoRepository.findById(produto.getId()).orElseThrow();
+			gerenciado.setNome("Mochila " + modelo);
+			produtoRepository.save(gerenciado);
+			produtoRepository.flush();
+			assertEquals(1, indiceBuscaProdutos.buscar(marca, 0, 10).getTotal());
+		});
+		assertEquals(0, indiceBuscaProdutos.buscar(marca, 0, 10).getTotal());
+		assertEquals(List.of(produto.getId()), ids(indiceBuscaProdutos.buscar(modelo, 0, 10)));
+
+		produtoRepository.deleteById(produto.getId());
+		assertEquals(0, indiceBuscaProdutos.buscar(modelo, 0, 10).getTotal());
+	}
+
+	@Test
+	void versoesAntigasDeProdutosRenomeadosNaoContamNaFrequenciaDasPalavras() {
+		Produto produto = salvar("Mochila " + marca + " " + modelo, "Versão 0");
+		// Mais versões removidas do que produtos no índice, sem chegar à compactação
+		int versoes = indiceBuscaProdutos.getQuantidadeProdutos() + 2;
+		for (int versao = 1; versao <= versoes; versao++) {
+			produto.setDescricao("Versão " + versao);
+			produto = produtoRepository.save(produto);
+		}
+
+		ResultadoBuscaProdutosDTO resultado = indiceBuscaProdutos.buscar(marca + " " + modelo, 0, 10);
+
+		assertEquals(List.of(produto.getId()), ids(resultado));
+		assertTrue(resultado.getProdutos().get(0).getRelevancia() > 0);
+		assertEquals(List.of(produto.getId()), ids(indiceBuscaProdutos.buscar("mochila " + marca, 0, 10)));
+	}
+
+	@Test
+	void sugereAsPalavrasMaisFrequentesComOPrefixo() {
+		salvar("Garrafa " + marca + "azul", "Térmica");
+		salvar("Garrafa " + marca + "azul", "Térmica");
+		salvar("Garrafa " + marca + "verde", "Térmica");
+
+		assertEquals(List.of("garrafa " + marca + "azul", "garrafa " + marca + "verde"),
+				indiceBuscaProdutos.sugerir("Garrafa " + marca, 10));
+		assertEquals(List.of(marca + "azul"), indiceBuscaProdutos.sugerir(marca, 1));
+		assertEquals(List.of(), indiceBuscaProdutos.sugerir(" ", 10));
+	}
+
+	@Test
+	void rejeitaConsultaSemPalavrasEPaginacaoForaDosLimites() {
+		assertThrows(IllegalArgumentException.class, () -> indiceBuscaProdutos.buscar("  -- ", 0, 10));
+		assertThrows(IllegalArgumentException.class, () -> indiceBuscaProdutos.buscar(marca, 0, 101));
+		assertThrows(IllegalArgumentException.class, () -> indiceBuscaProdutos.buscar(marca, 100, 100));
+		assertThrows(IllegalArgumentException.class, () -> indiceBuscaProdutos.sugerir(marca, 0));
+	}
+
+	private Produto salvar(String nome, String descricao) {
+		return produtoRepository.save(new Produto(nome, descricao, new BigDecimal("10.00"), 10));
+	}
+
+	private static List<Long> ids(ResultadoBuscaProdutosDTO resultado) {
+		return resultado.getProdutos().stream().map(ResultadoBuscaProdutosDTO.ProdutoEncontrado::getId).toList();
+	}
+}
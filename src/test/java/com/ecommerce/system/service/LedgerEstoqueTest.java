@@ -0,0 +1,127 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"estoque.ledger.enabled=true",
+		"estoque.ledger.intervalo-escrita-ms=50"
+})
+class LedgerEstoqueTest {
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private LedgerEstoque ledgerEstoque;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	void setUp() {
+		String email = UUID.randomUUID() + "@email.com";
+		cliente = clienteRepository.save(new Cliente("Comprador", email, "(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void reservasConcorrentesRespeitamSaldoEGravamNoBanco() throws Exception {
+		int estoqueInicial = 100;
+		Produto produto = criarProduto(estoqueInicial);
+		AtomicInteger sucessos = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		try {
+			List<Future<?>> compras = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				compras.add(executor.submit(() -> {
+					largada.await();
+					try {
+						pedidoService.criarPedido(carrinho(produto, 1));
+						sucessos.incrementAndGet();
+					} catch (RuntimeException e) {
+						assertTrue(e.getMessage().startsWith("Estoque insuficiente"), e.getMessage());
+					}
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> compra : compras) {
+				compra.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(estoqueInicial, sucessos.get());
+		assertEquals(0, ledgerEstoque.consultarDisponivel(produto.getId()));
+
+		ledgerEstoque.escreverAjustesPendentes();
+		assertEquals(0, estoqueNoBanco(produto));
+	}
+
+	@Test
+	void pedidoRecusadoLiberaReservasJaFeitas() {
+		Produto comEstoque = criarProduto(10);
+		Produto semEstoque = criarProduto(1);
+
+		assertThrows(RuntimeException.class, () -> pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "AEREO",
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(comEstoque.getId(), 5),
+						new CriarPedidoDTO.ItemPedidoDTO(semEstoque.getId(), 2)))));
+
+		assertEquals(10, ledgerEstoque.consultarDisponivel(comEstoque.getId()));
+		assertEquals(1, ledgerEstoque.consultarDisponivel(semEstoque.getId()));
+	}
+
+	@Test
+	void cancelamentoDevolveSaldoAoLedgerEAoBanco() {
+		Produto produto = criarProduto(10);
+		PedidoResponseDTO pedido = pedidoService.criarPedido(carrinho(produto, 4));
+		assertEquals(6, ledgerEstoque.consultarDisponivel(produto.getId()));
+
+		pedidoService.cancelarPedido(pedido.getId());
+		assertEquals(10, ledgerEstoque.consultarDisponivel(produto.getId()));
+
+		ledgerEstoque.escreverAjustesPendentes();
+		assertEquals(10, estoqueNoBanco(produto));
+	}
+
+	private CriarPedidoDTO carrinho(Produto produto, int quantidade) {
+		return new CriarPedidoDTO(cliente.getId(), "TERRESTRE", List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), quantidade)));
+	}
+
+	private Produto criarProduto(int estoque) {
+		return produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto em promoção",
+				new BigDecimal("49.90"), estoque));
+	}
+
+	private int estoqueNoBanco(Produto produto) {
+		return produtoRepository.findById(produto.getId()).orElseThrow().getEstoque();
+	}
+}
@@ -0,0 +1,181 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.EventoPedidoDTO;
+import com.ecommerce.system.state.OperacaoPedido;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogEventosPedidoTest {
+
+	private static final long DATA = 1_700_000_000_123L;
+
+	@TempDir
+	Path diretorio;
+
+	@Test
+	void reproduzEmOrdemAtravessandoOsSegmentos() {
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, 1024)) {
+			for (long sequencia = 1; sequencia <= 100; sequencia++) {
+				assertEquals(sequencia, log.anexar(sequencia, "PED" + sequencia, null, null,
+						StatusPedido.AGUARDANDO_PAGAMENTO, DATA));
+			}
+			assertEquals(101, log.anexar(7, "PED7", OperacaoPedido.PAGAR, StatusPedido.AGUARDANDO_PAGAMENTO,
+					StatusPedido.PAGO, DATA));
+			log.sincronizar();
+			assertTrue(log.getQuantidadeSegmentos() > 1);
+
+			List<Long> sequencias = new ArrayList<>();
+			assertEquals(101, log.reproduzir(1, evento -> sequencias.add(evento.getSequencia())));
+			assertEquals(1L, sequencias.get(0));
+			assertEquals(101L, sequencias.get(100));
+			for (int i = 1; i < sequencias.size(); i++) {
+				assertEquals(sequencias.get(i - 1) + 1, sequencias.get(i));
+			}
+
+			List<String> ultimos = new ArrayList<>();
+			assertEquals(2, log.reproduzir(100, evento -> ultimos.add(evento.getNumeroPedido() + " "
+					+ evento.getOperacao() + " " + evento.getStatusAnterior() + " " + evento.getStatusNovo())));
+			assertEquals(List.of("PED100 null null AGUARDANDO_PAGAMENTO", "PED7 PAGAR AGUARDANDO_PAGAMENTO PAGO"), ultimos);
+			log.reproduzir(101, evento -> assertEquals(LocalDateTime.of(2023, 11, 14, 22, 13, 20, 123_000_000),
+					evento.getDataEvento()));
+		}
+	}
+
+	@Test
+	void reaberturaDescartaGravacaoInterrompidaEContinuaDepoisDoUltimoEvento() throws IOException {
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, 4096)) {
+			for (long sequencia = 1; sequencia <= 10; sequencia++) {
+				log.anexar(sequencia, "PED" + sequencia, null, null, StatusPedido.AGUARDANDO_PAGAMENTO, DATA);
+			}
+		}
+		// Simula uma queda no meio da gravação do último registro: parte do conteúdo não chegou ao disco
+		Path segmento;
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			segmento = arquivos.findFirst().orElseThrow();
+		}
+		try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer conteudo = ByteBuffer.allocate(4096);
+			canal.read(conteudo, 0);
+			int posicao = 0;
+			for (int i = 0; i < 9; i++) {
+				posicao += 8 + conteudo.getInt(posicao);
+			}
+			long fimDoUltimo = posicao + 8 + conteudo.getInt(posicao);
+			canal.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0}), fimDoUltimo - 4);
+		}
+
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, 4096)) {
+			assertEquals(9, log.getUltimaSequencia());
+			assertEquals(10, log.anexar(10, "PED10", null, null, StatusPedido.AGUARDANDO_PAGAMENTO, DATA));
+			assertEquals(11, log.anexar(11, "PED11", null, null, StatusPedido.AGUARDANDO_PAGAMENTO, DATA));
+		}
+		try (LogEventosPedido log = new LogEventosPedido(diretorio, 4096)) {
+			List<Long> pedidos = new ArrayList<>();
+			assertEquals(11, log.reproduzir(1, evento -> pedidos.add(evento.getPedidoId())));
+			assertEquals(List.of(9L, 10L, 11L), pedidos.subList(8, 11));
+		}
+	}
+
+	@Test
+	void historicoRecuperaDoSnapshotEDosEventosPosteriores() throws IOException {
+		HistoricoPedidos historico = new HistoricoPedidos(diretorio, 64 * 1024, 100);
+		List<EventoPedidoDTO> eventos = new ArrayList<>();
+		long sequencia = 0;
+		for (long pedido = 1; pedido <= 100; pedido++) {
+			eventos.add(evento(++sequencia, pedido, null, null, "AGUARDANDO_PAGAMENTO"));
+			eventos.add(evento(++sequencia, pedido, "PAGAR", "AGUARDANDO_PAGAMENTO", "PAGO"));
+			if (pedido % 4 == 0) {
+				eventos.add(evento(++sequencia, pedido, "CANCELAR", "PAGO", "CANCELADO"));
+			}
+		}
+		for (int i = 0; i < eventos.size(); i += 30) {
+			historico.publicar(eventos.subList(i, Math.min(i + 30, eventos.size())));
+		}
+		// Reentrega de um lote já publicado
+		historico.publicar(eventos.subList(0, 30));
+		Map<StatusPedido, Long> esperado = Map.of(StatusPedido.AGUARDANDO_PAGAMENTO, 0L, StatusPedido.PAGO, 75L,
+				StatusPedido.ENVIADO, 0L, StatusPedido.CANCELADO, 25L);
+		assertEquals(esperado, historico.contagemPorStatus());
+		// Sem fechar: a recuperação parte do último snapshot periódico e reproduz o restante do log
+
+		HistoricoPedidos recuperado = new HistoricoPedidos(diretorio, 64 * 1024, 100);
+		assertEquals(esperado, recuperado.contagemPorStatus());
+		assertEquals(StatusPedido.CANCELADO, recuperado.status(4));
+		assertEquals(StatusPedido.PAGO, recuperado.status(5));
+		assertNull(recuperado.status(101));
+		assertEquals(sequencia, recuperado.getUltimaSequencia());
+
+		// Snapshot mais recente corrompido: vale o anterior, com mais eventos reproduzidos
+		List<Path> snapshots;
+		try (Stream<Path> arquivos = Files.list(diretorio)) {
+			snapshots = arquivos.filter(arquivo -> arquivo.getFileName().toString().startsWith("snapshot-")).sorted().toList();
+		}
+		assertEquals(2, snapshots.size());
+		Path maisRecente = snapshots.get(1);
+		byte[] conteudo = Files.readAllBytes(maisRecente);
+		conteudo[conteudo.length / 2] ^= 1;
+		Files.write(maisRecente, conteudo);
+		assertEquals(esperado, new HistoricoPedidos(diretorio, 64 * 1024, 100).contagemPorStatus());
+	}
+
+	@Test
+	void eventosForaDaOrdemDosIdsDoOutboxNaoSaoDescartados() {
+		HistoricoPedidos historico = new HistoricoPedidos(diretorio, 64 * 1024, 0);
+		// O relay já publicou os IDs 2 e 3 quando a transação do ID 1 é efetivada
+		historico.publicar(List.of(evento(2, 2, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(3, 2, "PAGAR", "AGUARDANDO_PAGAMENTO", "PAGO")));
+		historico.publicar(List.of(evento(1, 1, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(4, 1, "CANCELAR", "AGUARDANDO_PAGAMENTO", "CANCELADO")));
+		// Reentrega do primeiro lote, cuja remoção do outbox falhou
+		historico.publicar(List.of(evento(2, 2, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(3, 2, "PAGAR", "AGUARDANDO_PAGAMENTO", "PAGO")));
+
+		assertEquals(4, historico.getUltimaSequencia());
+		assertEquals(StatusPedido.CANCELADO, historico.status(1));
+		assertEquals(StatusPedido.PAGO, historico.status(2));
+		List<Long> pedidos = new ArrayList<>();
+		historico.reproduzir(1, evento -> pedidos.add(evento.getPedidoId()));
+		assertEquals(List.of(2L, 2L, 1L, 1L), pedidos);
+	}
+
+	@Test
+	void reaberturaComOsIdsDoOutboxRecomecandoGravaOsNovosEventos() {
+		HistoricoPedidos historico = new HistoricoPedidos(diretorio, 64 * 1024, 0);
+		historico.publicar(List.of(evento(1, 1, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(2, 2, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(3, 1, "PAGAR", "AGUARDANDO_PAGAMENTO", "PAGO")));
+		historico.fechar();
+
+		// Banco recriado: a identidade do outbox volta a 1, e o log continua da sequência 3
+		HistoricoPedidos reaberto = new HistoricoPedidos(diretorio, 64 * 1024, 0);
+		reaberto.publicar(List.of(evento(1, 10, null, null, "AGUARDANDO_PAGAMENTO"),
+				evento(2, 10, "PAGAR", "AGUARDANDO_PAGAMENTO", "PAGO")));
+
+		assertEquals(5, reaberto.getUltimaSequencia());
+		assertEquals(StatusPedido.PAGO, reaberto.status(10));
+		assertEquals(StatusPedido.PAGO, reaberto.status(1));
+		reaberto.fechar();
+		HistoricoPedidos recuperado = new HistoricoPedidos(diretorio, 64 * 1024, 0);
+		assertEquals(Map.of(StatusPedido.AGUARDANDO_PAGAMENTO, 1L, StatusPedido.PAGO, 2L,
+				StatusPedido.ENVIADO, 0L, StatusPedido.CANCELADO, 0L), recuperado.contagemPorStatus());
+	}
+
+	private static EventoPedidoDTO evento(long id, long pedido, String operacao, String anterior, String novo) {
+		return new EventoPedidoDTO(id, pedido, "PED" + pedido, operacao, anterior, novo, LocalDateTime.now());
+	}
+}
@@ -0,0 +1,166 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.EstatisticasPedidosDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.state.OperacaoPedido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class PainelVendasTest {
+
+	@Autowired
+	private PainelVendas painelVendas;
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	void setUp() {
+		// O contexto é compartilhado com outras classes de teste: parte do que já está no banco
+		painelVendas.reconstruir();
+		cliente = clienteRepository.save(new Cliente("Cliente Painel", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void agregadosIncrementaisCoincidemComAReconstrucao() {
+		Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+				new BigDecimal("100.00"), 100));
+		EstatisticasPedidosDTO antes = painelVendas.consultar(60, 24);
+
+		PedidoResponseDTO pago = criar(produto, "AEREO", 1);
+		PedidoResponseDTO cancelado = criar(produto, "AEREO", 2);
+		PedidoResponseDTO enviado = criar(produto, "TERRESTRE", 3);
+		pedidoService.pagarPedido(pago.getId());
+		pedidoService.cancelarPedido(cancelado.getId());
+		pedidoService.transicionarEmLote(OperacaoPedido.PAGAR, List.of(enviado.getId()));
+		pedidoService.transicionarEmLote(OperacaoPedido.ENVIAR, List.of(enviado.getId()));
+
+		EstatisticasPedidosDTO depois = painelVendas.consultar(60, 24);
+		assertEquals(1, depois.getPorStatus().get("PAGO").getPedidos() - antes.getPorStatus().get("PAGO").getPedidos());
+		assertEquals(1, depois.getPorStatus().get("CANCELADO").getPedidos() - antes.getPorStatus().get("CANCELADO").getPedidos());
+		assertEquals(1, depois.getPorStatus().get("ENVIADO").getPedidos() - antes.getPorStatus().get("ENVIADO").getPedidos());
+		assertEquals(0, depois.getPorStatus().get("AGUARDANDO_PAGAMENTO").getPedidos()
+				- antes.getPorStatus().get("AGUARDANDO_PAGAMENTO").getPedidos());
+		// O pedido cancelado sai do tipo de frete e do minuto em que foi criado
+		assertEquals(2, depois.getNaoCancelados().getPedidos() - antes.getNaoCancelados().getPedidos());
+		assertEquals(0, new BigDecimal("400.00").compareTo(
+				depois.getNaoCancelados().getValorTotal().subtract(antes.getNaoCancelados().getValorTotal())));
+		assertEquals(2, somaMinutos(depois) - somaMinutos(antes));
+
+		String incremental = resumo(depois);
+		painelVendas.reconstruir();
+		assertEquals(resumo(painelVendas.consultar(60, 24)), incremental);
+	}
+
+	@Test
+	void cancelamentoDePedidoAnteriorAJanelaCoincideComAReconstrucao() {
+		Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+				new BigDecimal("100.00"), 100));
+		PedidoResponseDTO antigo = criar(produto, "TERRESTRE", 1);
+		jdbcTemplate.update("UPDATE pedidos SET data_criacao = ? WHERE id = ?",
+				Timestamp.valueOf(LocalDateTime.now().minusDays(40)), antigo.getId());
+		painelVendas.reconstruir();
+		EstatisticasPedidosDTO antes = painelVendas.consultar(60, PainelVendas.HORAS_NA_JANELA);
+
+		pedidoService.cancelarPedido(antigo.getId());
+
+		EstatisticasPedidosDTO depois = painelVendas.consultar(60, PainelVendas.HORAS_NA_JANELA);
+		// Sai dos não cancelados, mas não das janelas, em que ele não estava
+		assertEquals(-1, depois.getNaoCancelados().getPedidos() - antes.getNaoCancelados().getPedidos());
+		assertEquals(0, new BigDecimal("-100.00").compareTo(
+				depois.getNaoCancelados().getValorTotal().subtract(antes.getNaoCancelados().getValorTotal())));
+		assertEquals(intervalos(antes.getPorHora()), intervalos(depois.getPorHora()));
+
+		String incremental = resumo(depois);
+		painelVendas.reconstruir();
+		assertEquals(resumo(painelVendas.consultar(60, PainelVendas.HORAS_NA_JANELA)), incremental);
+	}
+
+	@Test
+	void pedidoRecusadoNaoAlteraOsAgregados() {
+		Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+				new BigDecimal("10.00"), 1));
+		String antes = resumo(painelVendas.consultar(60, 24));
+
+		assertThrows(RuntimeException.class, () -> criar(produto, "TERRESTRE", 2));
+
+		assertEquals(antes, resumo(painelVendas.consultar(60, 24)));
+	}
+
+	@Test
+	void consultarRejeitaIntervalosForaDaJanela() {
+		assertThrows(IllegalArgumentException.class, () -> painelVendas.consultar(PainelVendas.MINUTOS_NA_JANELA + 1, 24));
+		assertThrows(IllegalArgumentException.class, () -> painelVendas.consultar(60, -1));
+
+		EstatisticasPedidosDTO estatisticas = painelVendas.consultar(PainelVendas.MINUTOS_NA_JANELA, PainelVendas.HORAS_NA_JANELA);
+		assertEquals(PainelVendas.MINUTOS_NA_JANELA, estatisticas.getPorMinuto().size());
+		assertEquals(PainelVendas.HORAS_NA_JANELA, estatisticas.getPorHora().size());
+	}
+
+	private PedidoResponseDTO criar(Produto produto, String tipoFrete, int quantidade) {
+		return pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), tipoFrete,
+				List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), quantidade))));
+	}
+
+	private static long somaMinutos(EstatisticasPedidosDTO estatisticas) {
+		return estatisticas.getPorMinuto().stream().mapToLong(EstatisticasPedidosDTO.Totais::getPedidos).sum();
+	}
+
+	// Valores comparáveis entre duas consultas: sem o instante da consulta e só os intervalos com
+	// pedidos, para não depender de a janela ter avançado um minuto entre elas
+	private static String resumo(EstatisticasPedidosDTO estatisticas) {
+		return "naoCancelados=" + totais(estatisticas.getNaoCancelados())
+				+ " status=" + totais(estatisticas.getPorStatus())
+				+ " tipos=" + totais(estatisticas.getPorTipoFrete())
+				+ " minutos=" + intervalos(estatisticas.getPorMinuto())
+				+ " horas=" + intervalos(estatisticas.getPorHora());
+	}
+
+	private static List<String> intervalos(List<EstatisticasPedidosDTO.Intervalo> intervalos) {
+		return intervalos.stream()
+				.filter(intervalo -> intervalo.getPedidos() != 0)
+				.map(intervalo -> intervalo.getInicio() + ":" + totais(intervalo))
+				.toList();
+	}
+
+	private static String totais(Map<String, EstatisticasPedidosDTO.Totais> totais) {
+		return totais.entrySet().stream()
+				.map(entrada -> entrada.getKey() + "=" + totais(entrada.getValue()))
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+	private static String totais(EstatisticasPedidosDTO.Totais totais) {
+		return totais.getPedidos() + "/" + totais.getValorTotal() + "/" + totais.getValorFrete();
+	}
+}
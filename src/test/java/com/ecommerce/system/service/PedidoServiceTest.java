@@ -0,0 +1,365 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.ContadorComandosSql;
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.LotePedidosResponseDTO;
+import com.ecommerce.system.dto.LoteTransicoesResponseDTO;
+import com.ecommerce.system.dto.PaginaDTO;
+import com.ecommerce.system.dto.PedidoResponseDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.state.OperacaoPedido;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ContadorComandosSql.class)
+class PedidoServiceTest {
+
+	@Autowired
+	private PedidoService pedidoService;
+
+	@Autowired
+	private ClienteRepository clienteRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ContadorComandosSql contadorComandosSql;
+
+	private Cliente cliente;
+
+	@BeforeEach
+	void setUp() {
+		String email = UUID.randomUUID() + "@email.com";
+		cliente = clienteRepository.save(new Cliente("Cliente Teste", email, "(11) 90000-0000", "Rua Teste, 1"));
+	}
+
+	@Test
+	void criarPedidoAgrupaLinhasDoMesmoProdutoEAtualizaEstoque() {
+		Produto produto = criarProduto(new BigDecimal("10.00"), 10);
+
+		PedidoResponseDTO pedido = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE", List.of(
+				new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 3),
+				new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 4))));
+
+		assertEquals(2, pedido.getItens().size());
+		assertEquals(0, new BigDecimal("70.00").compareTo(pedido.getValorTotal()));
+		assertEquals(3, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+	}
+
+	@Test
+	void criarPedidoComEstoqueInsuficienteNaoAlteraNenhumProduto() {
+		Produto comEstoque = criarProduto(new BigDecimal("10.00"), 10);
+		Produto semEstoque = criarProduto(new BigDecimal("10.00"), 1);
+
+		RuntimeException erro = assertThrows(RuntimeException.class, () -> pedidoService.criarPedido(
+				new CriarPedidoDTO(cliente.getId(), "AEREO", List.of(
+						new CriarPedidoDTO.ItemPedidoDTO(comEstoque.getId(), 5),
+						new CriarPedidoDTO.ItemPedidoDTO(semEstoque.getId(), 1),
+						new CriarPedidoDTO.ItemPedidoDTO(semEstoque.getId(), 1)))));
+
+		assertEquals("Estoque insuficiente para o produto: " + semEstoque.getNome(), erro.getMessage());
+		assertEquals(10, produtoRepository.findById(comEstoque.getId()).orElseThrow().getEstoque());
+		assertEquals(1, produtoRepository.findById(semEstoque.getId()).orElseThrow().getEstoque());
+	}
+
+	@Test
+	void criarPedidoComProdutoInexistenteFalha() {
+		RuntimeException erro = assertThrows(RuntimeException.class, () -> pedidoService.criarPedido(
+				new CriarPedidoDTO(cliente.getId(), "AEREO", List.of(new CriarPedidoDTO.ItemPedidoDTO(-1L, 1)))));
+
+		assertEquals("Produto não encontrado: -1", erro.getMessage());
+	}
+
+	@Test
+	void listarPercorrePaginasPorCursorSemRepetirPedidos() {
+		Produto produto = criarProduto(new BigDecimal("10.00"), 100);
+		List<Long> criados = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			criados.add(0, pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE",
+					List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)))).getId());
+		}
+		pedidoService.pagarPedido(criados.get(0));
+
+		List<Long> listados = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaDTO<PedidoResponseDTO> pagina = pedidoService.listar(null, cliente.getId(), cursor, 3);
+			assertTrue(pagina.getItens().size() <= 3);
+			pagina.getItens().forEach(pedido -> listados.add(pedido.getId()));
+			cursor = pagina.getProximoCursor();
+		} while (cursor != null);
+
+		assertEquals(criados, listados);
+
+		PaginaDTO<PedidoResponseDTO> pagos = pedidoService.listar(StatusPedido.PAGO, cliente.getId(), null, 10);
+		assertEquals(List.of(criados.get(0)), pagos.getItens().stream().map(PedidoResponseDTO::getId).toList());
+		assertFalse(pagos.isTemMais());
+	}
+
+	@Test
+	void listarRejeitaCursorInvalido() {
+		assertThrows(IllegalArgumentException.class, () -> pedidoService.listar(null, null, "cursor-invalido", 10));
+		assertThrows(IllegalArgumentException.class, () -> pedidoService.listar(null, null, null, 0));
+	}
+
+	@Test
+	void buscarPorIdUsaCacheAteATransicaoDoPedido() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Long id = pedidoService.criarPedido(criarCarrinho(2, 1)).getId();
+		pedidoService.buscarPorId(id);
+
+		statistics.clear();
+		assertEquals("AGUARDANDO_PAGAMENTO", pedidoService.buscarPorId(id).getStatus());
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		pedidoService.pagarPedido(id);
+		assertEquals("PAGO", pedidoService.buscarPorId(id).getStatus());
+		pedidoService.enviarPedido(id);
+		assertEquals("ENVIADO", pedidoService.buscarPorId(id).getStatus());
+
+		Long outro = pedidoService.criarPedido(criarCarrinho(1, 1)).getId();
+		pedidoService.buscarPorId(outro);
+		pedidoService.cancelarPedido(outro);
+		assertEquals("CANCELADO", pedidoService.buscarPorId(outro).getStatus());
+	}
+
+	/**
+	 * Leitores mantêm o pedido no cache enquanto as transições acontecem; assim que uma
+	 * transição retorna, nenhuma leitura pode devolver o status anterior.
+	 */
+	@Test
+	void buscarPorIdNaoRetornaStatusAnteriorAposTransicaoConcorrente() throws Exception {
+		int pedidos = 30;
+		AtomicBoolean parar = new AtomicBoolean();
+		AtomicReference<Long> pedidoAtual = new AtomicReference<>();
+		ExecutorService leitores = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tarefas.add(leitores.submit(() -> {
+					while (!parar.get()) {
+						Long id = pedidoAtual.get();
+						if (id != null) {
+							pedidoService.buscarPorId(id);
+						}
+					}
+					return null;
+				}));
+			}
+
+			for (int i = 0; i < pedidos; i++) {
+				Long id = pedidoService.criarPedido(criarCarrinho(1, 1)).getId();
+				pedidoAtual.set(id);
+				pedidoService.buscarPorId(id);
+
+				pedidoService.pagarPedido(id);
+				assertEquals("PAGO", pedidoService.buscarPorId(id).getStatus());
+				pedidoService.enviarPedido(id);
+				assertEquals("ENVIADO", pedidoService.buscarPorId(id).getStatus());
+			}
+
+			parar.set(true);
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			parar.set(true);
+			leitores.shutdownNow();
+		}
+	}
+
+	@Test
+	void criarPedidosEmLoteRecusaApenasOsPedidosComProblema() {
+		Produto produto = criarProduto(new BigDecimal("10.00"), 3);
+		List<CriarPedidoDTO.ItemPedidoDTO> doisItens = List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 2));
+
+		LotePedidosResponseDTO lote = pedidoService.criarPedidosEmLote(Arrays.asList(
+				new CriarPedidoDTO(cliente.getId(), "TERRESTRE", doisItens),
+				new CriarPedidoDTO(-1L, "TERRESTRE", doisItens),
+				new CriarPedidoDTO(cliente.getId(), "TERRESTRE", List.of(new CriarPedidoDTO.ItemPedidoDTO(-1L, 1))),
+				new CriarPedidoDTO(cliente.getId(), "TERRESTRE", doisItens),
+				new CriarPedidoDTO(cliente.getId(), "MARITIMO", doisItens),
+				new CriarPedidoDTO(null, "AEREO", doisItens),
+				null,
+				new CriarPedidoDTO(cliente.getId(), "AEREO", List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)))));
+
+		assertEquals(8, lote.getTotal());
+		assertEquals(2, lote.getCriados());
+		List<LotePedidosResponseDTO.ResultadoPedido> resultados = lote.getResultados();
+		assertTrue(resultados.get(0).isSucesso());
+		assertEquals("Cliente não encontrado", resultados.get(1).getErro());
+		assertEquals("Produto não encontrado: -1", resultados.get(2).getErro());
+		assertEquals("Estoque insuficiente", resultados.get(3).getErro());
+		assertTrue(resultados.get(4).getErro().startsWith("Tipo de frete não suportado"));
+		assertEquals("ID do cliente é obrigatório", resultados.get(5).getErro());
+		assertFalse(resultados.get(6).isSucesso());
+		assertTrue(resultados.get(7).isSucesso());
+		for (int i = 0; i < resultados.size(); i++) {
+			assertEquals(i, resultados.get(i).getIndice());
+		}
+
+		assertEquals(0, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+		assertEquals("PAGO", pedidoService.pagarPedido(resultados.get(0).getPedido().getId()).getStatus());
+	}
+
+	@Test
+	void criarPedidosEmLoteNaoCresceEmComandosComOTamanhoDoLote() {
+		CriarPedidoDTO carrinho = criarCarrinho(3, 1000);
+
+		contadorComandosSql.zerar();
+		assertEquals(10, pedidoService.criarPedidosEmLote(Collections.nCopies(10, carrinho)).getCriados());
+		long comandosLotePequeno = comandosSemSequencia();
+		contadorComandosSql.zerar();
+		assertEquals(200, pedidoService.criarPedidosEmLote(Collections.nCopies(200, carrinho)).getCriados());
+		long comandosLoteGrande = comandosSemSequencia();
+
+		// Reserva, baixa de estoque e outbox em um comando cada; só os lotes de insert (50 linhas) crescem
+		assertEquals(comandosLotePequeno + (200 / 50 - 1) + (200 * 3 / 50 - 1), comandosLoteGrande,
+				() -> String.join("\n", contadorComandosSql.sql()));
+	}
+
+	@Test
+	void transicionarEmLoteAplicaAsRegrasPorPedidoEDevolveOEstoque() {
+		Produto produto = criarProduto(new BigDecimal("10.00"), 10);
+		List<CriarPedidoDTO.ItemPedidoDTO> itens = List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 2));
+		Long aguardando = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens)).getId();
+		Long pago = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens)).getId();
+		Long enviado = pedidoService.criarPedido(new CriarPedidoDTO(cliente.getId(), "TERRESTRE", itens)).getId();
+		pedidoService.pagarPedido(pago);
+		pedidoService.pagarPedido(enviado);
+		pedidoService.enviarPedido(enviado);
+		assertEquals(4, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+		assertEquals("PAGO", pedidoService.buscarPorId(pago).getStatus()); // fica no cache
+
+		LoteTransicoesResponseDTO lote = pedidoService.transicionarEmLote(OperacaoPedido.CANCELAR,
+				Arrays.asList(aguardando, pago, enviado, -1L, null, pago));
+
+		assertEquals("CANCELAR", lote.getOperacao());
+		assertEquals(6, lote.getTotal());
+		assertEquals(2, lote.getTransicionados());
+		List<LoteTransicoesResponseDTO.ResultadoTransicao> resultados = lote.getResultados();
+		assertEquals("CANCELADO", resultados.get(0).getStatus());
+		assertEquals("CANCELADO", resultados.get(1).getStatus());
+		assertEquals("ENVIADO", resultados.get(2).getStatus());
+		assertEquals("Pedido já foi enviado e não pode ser cancelado", resultados.get(2).getErro());
+		assertEquals("Pedido não encontrado", resultados.get(3).getErro());
+		assertEquals("ID do pedido não informado", resultados.get(4).getErro());
+		assertEquals("Pedido repetido no lote", resultados.get(5).getErro());
+		for (int i = 0; i < resultados.size(); i++) {
+			assertEquals(i, resultados.get(i).getIndice());
+		}
+
+		assertEquals(8, produtoRepository.findById(produto.getId()).orElseThrow().getEstoque());
+		assertEquals("CANCELADO", pedidoService.buscarPorId(pago).getStatus());
+		assertEquals("CANCELADO", pedidoService.buscarPorId(aguardando).getStatus());
+		assertEquals("ENVIADO", pedidoService.buscarPorId(enviado).getStatus());
+		assertThrows(IllegalArgumentException.class, () -> pedidoService.transicionarEmLote(OperacaoPedido.PAGAR,
+				Collections.nCopies(PedidoService.TAMANHO_MAXIMO_LOTE_TRANSICOES + 1, aguardando)));
+	}
+
+	@Test
+	void transicionarEmLoteNaoPassaPeloHibernate() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		CriarPedidoDTO carrinho = criarCarrinho(2, 1000);
+		List<Long> pedidos = criarPedidos(carrinho, 500);
+		List<Long> metade = pedidos.subList(0, 250);
+
+		statistics.clear();
+		assertEquals(500, pedidoService.transicionarEmLote(OperacaoPedido.PAGAR, pedidos).getTransicionados());
+		assertEquals(250, pedidoService.transicionarEmLote(OperacaoPedido.ENVIAR, metade).getTransicionados());
+		LoteTransicoesResponseDTO cancelados = pedidoService.transicionarEmLote(OperacaoPedido.CANCELAR, pedidos);
+
+		// Consulta, update e devolução de estoque em JDBC, sem carregar entidades
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertEquals(250, cancelados.getTransicionados());
+		assertTrue(cancelados.getResultados().subList(0, 250).stream().noneMatch(LoteTransicoesResponseDTO.ResultadoTransicao::isSucesso));
+		assertEquals(750, produtoRepository.findById(carrinho.getItens().get(0).getProdutoId()).orElseThrow().getEstoque());
+		assertEquals("ENVIADO", pedidoService.buscarPorId(pedidos.get(0)).getStatus());
+		assertEquals("CANCELADO", pedidoService.buscarPorId(pedidos.get(499)).getStatus());
+	}
+
+	/**
+	 * Conta, no {@code DataSource}, os comandos SQL por pedido em função do tamanho do carrinho.
+	 * Com a busca em lote, a baixa de estoque em um lote JDBC e o batching do Hibernate, a
+	 * quantidade de comandos não deve crescer com o número de itens.
+	 */
+	@Test
+	void comandosPorPedidoNaoCrescemComTamanhoDoCarrinho() {
+		int[] tamanhosCarrinho = {1, 10, 40};
+		int repeticoes = 20;
+		long[] comandosPorPedido = new long[tamanhosCarrinho.length];
+
+		for (int i = 0; i < tamanhosCarrinho.length; i++) {
+			CriarPedidoDTO carrinho = criarCarrinho(tamanhosCarrinho[i], repeticoes);
+			pedidoService.criarPedido(carrinho); // aquecimento
+
+			contadorComandosSql.zerar();
+			for (int r = 1; r < repeticoes; r++) {
+				pedidoService.criarPedido(carrinho);
+			}
+			comandosPorPedido[i] = comandosSemSequencia() / (repeticoes - 1);
+		}
+
+		for (long comandos : comandosPorPedido) {
+			assertEquals(comandosPorPedido[0], comandos, () -> "Comandos por pedido cresceram com o carrinho: "
+					+ Arrays.toString(comandosPorPedido) + "\n" + String.join("\n", contadorComandosSql.sql()));
+		}
+	}
+
+	// A sequência dos IDs só é consultada a cada bloco alocado pelo Hibernate
+	private long comandosSemSequencia() {
+		return contadorComandosSql.sql().stream().filter(sql -> !sql.startsWith("select next value")).count();
+	}
+
+	private List<Long> criarPedidos(CriarPedidoDTO carrinho, int quantidade) {
+		return pedidoService.criarPedidosEmLote(Collections.nCopies(quantidade, carrinho)).getResultados().stream()
+				.map(resultado -> resultado.getPedido().getId())
+				.toList();
+	}
+
+	private CriarPedidoDTO criarCarrinho(int itens, int pedidos) {
+		List<CriarPedidoDTO.ItemPedidoDTO> linhas = new ArrayList<>();
+		for (int i = 0; i < itens; i++) {
+			Produto produto = criarProduto(new BigDecimal("25.00"), pedidos);
+			linhas.add(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1));
+		}
+		return new CriarPedidoDTO(cliente.getId(), "TERRESTRE", linhas);
+	}
+
+	private Produto criarProduto(BigDecimal preco, int estoque) {
+		return produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste", preco, estoque));
+	}
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.system.service;
+
+import com.ecommerce.system.domain.Cliente;
+import com.ecommerce.system.domain.Produto;
+import com.ecommerce.system.dto.CriarPedidoDTO;
+import com.ecommerce.system.dto.EventoPedidoDTO;
+import com.ecommerce.system.repository.ClienteRepository;
+import com.ecommerce.system.repository.ProdutoRepository;
+import com.ecommerce.system.state.OperacaoPedido;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O relay agendado fica desligado e o banco é exclusivo desta classe: os testes publicam
+ * o outbox com um relay próprio, sem concorrer com os relays de outros contextos.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"spring.datasource.url=jdbc:h2:mem:outbox",
+		"pedido.outbox.relay.enabled=false"
+})
+class RelayOutboxTest {
+	
+	@Autowired
+	private PedidoService pedidoService;
+	
+	@Autowired
+	private ClienteRepository clienteRepository;
+	
+	@Autowired
+	private ProdutoRepository produtoRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private CriarPedidoDTO carrinho;
+	
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM outbox_pedidos");
+		Cliente cliente = clienteRepository.save(new Cliente("Cliente Outbox", UUID.randomUUID() + "@email.com",
+				"(11) 90000-0000", "Rua Teste, 1"));
+		Produto produto = produtoRepository.save(new Produto("Produto " + UUID.randomUUID(), "Produto de teste",
+				new BigDecimal("10.00"), 1000));
+		carrinho = new CriarPedidoDTO(cliente.getId(), "TERRESTRE", List.of(new CriarPedidoDTO.ItemPedidoDTO(produto.getId(), 1)));
+	}
+	
+	@Test
+	void criacaoETransicoesGeramEventosNaOrdemEmQueAconteceram() {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+		Long outro = pedidoService.criarPedido(carrinho).getId();
+		pedidoService.pagarPedido(id);
+		pedidoService.enviarPedido(id);
+		pedidoService.transicionarEmLote(OperacaoPedido.CANCELAR, List.of(outro, id));
+		
+		DestinoEventosMemoria destino = new DestinoEventosMemoria(100);
+		assertEquals(5, relay(destino, 2).drenar());
+		
+		List<EventoPedidoDTO> eventos = destino.getEventos();
+		assertEquals(Arrays.asList(null, null, "PAGAR", "ENVIAR", "CANCELAR"), eventos.stream().map(EventoPedidoDTO::getOperacao).toList());
+		assertEquals(List.of(id, outro, id, id, outro), eventos.stream().map(EventoPedidoDTO::getPedidoId).toList());
+		assertNull(eventos.get(0).getStatusAnterior());
+		assertEquals("AGUARDANDO_PAGAMENTO", eventos.get(0).getStatusNovo());
+		assertEquals("PAGO", eventos.get(3).getStatusAnterior());
+		assertEquals("ENVIADO", eventos.get(3).getStatusNovo());
+		assertEquals("AGUARDANDO_PAGAMENTO", eventos.get(4).getStatusAnterior());
+		assertTrue(eventos.get(0).getId() < eventos.get(1).getId());
+		assertEquals(0, pendentes());
+	}
+	
+	@Test
+	void transicaoDesfeitaNaoGeraEvento() {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+		
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			pedidoService.pagarPedido(id);
+			assertEquals(2, pendentes());
+			status.setRollbackOnly();
+		});
+		
+		assertEquals(1, pendentes());
+		assertEquals("AGUARDANDO_PAGAMENTO", pedidoService.buscarPorId(id).getStatus());
+	}
+	
+	@Test
+	void loteComFalhaNaPublicacaoContinuaPendenteEEPublicadoDeNovo() {
+		Long id = pedidoService.criarPedido(carrinho).getId();
+		pedidoService.pagarPedido(id);
+		pedidoService.cancelarPedido(id);
+		
+		AtomicInteger tentativas = new AtomicInteger();
+		DestinoEventosMemoria entregues = new DestinoEventosMemoria(100);
+		SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+		RelayOutbox relay = new RelayOutbox(jdbcTemplate, eventos -> {
+			if (tentativas.incrementAndGet() == 1) {
+				throw new IllegalStateException("Destino indisponível");
+			}
+			entregues.publicar(eventos);
+		}, metricas, 10, 50);
+		
+		assertThrows(IllegalStateException.class, relay::drenar);
+		assertEquals(3, pendentes());
+		assertEquals(3, relay.drenar());
+		assertEquals(0, relay.drenar());
+		
+		assertEquals(3, entregues.getPublicados());
+		assertEquals(3.0, metricas.get("outbox.eventos.publicados").counter().count());
+		assertEquals(1.0, metricas.get("outbox.falhas").counter().count());
+		assertEquals(0.0, metricas.get("outbox.pendentes").gauge().value());
+	}
+	
+	private RelayOutbox relay(DestinoEventosPedido destino, int tamanhoLote) {
+		return new RelayOutbox(jdbcTemplate, destino, new SimpleMeterRegistry(), tamanhoLote, 50);
+	}
+	
+	private long pendentes() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_pedidos", Long.class);
+	}
+}
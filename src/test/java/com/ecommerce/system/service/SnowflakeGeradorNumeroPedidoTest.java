@@ -0,0 +1,125 @@
+package com.ecommerce.system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeGeradorNumeroPedidoTest {
+
+	private static final int THREADS = 8;
+	private static final int IDS_POR_THREAD = 500_000;
+
+	@Test
+	void milhoesDeIdsConcorrentesSemColisao() throws Exception {
+		SnowflakeGeradorNumeroPedido gerador = new SnowflakeGeradorNumeroPedido(7);
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		long[] ids = new long[THREADS * IDS_POR_THREAD];
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int inicio = t * IDS_POR_THREAD;
+				tarefas.add(executor.submit(() -> {
+					largada.await();
+					long anterior = -1;
+					for (int i = inicio; i < inicio + IDS_POR_THREAD; i++) {
+						ids[i] = gerador.proximoId();
+						assertTrue(ids[i] > anterior, "IDs de uma mesma thread devem ser crescentes");
+						anterior = ids[i];
+					}
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Arrays.sort(ids);
+		for (int i = 1; i < ids.length; i++) {
+			assertNotEquals(ids[i - 1], ids[i], "ID repetido: " + ids[i]);
+		}
+	}
+
+	@Test
+	void sequenciaEsgotadaNoMesmoMilissegundoSegueSemRepetir() throws Exception {
+		// Relógio parado: todos os IDs caem no mesmo milissegundo real e a sequência de
+		// 4096 valores estoura várias vezes, com várias threads disputando o mesmo nó
+		long instante = SnowflakeGeradorNumeroPedido.EPOCA + 1_000;
+		SnowflakeGeradorNumeroPedido gerador = new SnowflakeGeradorNumeroPedido(3, () -> instante);
+		int porThread = 5 * 4096;
+		long[] ids = new long[THREADS * porThread];
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int inicio = t * porThread;
+				tarefas.add(executor.submit(() -> {
+					largada.await();
+					for (int i = inicio; i < inicio + porThread; i++) {
+						ids[i] = gerador.proximoId();
+					}
+					return null;
+				}));
+			}
+			largada.countDown();
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Arrays.sort(ids);
+		for (int i = 1; i < ids.length; i++) {
+			assertNotEquals(ids[i - 1], ids[i], "ID repetido: " + ids[i]);
+		}
+		// Os IDs ocupam milissegundos lógicos consecutivos a partir do instante do relógio
+		assertEquals(1_000, ids[0] >>> 22);
+		assertEquals(1_000 + ids.length / 4096 - 1, ids[ids.length - 1] >>> 22);
+	}
+
+	@Test
+	void relogioAtrasadoNaoRepeteIds() {
+		long[] agora = {SnowflakeGeradorNumeroPedido.EPOCA + 5_000};
+		SnowflakeGeradorNumeroPedido gerador = new SnowflakeGeradorNumeroPedido(3, () -> agora[0]);
+		long anterior = gerador.proximoId();
+
+		agora[0] -= 2_000;
+		for (int i = 0; i < 3 * 4096; i++) {
+			long id = gerador.proximoId();
+			assertTrue(id > anterior, id + " <= " + anterior);
+			anterior = id;
+		}
+	}
+
+	@Test
+	void numerosTemTamanhoFixoEOrdemTextualDeCriacao() {
+		SnowflakeGeradorNumeroPedido gerador = new SnowflakeGeradorNumeroPedido(0);
+		String anterior = gerador.gerar();
+		for (int i = 0; i < 100_000; i++) {
+			String numero = gerador.gerar();
+			assertTrue(numero.matches("PED\\d{19}"), numero);
+			assertTrue(numero.compareTo(anterior) > 0, numero + " <= " + anterior);
+			anterior = numero;
+		}
+	}
+
+	@Test
+	void identificadorDeNoForaDoIntervaloEhRejeitado() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeGeradorNumeroPedido(1024));
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeGeradorNumeroPedido(-1));
+	}
+}
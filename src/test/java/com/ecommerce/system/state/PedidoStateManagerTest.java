@@ -0,0 +1,97 @@
+package com.ecommerce.system.state;
+
+import com.ecommerce.system.domain.Pedido;
+import com.ecommerce.system.domain.StatusPedido;
+import com.ecommerce.system.domain.StatusPedidoConverter;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.ecommerce.system.domain.StatusPedido.*;
+import static com.ecommerce.system.state.OperacaoPedido.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PedidoStateManagerTest {
+
+	// Matriz esperada: status × operação -> destino (ausente = transição recusada)
+	private static final Map<StatusPedido, Map<OperacaoPedido, StatusPedido>> ESPERADO = new EnumMap<>(StatusPedido.class);
+
+	static {
+		for (StatusPedido status : StatusPedido.values()) {
+			ESPERADO.put(status, new EnumMap<>(OperacaoPedido.class));
+		}
+		ESPERADO.get(AGUARDANDO_PAGAMENTO).put(PAGAR, PAGO);
+		ESPERADO.get(AGUARDANDO_PAGAMENTO).put(CANCELAR, CANCELADO);
+		ESPERADO.get(PAGO).put(ENVIAR, ENVIADO);
+		ESPERADO.get(PAGO).put(CANCELAR, CANCELADO);
+	}
+
+	@Test
+	void matrizCompletaDeTransicoes() {
+		for (StatusPedido status : StatusPedido.values()) {
+			for (OperacaoPedido operacao : OperacaoPedido.values()) {
+				StatusPedido esperado = ESPERADO.get(status).get(operacao);
+				String celula = status + " / " + operacao;
+				assertEquals(esperado, PedidoStateManager.destino(status, operacao), celula);
+
+				// Pela operação genérica e pelo método do estado
+				Pedido pedido = pedido(status);
+				assertEquals(esperado != null, PedidoStateManager.transicionar(pedido, operacao), celula);
+				assertEquals(esperado != null ? esperado : status, pedido.getStatus(), celula);
+
+				pedido = pedido(status);
+				assertEquals(esperado != null, metodo(operacao).test(pedido), celula);
+				assertEquals(esperado != null ? esperado : status, pedido.getStatus(), celula);
+			}
+		}
+	}
+
+	@Test
+	void umEstadoPorStatusSemCriarObjetos() {
+		Set<PedidoState> estados = new HashSet<>();
+		for (StatusPedido status : StatusPedido.values()) {
+			PedidoState estado = PedidoStateManager.getState(pedido(status));
+			assertSame(estado, PedidoStateManager.getState(pedido(status)));
+			assertEquals(status, estado.getEstado());
+			estados.add(estado);
+		}
+		assertEquals(StatusPedido.values().length, estados.size());
+
+		// O estado só aceita pedidos no seu status
+		PedidoState aguardando = PedidoStateManager.getState(pedido(AGUARDANDO_PAGAMENTO));
+		assertThrows(IllegalStateException.class, () -> aguardando.pagar(pedido(PAGO)));
+		assertThrows(IllegalStateException.class, () -> PedidoStateManager.pagar(pedido(null)));
+	}
+
+	@Test
+	void codigoDoStatusIdaEVolta() {
+		StatusPedidoConverter converter = new StatusPedidoConverter();
+		Set<Short> codigos = new HashSet<>();
+		for (StatusPedido status : StatusPedido.values()) {
+			assertTrue(codigos.add(status.getCodigo()));
+			assertSame(status, StatusPedido.doCodigo(status.getCodigo()));
+			assertSame(status, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+		}
+		assertThrows(IllegalArgumentException.class, () -> StatusPedido.doCodigo(StatusPedido.values().length));
+		assertThrows(IllegalArgumentException.class, () -> StatusPedido.doCodigo(-1));
+	}
+
+	private static Predicate<Pedido> metodo(OperacaoPedido operacao) {
+		return switch (operacao) {
+			case PAGAR -> PedidoStateManager::pagar;
+			case CANCELAR -> PedidoStateManager::cancelar;
+			case ENVIAR -> PedidoStateManager::enviar;
+		};
+	}
+
+	private static Pedido pedido(StatusPedido status) {
+		Pedido pedido = new Pedido("PED-TESTE", new BigDecimal("10.00"), null);
+		pedido.setStatus(status);
+		return pedido;
+	}
+}
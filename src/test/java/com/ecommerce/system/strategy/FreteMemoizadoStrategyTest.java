@@ -0,0 +1,96 @@
+package com.ecommerce.system.strategy;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreteMemoizadoStrategyTest {
+
+	private final Cache<FreteMemoizadoStrategy.ChaveCotacao, BigDecimal> cache = Caffeine.newBuilder()
+			.maximumSize(100)
+			.recordStats()
+			.executor(Runnable::run)
+			.build();
+
+	@Test
+	void mesmaRegiaoEFaixaDePesoCompartilhamACotacao() {
+		FreteTabelaStrategy tabela = FreteTabelaStrategy.compilar(regras());
+		FreteMemoizadoStrategy memoizada = new FreteMemoizadoStrategy(tabela, cache);
+
+		BigDecimal primeira = memoizada.calcularFrete(new BigDecimal("100.00"), "01000-000", 100);
+		// Outro CEP da mesma região, outro peso da mesma faixa e o mesmo valor com outra escala
+		BigDecimal segunda = memoizada.calcularFrete(new BigDecimal("100.0"), "05999-999", 1000);
+		assertSame(primeira, segunda);
+		assertEquals(1, cache.stats().hitCount());
+
+		// Outra faixa de peso e outra região
+		assertEquals(tabela.calcularFrete(new BigDecimal("100.00"), "01000-000", 1001),
+				memoizada.calcularFrete(new BigDecimal("100.00"), "01000-000", 1001));
+		assertEquals(tabela.calcularFrete(new BigDecimal("100.00"), "80000-000", 100),
+				memoizada.calcularFrete(new BigDecimal("100.00"), "80000-000", 100));
+		// Excedente acima da última faixa conta por kg
+		assertEquals(tabela.calcularFrete(new BigDecimal("100.00"), null, 7001),
+				memoizada.calcularFrete(new BigDecimal("100.00"), null, 7001));
+		assertEquals(tabela.calcularFrete(new BigDecimal("100.00"), null, 8001),
+				memoizada.calcularFrete(new BigDecimal("100.00"), null, 8001));
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(5, cache.estimatedSize());
+	}
+
+	@Test
+	void valoresForaDosCentavosEInvalidosNaoPassamPeloCache() {
+		FreteMemoizadoStrategy memoizada = new FreteMemoizadoStrategy(FreteTabelaStrategy.compilar(regras()), cache);
+
+		assertEquals(new BigDecimal("0.50"), memoizada.calcularFrete(new BigDecimal("10.005")));
+		assertThrows(IllegalArgumentException.class, () -> memoizada.calcularFrete(BigDecimal.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> memoizada.calcularFrete(BigDecimal.TEN, "123", 0));
+		assertEquals(0, cache.stats().requestCount());
+	}
+
+	@Test
+	void recargaDasTabelasEsvaziaOCache() {
+		RegistroFrete registro = new RegistroFrete(new DefaultResourceLoader(),
+				new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class), List.of(), 100);
+		FreteStrategy antes = registro.buscar("TERRESTRE");
+		assertInstanceOf(FreteMemoizadoStrategy.class, antes);
+		antes.calcularFrete(new BigDecimal("321.00"), "01310-100", 2000);
+		assertTrue(registro.getCacheCotacoes().estimatedSize() > 0);
+
+		registro.recarregar();
+
+		assertEquals(0, registro.getCacheCotacoes().estimatedSize());
+		FreteStrategy depois = registro.buscar("TERRESTRE");
+		assertNotSame(antes, depois);
+		assertEquals(antes.calcularFrete(new BigDecimal("321.00"), "01310-100", 2000),
+				depois.calcularFrete(new BigDecimal("321.00"), "01310-100", 2000));
+		// A estratégia anterior e a nova não compartilham a entrada
+		assertEquals(2, registro.getCacheCotacoes().estimatedSize());
+	}
+
+	private static RegrasFrete regras() {
+		RegrasFrete regras = new RegrasFrete();
+		regras.setTipo("TESTE");
+		regras.setRegiaoPadrao("PADRAO");
+		regras.setRegioes(List.of(new RegrasFrete.Regiao("SP", "01000-000", "05999-999"),
+				new RegrasFrete.Regiao("SUL", "80000-000", "99999-999")));
+		regras.setFaixasPesoGramas(List.of(1000, 5000));
+		Map<String, List<String>> tarifas = new LinkedHashMap<>();
+		tarifas.put("PADRAO", List.of("0.00", "1.00"));
+		tarifas.put("SP", List.of("8.00", "12.00"));
+		tarifas.put("SUL", List.of("10.00", "20.00"));
+		regras.setTarifas(tarifas);
+		regras.setAdicionalPorKgExcedente("4.00");
+		regras.setFaixasValor(List.of(new RegrasFrete.FaixaValor("0", "0.05")));
+		return regras;
+	}
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.system.strategy;
+
+import com.ecommerce.system.factory.RegistroFrete;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabelaFreteTest {
+
+	@Test
+	void combinaRegiaoPesoEFaixaDeValor() {
+		TabelaFrete tabela = TabelaFrete.compilar(regras());
+
+		// Sem CEP: só o percentual da faixa de valor
+		assertEquals(new BigDecimal("5.00"), tabela.calcular(new BigDecimal("100.00"), TabelaFrete.CEP_NAO_INFORMADO, 0));
+		// Região SUL, faixa de até 1 kg
+		assertEquals(new BigDecimal("15.00"), tabela.calcular(new BigDecimal("100.00"), TabelaFrete.cepNumerico("90010-000"), 1000));
+		// Região SUL, faixa de até 5 kg, e faixa de valor a partir de 1000
+		assertEquals(new BigDecimal("50.00"), tabela.calcular(new BigDecimal("1000.00"), TabelaFrete.cepNumerico("90010000"), 1001));
+		// CEP fora das regiões usa a região padrão
+		assertEquals(new BigDecimal("5.00"), tabela.calcular(new BigDecimal("100.00"), TabelaFrete.cepNumerico("50000-000"), 1000));
+		// 2,5 kg acima da última faixa: 3 kg excedentes
+		assertEquals(new BigDecimal("29.00"), tabela.calcular(new BigDecimal("100.00"), TabelaFrete.cepNumerico("01000-000"), 7500));
+	}
+
+	@Test
+	void arredondaComoOCalculoDecimal() {
+		TabelaFrete tabela = TabelaFrete.compilar(regras());
+		for (String valor : List.of("0.01", "0.09", "0.10", "12.34", "999.99", "10.005", "7", "123456789012345678.99")) {
+			BigDecimal valorPedido = new BigDecimal(valor);
+			BigDecimal percentual = valorPedido.compareTo(new BigDecimal("1000")) >= 0 ? new BigDecimal("0.03") : new BigDecimal("0.05");
+			assertEquals(valorPedido.multiply(percentual).setScale(2, RoundingMode.HALF_UP),
+					tabela.calcular(valorPedido, TabelaFrete.CEP_NAO_INFORMADO, 0), valor);
+		}
+	}
+
+	@Test
+	void rejeitaRegrasInconsistentes() {
+		RegrasFrete sobrepostas = regras();
+		sobrepostas.setRegioes(List.of(new RegrasFrete.Regiao("SUL", "80000-000", "99999-999"),
+				new RegrasFrete.Regiao("SP", "90000-000", "90999-999")));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.compilar(sobrepostas));
+
+		RegrasFrete semTarifa = regras();
+		semTarifa.getTarifas().put("SUL", List.of("10.00"));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.compilar(semTarifa));
+
+		RegrasFrete faixasForaDeOrdem = regras();
+		faixasForaDeOrdem.setFaixasValor(List.of(new RegrasFrete.FaixaValor("0", "0.05"),
+				new RegrasFrete.FaixaValor("0", "0.03")));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.compilar(faixasForaDeOrdem));
+	}
+
+	@Test
+	void validaCep() {
+		assertEquals(1310100, TabelaFrete.cepNumerico("01310-100"));
+		assertEquals(TabelaFrete.CEP_NAO_INFORMADO, TabelaFrete.cepNumerico(" "));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.cepNumerico("0131-0100"));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.cepNumerico("1310100"));
+		assertThrows(IllegalArgumentException.class, () -> TabelaFrete.cepNumerico("01310-10a"));
+	}
+
+	@Test
+	void tabelasEmbutidasCobramSoOPercentualEAsDeExemploSomamATarifa() {
+		RegistroFrete registro = new RegistroFrete(new DefaultResourceLoader(),
+				new StaticListableBeanFactory().getBeanProvider(FreteStrategy.class),
+				List.of("classpath:frete/exemplo-transportadoras.json"), 0);
+		for (String tipo : List.of("TERRESTRE", "AEREO")) {
+			FreteStrategy strategy = registro.buscar(tipo);
+			assertEquals(strategy.calcularFrete(new BigDecimal("150.00")),
+					strategy.calcularFrete(new BigDecimal("150.00"), "69900-000", 12000));
+		}
+		for (String tipo : List.of("TERRESTRE_REGIONAL", "AEREO_REGIONAL")) {
+			FreteStrategy strategy = registro.buscar(tipo);
+			assertSame(strategy, registro.buscar(tipo.toLowerCase()));
+			assertEquals(strategy.calcularFrete(new BigDecimal("150.00")),
+					strategy.calcularFrete(new BigDecimal("150.00"), null, 0));
+			assertTrue(strategy.calcularFrete(new BigDecimal("150.00"), "69900-000", 12000)
+					.compareTo(strategy.calcularFrete(new BigDecimal("150.00"), "01310-100", 500)) > 0);
+		}
+	}
+
+	private static RegrasFrete regras() {
+		RegrasFrete regras = new RegrasFrete();
+		regras.setTipo("TESTE");
+		regras.setRegiaoPadrao("PADRAO");
+		regras.setRegioes(List.of(new RegrasFrete.Regiao("SP", "01000-000", "05999-999"),
+				new RegrasFrete.Regiao("SUL", "80000-000", "99999-999")));
+		regras.setFaixasPesoGramas(List.of(1000, 5000));
+		Map<String, List<String>> tarifas = new LinkedHashMap<>();
+		tarifas.put("PADRAO", List.of("0.00", "0.00"));
+		tarifas.put("SP", List.of("8.00", "12.00"));
+		tarifas.put("SUL", List.of("10.00", "20.00"));
+		regras.setTarifas(tarifas);
+		regras.setAdicionalPorKgExcedente("4.00");
+		regras.setFaixasValor(List.of(new RegrasFrete.FaixaValor("0", "0.05"),
+				new RegrasFrete.FaixaValor("1000", "0.03")));
+		return regras;
+	}
+}